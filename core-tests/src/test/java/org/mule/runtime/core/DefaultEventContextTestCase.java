@@ -480,6 +480,50 @@ public class DefaultEventContextTestCase extends AbstractMuleContextTestCase {
     assertCompletionDone(parent);
   }
 
+  @Test
+  @Description("Publishers obtained once the EventContext has already completed replay the response and completion.")
+  public void publishersRequestedAfterCompletion() throws Exception {
+    EventContext parent = create(getTestFlow(muleContext), TEST_CONNECTOR_LOCATION);
+
+    Event event = testEvent();
+    parent.success(event);
+
+    awaitAndAssertResponse(parent, event);
+    assertThat(from(parent.getBeforeResponsePublisher()).block(ofMillis(BLOCK_TIMEOUT)), equalTo(event));
+    assertCompletionDone(parent);
+  }
+
+  @Test
+  @Description("Only the first response of an EventContext is taken into account.")
+  public void secondResponseIgnored() throws Exception {
+    EventContext parent = create(getTestFlow(muleContext), TEST_CONNECTOR_LOCATION);
+
+    Event event = testEvent();
+    parent.success(event);
+    parent.error(new RuntimeException());
+
+    awaitAndAssertResponse(parent, event);
+    assertCompletionDone(parent);
+  }
+
+  @Test
+  @Description("Parent EventContext waits for completion of a child context that is created after the parent response.")
+  public void childCreatedAfterResponse() throws Exception {
+    MonoProcessor<Void> externalCompletion = MonoProcessor.create();
+    EventContext parent = create(getTestFlow(muleContext), TEST_CONNECTOR_LOCATION, null, externalCompletion);
+
+    parent.success();
+    EventContext child = DefaultEventContext.child(parent);
+    externalCompletion.onComplete();
+
+    assertCompletionNotDone(parent);
+
+    child.success();
+
+    assertCompletionDone(child);
+    assertCompletionDone(parent);
+  }
+
   @Test
   @Description("When a child event context is de-serialized it is decoupled from parent context but response and completion " +
       "publisher still complete when a response event is available.")
@@ -18,6 +18,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CLUSTER_CONFIGURATION;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONVERTER_RESOLVER;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_ID_GENERATOR;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_MULE_STREAM_CLOSER_SERVICE;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_POLLING_CONTROLLER;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -33,6 +34,7 @@ import org.mule.runtime.core.api.connector.SchedulerController;
 import org.mule.runtime.core.api.context.MuleContextFactory;
 import org.mule.runtime.core.api.exception.SystemExceptionHandler;
 import org.mule.runtime.core.api.transformer.DataTypeConversionResolver;
+import org.mule.runtime.core.api.util.IdGenerator;
 import org.mule.runtime.core.api.util.StreamCloserService;
 import org.mule.runtime.core.config.ClusterConfiguration;
 import org.mule.runtime.core.config.builders.DefaultsConfigurationBuilder;
@@ -165,6 +167,14 @@ public class DefaultMuleContextTestCase extends AbstractMuleTestCase {
     assertThat(context.getClusterNodeId(), is(clusterNodeId));
   }
 
+  @Test
+  public void overriddenIdGenerator() throws Exception {
+    createMuleContext();
+    context.getRegistry().registerObject(OBJECT_ID_GENERATOR, (IdGenerator) () -> "custom-id");
+    context.start();
+    assertThat(context.getUniqueIdString(), is("0-custom-id"));
+  }
+
   @Test
   public void defaultMulePollingController() throws Exception {
     createMuleContext();
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.context.notification;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.scheduler.SchedulerConfig.config;
+import static org.mule.runtime.core.context.notification.ServerNotificationManager.BATCH_DISPATCH_BUFFER_SIZE_PROPERTY;
+import static org.mule.runtime.core.context.notification.ServerNotificationManager.BATCH_DISPATCH_CONSUMERS_PROPERTY;
+import static org.mule.runtime.core.context.notification.ServerNotificationManager.BATCH_DISPATCH_OVERFLOW_POLICY_PROPERTY;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.notification.ServerNotification;
+import org.mule.runtime.core.context.notification.BatchingNotificationDispatcher.OverflowPolicy;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class BatchingNotificationDispatcherTestCase extends AbstractMuleTestCase {
+
+  private static final int PROBE_TIMEOUT = 5000;
+  private static final int PROBE_DELAY = 20;
+
+  @Rule
+  public SystemProperty invalidOverflowPolicy = new SystemProperty(BATCH_DISPATCH_OVERFLOW_POLICY_PROPERTY, "unknown");
+
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private MuleContext muleContext;
+  private BatchingNotificationDispatcher dispatcher;
+  private final List<ServerNotification> delivered = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    muleContext = mock(MuleContext.class);
+    when(muleContext.getSchedulerService()).thenReturn(schedulerService);
+    when(muleContext.getSchedulerBaseConfig())
+        .thenReturn(config().withPrefix(BatchingNotificationDispatcherTestCase.class.getName() + "#" + name.getMethodName()));
+  }
+
+  @After
+  public void after() throws MuleException {
+    if (dispatcher != null) {
+      dispatcher.stop();
+    }
+    schedulerService.stop();
+  }
+
+  private BatchingNotificationDispatcher createDispatcher(int bufferSize, OverflowPolicy overflowPolicy, int sampleRate,
+                                                         Consumer<ServerNotification> callback) {
+    dispatcher = new BatchingNotificationDispatcher(schedulerService.customScheduler(config().withMaxConcurrentTasks(1)), 1,
+                                                    bufferSize, 4, overflowPolicy, sampleRate, callback);
+    return dispatcher;
+  }
+
+  @Test
+  public void deliversInOrder() {
+    createDispatcher(16, OverflowPolicy.DROP, 1, delivered::add).start();
+
+    Event1[] notifications = new Event1[10];
+    for (int i = 0; i < notifications.length; i++) {
+      notifications[i] = new Event1("" + i);
+      assertThat(dispatcher.dispatch(notifications[i]), is(true));
+    }
+
+    new PollingProber(PROBE_TIMEOUT, PROBE_DELAY).check(new JUnitLambdaProbe(() -> {
+      assertThat(delivered, contains(notifications));
+      return true;
+    }));
+    assertThat(dispatcher.getDispatchedCount(), is(10L));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+    assertThat(dispatcher.getBacklog(), is(0));
+  }
+
+  @Test
+  public void idleConsumerIsWokenUp() throws InterruptedException {
+    createDispatcher(16, OverflowPolicy.DROP, 1, delivered::add).start();
+
+    dispatcher.dispatch(new Event1());
+    new PollingProber(PROBE_TIMEOUT, PROBE_DELAY).check(new JUnitLambdaProbe(() -> delivered.size() == 1));
+
+    // Give the consumer time to go idle
+    Thread.sleep(100);
+
+    dispatcher.dispatch(new Event1());
+    new PollingProber(PROBE_TIMEOUT, PROBE_DELAY).check(new JUnitLambdaProbe(() -> delivered.size() == 2));
+  }
+
+  @Test
+  public void dropWhenFull() {
+    // Not started, so nothing is taken from the buffer
+    createDispatcher(4, OverflowPolicy.DROP, 1, delivered::add);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(dispatcher.dispatch(new Event1()), is(true));
+    }
+    assertThat(dispatcher.dispatch(new Event1()), is(false));
+    assertThat(dispatcher.dispatch(new Event1()), is(false));
+
+    assertThat(dispatcher.getDroppedCount(), is(2L));
+    assertThat(dispatcher.getBacklog(), is(4));
+  }
+
+  @Test
+  public void sampleOnceHalfFull() {
+    // Not started, so nothing is taken from the buffer
+    createDispatcher(8, OverflowPolicy.SAMPLE, 2, delivered::add);
+
+    for (int i = 0; i < 4; i++) {
+      assertThat(dispatcher.dispatch(new Event1()), is(true));
+    }
+    for (int i = 0; i < 4; i++) {
+      assertThat(dispatcher.dispatch(new Event1()), is(false));
+      assertThat(dispatcher.dispatch(new Event1()), is(true));
+    }
+    assertThat(dispatcher.getBacklog(), is(8));
+
+    // Sampled in, but the buffer is full
+    assertThat(dispatcher.dispatch(new Event1()), is(false));
+    assertThat(dispatcher.dispatch(new Event1()), is(false));
+
+    assertThat(dispatcher.getDroppedCount(), is(6L));
+  }
+
+  @Test
+  public void blockWhenFull() throws Exception {
+    CountDownLatch consuming = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    createDispatcher(1, OverflowPolicy.BLOCK, 1, notification -> {
+      consuming.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      delivered.add(notification);
+    }).start();
+
+    dispatcher.dispatch(new Event1("1"));
+    assertThat(consuming.await(PROBE_TIMEOUT, MILLISECONDS), is(true));
+    assertThat(dispatcher.dispatch(new Event1("2")), is(true));
+
+    ExecutorService producer = newSingleThreadExecutor();
+    try {
+      Future<Boolean> blocked = producer.submit(() -> dispatcher.dispatch(new Event1("3")));
+      try {
+        blocked.get(100, MILLISECONDS);
+        throw new AssertionError("Dispatch should have waited for room in the buffer");
+      } catch (TimeoutException e) {
+        // expected
+      }
+
+      release.countDown();
+      assertThat(blocked.get(PROBE_TIMEOUT, MILLISECONDS), is(true));
+    } finally {
+      producer.shutdownNow();
+    }
+
+    new PollingProber(PROBE_TIMEOUT, PROBE_DELAY).check(new JUnitLambdaProbe(() -> delivered.size() == 3));
+    assertThat(dispatcher.getDroppedCount(), is(0L));
+  }
+
+  @Test
+  public void dropAfterStop() {
+    createDispatcher(4, OverflowPolicy.BLOCK, 1, delivered::add).start();
+    dispatcher.stop();
+
+    assertThat(dispatcher.dispatch(new Event1()), is(false));
+    assertThat(dispatcher.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void managerDispatchesThroughBatchingDispatcher() throws Exception {
+    ServerNotificationManager manager = new ServerNotificationManager();
+    manager.setMuleContext(muleContext);
+    manager.setBatchDispatch(true);
+    manager.initialise();
+    try {
+      dispatcher = manager.getBatchingDispatcher();
+      assertThat(dispatcher, is(notNullValue()));
+      // The overflow policy system property has an invalid value, so the default is used
+      assertThat(dispatcher.getOverflowPolicy(), is(OverflowPolicy.DROP));
+
+      Listener1 listener = new Listener1();
+      manager.addInterfaceToType(Listener1.class, Event1.class);
+      manager.addListener(listener);
+
+      manager.fireNotification(new Event1());
+
+      new PollingProber(PROBE_TIMEOUT, PROBE_DELAY).check(new JUnitLambdaProbe(() -> listener.isNotified()));
+      assertThat(dispatcher.getDispatchedCount(), is(1L));
+    } finally {
+      manager.dispose();
+      dispatcher = null;
+    }
+  }
+
+  @Test
+  public void explicitOverflowPolicyIsKept() throws Exception {
+    ServerNotificationManager manager = new ServerNotificationManager();
+    manager.setMuleContext(muleContext);
+    manager.setBatchDispatch(true);
+    manager.setOverflowPolicy(OverflowPolicy.BLOCK);
+    manager.initialise();
+    try {
+      assertThat(manager.getBatchingDispatcher().getOverflowPolicy(), is(OverflowPolicy.BLOCK));
+    } finally {
+      manager.dispose();
+    }
+  }
+
+  @Test
+  public void disposeWhileBlockedOnFullBuffer() throws Exception {
+    CountDownLatch consuming = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    System.setProperty(BATCH_DISPATCH_BUFFER_SIZE_PROPERTY, "1");
+    System.setProperty(BATCH_DISPATCH_CONSUMERS_PROPERTY, "1");
+    ServerNotificationManager manager;
+    try {
+      manager = new ServerNotificationManager();
+    } finally {
+      System.clearProperty(BATCH_DISPATCH_BUFFER_SIZE_PROPERTY);
+      System.clearProperty(BATCH_DISPATCH_CONSUMERS_PROPERTY);
+    }
+    manager.setMuleContext(muleContext);
+    manager.setBatchDispatch(true);
+    manager.setOverflowPolicy(OverflowPolicy.BLOCK);
+    manager.initialise();
+
+    manager.addInterfaceToType(Listener1.class, Event1.class);
+    manager.addListener(new Listener1() {
+
+      @Override
+      public boolean isBlocking() {
+        // Delivered in the consumer thread, so that it holds up the consumer
+        return false;
+      }
+
+      @Override
+      public void onNotification(ServerNotification notification) {
+        consuming.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    ExecutorService producer = newSingleThreadExecutor();
+    ExecutorService disposer = newSingleThreadExecutor();
+    try {
+      manager.fireNotification(new Event1("1"));
+      assertThat(consuming.await(PROBE_TIMEOUT, MILLISECONDS), is(true));
+      manager.fireNotification(new Event1("2"));
+
+      Future<?> blocked = producer.submit(() -> manager.fireNotification(new Event1("3")));
+      try {
+        blocked.get(100, MILLISECONDS);
+        throw new AssertionError("Firing the notification should have waited for room in the buffer");
+      } catch (TimeoutException e) {
+        // expected
+      }
+
+      // Must not wait for the blocked producer
+      disposer.submit(manager::dispose).get(PROBE_TIMEOUT, MILLISECONDS);
+      blocked.get(PROBE_TIMEOUT, MILLISECONDS);
+    } finally {
+      release.countDown();
+      producer.shutdownNow();
+      disposer.shutdownNow();
+    }
+  }
+}
@@ -122,6 +122,25 @@ public class NotificationManagerTestCase extends AbstractMuleTestCase {
     assertNotSame(policy, manager.getPolicy());
   }
 
+  @Test
+  public void testEnablementRevisitedWhenListenersChange() throws ClassNotFoundException {
+    registerDefaultEvents();
+    assertNoEventsEnabled();
+    registerDefaultListeners();
+    assertStandardEventsEnabled();
+    manager.removeListener(listener1);
+    manager.removeListener(listener2);
+    assertNoEventsEnabled();
+  }
+
+  @Test
+  public void testNotificationNotFiredWhenNotEnabled() throws ClassNotFoundException {
+    registerDefaultEvents();
+    registerDefaultListeners();
+    manager.fireNotification(new Event3());
+    assertNoListenersNotified();
+  }
+
   @Test
   public void testDynamicManagerDecisions() throws ClassNotFoundException {
     registerDefaultEvents();
@@ -9,6 +9,7 @@ package org.mule.runtime.core.el;
 import static java.util.Arrays.asList;
 import static java.util.Optional.of;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
@@ -219,6 +220,25 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
     assertThat(expressionManager.parse(expression, testEvent(), mock(FlowConstruct.class)), is(expression));
   }
 
+  @Test
+  @Description("Verifies that templates with several expressions are resolved once parsed, and parsed only once.")
+  public void parseTemplateCached() throws MuleException {
+    String expression = "#[mel:'$a\\\\b'] is #[mel:payload], #[mel:payload] and #[mel:null]";
+    String expected = String.format("$a\\b is %s, %s and null", TEST_PAYLOAD, TEST_PAYLOAD);
+    assertThat(expressionManager.parse(expression, testEvent(), mock(FlowConstruct.class)), is(expected));
+    assertThat(expressionManager.parse(expression, testEvent(), mock(FlowConstruct.class)), is(expected));
+
+    DefaultExpressionManager defaultExpressionManager = (DefaultExpressionManager) expressionManager;
+    ExpressionCacheStatistics templateStatistics = defaultExpressionManager.getTemplateCacheStatistics();
+    assertThat(templateStatistics.getMissCount(), is(1L));
+    assertThat(templateStatistics.getHitCount(), is(1L));
+    assertThat(templateStatistics.getEvictionCount(), is(0L));
+
+    ExpressionCacheStatistics languageStatistics = defaultExpressionManager.getLanguageCacheStatistics();
+    assertThat(languageStatistics.getHitCount(), greaterThan(0L));
+    assertThat(languageStatistics.getEvictionCount(), is(0L));
+  }
+
   @Test
   public void isValid() {
     String expression = "2*2";
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.core.internal.connection.ConcurrentConnectionPool.PooledConnection;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private ConnectionProvider<Object> connectionProvider;
+
+  @Before
+  public void before() throws Exception {
+    connectionProvider = mock(ConnectionProvider.class);
+    when(connectionProvider.connect()).thenAnswer(i -> new Object());
+  }
+
+  @Test
+  public void reuseReleasedConnection() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL, 0);
+
+    PooledConnection<Object> connection = pool.borrow();
+    pool.release(connection);
+
+    assertThat(pool.borrow(), is(sameInstance(connection)));
+    verify(connectionProvider, times(1)).connect();
+  }
+
+  @Test
+  public void concurrentBorrowsGetDifferentConnections() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL, 0);
+
+    assertThat(pool.borrow().getConnection(), is(not(sameInstance(pool.borrow().getConnection()))));
+    assertThat(pool.getStatistics().getActiveCount(), is(2));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void failWhenExhausted() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL, 0);
+
+    pool.borrow();
+    pool.borrow();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void timeoutWaitingWhenExhausted() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_WAIT, 50);
+
+    pool.borrow();
+    pool.borrow();
+  }
+
+  @Test
+  public void growWhenExhausted() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_GROW, 0);
+
+    pool.borrow();
+    pool.borrow();
+
+    assertThat(pool.getStatistics().getActiveCount(), is(2));
+  }
+
+  @Test
+  public void waiterGetsReleasedConnection() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_WAIT, 0);
+    PooledConnection<Object> connection = pool.borrow();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CountDownLatch borrowing = new CountDownLatch(1);
+      Future<PooledConnection<Object>> waiter = executor.submit(() -> {
+        borrowing.countDown();
+        return pool.borrow();
+      });
+
+      borrowing.await();
+      pool.release(connection);
+
+      assertThat(waiter.get(5, SECONDS), is(sameInstance(connection)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void destroyOverMaxIdle() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(2, 1, WHEN_EXHAUSTED_FAIL, 0);
+
+    PooledConnection<Object> connection1 = pool.borrow();
+    PooledConnection<Object> connection2 = pool.borrow();
+    pool.release(connection1);
+    pool.release(connection2);
+
+    verify(connectionProvider).disconnect(connection2.getConnection());
+    assertThat(pool.getStatistics().getIdleCount(), is(1));
+  }
+
+  @Test
+  public void invalidate() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL, 0);
+
+    PooledConnection<Object> connection = pool.borrow();
+    pool.invalidate(connection);
+
+    verify(connectionProvider).disconnect(connection.getConnection());
+    assertThat(pool.borrow(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void close() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL, 0);
+
+    PooledConnection<Object> idle = pool.borrow();
+    PooledConnection<Object> active = pool.borrow();
+    pool.release(idle);
+    pool.close();
+
+    verify(connectionProvider).disconnect(idle.getConnection());
+    verify(connectionProvider, never()).disconnect(active.getConnection());
+
+    pool.release(active);
+    verify(connectionProvider).disconnect(active.getConnection());
+  }
+
+  @Test
+  public void statistics() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(2, 2, WHEN_EXHAUSTED_FAIL, 0);
+
+    pool.release(pool.borrow());
+    pool.borrow();
+
+    ConnectionPoolStatistics statistics = pool.getStatistics();
+    assertThat(statistics.getActiveCount(), is(1));
+    assertThat(statistics.getIdleCount(), is(0));
+    assertThat(statistics.getBorrowCount(), is(2L));
+    assertThat(statistics.getCreationCount(), is(1L));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void borrowFromClosedPool() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL, 0);
+    pool.close();
+    pool.borrow();
+  }
+
+  @Test
+  public void failedCreationReleasesPermit() throws Exception {
+    ConcurrentConnectionPool<Object> pool = createPool(1, 1, WHEN_EXHAUSTED_FAIL, 0);
+    when(connectionProvider.connect()).thenThrow(new RuntimeException()).thenAnswer(i -> new Object());
+
+    try {
+      pool.borrow();
+    } catch (RuntimeException e) {
+      // expected
+    }
+
+    pool.borrow();
+    verify(connectionProvider, never()).disconnect(any());
+  }
+
+  @Test
+  public void evictIdleConnectionsWithoutTraffic() throws Exception {
+    PoolingProfile poolingProfile = mock(PoolingProfile.class);
+    when(poolingProfile.getMaxActive()).thenReturn(1);
+    when(poolingProfile.getMaxIdle()).thenReturn(1);
+    when(poolingProfile.getExhaustedAction()).thenReturn(WHEN_EXHAUSTED_FAIL);
+    when(poolingProfile.getMinEvictionMillis()).thenReturn(10);
+    when(poolingProfile.getEvictionCheckIntervalMillis()).thenReturn(20);
+
+    SimpleUnitTestSupportSchedulerService schedulerService = new SimpleUnitTestSupportSchedulerService();
+    ConcurrentConnectionPool<Object> pool =
+        new ConcurrentConnectionPool<>(connectionProvider, poolingProfile, schedulerService, 0);
+    try {
+      PooledConnection<Object> connection = pool.borrow();
+      pool.release(connection);
+
+      new PollingProber(5000, 20).check(new JUnitLambdaProbe(() -> pool.getStatistics().getIdleCount() == 0));
+      verify(connectionProvider).disconnect(connection.getConnection());
+    } finally {
+      pool.close();
+      schedulerService.stop();
+    }
+  }
+
+  private ConcurrentConnectionPool<Object> createPool(int maxActive, int maxIdle, int exhaustedAction, long maxWait) {
+    return new ConcurrentConnectionPool<>(connectionProvider,
+                                          new PoolingProfile(maxActive, maxIdle, maxWait, exhaustedAction, INITIALISE_NONE),
+                                          null);
+  }
+}
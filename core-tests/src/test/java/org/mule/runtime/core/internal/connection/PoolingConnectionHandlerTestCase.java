@@ -13,10 +13,10 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.core.internal.connection.ConcurrentConnectionPool.PooledConnection;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
-import org.apache.commons.pool.ObjectPool;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,7 +28,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
 
   @Mock
-  private ObjectPool<Object> pool;
+  private ConcurrentConnectionPool<Object> pool;
 
   @Mock
   private Object config;
@@ -39,11 +39,13 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Mock
   private PoolingListener<Object> poolingListener;
 
+  private PooledConnection<Object> pooledConnection;
   private PoolingConnectionHandler<Object> managedConnection;
 
   @Before
   public void before() {
-    managedConnection = new PoolingConnectionHandler<>(connection, pool, poolingListener);
+    pooledConnection = new PooledConnection<>(connection);
+    managedConnection = new PoolingConnectionHandler<>(pooledConnection, pool, poolingListener);
   }
 
   @Test
@@ -54,13 +56,13 @@ public class PoolingConnectionHandlerTestCase extends AbstractMuleTestCase {
   @Test
   public void release() throws Exception {
     managedConnection.release();
-    verify(pool).returnObject(connection);
+    verify(pool).release(pooledConnection);
     verify(poolingListener).onReturn(connection);
   }
 
   @Test
   public void close() throws Exception {
     managedConnection.close();
-    verify(pool, never()).returnObject(anyObject());
+    verify(pool, never()).release(anyObject());
   }
 }
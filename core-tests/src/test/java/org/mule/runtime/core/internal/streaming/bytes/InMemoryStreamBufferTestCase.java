@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import ru.yandex.qatools.allure.annotations.Features;
+
+@RunWith(Parameterized.class)
+@SmallTest
+@Features(STREAMING)
+public class InMemoryStreamBufferTestCase extends AbstractByteStreamingTestCase {
+
+  private static final int CHUNK_SIZE = 16;
+
+  /**
+   * Smaller than the chunk size and not a divisor of it, so that the chunks are filled by several partial reads
+   */
+  private static final int TRICKLE_SIZE = 7;
+
+  @Parameterized.Parameters(name = "{0} bytes")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][] {
+        {CHUNK_SIZE - 1},
+        {CHUNK_SIZE},
+        {CHUNK_SIZE + 1},
+        {2 * CHUNK_SIZE - 1},
+        {2 * CHUNK_SIZE},
+        {2 * CHUNK_SIZE + 1},
+        {4 * CHUNK_SIZE},
+        {4 * CHUNK_SIZE + 1},
+    });
+  }
+
+  private final byte[] bytes;
+  private final ByteBufferManager bufferManager = new PoolingByteBufferManager();
+  private CursorStreamProvider streamProvider;
+
+  public InMemoryStreamBufferTestCase(int dataSize) {
+    super(dataSize);
+    bytes = data.getBytes();
+  }
+
+  @After
+  public void after() {
+    if (streamProvider != null) {
+      streamProvider.close();
+      streamProvider.releaseResources();
+    }
+  }
+
+  @Test
+  public void readFullyAcrossChunks() throws IOException {
+    try (CursorStream cursor = openCursor(new ByteArrayInputStream(bytes))) {
+      assertThat(readFully(cursor, bytes.length + 1), equalTo(bytes));
+    }
+  }
+
+  @Test
+  public void readByteByByteAcrossChunks() throws IOException {
+    try (CursorStream cursor = openCursor(new ByteArrayInputStream(bytes))) {
+      for (byte b : bytes) {
+        assertThat(cursor.read(), is(b & 0xFF));
+      }
+      assertThat(cursor.read(), is(-1));
+    }
+  }
+
+  @Test
+  public void readWhatWasWrittenInPartialChunks() throws IOException {
+    try (CursorStream cursor = openCursor(new TricklingInputStream(bytes))) {
+      assertThat(readFully(cursor, TRICKLE_SIZE + 2), equalTo(bytes));
+    }
+  }
+
+  @Test
+  public void readAroundChunkBoundaries() throws IOException {
+    try (CursorStream cursor = openCursor(new ByteArrayInputStream(bytes))) {
+      // fill the buffer first, so that the reads below only come from the chunks
+      readFully(cursor, bytes.length + 1);
+
+      for (int boundary = CHUNK_SIZE; boundary < bytes.length; boundary += CHUNK_SIZE) {
+        for (int position = boundary - 1; position <= boundary + 1 && position < bytes.length; position++) {
+          cursor.seek(position);
+          int length = min(CHUNK_SIZE + 1, bytes.length - position);
+          byte[] dest = new byte[length];
+          assertThat(cursor.read(dest, 0, length), is(length));
+          assertThat(dest, equalTo(Arrays.copyOfRange(bytes, position, position + length)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void secondCursorReadsWhatTheFirstOneBuffered() throws IOException {
+    try (CursorStream first = openCursor(new TricklingInputStream(bytes));
+        CursorStream second = streamProvider.openCursor()) {
+      assertThat(readFully(first, CHUNK_SIZE), equalTo(bytes));
+      assertThat(readFully(second, CHUNK_SIZE - 1), equalTo(bytes));
+    }
+  }
+
+  private CursorStream openCursor(InputStream stream) {
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(CHUNK_SIZE, BYTE),
+                                                                       new DataSize(CHUNK_SIZE, BYTE),
+                                                                       new DataSize(0, BYTE));
+    streamProvider = new InMemoryCursorStreamProvider(stream, config, bufferManager);
+    return streamProvider.openCursor();
+  }
+
+  private byte[] readFully(CursorStream cursor, int readSize) throws IOException {
+    byte[] dest = new byte[bytes.length];
+    int total = 0;
+    byte[] chunk = new byte[readSize];
+    int read;
+    while ((read = cursor.read(chunk, 0, readSize)) != -1) {
+      System.arraycopy(chunk, 0, dest, total, read);
+      total += read;
+    }
+
+    assertThat(total, is(bytes.length));
+    return dest;
+  }
+
+  /**
+   * Hands at most {@link #TRICKLE_SIZE} bytes on each read, like a slow network stream would
+   */
+  private static class TricklingInputStream extends FilterInputStream {
+
+    private TricklingInputStream(byte[] bytes) {
+      super(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return super.read(b, off, min(len, TRICKLE_SIZE));
+    }
+  }
+}
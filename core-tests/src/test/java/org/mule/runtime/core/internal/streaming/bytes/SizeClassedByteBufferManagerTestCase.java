@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import ru.yandex.qatools.allure.annotations.Features;
+
+@SmallTest
+@Features(STREAMING)
+public class SizeClassedByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 3000;
+  private static final int SAME_CLASS_CAPACITY = 4000;
+  private static final int OTHER_CLASS_CAPACITY = 5000;
+  private static final int DEPOT_ONLY_CAPACITY = 100000;
+
+  private final SizeClassedByteBufferManager bufferManager = new SizeClassedByteBufferManager();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void pooling() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+    assertThat(bufferManager.getHits(), is(1L));
+    assertThat(bufferManager.getMisses(), is(1L));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer, not(sameInstance(newBuffer)));
+    assertThat(bufferManager.getInUseCount(), is(2L));
+  }
+
+  @Test
+  public void sameSizeClassIsShared() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(SAME_CLASS_CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+    assertThat(newBuffer.limit(), is(SAME_CLASS_CAPACITY));
+  }
+
+  @Test
+  public void differentSizeClasses() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer otherBuffer = bufferManager.allocate(OTHER_CLASS_CAPACITY);
+    assertThat(buffer, not(sameInstance(otherBuffer)));
+  }
+
+  @Test
+  public void limitMatchesRequestedCapacity() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    try {
+      assertThat(buffer.limit(), is(CAPACITY));
+      assertThat(buffer.position(), is(0));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+
+  @Test
+  public void pooledBufferIsCleared() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    buffer.put(new byte[100]);
+    bufferManager.deallocate(buffer);
+
+    buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.position(), is(0));
+    assertThat(bufferManager.getInUseCount(), is(1L));
+  }
+
+  @Test
+  public void directBuffers() throws Exception {
+    SizeClassedByteBufferManager directBufferManager = new SizeClassedByteBufferManager(true, 8192);
+    try {
+      ByteBuffer buffer = directBufferManager.allocate(CAPACITY);
+      assertThat(buffer.isDirect(), is(true));
+      assertThat(directBufferManager.getDirectMemoryUsed(), is(4096L));
+
+      directBufferManager.deallocate(buffer);
+      assertThat(directBufferManager.allocate(CAPACITY), is(sameInstance(buffer)));
+    } finally {
+      directBufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void directMemoryCap() throws Exception {
+    SizeClassedByteBufferManager directBufferManager = new SizeClassedByteBufferManager(true, 8192);
+    try {
+      ByteBuffer buffer = directBufferManager.allocate(OTHER_CLASS_CAPACITY);
+      assertThat(buffer.isDirect(), is(true));
+
+      ByteBuffer overflow = directBufferManager.allocate(OTHER_CLASS_CAPACITY);
+      assertThat(overflow.isDirect(), is(false));
+      assertThat(directBufferManager.getDirectMemoryUsed(), is(8192L));
+    } finally {
+      directBufferManager.dispose();
+    }
+  }
+
+  @Test
+  public void idleBuffersAreTrimmed() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(DEPOT_ONLY_CAPACITY);
+    bufferManager.deallocate(buffer);
+    bufferManager.trim();
+
+    assertThat(bufferManager.allocate(DEPOT_ONLY_CAPACITY), is(sameInstance(buffer)));
+    bufferManager.deallocate(buffer);
+    bufferManager.trim();
+    assertThat(bufferManager.getHits(), is(1L));
+
+    bufferManager.trim();
+    assertThat(bufferManager.allocate(DEPOT_ONLY_CAPACITY), not(sameInstance(buffer)));
+  }
+
+  @Test
+  public void noPoolingAfterDispose() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+    bufferManager.dispose();
+
+    assertThat(bufferManager.allocate(CAPACITY), not(sameInstance(buffer)));
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.routing;
+
+import static java.lang.System.currentTimeMillis;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.tck.MuleTestUtils.getTestFlow;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.core.api.Event;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.routing.RoutingException;
+import org.mule.runtime.core.api.transaction.Transaction;
+import org.mule.runtime.core.transaction.TransactionCoordination;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class ScatterGatherRouterTestCase extends AbstractMuleContextTestCase {
+
+  private static final long ROUTE_DELAY = 300;
+
+  private ScatterGatherRouter router;
+
+  public ScatterGatherRouterTestCase() {
+    setStartContext(true);
+  }
+
+  @After
+  public void after() throws MuleException {
+    if (router != null) {
+      router.stop();
+      router.dispose();
+    }
+  }
+
+  @Test
+  public void routesRunInParallel() throws Exception {
+    // each route waits for all of them to be running, which only happens if they run in parallel
+    CountDownLatch running = new CountDownLatch(3);
+    router = createRouter(awaiting(running, "1"), awaiting(running, "2"), awaiting(running, "3"));
+
+    Event result = router.process(eventBuilder().message(of("0")).build());
+
+    assertThat(payloads((List<Message>) result.getMessage().getPayload().getValue()), contains("01", "02", "03"));
+  }
+
+  @Test
+  public void routesRunSequentially() throws Exception {
+    router = new ScatterGatherRouter();
+    router.setParallel(false);
+    router = createRouter(router, delayed("1", 0), delayed("2", 0));
+
+    Event result = router.process(eventBuilder().message(of("0")).build());
+
+    assertThat(payloads((List<Message>) result.getMessage().getPayload().getValue()), contains("01", "02"));
+  }
+
+  @Test
+  public void routeTimeout() throws Exception {
+    router = new ScatterGatherRouter();
+    router.setTimeout(ROUTE_DELAY / 3);
+    router = createRouter(router, delayed("1", 0), delayed("2", 10 * ROUTE_DELAY));
+
+    assertPartialResults();
+  }
+
+  @Test
+  public void sequentialRouteTimeoutCountsFromRouteStart() throws Exception {
+    router = new ScatterGatherRouter();
+    router.setParallel(false);
+    router.setTimeout(2 * ROUTE_DELAY);
+    router = createRouter(router, delayed("1", ROUTE_DELAY), delayed("2", ROUTE_DELAY), delayed("3", ROUTE_DELAY));
+
+    Event result = router.process(eventBuilder().message(of("0")).build());
+
+    assertThat(payloads((List<Message>) result.getMessage().getPayload().getValue()), contains("01", "02", "03"));
+  }
+
+  @Test
+  public void routesRunOnCallerThreadWithinTransaction() throws Exception {
+    List<Thread> routeThreads = new CopyOnWriteArrayList<>();
+    Processor recordThread = event -> {
+      routeThreads.add(Thread.currentThread());
+      return event;
+    };
+    router = createRouter(recordThread, recordThread);
+
+    Transaction transaction = new TestTransaction(muleContext);
+    TransactionCoordination.getInstance().bindTransaction(transaction);
+    try {
+      router.process(eventBuilder().message(of("0")).build());
+    } finally {
+      TransactionCoordination.getInstance().unbindTransaction(transaction);
+    }
+
+    assertThat(routeThreads.size(), is(2));
+    assertThat(routeThreads, everyItem(is(Thread.currentThread())));
+  }
+
+  @Test
+  public void noTimeoutsWithinTransaction() throws Exception {
+    List<Thread> routeThreads = new CopyOnWriteArrayList<>();
+    router = new ScatterGatherRouter();
+    router.setTimeout(ROUTE_DELAY / 3);
+    router.setOverallTimeout(ROUTE_DELAY / 3);
+    router = createRouter(router, event -> {
+      routeThreads.add(Thread.currentThread());
+      return delayed("1", ROUTE_DELAY).process(event);
+    }, event -> {
+      routeThreads.add(Thread.currentThread());
+      return delayed("2", 0).process(event);
+    });
+
+    Transaction transaction = new TestTransaction(muleContext);
+    TransactionCoordination.getInstance().bindTransaction(transaction);
+    Event result;
+    try {
+      result = router.process(eventBuilder().message(of("0")).build());
+    } finally {
+      TransactionCoordination.getInstance().unbindTransaction(transaction);
+    }
+
+    assertThat(payloads((List<Message>) result.getMessage().getPayload().getValue()), contains("01", "02"));
+    assertThat(routeThreads, everyItem(is(Thread.currentThread())));
+  }
+
+  @Test
+  public void overallTimeout() throws Exception {
+    router = new ScatterGatherRouter();
+    router.setOverallTimeout(ROUTE_DELAY / 3);
+    router = createRouter(router, delayed("1", 0), delayed("2", 10 * ROUTE_DELAY));
+
+    assertPartialResults();
+  }
+
+  private void assertPartialResults() throws Exception {
+    long start = currentTimeMillis();
+    try {
+      router.process(eventBuilder().message(of("0")).build());
+      fail("Expected the second route to time out");
+    } catch (CompositeRoutingException e) {
+      assertComposite(e);
+    }
+    assertThat(currentTimeMillis() - start, lessThan(10 * ROUTE_DELAY));
+  }
+
+  private void assertComposite(CompositeRoutingException e) throws Exception {
+    assertThat(e.getExceptions().keySet(), contains(1));
+    assertThat(e.getExceptionForRouteIndex(1), instanceOf(RoutingException.class));
+    assertThat(e.getResults().keySet(), contains(0));
+    assertThat(getPayloadAsString(e.getResults().get(0)), is("01"));
+  }
+
+  private ScatterGatherRouter createRouter(Processor... routes) throws Exception {
+    return createRouter(new ScatterGatherRouter(), routes);
+  }
+
+  private ScatterGatherRouter createRouter(ScatterGatherRouter router, Processor... routes) throws Exception {
+    router.setRoutes(asList(routes));
+    router.setMuleContext(muleContext);
+    router.setFlowConstruct(getTestFlow(muleContext));
+    router.initialise();
+    router.start();
+    return router;
+  }
+
+  private Processor awaiting(CountDownLatch latch, String suffix) {
+    return event -> {
+      latch.countDown();
+      try {
+        if (!latch.await(5, SECONDS)) {
+          throw new IllegalStateException("Routes did not run in parallel");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Event.builder(event).message(of(event.getMessage().getPayload().getValue() + suffix)).build();
+    };
+  }
+
+  private Processor delayed(String suffix, long delay) {
+    return event -> {
+      if (delay > 0) {
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return Event.builder(event).message(of(event.getMessage().getPayload().getValue() + suffix)).build();
+    };
+  }
+
+  private List<Object> payloads(List<Message> messages) {
+    return messages.stream().map(message -> message.getPayload().getValue()).collect(toList());
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.streaming;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.core.internal.streaming.object.iterator.PrefetchingProducer;
+import org.mule.runtime.core.internal.streaming.object.iterator.Producer;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import ru.yandex.qatools.allure.annotations.Features;
+
+@SmallTest
+@Features(STREAMING)
+public class PrefetchingProducerTestCase {
+
+  private static final int pageCount = 5;
+  private static final int pageSize = 10;
+
+  private ExecutorService executor;
+  private TestProducer delegate;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+    delegate = new TestProducer();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void producesAllPagesInOrder() {
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, executor, 2);
+
+    for (int i = 0; i < pageCount; i++) {
+      assertThat(producer.produce(), is(page(i)));
+    }
+
+    assertThat(producer.produce().isEmpty(), is(true));
+    assertThat(producer.produce().isEmpty(), is(true));
+  }
+
+  @Test
+  public void doesNotFetchPastMaxPages() throws Exception {
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(page(0)));
+    // getSize waits for the fetch in progress, after which the buffer is full
+    producer.getSize();
+    assertThat(delegate.produced.get(), is(3));
+  }
+
+  @Test
+  public void fetchesOnConsumerThreadWhenRejected() {
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, command -> {
+      throw new RejectedExecutionException();
+    }, 1);
+
+    for (int i = 0; i < pageCount; i++) {
+      assertThat(producer.produce(), is(page(i)));
+    }
+    assertThat(producer.produce().isEmpty(), is(true));
+  }
+
+  @Test
+  public void fetchesOnConsumerThreadWhenLaterFetchesAreRejected() {
+    AtomicInteger accepted = new AtomicInteger();
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, command -> {
+      if (accepted.incrementAndGet() > 2) {
+        throw new RejectedExecutionException();
+      }
+      executor.execute(command);
+    }, 2);
+
+    for (int i = 0; i < pageCount; i++) {
+      assertThat(producer.produce(), is(page(i)));
+    }
+    assertThat(producer.produce().isEmpty(), is(true));
+
+    // Only the accepted fetches ran on the executor, the rejected ones were left to the consumer
+    assertThat(delegate.producingThreads.stream().filter(thread -> thread != currentThread()).count(), is(2L));
+    assertThat(delegate.producingThreads.size(), is(pageCount + 1));
+  }
+
+  @Test
+  public void fetchesOnConsumerThreadWhenQueuedFetchIsDropped() {
+    List<Runnable> dropped = new CopyOnWriteArrayList<>();
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, dropped::add, 2, 100, MILLISECONDS);
+
+    assertThat(producer.produce(), is(page(0)));
+    assertThat(producer.produce(), is(page(1)));
+    assertThat(delegate.produced.get(), is(2));
+
+    // Only the fetch still pending runs if the executor runs them after all, the abandoned ones do nothing
+    dropped.forEach(Runnable::run);
+    assertThat(delegate.produced.get(), is(3));
+    assertThat(producer.produce(), is(page(2)));
+  }
+
+  @Test
+  public void errorInFetchDoesNotBlockConsumer() throws Exception {
+    delegate.failAt = 1;
+    delegate.error = new NoClassDefFoundError();
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(page(0)));
+    try {
+      producer.produce();
+      fail("Expected the fetch error to be rethrown");
+    } catch (NoClassDefFoundError e) {
+      // expected
+    }
+
+    assertThat(producer.getSize(), is(pageCount * pageSize));
+    producer.close();
+    assertThat(delegate.closed, is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rethrowsFetchFailure() {
+    delegate.failAt = 1;
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(page(0)));
+    producer.produce();
+  }
+
+  @Test
+  public void totalAvailable() {
+    assertThat(new PrefetchingProducer<>(delegate, executor, 2).getSize(), is(pageCount * pageSize));
+  }
+
+  @Test
+  public void closeDiscardsFetchedPages() throws Exception {
+    PrefetchingProducer<Integer> producer = new PrefetchingProducer<>(delegate, executor, 2);
+    producer.close();
+
+    assertThat(delegate.closed, is(true));
+    assertThat(producer.produce().isEmpty(), is(true));
+  }
+
+  private static List<Integer> page(int index) {
+    List<Integer> page = new ArrayList<>(pageSize);
+    for (int i = 0; i < pageSize; i++) {
+      page.add(index * pageSize + i);
+    }
+    return page;
+  }
+
+  private static class TestProducer implements Producer<List<Integer>> {
+
+    private final AtomicInteger produced = new AtomicInteger();
+    private final List<Thread> producingThreads = new CopyOnWriteArrayList<>();
+    private volatile int failAt = -1;
+    private volatile Error error;
+    private volatile boolean closed = false;
+
+    @Override
+    public List<Integer> produce() {
+      producingThreads.add(currentThread());
+      int index = produced.getAndIncrement();
+      if (index == failAt) {
+        if (error != null) {
+          throw error;
+        }
+        throw new IllegalStateException();
+      }
+      return index < pageCount ? page(index) : emptyList();
+    }
+
+    @Override
+    public int getSize() {
+      return pageCount * pageSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+@SmallTest
+public class TimeOrderedIdGeneratorTestCase extends AbstractMuleTestCase {
+
+  private final AtomicLong clock = new AtomicLong(1490000000000L);
+  private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+  @Test
+  public void uuidFormat() {
+    java.util.UUID uuid = java.util.UUID.fromString(generator.generateId());
+
+    assertThat(uuid.version(), is(7));
+    assertThat(uuid.variant(), is(2));
+    assertThat(uuid.getMostSignificantBits() >>> 16, is(clock.get()));
+  }
+
+  @Test
+  public void orderedWithinSameMillisecond() {
+    String previous = generator.generateId();
+    for (int i = 0; i < 10000; ++i) {
+      String id = generator.generateId();
+      assertThat(id.compareTo(previous), greaterThan(0));
+      previous = id;
+    }
+  }
+
+  @Test
+  public void orderedWhenClockGoesBack() {
+    String previous = generator.generateId();
+    clock.addAndGet(-1000);
+
+    assertThat(generator.generateId().compareTo(previous), greaterThan(0));
+  }
+
+  @Test
+  public void uniqueAcrossThreads() throws Exception {
+    final int threads = 8;
+    final int idsPerThread = 10000;
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int i = 0; i < threads; ++i) {
+        executor.submit(() -> {
+          for (int j = 0; j < idsPerThread; ++j) {
+            ids.add(generator.generateId());
+          }
+        });
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, SECONDS);
+    }
+
+    assertThat(ids.size(), is(threads * idsPerThread));
+  }
+}
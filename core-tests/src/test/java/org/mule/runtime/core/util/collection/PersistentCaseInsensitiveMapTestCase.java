@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  // both have the same hash
+  private static final String COLLIDING_KEY = "aa";
+  private static final String OTHER_COLLIDING_KEY = "`\u0080";
+
+  private final PersistentCaseInsensitiveMap<Integer> empty = PersistentCaseInsensitiveMap.empty();
+
+  @Test
+  public void keysIgnoreCaseButPreserveIt() {
+    PersistentCaseInsensitiveMap<Integer> map = empty.with("someKey", 1);
+
+    assertThat(map.get("SOMEKEY"), is(1));
+    assertThat(map.containsKey("somekey"), is(true));
+    assertThat(map.keySet().contains("SomeKey"), is(true));
+    assertThat(map.keySet(), containsInAnyOrder("someKey"));
+  }
+
+  @Test
+  public void modificationsDontAffectOriginal() {
+    PersistentCaseInsensitiveMap<Integer> original = empty.with("a", 1).with("b", 2);
+    PersistentCaseInsensitiveMap<Integer> modified = original.with("A", 10).without("b").with("c", 3);
+
+    assertThat(original.size(), is(2));
+    assertThat(original.get("a"), is(1));
+    assertThat(original.get("b"), is(2));
+    assertThat(original.get("c"), is(nullValue()));
+
+    assertThat(modified.size(), is(2));
+    assertThat(modified.get("a"), is(10));
+    assertThat(modified.get("b"), is(nullValue()));
+    assertThat(modified.get("c"), is(3));
+  }
+
+  @Test
+  public void unchangedReturnsSameInstance() {
+    Integer value = 1000;
+    PersistentCaseInsensitiveMap<Integer> map = empty.with("key", value);
+
+    assertThat(map.with("key", value), is(sameInstance(map)));
+    assertThat(map.without("other"), is(sameInstance(map)));
+  }
+
+  @Test
+  public void manyEntries() {
+    Map<String, Integer> expected = new HashMap<>();
+    PersistentCaseInsensitiveMap<Integer> map = empty;
+    for (int i = 0; i < 5000; ++i) {
+      map = map.with("key" + i, i);
+      expected.put("key" + i, i);
+    }
+    for (int i = 0; i < 5000; i += 2) {
+      map = map.without("KEY" + i);
+      expected.remove("key" + i);
+    }
+
+    assertThat(map.size(), is(expected.size()));
+    assertThat(map, is(expected));
+    assertThat(map.entrySet().size(), is(expected.size()));
+  }
+
+  @Test
+  public void collidingKeys() {
+    PersistentCaseInsensitiveMap<Integer> map = empty.with(COLLIDING_KEY, 1).with(OTHER_COLLIDING_KEY, 2);
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("AA"), is(1));
+    assertThat(map.get(OTHER_COLLIDING_KEY), is(2));
+
+    map = map.without(COLLIDING_KEY);
+    assertThat(map.size(), is(1));
+    assertThat(map.get(COLLIDING_KEY), is(nullValue()));
+    assertThat(map.get(OTHER_COLLIDING_KEY), is(2));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    empty.with("key", 1).put("other", 2);
+  }
+
+  @Test
+  public void serialization() {
+    PersistentCaseInsensitiveMap<Integer> map = empty.with("Key", 1).with(COLLIDING_KEY, 2).with(OTHER_COLLIDING_KEY, 3);
+
+    PersistentCaseInsensitiveMap<Integer> deserialized =
+        (PersistentCaseInsensitiveMap<Integer>) SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized, is(map));
+    assertThat(deserialized.keySet(), containsInAnyOrder("Key", COLLIDING_KEY, OTHER_COLLIDING_KEY));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.concurrent;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+@SmallTest
+public class MpscRingBufferTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void capacityRoundedToPowerOfTwo() {
+    assertThat(new MpscRingBuffer<>(1).capacity(), is(1));
+    assertThat(new MpscRingBuffer<>(5).capacity(), is(8));
+    assertThat(new MpscRingBuffer<>(8).capacity(), is(8));
+  }
+
+  @Test
+  public void rejectsWhenFull() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.offer(i), is(true));
+    }
+
+    assertThat(buffer.offer(4), is(false));
+    assertThat(buffer.size(), is(4));
+  }
+
+  @Test
+  public void drainsInOrderUpToLimit() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      buffer.offer(i);
+    }
+
+    List<Integer> drained = new ArrayList<>();
+    assertThat(buffer.drain(drained::add, 3), is(3));
+    assertThat(drained, contains(0, 1, 2));
+
+    assertThat(buffer.offer(4), is(true));
+    drained.clear();
+    assertThat(buffer.drain(drained::add, 10), is(2));
+    assertThat(drained, contains(3, 4));
+    assertThat(buffer.isEmpty(), is(true));
+  }
+
+  @Test
+  public void drainEmpty() {
+    List<Object> drained = new ArrayList<>();
+    assertThat(new MpscRingBuffer<>(4).drain(drained::add, 10), is(0));
+    assertThat(drained, is(empty()));
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    final int producers = 4;
+    final int perProducer = 10000;
+    final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+    final CountDownLatch start = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) {
+          while (!buffer.offer(i)) {
+            Thread.yield();
+          }
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    final long[] sum = new long[1];
+    int consumed = 0;
+    while (consumed < producers * perProducer) {
+      consumed += buffer.drain(value -> sum[0] += value, 16);
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(sum[0], is((long) producers * perProducer * (perProducer - 1) / 2));
+    assertThat(buffer.isEmpty(), is(true));
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.util.journal;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -17,7 +19,11 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.RandomStringUtils;
 import org.junit.Rule;
@@ -52,11 +58,53 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitConcurrentEntries() throws Exception {
+    final int threads = 8;
+    final int entriesPerThread = 50;
+    final TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> writers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int txId = t;
+        writers.add(executor.submit(() -> {
+          for (int i = 0; i < entriesPerThread; i++) {
+            journal.awaitFlush(journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 5, "queue", i)));
+          }
+        }));
+      }
+      // failures in the writers are rethrown here, so they fail the test
+      for (Future<?> writer : writers) {
+        writer.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    journal.close();
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> reopened = openJournal(true);
+    for (int t = 0; t < threads; t++) {
+      Collection<LocalQueueTxJournalEntry> entries = reopened.getLogEntries(t);
+      assertThat(entries.size(), equalTo(entriesPerThread));
+      int expected = 0;
+      for (LocalQueueTxJournalEntry entry : entries) {
+        assertThat(entry.getValue(), equalTo(expected++));
+      }
+    }
+    reopened.close();
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(false);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(boolean groupCommit) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, groupCommit);
   }
 
 }
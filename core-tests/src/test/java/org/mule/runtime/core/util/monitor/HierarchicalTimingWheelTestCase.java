@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.monitor;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.core.util.monitor.HierarchicalTimingWheel.Timeout;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class HierarchicalTimingWheelTestCase extends AbstractMuleTestCase {
+
+  private static final long TICK = 10;
+
+  private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(0, TICK, 4, 3);
+  private final List<String> expired = new ArrayList<>();
+
+  @Test
+  public void expiresOnDeadline() {
+    wheel.schedule("item", 55);
+
+    wheel.advance(50, expired::add);
+    assertThat(expired, is(empty()));
+
+    wheel.advance(60, expired::add);
+    assertThat(expired, contains("item"));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void pastDeadlineExpiresOnNextTick() {
+    wheel.advance(100, expired::add);
+    wheel.schedule("item", 20);
+
+    wheel.advance(110, expired::add);
+    assertThat(expired, contains("item"));
+  }
+
+  @Test
+  public void expiresInDeadlineOrderAcrossWheels() {
+    wheel.schedule("far", 5000);
+    wheel.schedule("middle", 300);
+    wheel.schedule("near", 30);
+
+    for (long now = 0; now <= 5000; now += TICK) {
+      wheel.advance(now, expired::add);
+      if (now < 30) {
+        assertThat(expired, is(empty()));
+      }
+    }
+
+    assertThat(expired, contains("near", "middle", "far"));
+  }
+
+  @Test
+  public void farDeadlineNotExpiredEarly() {
+    // beyond the 640ms spanned by the wheels
+    wheel.schedule("item", 2000);
+
+    wheel.advance(1990, expired::add);
+    assertThat(expired, is(empty()));
+
+    wheel.advance(2000, expired::add);
+    assertThat(expired, contains("item"));
+  }
+
+  @Test
+  public void cancelled() {
+    Timeout<String> timeout = wheel.schedule("item", 100);
+    wheel.schedule("other", 100);
+    wheel.advance(50, expired::add);
+
+    assertThat(timeout.cancel(), is(true));
+    assertThat(wheel.size(), is(1));
+
+    wheel.advance(200, expired::add);
+    assertThat(expired, contains("other"));
+    assertThat(timeout.cancel(), is(false));
+  }
+
+  @Test
+  public void cancelledBeforeAdvance() {
+    wheel.schedule("item", 100).cancel();
+
+    wheel.advance(200, expired::add);
+    assertThat(expired, is(empty()));
+    assertThat(wheel.size(), is(0));
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.MuleTestUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class MappedSegmentQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SMALL_SEGMENT_SIZE = 256;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    String[] testNames = new String[] {"test-test", "test:/test", "test?test", "test:\\test", "test&test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      new MappedSegmentQueueStoreDelegate(testName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0)
+          .dispose();
+    }
+  }
+
+  @Test
+  public void pollInOrderAcrossSegments() throws Exception {
+    withSmallSegments(() -> {
+      MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+      for (int i = 0; i < 50; i++) {
+        queueStore.putNow(createTestDataForIndex(i));
+      }
+      assertThat(queueStore.getSize(), is(50));
+
+      for (int i = 0; i < 50; i++) {
+        assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+      }
+      assertThat(queueStore.poll(0), is(nullValue()));
+      queueStore.dispose();
+    });
+  }
+
+  @Test
+  public void recoversPendingMessages() throws Exception {
+    withSmallSegments(() -> {
+      MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+      for (int i = 0; i < 30; i++) {
+        queueStore.putNow(createTestDataForIndex(i));
+      }
+      for (int i = 0; i < 20; i++) {
+        queueStore.poll(0);
+      }
+      queueStore.untake(createTestDataForIndex(19));
+      queueStore.close();
+
+      queueStore = createTestQueueStore();
+      assertThat(queueStore.getSize(), is(11));
+      for (int i = 19; i < 30; i++) {
+        assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+      }
+      queueStore.dispose();
+    });
+  }
+
+  @Test
+  public void untakeReturnsToFront() throws Exception {
+    MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+
+    Serializable taken = queueStore.poll(0);
+    queueStore.untake(taken);
+
+    assertThat(queueStore.peek(), is("first"));
+    assertThat(queueStore.poll(0), is("first"));
+    assertThat(queueStore.poll(0), is("second"));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+    queueStore.putNow("third");
+
+    queueStore.remove("second");
+
+    assertThat(queueStore.contains("second"), is(false));
+    assertThat(queueStore.contains("third"), is(true));
+    assertThat(queueStore.getSize(), is(2));
+    assertThat(queueStore.poll(0), is("first"));
+    assertThat(queueStore.poll(0), is("third"));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void offerRespectsCapacity() throws Exception {
+    MappedSegmentQueueStoreDelegate queueStore =
+        new MappedSegmentQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 2);
+
+    assertThat(queueStore.offer("first", 0, 0), is(true));
+    assertThat(queueStore.offer("second", 0, 0), is(true));
+    assertThat(queueStore.offer("third", 0, 10), is(false));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void removeWakesUpBlockedOffer() throws Exception {
+    MappedSegmentQueueStoreDelegate queueStore =
+        new MappedSegmentQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 2);
+    queueStore.putNow("first");
+    queueStore.putNow("second");
+
+    ExecutorService producer = newSingleThreadExecutor();
+    try {
+      Future<Boolean> blocked = producer.submit(() -> queueStore.offer("third", 0, 5000));
+      try {
+        blocked.get(100, MILLISECONDS);
+        throw new AssertionError("Offer should have waited for room in the queue");
+      } catch (TimeoutException e) {
+        // expected
+      }
+
+      queueStore.remove("first");
+      assertThat(blocked.get(1, SECONDS), is(true));
+    } finally {
+      producer.shutdownNow();
+    }
+
+    assertThat(queueStore.poll(0), is("second"));
+    assertThat(queueStore.poll(0), is("third"));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void clear() throws Exception {
+    withSmallSegments(() -> {
+      MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+      for (int i = 0; i < 20; i++) {
+        queueStore.putNow(createTestDataForIndex(i));
+      }
+      queueStore.clear();
+      assertThat(queueStore.getSize(), is(0));
+
+      queueStore.putNow("after clear");
+      queueStore.close();
+
+      queueStore = createTestQueueStore();
+      assertThat(queueStore.getSize(), is(1));
+      assertThat(queueStore.poll(0), is("after clear"));
+      queueStore.dispose();
+    });
+  }
+
+  @Test
+  public void concurrentProducersAndConsumer() throws Exception {
+    final MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+    final int producers = 4;
+    final int perProducer = 500;
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          queueStore.putNow(createTestDataForIndex(i));
+        }
+      });
+      thread.start();
+      threads.add(thread);
+    }
+
+    int consumed = 0;
+    while (consumed < producers * perProducer) {
+      if (queueStore.poll(1000) != null) {
+        consumed++;
+      }
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(queueStore.getSize(), is(0));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    MappedSegmentQueueStoreDelegate queueStore = createTestQueueStore();
+    queueStore.putNow("item");
+
+    File queueFolder = new File(workingDirectory.getRoot().getAbsolutePath() + "/queuestore");
+    queueStore.dispose();
+
+    for (File file : queueFolder.listFiles()) {
+      assertThat(file.getName().contains(TEST_QUEUE_NAME), is(false));
+    }
+  }
+
+  private void withSmallSegments(MuleTestUtils.TestCallback callback) throws Exception {
+    MuleTestUtils.testWithSystemProperty(MappedSegmentQueueStoreDelegate.SEGMENT_SIZE_PROPERTY_KEY,
+                                         String.valueOf(SMALL_SEGMENT_SIZE), callback);
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private MappedSegmentQueueStoreDelegate createTestQueueStore() {
+    return new MappedSegmentQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext,
+                                               0);
+  }
+}
@@ -11,6 +11,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.util.store.PartitionedPersistentObjectStore.SEGMENT_LOG_SYNC_MODE_PROPERTY;
 import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
@@ -112,6 +113,25 @@ public class PartitionedPersistentObjectStoreTestCase extends AbstractMuleTestCa
     assertNotNull(value.getMuleContext());
   }
 
+  @Test
+  public void invalidSyncModeFallsBackToDefault() throws Exception {
+    String previous = System.setProperty(SEGMENT_LOG_SYNC_MODE_PROPERTY, "unknown");
+    try {
+      os = new PartitionedPersistentObjectStore<>(mockMuleContext);
+      os.setSegmentLogEnabled(true);
+      os.open();
+      os.store(OBJECT_KEY, OBJECT_BASE_VALUE);
+      assertThat(os.retrieve(OBJECT_KEY), is((Serializable) OBJECT_BASE_VALUE));
+    } finally {
+      if (previous == null) {
+        System.clearProperty(SEGMENT_LOG_SYNC_MODE_PROPERTY);
+      } else {
+        System.setProperty(SEGMENT_LOG_SYNC_MODE_PROPERTY, previous);
+      }
+      os.dispose();
+    }
+  }
+
   private void closePartitions() throws ObjectStoreException {
     for (int i = 0; i < numberOfPartitions; i++) {
       os.close(getPartitionName(i));
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.store.ObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.runtime.core.util.store.SegmentLogObjectStorePartition.SyncMode;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class SegmentLogObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final long SEGMENT_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Mock
+  private MuleContext muleContext;
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private SegmentLogObjectStorePartition<Serializable> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParent());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = newPartition(SyncMode.GROUP);
+    partition.open();
+  }
+
+  @After
+  public void tearDown() {
+    partition.dispose();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws Exception {
+    partition.store("key", "value");
+
+    assertThat(partition.contains("key"), is(true));
+    assertThat(partition.retrieve("key"), is("value"));
+    assertThat(partition.remove("key"), is("value"));
+    assertThat(partition.contains("key"), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws Exception {
+    partition.store("key", "value");
+    partition.store("key", "other");
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void retrieveUnexistentKey() throws Exception {
+    partition.retrieve("key");
+  }
+
+  @Test
+  public void recoversByReplayingLog() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.remove("key1");
+
+    assertReopened();
+  }
+
+  @Test
+  public void recoversFromCheckpoint() throws Exception {
+    partition.store("key1", "value1");
+    partition.checkpoint();
+    partition.store("key2", "value2");
+    partition.remove("key1");
+
+    assertReopened();
+  }
+
+  @Test
+  public void truncatesTornRecord() throws Exception {
+    partition.store("key2", "value2");
+    partition.dispose();
+
+    File segment = objectStoreFolder.getRoot().listFiles((dir, name) -> name.endsWith(".seg"))[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.seek(file.length());
+      file.write(new byte[] {0, 0, 1, 0, 1, 2});
+    }
+    new File(objectStoreFolder.getRoot(), "index.checkpoint").delete();
+
+    partition = newPartition(SyncMode.NONE);
+    partition.open();
+    assertThat(partition.allKeys(), containsInAnyOrder("key2"));
+    partition.store("key3", "value3");
+    assertThat(partition.retrieve("key3"), is("value3"));
+  }
+
+  @Test
+  public void compactsSegments() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    int segmentsBefore = countSegments();
+    for (int i = 0; i < 90; i++) {
+      partition.remove("key" + i);
+    }
+
+    partition.compact();
+
+    assertThat(countSegments(), lessThan(segmentsBefore));
+    for (int i = 90; i < 100; i++) {
+      assertThat(partition.retrieve("key" + i), is("value" + i));
+    }
+
+    partition.dispose();
+    partition = newPartition(SyncMode.NONE);
+    partition.open();
+    assertThat(partition.allKeys().size(), is(10));
+    assertThat(partition.retrieve("key95"), is("value95"));
+  }
+
+  @Test
+  public void compactionKeepsTombstonesOfOlderSegments() throws Exception {
+    partition.store("removed", "value");
+    for (int i = 0; i < 20; i++) {
+      partition.store("key" + i, "a value long enough to fill the segment " + i);
+    }
+    partition.remove("removed");
+    for (int i = 0; i < 40; i++) {
+      partition.store("tmp" + i, "value" + i);
+      partition.remove("tmp" + i);
+    }
+
+    assertThat(partition.compact(), is(true));
+
+    partition.dispose();
+    new File(objectStoreFolder.getRoot(), "index.checkpoint").delete();
+    partition = newPartition(SyncMode.NONE);
+    partition.open();
+
+    assertThat(partition.contains("removed"), is(false));
+    assertThat(partition.allKeys().size(), is(20));
+    assertThat(partition.retrieve("key10"), is("a value long enough to fill the segment 10"));
+  }
+
+  @Test(expected = ObjectStoreException.class)
+  public void retrieveAfterDispose() throws Exception {
+    partition.store("key", "value");
+    partition.dispose();
+
+    partition.retrieve("key");
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+
+    partition.expire(UNBOUNDED, 3);
+
+    assertThat(partition.allKeys(), containsInAnyOrder("key7", "key8", "key9"));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    partition.expire(0, UNBOUNDED);
+
+    assertThat(partition.allKeys().isEmpty(), is(true));
+    partition.store("key1", "value1");
+    assertThat(partition.retrieve("key1"), is("value1"));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store("key", "value");
+    partition.clear();
+
+    assertThat(partition.allKeys().isEmpty(), is(true));
+    partition.store("key", "value");
+    assertThat(partition.retrieve("key"), is("value"));
+  }
+
+  private void assertReopened() throws Exception {
+    partition.dispose();
+    partition = newPartition(SyncMode.NONE);
+    partition.open();
+
+    assertThat(partition.getPartitionName(), is("test"));
+    assertThat(partition.allKeys(), containsInAnyOrder("key2"));
+    assertThat(partition.retrieve("key2"), is("value2"));
+  }
+
+  private SegmentLogObjectStorePartition<Serializable> newPartition(SyncMode syncMode) {
+    return new SegmentLogObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), SEGMENT_SIZE, syncMode);
+  }
+
+  private int countSegments() {
+    return objectStoreFolder.getRoot().listFiles((dir, name) -> name.endsWith(".seg")).length;
+  }
+}
@@ -6,28 +6,31 @@
  */
 package org.mule.runtime.core;
 
-import static java.util.stream.Collectors.toList;
-import static org.mule.runtime.core.internal.util.rx.Operators.requestUnbounded;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
 import static reactor.core.publisher.Mono.empty;
 import static reactor.core.publisher.Mono.from;
-import static reactor.core.publisher.Mono.when;
+import static reactor.core.publisher.Mono.just;
 
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.core.api.EventContext;
-import org.mule.runtime.core.internal.util.rx.Operators;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.MonoProcessor;
 
 /**
  * Base class for implementations of {@link EventContext}
+ * <p>
+ * Completion is tracked with an atomic state and a counter of pending completions (the response, the external completion
+ * publisher if any, and each child context) instead of composing publishers, so that no {@link Publisher} is created nor
+ * subscribed for an event unless someone actually asks for it. When one of the publishers is requested before the corresponding
+ * signal is available, a {@link MonoProcessor} is lazily created for it and signalled exactly once, either by the thread
+ * completing the context or by the requesting thread if it lost the race.
  *
  * @since 4.0
  */
@@ -35,71 +38,80 @@ abstract class AbstractEventContext implements EventContext {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractEventContext.class);
 
-  private transient MonoProcessor<Event> beforeResponseProcessor;
-  private transient MonoProcessor<Event> responseProcessor;
-  private transient MonoProcessor<Void> completionProcessor;
-  private transient Disposable completionSubscriberDisposable;
-  private transient final List<EventContext> childContexts = new LinkedList<>();
-  private transient Mono<Void> completionCallback = empty();
+  private static final int STATE_READY = 0;
+  private static final int STATE_RESPONDING = 1;
+  private static final int STATE_RESPONDED = 2;
+  private static final int STATE_COMPLETED = 3;
+
+  /**
+   * Takes the place of a lazily created processor once it has been signalled.
+   */
+  private static final Object DELIVERED = new Object();
+
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> STATE = newUpdater(AbstractEventContext.class, "state");
+  private static final AtomicIntegerFieldUpdater<AbstractEventContext> PENDING_COMPLETIONS =
+      newUpdater(AbstractEventContext.class, "pendingCompletions");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> BEFORE_RESPONSE_PROCESSOR =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "beforeResponseProcessor");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> RESPONSE_PROCESSOR =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "responseProcessor");
+  private static final AtomicReferenceFieldUpdater<AbstractEventContext, Object> COMPLETION_PROCESSOR =
+      AtomicReferenceFieldUpdater.newUpdater(AbstractEventContext.class, Object.class, "completionProcessor");
+
+  private transient volatile int state = STATE_READY;
+  private transient volatile int pendingCompletions;
+
+  // Written before the state moves to STATE_RESPONDED, read only after it did.
+  private transient Event result;
+  private transient Throwable error;
+
+  private transient volatile Object beforeResponseProcessor;
+  private transient volatile Object responseProcessor;
+  private transient volatile Object completionProcessor;
+
+  private transient volatile AbstractEventContext parentContext;
 
   public AbstractEventContext() {
-    this(empty());
+    this(null);
   }
 
+  /**
+   * @param completionCallback void publisher that completes when source completes enabling completion of this context to depend
+   *        on completion of source. May be {@code null}.
+   */
   public AbstractEventContext(Publisher<Void> completionCallback) {
-    this.completionCallback = from(completionCallback);
-    initCompletionProcessor();
-  }
-
-  private void initCompletionProcessor() {
-    beforeResponseProcessor = MonoProcessor.create();
-    responseProcessor = MonoProcessor.create();
-    responseProcessor.doOnEach(s -> s.accept(beforeResponseProcessor)).subscribe(requestUnbounded());
-    completionProcessor = MonoProcessor.create();
-    completionProcessor.doFinally(e -> {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(this + " execution completed.");
-      }
-    }).subscribe();
-    // When there are no child contexts response triggers completion directly.
-    completionSubscriberDisposable = Mono.<Void>whenDelayError(completionCallback,
-                                                               responseProcessor.then())
-        .doOnEach(s -> s.accept(completionProcessor)).subscribe();
+    if (completionCallback == null) {
+      pendingCompletions = 1;
+    } else {
+      pendingCompletions = 2;
+      from(completionCallback).subscribe(null, throwable -> releaseCompletion(), this::releaseCompletion);
+    }
   }
 
+  /**
+   * Registers {@code childContext} so that this context doesn't complete until it does. Must be invoked before the child context
+   * is made available to anyone else.
+   *
+   * @param childContext the context to wait for
+   */
   void addChildContext(EventContext childContext) {
-    synchronized (this) {
-      childContexts.add(childContext);
-      updateCompletionPublisher();
+    PENDING_COMPLETIONS.incrementAndGet(this);
+    if (childContext instanceof AbstractEventContext) {
+      ((AbstractEventContext) childContext).parentContext = this;
+    } else {
+      from(childContext.getCompletionPublisher()).subscribe(null, throwable -> releaseCompletion(), this::releaseCompletion);
     }
   }
 
-  private void updateCompletionPublisher() {
-    // When a new child is added dispose existing subscription that triggers completion processor and re-subscribe adding child
-    // completion condition.
-    completionSubscriberDisposable.dispose();
-    completionSubscriberDisposable =
-        responseProcessor.onErrorResume(throwable -> empty()).and(completionCallback).and(getChildCompletionPublisher()).then()
-            .doOnEach(s -> s.accept(completionProcessor)).subscribe();
-  }
-
-  private Mono<Void> getChildCompletionPublisher() {
-    return when(childContexts.stream()
-        .map(eventContext -> from(eventContext.getCompletionPublisher()).onErrorResume(throwable -> empty()))
-        .collect(toList()));
-  }
-
   /**
    * {@inheritDoc}
    */
   @Override
   public final void success() {
-    synchronized (this) {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(this + " response completed with no result.");
-      }
-      responseProcessor.onComplete();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(this + " response completed with no result.");
     }
+    respond(null, null);
   }
 
   /**
@@ -107,12 +119,10 @@ abstract class AbstractEventContext implements EventContext {
    */
   @Override
   public final void success(Event event) {
-    synchronized (this) {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(this + " response completed with result.");
-      }
-      responseProcessor.onNext(event);
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(this + " response completed with result.");
     }
+    respond(event, null);
   }
 
   /**
@@ -120,27 +130,112 @@ abstract class AbstractEventContext implements EventContext {
    */
   @Override
   public final void error(Throwable throwable) {
-    synchronized (this) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(this + " response completed with error.");
+    }
+    respond(null, throwable);
+  }
+
+  private void respond(Event result, Throwable error) {
+    if (!STATE.compareAndSet(this, STATE_READY, STATE_RESPONDING)) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(this + " response already completed, ignoring.");
+      }
+      return;
+    }
+    this.result = result;
+    this.error = error;
+    state = STATE_RESPONDED;
+
+    // 'before response' subscribers have to be notified before the response ones
+    signalResponse(BEFORE_RESPONSE_PROCESSOR.getAndSet(this, DELIVERED));
+    signalResponse(RESPONSE_PROCESSOR.getAndSet(this, DELIVERED));
+    releaseCompletion();
+  }
+
+  private void releaseCompletion() {
+    if (PENDING_COMPLETIONS.decrementAndGet(this) == 0 && STATE.compareAndSet(this, STATE_RESPONDED, STATE_COMPLETED)) {
       if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(this + " response completed with error.");
+        LOGGER.debug(this + " execution completed.");
+      }
+      signalCompletion(COMPLETION_PROCESSOR.getAndSet(this, DELIVERED));
+
+      AbstractEventContext parent = parentContext;
+      if (parent != null) {
+        parent.releaseCompletion();
+      }
+    }
+  }
+
+  private void signalResponse(Object processor) {
+    if (processor instanceof MonoProcessor) {
+      MonoProcessor<Event> responseProcessor = (MonoProcessor<Event>) processor;
+      if (error != null) {
+        responseProcessor.onError(error);
+      } else if (result != null) {
+        responseProcessor.onNext(result);
+      } else {
+        responseProcessor.onComplete();
       }
-      responseProcessor.onError(throwable);
     }
   }
 
+  private void signalCompletion(Object processor) {
+    if (processor instanceof MonoProcessor) {
+      ((MonoProcessor<Void>) processor).onComplete();
+    }
+  }
+
+  private Mono<Event> terminatedResponse() {
+    if (error != null) {
+      return Mono.error(error);
+    } else if (result != null) {
+      return just(result);
+    } else {
+      return empty();
+    }
+  }
+
+  private Publisher<Event> getResponsePublisher(AtomicReferenceFieldUpdater<AbstractEventContext, Object> processorUpdater) {
+    Object processor = processorUpdater.get(this);
+    if (processor == null && state < STATE_RESPONDED) {
+      MonoProcessor<Event> created = MonoProcessor.create();
+      if (processorUpdater.compareAndSet(this, null, created)) {
+        // the response may have arrived before the processor was visible to the responding thread
+        if (state >= STATE_RESPONDED && processorUpdater.compareAndSet(this, created, DELIVERED)) {
+          signalResponse(created);
+        }
+        return created;
+      }
+      processor = processorUpdater.get(this);
+    }
+    return processor instanceof MonoProcessor ? (MonoProcessor<Event>) processor : terminatedResponse();
+  }
+
   @Override
   public Publisher<Event> getBeforeResponsePublisher() {
-    return beforeResponseProcessor;
+    return getResponsePublisher(BEFORE_RESPONSE_PROCESSOR);
   }
 
   @Override
   public Publisher<Event> getResponsePublisher() {
-    return responseProcessor;
+    return getResponsePublisher(RESPONSE_PROCESSOR);
   }
 
   @Override
   public Publisher<Void> getCompletionPublisher() {
-    return completionProcessor;
+    Object processor = completionProcessor;
+    if (processor == null && state < STATE_COMPLETED) {
+      MonoProcessor<Void> created = MonoProcessor.create();
+      if (COMPLETION_PROCESSOR.compareAndSet(this, null, created)) {
+        if (state == STATE_COMPLETED && COMPLETION_PROCESSOR.compareAndSet(this, created, DELIVERED)) {
+          signalCompletion(created);
+        }
+        return created;
+      }
+      processor = completionProcessor;
+    }
+    return processor instanceof MonoProcessor ? (MonoProcessor<Void>) processor : empty();
   }
 
 }
@@ -24,7 +24,6 @@ import java.time.OffsetTime;
 import java.util.Optional;
 
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Mono;
 
 /**
  * Default immutable implementation of {@link EventContext}.
@@ -53,7 +52,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
    * @param correlationId See {@link EventContext#getCorrelationId()}.
    */
   public static EventContext create(FlowConstruct flow, ComponentLocation location, String correlationId) {
-    return create(flow, location, correlationId, Mono.empty());
+    return new DefaultEventContext(flow, location, correlationId, null);
   }
 
   /**
@@ -164,7 +163,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
    * @param correlationId the correlation id that was set by the {@link MessageSource} for the first {@link Event} of this
    *        context, if available.
    * @param externalCompletionPublisher void publisher that completes when source completes enabling completion of
-   *        {@link EventContext} to depend on completion of source.
+   *        {@link EventContext} to depend on completion of source. May be {@code null}.
    */
   private DefaultEventContext(FlowConstruct flow, ComponentLocation location, String correlationId,
                               Publisher<Void> externalCompletionPublisher) {
@@ -192,7 +191,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     private final EventContext parent;
 
     private ChildEventContext(EventContext parent) {
-      super(Mono.empty());
+      super();
       this.parent = parent;
     }
 
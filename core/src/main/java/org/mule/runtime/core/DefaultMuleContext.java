@@ -13,6 +13,7 @@ import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_COMPONENT_I
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONFIGURATION_COMPONENT_LOCATOR;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONVERTER_RESOLVER;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_EXPRESSION_MANAGER;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_ID_GENERATOR;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_LOCK_FACTORY;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_MULE_STREAM_CLOSER_SERVICE;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_NOTIFICATION_MANAGER;
@@ -89,6 +90,7 @@ import org.mule.runtime.core.api.source.MessageSource;
 import org.mule.runtime.core.api.store.ListableObjectStore;
 import org.mule.runtime.api.store.ObjectStoreManager;
 import org.mule.runtime.core.api.transformer.DataTypeConversionResolver;
+import org.mule.runtime.core.api.util.IdGenerator;
 import org.mule.runtime.core.api.util.StreamCloserService;
 import org.mule.runtime.core.config.ClusterConfiguration;
 import org.mule.runtime.core.config.NullClusterConfiguration;
@@ -118,7 +120,7 @@ import org.mule.runtime.core.util.JdkVersionUtils;
 import org.mule.runtime.core.util.ServerShutdownSplashScreen;
 import org.mule.runtime.core.util.ServerStartupSplashScreen;
 import org.mule.runtime.core.util.SplashScreen;
-import org.mule.runtime.core.util.UUID;
+import org.mule.runtime.core.util.TimeOrderedIdGenerator;
 import org.mule.runtime.core.util.concurrent.Latch;
 import org.mule.runtime.core.util.queue.QueueManager;
 
@@ -208,6 +210,8 @@ public class DefaultMuleContext implements MuleContext {
 
   private ClusterConfiguration clusterConfiguration = new NullClusterConfiguration();
 
+  private IdGenerator idGenerator = TimeOrderedIdGenerator.getInstance();
+
   private Map<QName, Set<Object>> configurationAnnotations = new HashMap<>();
 
   private SingleResourceTransactionFactoryManager singleResourceTransactionFactoryManager =
@@ -351,6 +355,7 @@ public class DefaultMuleContext implements MuleContext {
     getLifecycleManager().fireLifecycle(Startable.PHASE_NAME);
     overridePollingController();
     overrideClusterConfiguration();
+    overrideIdGenerator();
     startMessageSources();
 
     fireNotification(new MuleContextNotification(this, CONTEXT_STARTED));
@@ -861,7 +866,7 @@ public class DefaultMuleContext implements MuleContext {
 
   @Override
   public String getUniqueIdString() {
-    return clusterConfiguration.getClusterNodeId() + "-" + UUID.getUUID();
+    return clusterConfiguration.getClusterNodeId() + "-" + idGenerator.generateId();
   }
 
   @Override
@@ -950,6 +955,13 @@ public class DefaultMuleContext implements MuleContext {
     }
   }
 
+  private void overrideIdGenerator() {
+    IdGenerator overriddenIdGenerator = getRegistry().get(OBJECT_ID_GENERATOR);
+    if (overriddenIdGenerator != null) {
+      this.idGenerator = overriddenIdGenerator;
+    }
+  }
+
   private void overridePollingController() {
     SchedulerController overriddenSchedulerController = getRegistry().get(OBJECT_POLLING_CONTROLLER);
     if (overriddenSchedulerController != null) {
@@ -96,6 +96,25 @@ public final class AggregationContext {
     return routes;
   }
 
+  /**
+   * Returns a {@link NavigableMap} in which the key is a zero-based route index and the value is the {@link Event} it responded
+   * with, for the routes which didn't fail. Notice that this is a collect operation. Each time this method is invoked the result
+   * will be re-calculated
+   * 
+   * @return a @{link {@link NavigableMap}. It could be empty but it will never be <code>null</code>
+   */
+  public NavigableMap<Integer, Event> collectRouteResults() {
+    NavigableMap<Integer, Event> routes = new TreeMap<Integer, Event>();
+    for (int i = 0; i < this.events.size(); i++) {
+      Event event = this.events.get(i);
+      if (event != null && !failedEventsPredicate.evaluate(event)) {
+        routes.put(i, event);
+      }
+    }
+
+    return routes;
+  }
+
   /**
    * The exact opposite to {@link #collectEventsWithExceptions()} Returns all the {@link Event}s which messages have a
    * <code>null</code> {@link ExceptionPayload} or a <code>null</code> {@link ExceptionPayload#getException()}. Notice that this
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleProperties;
+
+/**
+ * Generates the unique ids used by a {@link MuleContext}, for instance for its events.
+ * <p>
+ * The default implementation may be replaced for a given {@link MuleContext} by registering an instance under the
+ * {@link MuleProperties#OBJECT_ID_GENERATOR} key.
+ * <p>
+ * Implementations must be thread-safe, and should be fast since ids are generated on the hot path of every event.
+ *
+ * @since 4.0
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+  /**
+   * @return a new id, different to any other generated by this instance
+   */
+  String generateId();
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.context.notification;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.context.notification.ServerNotification;
+import org.mule.runtime.core.util.concurrent.MpscRingBuffer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Dispatches asynchronous {@link ServerNotification}s by putting them into bounded {@link MpscRingBuffer}s which are drained in
+ * batches by dedicated consumer tasks, instead of submitting one task per listener per notification.
+ * <p>
+ * Notifications are spread across a number of shards, each one with its own buffer and consumer, according to the producer
+ * thread. This keeps the notifications fired by a given thread in order, while avoiding all producers contending on the same
+ * buffer.
+ * <p>
+ * What happens when a buffer is full is determined by the configured {@link OverflowPolicy}. Notifications which are discarded
+ * because of it are accounted in {@link #getDroppedCount()}.
+ *
+ * @since 4.0
+ */
+public class BatchingNotificationDispatcher {
+
+  private static final Logger logger = getLogger(BatchingNotificationDispatcher.class);
+
+  private static final long FULL_PARK_NANOS = MICROSECONDS.toNanos(50);
+
+  /**
+   * Determines what to do with a notification fired while the buffer it goes to is full.
+   */
+  public enum OverflowPolicy {
+
+    /**
+     * The notification is discarded.
+     */
+    DROP,
+
+    /**
+     * The firing thread waits until there's room in the buffer or the dispatcher is stopped. If the firing thread is one of the
+     * consumers (i.e.: a listener fired a notification) then the notification is dispatched right away to avoid a deadlock.
+     */
+    BLOCK,
+
+    /**
+     * Once the buffer is half full only one of every {@code sampleRate} notifications is kept, the others are discarded. When the
+     * buffer is full, notifications are discarded as in {@link #DROP}.
+     */
+    SAMPLE
+  }
+
+  private final Scheduler scheduler;
+  private final Shard[] shards;
+  private final int batchSize;
+  private final OverflowPolicy overflowPolicy;
+  private final int sampleRate;
+  private final Consumer<ServerNotification> dispatcher;
+
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong dispatched = new AtomicLong();
+  private final ThreadLocal<Boolean> consumerThread = new ThreadLocal<>();
+  private volatile boolean stopped = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param scheduler the {@link Scheduler} on which the consumers will run. It has to allow running {@code consumers} concurrent
+   *        tasks. It will be stopped when this dispatcher is.
+   * @param consumers how many shards, and therefore consumers, to use
+   * @param bufferSize the capacity of the buffer of each shard
+   * @param batchSize the maximum amount of notifications a consumer takes from its buffer at once
+   * @param overflowPolicy the {@link OverflowPolicy} to apply when a buffer is full
+   * @param sampleRate when using {@link OverflowPolicy#SAMPLE}, one of how many notifications to keep
+   * @param dispatcher the callback which actually delivers each notification to its listeners
+   */
+  public BatchingNotificationDispatcher(Scheduler scheduler, int consumers, int bufferSize, int batchSize,
+                                        OverflowPolicy overflowPolicy, int sampleRate,
+                                        Consumer<ServerNotification> dispatcher) {
+    checkArgument(consumers > 0, "consumers must be greater than zero");
+    checkArgument(batchSize > 0, "batchSize must be greater than zero");
+    checkArgument(sampleRate > 0, "sampleRate must be greater than zero");
+
+    this.scheduler = scheduler;
+    this.batchSize = batchSize;
+    this.overflowPolicy = overflowPolicy;
+    this.sampleRate = sampleRate;
+    this.dispatcher = dispatcher;
+
+    shards = new Shard[consumers];
+    for (int i = 0; i < consumers; i++) {
+      shards[i] = new Shard(bufferSize);
+    }
+  }
+
+  /**
+   * Starts the consumer tasks
+   */
+  public void start() {
+    for (Shard shard : shards) {
+      scheduler.submit(shard::consume);
+    }
+  }
+
+  /**
+   * Stops accepting notifications, lets the consumers deliver the ones already buffered and stops the {@link Scheduler}.
+   */
+  public void stop() {
+    stopped = true;
+    for (Shard shard : shards) {
+      shard.wakeUp();
+    }
+    scheduler.stop();
+  }
+
+  /**
+   * Buffers the given {@code notification} so that it's dispatched by a consumer, applying the {@link OverflowPolicy} if the
+   * buffer is full.
+   *
+   * @param notification the notification to dispatch
+   * @return {@code true} if the notification was buffered or dispatched, {@code false} if it was discarded
+   */
+  public boolean dispatch(ServerNotification notification) {
+    if (stopped) {
+      dropped.incrementAndGet();
+      return false;
+    }
+
+    final Shard shard = shards[(int) (currentThread().getId() % shards.length)];
+    final MpscRingBuffer<ServerNotification> buffer = shard.buffer;
+
+    if (overflowPolicy == OverflowPolicy.SAMPLE && buffer.size() >= buffer.capacity() / 2
+        && shard.sampleCounter.incrementAndGet() % sampleRate != 0) {
+      dropped.incrementAndGet();
+      return false;
+    }
+
+    while (!buffer.offer(notification)) {
+      if (overflowPolicy != OverflowPolicy.BLOCK || stopped) {
+        dropped.incrementAndGet();
+        return false;
+      }
+
+      if (consumerThread.get() != null) {
+        deliver(notification);
+        return true;
+      }
+
+      shard.wakeUp();
+      parkNanos(FULL_PARK_NANOS);
+      if (currentThread().isInterrupted()) {
+        dropped.incrementAndGet();
+        return false;
+      }
+    }
+
+    shard.wakeUp();
+    return true;
+  }
+
+  private void deliver(ServerNotification notification) {
+    try {
+      dispatcher.accept(notification);
+      dispatched.incrementAndGet();
+    } catch (Throwable t) {
+      logger.error("Exception dispatching notification " + notification, t);
+    }
+  }
+
+  /**
+   * @return how many notifications are currently buffered, waiting to be dispatched
+   */
+  public int getBacklog() {
+    int backlog = 0;
+    for (Shard shard : shards) {
+      backlog += shard.buffer.size();
+    }
+    return backlog;
+  }
+
+  /**
+   * @return how many notifications were discarded so far
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * @return how many notifications were dispatched so far
+   */
+  public long getDispatchedCount() {
+    return dispatched.get();
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  private class Shard {
+
+    private final MpscRingBuffer<ServerNotification> buffer;
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private volatile Thread consumer;
+
+    private Shard(int bufferSize) {
+      buffer = new MpscRingBuffer<>(bufferSize);
+    }
+
+    /**
+     * Unparks the consumer if it's waiting for notifications. Cheap enough to be called on every offer since it's only a volatile
+     * read while the consumer is busy.
+     */
+    private void wakeUp() {
+      if (idle.get() && idle.compareAndSet(true, false)) {
+        unpark(consumer);
+      }
+    }
+
+    private void consume() {
+      consumerThread.set(true);
+      consumer = currentThread();
+      try {
+        while (!stopped && !currentThread().isInterrupted()) {
+          if (buffer.drain(BatchingNotificationDispatcher.this::deliver, batchSize) == 0) {
+            idle.set(true);
+            // Check again after publishing the idle flag, so that a notification offered in between is not left behind
+            if (buffer.size() == 0 && !stopped) {
+              park(this);
+            }
+            idle.set(false);
+          }
+        }
+
+        // Deliver what was already accepted before stopping
+        while (buffer.drain(BatchingNotificationDispatcher.this::deliver, batchSize) > 0) {
+          // keep draining
+        }
+      } finally {
+        consumer = null;
+        consumerThread.remove();
+      }
+    }
+  }
+}
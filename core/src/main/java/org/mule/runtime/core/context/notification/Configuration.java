@@ -36,11 +36,25 @@ class Configuration {
   private Set<Class<? extends ServerNotificationListener>> disabledInterfaces = new HashSet<>();
   private Set<Class<? extends ServerNotification>> disabledNotificationTypes = new HashSet<>();
   private volatile boolean dirty = true;
+  private volatile long version = 0;
   private Policy policy;
 
+  private void markDirty() {
+    dirty = true;
+    version++;
+  }
+
+  /**
+   * @return a number which changes each time this configuration is modified. Components caching decisions based on the
+   *         {@link Policy} can use it to know when those decisions have to be revisited.
+   */
+  long getVersion() {
+    return version;
+  }
+
   synchronized void addInterfaceToType(Class<? extends ServerNotificationListener> iface,
                                        Class<? extends ServerNotification> type) {
-    dirty = true;
+    markDirty();
     if (!ServerNotification.class.isAssignableFrom(type)) {
       throw new IllegalArgumentException(CoreMessages.propertyIsNotSupportedType("type", ServerNotification.class, type)
           .getMessage());
@@ -62,7 +76,7 @@ class Configuration {
    */
   synchronized void addAllInterfaceToTypes(Map<Class<? extends ServerNotificationListener>, Set<Class<? extends ServerNotification>>> interfaceToTypes)
       throws ClassNotFoundException {
-    dirty = true;
+    markDirty();
 
     for (Object iface : interfaceToTypes.keySet()) {
       addInterfaceToType(toClass(iface), toClass(interfaceToTypes.get(iface)));
@@ -70,21 +84,21 @@ class Configuration {
   }
 
   synchronized void addListenerSubscriptionPair(ListenerSubscriptionPair pair) {
-    dirty = true;
+    markDirty();
     if (!listenerSubscriptionPairs.add(pair)) {
       logger.warn(CoreMessages.notificationListenerSubscriptionAlreadyRegistered(pair).toString());
     }
   }
 
   synchronized void addAllListenerSubscriptionPairs(Collection pairs) {
-    dirty = true;
+    markDirty();
     for (Iterator listener = pairs.iterator(); listener.hasNext();) {
       addListenerSubscriptionPair((ListenerSubscriptionPair) listener.next());
     }
   }
 
   synchronized void removeListener(ServerNotificationListener listener) {
-    dirty = true;
+    markDirty();
     Set<ListenerSubscriptionPair> toRemove = new HashSet<>();
     for (Object element : listenerSubscriptionPairs) {
       ListenerSubscriptionPair pair = (ListenerSubscriptionPair) element;
@@ -96,32 +110,32 @@ class Configuration {
   }
 
   synchronized void removeAllListeners(Collection listeners) {
-    dirty = true;
+    markDirty();
     for (Iterator listener = listeners.iterator(); listener.hasNext();) {
       removeListener((ServerNotificationListener) listener.next());
     }
   }
 
   synchronized void disableInterface(Class<? extends ServerNotificationListener> iface) {
-    dirty = true;
+    markDirty();
     disabledInterfaces.add(iface);
   }
 
   synchronized void disabledAllInterfaces(Collection<Class<? extends ServerNotificationListener>> interfaces)
       throws ClassNotFoundException {
-    dirty = true;
+    markDirty();
     for (Object element : interfaces) {
       disableInterface(toClass(element));
     }
   }
 
   synchronized void disableType(Class<? extends ServerNotification> type) {
-    dirty = true;
+    markDirty();
     disabledNotificationTypes.add(type);
   }
 
   synchronized void disableAllTypes(Collection types) throws ClassNotFoundException {
-    dirty = true;
+    markDirty();
     for (Iterator event = types.iterator(); event.hasNext();) {
       disableType(toClass(event.next()));
     }
@@ -6,8 +6,13 @@
  */
 package org.mule.runtime.core.context.notification;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.lifecycle.Disposable;
@@ -20,11 +25,13 @@ import org.mule.runtime.core.api.context.notification.ServerNotification;
 import org.mule.runtime.core.api.context.notification.ServerNotificationHandler;
 import org.mule.runtime.core.api.context.notification.ServerNotificationListener;
 import org.mule.runtime.core.api.context.notification.SynchronousServerEvent;
+import org.mule.runtime.core.context.notification.BatchingNotificationDispatcher.OverflowPolicy;
 import org.mule.runtime.core.util.ClassUtils;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -50,6 +57,20 @@ import org.slf4j.Logger;
  * </p>
  *
  * <p>
+ * The result of {@link #isNotificationEnabled(Class)} is cached per notification type along with the version of the
+ * configuration it was computed for, so that checking whether a notification has to be fired doesn't take any locks nor
+ * consults the {@link Policy} until the configuration changes. This makes firing notifications almost free when nobody is
+ * listening to them.
+ * </p>
+ *
+ * <p>
+ * By default, asynchronous notifications are delivered by submitting a task per listener to the notification schedulers. When
+ * {@link #BATCH_DISPATCH_PROPERTY} is set (or {@link #setBatchDispatch(boolean)} is called before initialisation) they are
+ * instead put into bounded ring buffers that are drained in batches by a {@link BatchingNotificationDispatcher}, which is cheaper
+ * under heavy notification load. See {@link OverflowPolicy} for what happens when those buffers fill up.
+ * </p>
+ *
+ * <p>
  * Note that, because of subclass relationships, we need to be very careful about exactly what is enabled and disabled:
  * <ul>
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
@@ -60,13 +81,29 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  public static final String BATCH_DISPATCH_PROPERTY = SYSTEM_PROPERTY_PREFIX + "notifications.batchDispatch";
+  public static final String BATCH_DISPATCH_BUFFER_SIZE_PROPERTY = BATCH_DISPATCH_PROPERTY + ".bufferSize";
+  public static final String BATCH_DISPATCH_BATCH_SIZE_PROPERTY = BATCH_DISPATCH_PROPERTY + ".batchSize";
+  public static final String BATCH_DISPATCH_CONSUMERS_PROPERTY = BATCH_DISPATCH_PROPERTY + ".consumers";
+  public static final String BATCH_DISPATCH_OVERFLOW_POLICY_PROPERTY = BATCH_DISPATCH_PROPERTY + ".overflowPolicy";
+  public static final String BATCH_DISPATCH_SAMPLE_RATE_PROPERTY = BATCH_DISPATCH_PROPERTY + ".sampleRate";
+
   private boolean dynamic = false;
-  private Configuration configuration = new Configuration();
+  private volatile Configuration configuration = new Configuration();
+  private final Map<Class<? extends ServerNotification>, EnabledNotification> enabledNotifications = new ConcurrentHashMap<>();
   private ReentrantReadWriteLock disposeLock = new ReentrantReadWriteLock();
   private AtomicBoolean disposed = new AtomicBoolean(false);
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
-  private Scheduler notificationsIoScheduler;
+  private volatile Scheduler notificationsIoScheduler;
+
+  private boolean batchDispatch = getBoolean(BATCH_DISPATCH_PROPERTY);
+  private int batchDispatchBufferSize = getInteger(BATCH_DISPATCH_BUFFER_SIZE_PROPERTY, 16 * 1024);
+  private int batchDispatchBatchSize = getInteger(BATCH_DISPATCH_BATCH_SIZE_PROPERTY, 256);
+  private int batchDispatchConsumers = getInteger(BATCH_DISPATCH_CONSUMERS_PROPERTY, 2);
+  private int batchDispatchSampleRate = getInteger(BATCH_DISPATCH_SAMPLE_RATE_PROPERTY, 10);
+  private OverflowPolicy overflowPolicy;
+  private BatchingNotificationDispatcher batchingDispatcher;
 
   @Override
   public boolean isNotificationDynamic() {
@@ -86,6 +123,34 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
   public void initialise() throws InitialisationException {
     notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+
+    if (batchDispatch) {
+      if (overflowPolicy == null) {
+        overflowPolicy = resolveOverflowPolicy();
+      }
+      batchingDispatcher = new BatchingNotificationDispatcher(muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig().withName("notifications.dispatcher")
+              .withMaxConcurrentTasks(batchDispatchConsumers)),
+                                                              batchDispatchConsumers, batchDispatchBufferSize,
+                                                              batchDispatchBatchSize, overflowPolicy, batchDispatchSampleRate,
+                                                              this::dispatchBatched);
+      batchingDispatcher.start();
+    }
+  }
+
+  private OverflowPolicy resolveOverflowPolicy() {
+    String value = getProperty(BATCH_DISPATCH_OVERFLOW_POLICY_PROPERTY);
+    if (value == null) {
+      return OverflowPolicy.DROP;
+    }
+
+    try {
+      return OverflowPolicy.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value '{}' for system property '{}', expected one of {}. Using {} instead.", value,
+                  BATCH_DISPATCH_OVERFLOW_POLICY_PROPERTY, asList(OverflowPolicy.values()), OverflowPolicy.DROP);
+      return OverflowPolicy.DROP;
+    }
   }
 
   public void addInterfaceToType(Class<? extends ServerNotificationListener> iface, Class<? extends ServerNotification> event) {
@@ -141,6 +206,11 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
 
   @Override
   public void fireNotification(ServerNotification notification) {
+    if (!disposed.get() && !isNotificationEnabled(notification.getClass())) {
+      return;
+    }
+
+    BatchingNotificationDispatcher dispatcher = null;
     disposeLock.readLock().lock();
     try {
       if (disposed.get()) {
@@ -151,6 +221,8 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
       notification.setMuleContext(muleContext);
       if (notification instanceof SynchronousServerEvent) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (batchingDispatcher != null) {
+        dispatcher = batchingDispatcher;
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -163,21 +235,65 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
     } finally {
       disposeLock.readLock().unlock();
     }
+
+    // Done without holding the lock since it may wait for room in the buffer, which must not keep dispose() from stopping the
+    // dispatcher. If it's stopped in the meantime, the notification is just dropped.
+    if (dispatcher != null) {
+      dispatcher.dispatch(notification);
+    }
   }
 
   protected void notifyListeners(ServerNotification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
 
+  /**
+   * Delivers a notification taken from the {@link BatchingNotificationDispatcher} buffers. Non blocking listeners are invoked
+   * right away in the consumer thread, while the blocking ones are still handed to the IO scheduler.
+   */
+  private void dispatchBatched(ServerNotification notification) {
+    final Configuration configuration = this.configuration;
+    if (configuration == null) {
+      return;
+    }
+
+    configuration.getPolicy().dispatch(notification, (listener, nfn) -> {
+      if (listener.isBlocking()) {
+        // may be cleared by a concurrent dispose() while the consumer delivers what's left in its buffer
+        final Scheduler ioScheduler = notificationsIoScheduler;
+        if (ioScheduler != null) {
+          ioScheduler.submit(() -> listener.onNotification(nfn));
+        }
+      } else {
+        try {
+          listener.onNotification(nfn);
+        } catch (Exception e) {
+          logger.error("Listener " + listener + " failed handling notification " + nfn, e);
+        }
+      }
+    });
+  }
+
   @Override
   public boolean isNotificationEnabled(Class<? extends ServerNotification> type) {
+    final Configuration configuration = this.configuration;
+    if (configuration == null) {
+      return false;
+    }
+
+    final long version = configuration.getVersion();
+    EnabledNotification enabledNotification = enabledNotifications.get(type);
+    if (enabledNotification != null && enabledNotification.version == version) {
+      return enabledNotification.enabled;
+    }
+
     boolean enabled = false;
-    if (configuration != null) {
-      Policy policy = configuration.getPolicy();
-      if (policy != null) {
-        enabled = policy.isNotificationEnabled(type);
-      }
+    Policy policy = configuration.getPolicy();
+    if (policy != null) {
+      enabled = policy.isNotificationEnabled(type);
     }
+    enabledNotifications.put(type, new EnabledNotification(version, enabled));
+
     return enabled;
   }
 
@@ -185,6 +301,10 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
   public void dispose() {
     disposeLock.writeLock().lock();
     try {
+      if (batchingDispatcher != null) {
+        batchingDispatcher.stop();
+        batchingDispatcher = null;
+      }
       if (notificationsLiteScheduler != null) {
         notificationsLiteScheduler.stop();
         notificationsLiteScheduler = null;
@@ -196,11 +316,48 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
 
       disposed.set(true);
       configuration = null;
+      enabledNotifications.clear();
     } finally {
       disposeLock.writeLock().unlock();
     }
   }
 
+  /**
+   * @param batchDispatch whether asynchronous notifications are to be dispatched through a
+   *        {@link BatchingNotificationDispatcher}. Only taken into account if set before initialisation.
+   */
+  public void setBatchDispatch(boolean batchDispatch) {
+    this.batchDispatch = batchDispatch;
+  }
+
+  public void setBatchDispatchBufferSize(int batchDispatchBufferSize) {
+    this.batchDispatchBufferSize = batchDispatchBufferSize;
+  }
+
+  public void setBatchDispatchBatchSize(int batchDispatchBatchSize) {
+    this.batchDispatchBatchSize = batchDispatchBatchSize;
+  }
+
+  public void setBatchDispatchConsumers(int batchDispatchConsumers) {
+    this.batchDispatchConsumers = batchDispatchConsumers;
+  }
+
+  public void setBatchDispatchSampleRate(int batchDispatchSampleRate) {
+    this.batchDispatchSampleRate = batchDispatchSampleRate;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * @return the {@link BatchingNotificationDispatcher} in use, which exposes backlog and drop metrics, or {@code null} if batch
+   *         dispatching is not enabled.
+   */
+  public BatchingNotificationDispatcher getBatchingDispatcher() {
+    return batchingDispatcher;
+  }
+
   /**
    * Support string or class parameters
    */
@@ -217,6 +374,20 @@ public class ServerNotificationManager implements Initialisable, Disposable, Ser
     return clazz;
   }
 
+  /**
+   * Whether a notification type is enabled for a given version of the {@link Configuration}
+   */
+  private static final class EnabledNotification {
+
+    private final long version;
+    private final boolean enabled;
+
+    private EnabledNotification(long version, boolean enabled) {
+      this.version = version;
+      this.enabled = enabled;
+    }
+  }
+
   // for tests -------------------------------------------------------
 
   Policy getPolicy() {
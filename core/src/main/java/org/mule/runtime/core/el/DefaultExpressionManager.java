@@ -7,6 +7,7 @@
 package org.mule.runtime.core.el;
 
 import static java.lang.String.format;
+import static com.google.common.cache.CacheLoader.from;
 import static org.mule.runtime.api.el.ValidationResult.failure;
 import static org.mule.runtime.api.el.ValidationResult.success;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
@@ -25,7 +26,6 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.api.Event;
-import org.mule.runtime.core.api.Event.Builder;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.el.ExtendedExpressionLanguageAdaptor;
@@ -44,6 +44,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Inject;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+
 import org.slf4j.Logger;
 
 public class DefaultExpressionManager implements ExtendedExpressionManager, Initialisable {
@@ -53,6 +56,11 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   public static final String PREFIX_EXPR_SEPARATOR = ":";
   private static final Logger LOGGER = getLogger(DefaultExpressionManager.class);
 
+  /**
+   * Maximum amount of entries kept by each of the caches of processed expressions.
+   */
+  static final int EXPRESSION_CACHE_MAX_SIZE = 1000;
+
   private final OneTimeWarning parseWarning = new OneTimeWarning(LOGGER,
                                                                  "Expression parsing is deprecated, regular evaluations should be used instead.");
 
@@ -61,6 +69,8 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   private final ExtendedExpressionLanguageAdaptor expressionLanguage;
   // Default style parser
   private final TemplateParser parser = TemplateParser.createMuleStyleParser();
+  private final LoadingCache<String, ExpressionTemplate> templates =
+      CacheBuilder.newBuilder().maximumSize(EXPRESSION_CACHE_MAX_SIZE).recordStats().build(from(ExpressionTemplate::parse));
   private final boolean melDefault;
 
 
@@ -220,46 +230,21 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
 
   @Override
   public String parse(String expression, Event event, FlowConstruct flowConstruct) throws ExpressionRuntimeException {
-    Builder eventBuilder = Event.builder(event);
-    parseWarning.warn();
-    if (hasMelExpression(expression) || melDefault) {
-      return parser.parse(token -> {
-        Object result = evaluate(token, event, eventBuilder, flowConstruct).getValue();
-        if (result instanceof Message) {
-          return ((Message) result).getPayload().getValue();
-        } else {
-          return result;
-        }
-      }, expression);
-    } else if (isExpression(expression)) {
-      TypedValue evaluation = evaluate(expression, event, eventBuilder, flowConstruct);
-      try {
-        return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
-      } catch (TransformerException e) {
-        throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
-                                                                        STRING)),
-                                             e);
-      }
-    } else {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(String.format("No expression marker found in expression '%s'. Parsing as plain String.", expression));
-      }
-      return expression;
-    }
+    return parse(expression, event, Event.builder(event), flowConstruct);
   }
 
   private String parse(String expression, Event event, Event.Builder eventBuilder, FlowConstruct flowConstruct)
       throws ExpressionRuntimeException {
     parseWarning.warn();
     if (hasMelExpression(expression) || melDefault) {
-      return parser.parse(token -> {
+      return templates.getUnchecked(expression).resolve(token -> {
         Object result = evaluate(token, event, eventBuilder, flowConstruct).getValue();
         if (result instanceof Message) {
           return ((Message) result).getPayload().getValue();
         } else {
           return result;
         }
-      }, expression);
+      });
     } else if (isExpression(expression)) {
       TypedValue evaluation = evaluate(expression, event, eventBuilder, flowConstruct);
       try {
@@ -277,6 +262,28 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     }
   }
 
+  /**
+   * @return the usage of the caches of parsed templates and of the expression language selected for each expression
+   */
+  public ExpressionCacheStatistics getCacheStatistics() {
+    return new ExpressionCacheStatistics(templates.stats()
+        .plus(((ExpressionLanguageAdaptorHandler) expressionLanguage).getCacheStats()));
+  }
+
+  /**
+   * @return the usage of the cache of parsed templates alone
+   */
+  ExpressionCacheStatistics getTemplateCacheStatistics() {
+    return new ExpressionCacheStatistics(templates.stats());
+  }
+
+  /**
+   * @return the usage of the cache of the expression language selected for each expression alone
+   */
+  ExpressionCacheStatistics getLanguageCacheStatistics() {
+    return new ExpressionCacheStatistics(((ExpressionLanguageAdaptorHandler) expressionLanguage).getCacheStats());
+  }
+
   @Override
   public Iterator<TypedValue<?>> split(String expression, int bachSize, Event event, FlowConstruct flowConstruct,
                                        BindingContext bindingContext)
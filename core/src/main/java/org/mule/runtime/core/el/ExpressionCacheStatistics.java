@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * Snapshot of the usage of the caches kept by a {@link DefaultExpressionManager} for the templates it parses and the
+ * expression language each expression is evaluated with.
+ *
+ * @since 4.0
+ */
+public final class ExpressionCacheStatistics {
+
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+
+  ExpressionCacheStatistics(CacheStats stats) {
+    this.hitCount = stats.hitCount();
+    this.missCount = stats.missCount();
+    this.evictionCount = stats.evictionCount();
+  }
+
+  /**
+   * @return the amount of lookups that found an already processed expression
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the amount of lookups that had to process the expression
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the amount of processed expressions discarded to keep the caches within their maximum size
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the ratio of lookups that were hits, or {@code 1.0} if there were no lookups at all
+   */
+  public double getHitRate() {
+    long requestCount = hitCount + missCount;
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public String toString() {
+    return "ExpressionCacheStatistics{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+        + "}";
+  }
+}
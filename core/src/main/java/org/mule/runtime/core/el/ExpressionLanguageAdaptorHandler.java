@@ -12,6 +12,7 @@ import static java.util.regex.Pattern.compile;
 import static org.apache.commons.lang.StringUtils.isEmpty;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_MEL_AS_DEFAULT;
 import static org.mule.runtime.core.el.DefaultExpressionManager.DW_PREFIX;
+import static org.mule.runtime.core.el.DefaultExpressionManager.EXPRESSION_CACHE_MAX_SIZE;
 import static org.mule.runtime.core.el.DefaultExpressionManager.MEL_PREFIX;
 
 import org.mule.runtime.api.el.BindingContext;
@@ -30,6 +31,10 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 /**
  * Implementation of an {@link ExtendedExpressionLanguageAdaptor} which adapts MVEL and DW together, deciding via a prefix whether one or
  * the other should be call. It will allow MVEL and DW to be used together in compatibility mode.
@@ -44,6 +49,10 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
 
   private boolean melDefault = false;
 
+  // Selecting the language requires matching the expression against a pattern, which is expensive to do on each evaluation
+  private final Cache<String, ExtendedExpressionLanguageAdaptor> selectedLanguages =
+      CacheBuilder.newBuilder().maximumSize(EXPRESSION_CACHE_MAX_SIZE).recordStats().build();
+
   public ExpressionLanguageAdaptorHandler(DataWeaveExpressionLanguageAdaptor defaultExtendedExpressionLanguage,
                                           MVELExpressionLanguage mvelExpressionLanguage) {
     expressionLanguages = new HashMap<>();
@@ -56,6 +65,13 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return melDefault;
   }
 
+  /**
+   * @return the usage of the cache of the language selected for each expression
+   */
+  CacheStats getCacheStats() {
+    return selectedLanguages.stats();
+  }
+
   @Override
   public void addGlobalBindings(BindingContext bindingContext) {
     expressionLanguages.get(DW_PREFIX).addGlobalBindings(bindingContext);
@@ -124,6 +140,18 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
   }
 
   private ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
+    ExtendedExpressionLanguageAdaptor language = selectedLanguages.getIfPresent(expression);
+    if (language == null) {
+      language = doSelectExpressionLanguage(expression);
+      // unknown prefixes are not cached, so that they keep failing the same way
+      if (language != null) {
+        selectedLanguages.put(expression, language);
+      }
+    }
+    return language;
+  }
+
+  private ExtendedExpressionLanguageAdaptor doSelectExpressionLanguage(String expression) {
     final String languagePrefix = getLanguagePrefix(expression);
     if (isEmpty(languagePrefix)) {
       if (melDefault) {
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import static org.mule.runtime.core.util.TemplateParser.createMuleStyleParser;
+
+import org.mule.runtime.core.util.TemplateParser.PatternInfo;
+import org.mule.runtime.core.util.TemplateParser.TemplateCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A template split into its literal parts and the {@code #[...]} expressions between them, so that it can be resolved many
+ * times without matching it against the template pattern each time.
+ * <p>
+ * Resolving it is equivalent to {@link org.mule.runtime.core.util.TemplateParser#parse(TemplateCallback, String)} with a Mule
+ * style parser.
+ *
+ * @since 4.0
+ */
+final class ExpressionTemplate {
+
+  private static final PatternInfo STYLE = createMuleStyleParser().getStyle();
+  private static final Pattern PATTERN = STYLE.getPattern();
+  private static final int PREFIX_LENGTH = STYLE.getPrefix().length();
+  private static final int SUFFIX_LENGTH = STYLE.getSuffix().length();
+  private static final String NULL_AS_STRING = "null";
+
+  private final String template;
+  // there is always one more literal than expressions, the first and last ones may be empty
+  private final String[] literals;
+  private final String[] expressions;
+
+  /**
+   * Splits the given template.
+   *
+   * @param template the template to split
+   * @return the split template
+   */
+  static ExpressionTemplate parse(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+
+    Matcher matcher = PATTERN.matcher(template);
+    int literalStart = 0;
+    while (matcher.find()) {
+      literals.add(template.substring(literalStart, matcher.start()));
+      expressions.add(template.substring(matcher.start() + PREFIX_LENGTH, matcher.end() - SUFFIX_LENGTH));
+      literalStart = matcher.end();
+    }
+    literals.add(template.substring(literalStart));
+
+    return new ExpressionTemplate(template, literals.toArray(new String[literals.size()]),
+                                  expressions.toArray(new String[expressions.size()]));
+  }
+
+  private ExpressionTemplate(String template, String[] literals, String[] expressions) {
+    this.template = template;
+    this.literals = literals;
+    this.expressions = expressions;
+  }
+
+  /**
+   * Resolves each of the expressions in the template through the given {@code callback} and concatenates the results with the
+   * literal parts.
+   *
+   * @param callback the callback that evaluates each expression, without the enclosing {@code #[} and {@code ]}
+   * @return the resolved template
+   */
+  String resolve(TemplateCallback callback) {
+    if (expressions.length == 0) {
+      return template;
+    }
+
+    StringBuilder result = new StringBuilder(template.length());
+    for (int i = 0; i < expressions.length; ++i) {
+      result.append(literals[i]);
+      Object value = callback.match(expressions[i]);
+      result.append(value == null ? NULL_AS_STRING : value.toString());
+    }
+    return result.append(literals[expressions.length]).toString();
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.getLong;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.scheduler.SchedulerService;
+
+import java.lang.ref.WeakReference;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * A pool of connections obtained from a {@link ConnectionProvider} and configured through a {@link PoolingProfile}.
+ * <p>
+ * Borrowing and releasing connections don't take any lock. Each thread first tries to reuse the last connection it released, and
+ * otherwise takes the most recently released one from a shared deque, so that warm connections are reused first. The amount of
+ * borrowed connections is bounded by a fair {@link Semaphore}, so threads waiting on an exhausted pool are served in order.
+ * <p>
+ * Idle connections older than {@link PoolingProfile#getMinEvictionMillis()} are destroyed by a sweep which runs every
+ * {@link PoolingProfile#getEvictionCheckIntervalMillis()} on an IO {@link Scheduler}, and which is also triggered by threads
+ * borrowing or releasing connections once that interval has elapsed. The same sweep logs connections borrowed for longer than
+ * {@link #LEAK_DETECTION_THRESHOLD_PROPERTY}, if set.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.0
+ */
+class ConcurrentConnectionPool<C> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentConnectionPool.class);
+
+  /**
+   * System property to set the amount of milliseconds after which a connection which was not returned to its pool is reported as
+   * a possible leak. Leak detection is disabled unless set.
+   */
+  public static final String LEAK_DETECTION_THRESHOLD_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "connection.pool.leakDetectionThresholdMillis";
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int REMOVED = 2;
+
+  private final ConnectionProvider<C> connectionProvider;
+  private final int maxIdle;
+  private final long maxWait;
+  private final boolean failWhenExhausted;
+  private final long minEvictionMillis;
+  private final long sweepIntervalMillis;
+  private final long leakDetectionThresholdMillis;
+  private final Semaphore permits;
+  private final Scheduler sweepScheduler;
+
+  private final Set<PooledConnection<C>> connections = ConcurrentHashMap.newKeySet();
+  private final Deque<PooledConnection<C>> idleConnections = new ConcurrentLinkedDeque<>();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReleased = new ThreadLocal<>();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicLong nextSweepMillis = new AtomicLong();
+  private volatile boolean closed = false;
+
+  private final LongAdder borrowCount = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder creationCount = new LongAdder();
+  private final LongAdder creationNanos = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to create and destroy connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param schedulerService the {@link SchedulerService} providing the {@link Scheduler} on which idle connections are swept. If
+   *        {@code null}, they are only swept when connections are borrowed or released.
+   */
+  ConcurrentConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                           SchedulerService schedulerService) {
+    this(connectionProvider, poolingProfile, schedulerService, getLong(LEAK_DETECTION_THRESHOLD_PROPERTY, 0L));
+  }
+
+  ConcurrentConnectionPool(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                           SchedulerService schedulerService, long leakDetectionThresholdMillis) {
+    this.connectionProvider = connectionProvider;
+    this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    maxIdle = poolingProfile.getMaxIdle();
+    maxWait = poolingProfile.getMaxWait();
+    failWhenExhausted = poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_FAIL;
+    permits = poolingProfile.getMaxActive() < 0 || poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_GROW
+        ? null
+        : new Semaphore(poolingProfile.getMaxActive(), true);
+
+    minEvictionMillis = poolingProfile.getEvictionCheckIntervalMillis() > 0 ? poolingProfile.getMinEvictionMillis() : 0;
+    sweepIntervalMillis = poolingProfile.getEvictionCheckIntervalMillis() > 0
+        ? poolingProfile.getEvictionCheckIntervalMillis()
+        : leakDetectionThresholdMillis;
+    nextSweepMillis.set(currentTimeMillis() + sweepIntervalMillis);
+
+    if (sweepIntervalMillis > 0 && schedulerService != null) {
+      sweepScheduler = schedulerService.ioScheduler();
+      sweepScheduler.scheduleWithFixedDelay(this::scheduledSweep, sweepIntervalMillis, sweepIntervalMillis, MILLISECONDS);
+    } else {
+      sweepScheduler = null;
+    }
+  }
+
+  /**
+   * Borrows a connection, creating it if no idle one is available
+   *
+   * @return a {@link PooledConnection}
+   * @throws NoSuchElementException if the pool is exhausted and cannot wait or waited for too long
+   * @throws Exception if a new connection could not be created
+   */
+  PooledConnection<C> borrow() throws Exception {
+    if (closed) {
+      throw new IllegalStateException("Connection pool is closed");
+    }
+
+    long waitStart = nanoTime();
+    acquirePermit();
+    waitNanos.add(nanoTime() - waitStart);
+
+    PooledConnection<C> connection;
+    try {
+      connection = takeIdle();
+      if (connection == null) {
+        connection = create();
+      }
+    } catch (Exception | Error e) {
+      releasePermit();
+      throw e;
+    }
+
+    activeCount.incrementAndGet();
+    borrowCount.increment();
+    if (leakDetectionThresholdMillis > 0) {
+      connection.borrowedMillis = currentTimeMillis();
+      connection.borrowTrace = new Exception("Connection borrowed here");
+      connection.leakReported = false;
+    }
+
+    sweepIfDue();
+    return connection;
+  }
+
+  private void acquirePermit() throws InterruptedException {
+    if (permits == null || permits.tryAcquire(0, MILLISECONDS)) {
+      return;
+    }
+
+    if (failWhenExhausted) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    try {
+      if (maxWait <= 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(maxWait, MILLISECONDS)) {
+        throw new NoSuchElementException("Timeout waiting for idle object");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  private void releasePermit() {
+    if (permits != null) {
+      permits.release();
+    }
+  }
+
+  private PooledConnection<C> takeIdle() {
+    WeakReference<PooledConnection<C>> reference = lastReleased.get();
+    PooledConnection<C> connection = reference != null ? reference.get() : null;
+    if (connection != null && connection.state.compareAndSet(IDLE, IN_USE)) {
+      idleCount.decrementAndGet();
+      return connection;
+    }
+
+    while ((connection = idleConnections.pollFirst()) != null) {
+      // must be cleared before trying to take it, so that a concurrent release puts it back if we lose the race
+      connection.queued.set(false);
+      if (connection.state.compareAndSet(IDLE, IN_USE)) {
+        idleCount.decrementAndGet();
+        return connection;
+      }
+    }
+
+    return null;
+  }
+
+  private PooledConnection<C> create() throws Exception {
+    long start = nanoTime();
+    C connection = connectionProvider.connect();
+    creationNanos.add(nanoTime() - start);
+    creationCount.increment();
+
+    PooledConnection<C> pooled = new PooledConnection<>(connection);
+    connections.add(pooled);
+    return pooled;
+  }
+
+  /**
+   * Returns the given {@code connection} to the pool. It is destroyed instead if the pool already holds
+   * {@link PoolingProfile#getMaxIdle()} idle connections or is closed.
+   *
+   * @param connection a connection obtained through {@link #borrow()}
+   */
+  void release(PooledConnection<C> connection) {
+    activeCount.decrementAndGet();
+
+    if (closed || (maxIdle >= 0 && idleCount.get() >= maxIdle)) {
+      destroy(connection);
+      releasePermit();
+      return;
+    }
+
+    connection.lastReleasedMillis = currentTimeMillis();
+    connection.borrowTrace = null;
+    connection.state.set(IDLE);
+    idleCount.incrementAndGet();
+    lastReleased.set(connection.reference);
+    if (connection.queued.compareAndSet(false, true)) {
+      idleConnections.offerFirst(connection);
+    }
+    releasePermit();
+
+    if (closed && connection.state.compareAndSet(IDLE, REMOVED)) {
+      // lost a race against close()
+      idleCount.decrementAndGet();
+      destroy(connection);
+    }
+
+    sweepIfDue();
+  }
+
+  /**
+   * Destroys the given {@code connection} instead of returning it to the pool
+   *
+   * @param connection a connection obtained through {@link #borrow()}
+   */
+  void invalidate(PooledConnection<C> connection) {
+    activeCount.decrementAndGet();
+    destroy(connection);
+    releasePermit();
+  }
+
+  private void destroy(PooledConnection<C> connection) {
+    connection.state.set(REMOVED);
+    connections.remove(connection);
+    try {
+      connectionProvider.disconnect(connection.getConnection());
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to disconnect connection of type "
+          + connection.getConnection().getClass().getName(), e);
+    }
+  }
+
+  private void sweepIfDue() {
+    if (sweepIntervalMillis <= 0) {
+      return;
+    }
+
+    long now = currentTimeMillis();
+    long next = nextSweepMillis.get();
+    if (now < next || !nextSweepMillis.compareAndSet(next, now + sweepIntervalMillis)) {
+      return;
+    }
+
+    sweep(now);
+  }
+
+  private void scheduledSweep() {
+    if (closed) {
+      return;
+    }
+
+    long now = currentTimeMillis();
+    nextSweepMillis.set(now + sweepIntervalMillis);
+    try {
+      sweep(now);
+    } catch (Exception e) {
+      // don't let the exception cancel the periodic sweep
+      LOGGER.warn("Exception was found sweeping the connection pool", e);
+    }
+  }
+
+  private void sweep(long now) {
+    for (PooledConnection<C> connection : connections) {
+      int state = connection.state.get();
+      if (state == IDLE && minEvictionMillis > 0 && now - connection.lastReleasedMillis >= minEvictionMillis
+          && connection.state.compareAndSet(IDLE, REMOVED)) {
+        idleCount.decrementAndGet();
+        destroy(connection);
+      } else if (state == IN_USE && leakDetectionThresholdMillis > 0 && !connection.leakReported
+          && now - connection.borrowedMillis >= leakDetectionThresholdMillis) {
+        Exception borrowTrace = connection.borrowTrace;
+        if (borrowTrace != null) {
+          connection.leakReported = true;
+          LOGGER.warn("Connection of type " + connection.getConnection().getClass().getName()
+              + " has been borrowed for more than " + leakDetectionThresholdMillis
+              + " ms without being returned to the pool. It may have leaked.", borrowTrace);
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying all the idle connections. Connections released afterwards are destroyed as well.
+   */
+  void close() {
+    closed = true;
+    if (sweepScheduler != null) {
+      sweepScheduler.stop();
+    }
+    for (PooledConnection<C> connection : connections) {
+      if (connection.state.compareAndSet(IDLE, REMOVED)) {
+        idleCount.decrementAndGet();
+        destroy(connection);
+      }
+    }
+    idleConnections.clear();
+  }
+
+  /**
+   * @return a snapshot of the current state and usage of this pool
+   */
+  ConnectionPoolStatistics getStatistics() {
+    return new ConnectionPoolStatistics(activeCount.get(), idleCount.get(), borrowCount.sum(), waitNanos.sum(),
+                                        creationCount.sum(), creationNanos.sum());
+  }
+
+  /**
+   * A connection held by a {@link ConcurrentConnectionPool}
+   *
+   * @param <C> the generic type of the connection
+   */
+  static final class PooledConnection<C> {
+
+    private final C connection;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final AtomicBoolean queued = new AtomicBoolean(false);
+    private final WeakReference<PooledConnection<C>> reference = new WeakReference<>(this);
+    private volatile long lastReleasedMillis;
+    private volatile long borrowedMillis;
+    private volatile Exception borrowTrace;
+    private volatile boolean leakReported = false;
+
+    PooledConnection(C connection) {
+      this.connection = connection;
+    }
+
+    C getConnection() {
+      return connection;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+/**
+ * Snapshot of the state and usage of a {@link ConcurrentConnectionPool}.
+ *
+ * @since 4.0
+ */
+public final class ConnectionPoolStatistics {
+
+  private final int activeCount;
+  private final int idleCount;
+  private final long borrowCount;
+  private final long waitNanos;
+  private final long creationCount;
+  private final long creationNanos;
+
+  ConnectionPoolStatistics(int activeCount, int idleCount, long borrowCount, long waitNanos, long creationCount,
+                           long creationNanos) {
+    this.activeCount = activeCount;
+    this.idleCount = idleCount;
+    this.borrowCount = borrowCount;
+    this.waitNanos = waitNanos;
+    this.creationCount = creationCount;
+    this.creationNanos = creationNanos;
+  }
+
+  /**
+   * @return the amount of connections borrowed and not yet returned
+   */
+  public int getActiveCount() {
+    return activeCount;
+  }
+
+  /**
+   * @return the amount of connections waiting in the pool to be borrowed
+   */
+  public int getIdleCount() {
+    return idleCount;
+  }
+
+  /**
+   * @return the amount of connections borrowed since the pool was created
+   */
+  public long getBorrowCount() {
+    return borrowCount;
+  }
+
+  /**
+   * @return the total time, in nanoseconds, that borrowers spent waiting for the pool to have room for them
+   */
+  public long getWaitNanos() {
+    return waitNanos;
+  }
+
+  /**
+   * @return the amount of connections created since the pool was created
+   */
+  public long getCreationCount() {
+    return creationCount;
+  }
+
+  /**
+   * @return the total time, in nanoseconds, spent creating connections
+   */
+  public long getCreationNanos() {
+    return creationNanos;
+  }
+
+  /**
+   * @return the average time, in nanoseconds, a borrower waited, or {@code 0} if nothing was borrowed yet
+   */
+  public long getAverageWaitNanos() {
+    return borrowCount == 0 ? 0 : waitNanos / borrowCount;
+  }
+
+  /**
+   * @return the average time, in nanoseconds, spent creating a connection, or {@code 0} if none was created yet
+   */
+  public long getAverageCreationNanos() {
+    return creationCount == 0 ? 0 : creationNanos / creationCount;
+  }
+
+  @Override
+  public String toString() {
+    return "ConnectionPoolStatistics{activeCount=" + activeCount + ", idleCount=" + idleCount + ", borrowCount=" + borrowCount
+        + ", waitNanos=" + waitNanos + ", creationCount=" + creationCount + ", creationNanos=" + creationNanos + "}";
+  }
+}
@@ -9,8 +9,8 @@ package org.mule.runtime.core.internal.connection;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.PoolingListener;
+import org.mule.runtime.core.internal.connection.ConcurrentConnectionPool.PooledConnection;
 
-import org.apache.commons.pool.ObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,8 +24,8 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PoolingConnectionHandler.class);
 
-  private final C connection;
-  private final ObjectPool<C> pool;
+  private final PooledConnection<C> connection;
+  private final ConcurrentConnectionPool<C> pool;
   private final PoolingListener poolingListener;
 
   /**
@@ -34,7 +34,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
    * @param connection the connection to be wrapped
    * @param pool the pool from which the {@code connection} was obtained and to which it has to be returned
    */
-  PoolingConnectionHandler(C connection, ObjectPool<C> pool, PoolingListener poolingListener) {
+  PoolingConnectionHandler(PooledConnection<C> connection, ConcurrentConnectionPool<C> pool, PoolingListener poolingListener) {
     this.connection = connection;
     this.pool = pool;
     this.poolingListener = poolingListener;
@@ -45,7 +45,7 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
    */
   @Override
   public C getConnection() throws ConnectionException {
-    return connection;
+    return connection.getConnection();
   }
 
   /**
@@ -55,18 +55,19 @@ final class PoolingConnectionHandler<C> implements ConnectionHandlerAdapter<C> {
   public void release() {
     boolean returnAttempted = false;
     try {
-      poolingListener.onReturn(connection);
+      poolingListener.onReturn(connection.getConnection());
 
       returnAttempted = true;
-      pool.returnObject(connection);
+      pool.release(connection);
     } catch (Exception e) {
       LOGGER.warn("Could not return connection to the pool. Connection has been destroyed", e);
     } finally {
       if (!returnAttempted) {
         try {
-          pool.invalidateObject(connection);
+          pool.invalidate(connection);
         } catch (Exception e) {
-          LOGGER.warn("Exception was found trying to invalidate connection of type " + connection.getClass().getName(), e);
+          LOGGER.warn("Exception was found trying to invalidate connection of type "
+              + connection.getConnection().getClass().getName(), e);
         }
       }
     }
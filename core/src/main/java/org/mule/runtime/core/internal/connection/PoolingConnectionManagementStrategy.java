@@ -6,22 +6,18 @@
  */
 package org.mule.runtime.core.internal.connection;
 
-import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
-import org.mule.runtime.core.api.DefaultMuleException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.internal.connection.ConcurrentConnectionPool.PooledConnection;
 
 import java.util.NoSuchElementException;
 
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +34,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
       "Error validating connection. ConnectionValidationResult can not be null";
 
   private final PoolingProfile poolingProfile;
-  private final ObjectPool<C> pool;
+  private final ConcurrentConnectionPool<C> pool;
   private final PoolingListener<C> poolingListener;
 
   /**
@@ -54,7 +50,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
-    pool = createPool();
+    pool = new ConcurrentConnectionPool<>(connectionProvider, poolingProfile, muleContext.getSchedulerService());
   }
 
   /**
@@ -66,15 +62,15 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   @Override
   public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
     try {
-      C connection = borrowConnection();
-      ConnectionValidationResult validationResult = connectionProvider.validate(connection);
+      PooledConnection<C> connection = borrowConnection();
+      ConnectionValidationResult validationResult = connectionProvider.validate(connection.getConnection());
 
       if (validationResult == null) {
         LOGGER.debug(NULL_VALIDATION_RESULT_ERROR_MESSAGE);
-        pool.invalidateObject(connection);
+        pool.invalidate(connection);
         throw new ConnectionException(NULL_VALIDATION_RESULT_ERROR_MESSAGE);
       } else if (!validationResult.isValid()) {
-        pool.invalidateObject(connection);
+        pool.invalidate(connection);
         if (LOGGER.isDebugEnabled()) {
           LOGGER.debug("Error validating connection: {}. Invalidating connection.", validationResult.getMessage());
         }
@@ -91,12 +87,12 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
   }
 
-  private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+  private PooledConnection<C> borrowConnection() throws Exception {
+    PooledConnection<C> connection = pool.borrow();
     try {
-      poolingListener.onBorrow(connection);
+      poolingListener.onBorrow(connection.getConnection());
     } catch (Exception e) {
-      pool.invalidateObject(connection);
+      pool.invalidate(connection);
       throw e;
     }
 
@@ -111,51 +107,17 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   // TODO: MULE-9082 - pool.close() doesn't destroy unreturned connections
   @Override
   public void close() throws MuleException {
-    try {
-      pool.close();
-    } catch (Exception e) {
-      throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
-    }
-  }
-
-  private ObjectPool<C> createPool() {
-    GenericObjectPool.Config config = new GenericObjectPool.Config();
-    config.maxIdle = poolingProfile.getMaxIdle();
-    config.maxActive = poolingProfile.getMaxActive();
-    config.maxWait = poolingProfile.getMaxWait();
-    config.whenExhaustedAction = (byte) poolingProfile.getExhaustedAction();
-    config.minEvictableIdleTimeMillis = poolingProfile.getMinEvictionMillis();
-    config.timeBetweenEvictionRunsMillis = poolingProfile.getEvictionCheckIntervalMillis();
-    GenericObjectPool genericPool = new GenericObjectPool(new ObjectFactoryAdapter(), config);
-
-    return genericPool;
+    pool.close();
   }
 
   public PoolingProfile getPoolingProfile() {
     return poolingProfile;
   }
 
-  private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
-
-    @Override
-    public C makeObject() throws Exception {
-      return connectionProvider.connect();
-    }
-
-    @Override
-    public void destroyObject(C connection) throws Exception {
-      connectionProvider.disconnect(connection);
-    }
-
-    @Override
-    public boolean validateObject(C obj) {
-      return false;
-    }
-
-    @Override
-    public void activateObject(C connection) throws Exception {}
-
-    @Override
-    public void passivateObject(C connection) throws Exception {}
+  /**
+   * @return a snapshot of the state and usage of the {@link #pool}
+   */
+  public ConnectionPoolStatistics getPoolStatistics() {
+    return pool.getStatistics();
   }
 }
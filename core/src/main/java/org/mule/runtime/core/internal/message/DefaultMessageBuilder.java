@@ -16,6 +16,7 @@ import static org.mule.runtime.api.message.NullAttributes.NULL_ATTRIBUTES;
 import static org.mule.runtime.core.PropertyScope.INBOUND;
 import static org.mule.runtime.core.PropertyScope.OUTBOUND;
 import static org.mule.runtime.core.api.Event.getCurrentEvent;
+import static org.mule.runtime.core.internal.metadata.DataTypeCache.dataTypeOf;
 import static org.mule.runtime.core.util.ObjectUtils.getBoolean;
 import static org.mule.runtime.core.util.ObjectUtils.getByte;
 import static org.mule.runtime.core.util.ObjectUtils.getDouble;
@@ -30,7 +31,6 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.DataTypeBuilder;
 import org.mule.runtime.api.metadata.MediaType;
 import org.mule.runtime.api.metadata.TypedValue;
-import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.message.ExceptionPayload;
 import org.mule.runtime.core.api.transformer.Transformer;
@@ -38,6 +38,7 @@ import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.internal.message.InternalMessage.CollectionBuilder;
 import org.mule.runtime.core.internal.metadata.DefaultCollectionDataType;
+import org.mule.runtime.core.util.collection.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
 
 import java.io.DataInputStream;
@@ -70,8 +71,8 @@ public class DefaultMessageBuilder
 
   private ExceptionPayload exceptionPayload;
 
-  private Map<String, TypedValue<Serializable>> inboundProperties = new CaseInsensitiveMapWrapper<>();
-  private Map<String, TypedValue<Serializable>> outboundProperties = new CaseInsensitiveMapWrapper<>();
+  private PersistentCaseInsensitiveMap<TypedValue<Serializable>> inboundProperties = PersistentCaseInsensitiveMap.empty();
+  private PersistentCaseInsensitiveMap<TypedValue<Serializable>> outboundProperties = PersistentCaseInsensitiveMap.empty();
   private Map<String, DataHandler> inboundAttachments = new HashMap<>();
   private Map<String, DataHandler> outboundAttachments = new HashMap<>();
 
@@ -79,6 +80,18 @@ public class DefaultMessageBuilder
 
   private void copyMessageAttributes(InternalMessage message) {
     this.exceptionPayload = message.getExceptionPayload();
+    if (message instanceof MessageImplementation) {
+      // properties are immutable, so they can be shared with the message being copied
+      this.inboundProperties = ((MessageImplementation) message).inboundMap;
+      this.outboundProperties = ((MessageImplementation) message).outboundMap;
+    } else {
+      copyProperties(message);
+    }
+    message.getInboundAttachmentNames().forEach(name -> addInboundAttachment(name, message.getInboundAttachment(name)));
+    message.getOutboundAttachmentNames().forEach(name -> addOutboundAttachment(name, message.getOutboundAttachment(name)));
+  }
+
+  private void copyProperties(InternalMessage message) {
     message.getInboundPropertyNames().forEach(key -> {
       if (message.getInboundPropertyDataType(key) != null) {
         addInboundProperty(key, message.getInboundProperty(key), message.getInboundPropertyDataType(key));
@@ -93,8 +106,6 @@ public class DefaultMessageBuilder
         addOutboundProperty(key, message.getOutboundProperty(key));
       }
     });
-    message.getInboundAttachmentNames().forEach(name -> addInboundAttachment(name, message.getInboundAttachment(name)));
-    message.getOutboundAttachmentNames().forEach(name -> addOutboundAttachment(name, message.getOutboundAttachment(name)));
   }
 
   public DefaultMessageBuilder(org.mule.runtime.api.message.Message message) {
@@ -186,50 +197,52 @@ public class DefaultMessageBuilder
 
   @Override
   public InternalMessage.Builder addInboundProperty(String key, Serializable value) {
-    inboundProperties.put(key, new TypedValue(value, value != null ? DataType.fromObject(value) : DataType.OBJECT));
+    inboundProperties = inboundProperties.with(key, new TypedValue(value, value != null ? dataTypeOf(value) : DataType.OBJECT));
     return this;
   }
 
   @Override
   public InternalMessage.Builder addInboundProperty(String key, Serializable value, MediaType mediaType) {
-    inboundProperties.put(key,
-                          new TypedValue(value, DataType.builder().type(value.getClass()).mediaType(mediaType).build()));
+    inboundProperties = inboundProperties
+        .with(key, new TypedValue(value, DataType.builder().type(value.getClass()).mediaType(mediaType).build()));
     return this;
   }
 
   @Override
   public InternalMessage.Builder addInboundProperty(String key, Serializable value, DataType dataType) {
-    inboundProperties.put(key, new TypedValue(value, dataType));
+    inboundProperties = inboundProperties.with(key, new TypedValue(value, dataType));
     return this;
   }
 
   @Override
   public InternalMessage.Builder addOutboundProperty(String key, Serializable value) {
-    outboundProperties.put(key, new TypedValue(value, value != null ? DataType.fromObject(value) : DataType.OBJECT));
+    outboundProperties =
+        outboundProperties.with(key, new TypedValue(value, value != null ? dataTypeOf(value) : DataType.OBJECT));
     return this;
   }
 
   @Override
   public InternalMessage.Builder addOutboundProperty(String key, Serializable value, MediaType mediaType) {
-    outboundProperties.put(key, new TypedValue(value, DataType.builder().type(value.getClass()).mediaType(mediaType).build()));
+    outboundProperties = outboundProperties
+        .with(key, new TypedValue(value, DataType.builder().type(value.getClass()).mediaType(mediaType).build()));
     return this;
   }
 
   @Override
   public InternalMessage.Builder addOutboundProperty(String key, Serializable value, DataType dataType) {
-    outboundProperties.put(key, new TypedValue(value, dataType));
+    outboundProperties = outboundProperties.with(key, new TypedValue(value, dataType));
     return this;
   }
 
   @Override
   public InternalMessage.Builder removeInboundProperty(String key) {
-    inboundProperties.remove(key);
+    inboundProperties = inboundProperties.without(key);
     return this;
   }
 
   @Override
   public InternalMessage.Builder removeOutboundProperty(String key) {
-    outboundProperties.remove(key);
+    outboundProperties = outboundProperties.without(key);
     return this;
   }
 
@@ -260,7 +273,7 @@ public class DefaultMessageBuilder
   @Override
   public InternalMessage.Builder inboundProperties(Map<String, Serializable> inboundProperties) {
     requireNonNull(inboundProperties);
-    this.inboundProperties.clear();
+    this.inboundProperties = PersistentCaseInsensitiveMap.empty();
     inboundProperties.forEach((s, serializable) -> addInboundProperty(s, serializable));
     return this;
   }
@@ -268,7 +281,7 @@ public class DefaultMessageBuilder
   @Override
   public InternalMessage.Builder outboundProperties(Map<String, Serializable> outboundProperties) {
     requireNonNull(outboundProperties);
-    this.outboundProperties.clear();
+    this.outboundProperties = PersistentCaseInsensitiveMap.empty();
     outboundProperties.forEach((s, serializable) -> addOutboundProperty(s, serializable));
     return this;
   }
@@ -297,7 +310,7 @@ public class DefaultMessageBuilder
 
   private DataType resolveDataType() {
     if (dataType == null) {
-      return DataType.fromObject(payload);
+      return dataTypeOf(payload);
     } else {
       return DataType.builder(dataType).fromObject(payload).build();
     }
@@ -305,7 +318,7 @@ public class DefaultMessageBuilder
 
   private DataType resolveAttributesDataType() {
     if (attributesDataType == null) {
-      return DataType.fromObject(attributes);
+      return dataTypeOf(attributes);
     } else {
       return DataType.builder(attributesDataType).fromObject(attributes).build();
     }
@@ -352,18 +365,18 @@ public class DefaultMessageBuilder
     private transient TypedValue typedValue;
     private TypedValue typedAttributes;
 
-    private Map<String, TypedValue<Serializable>> inboundMap = new CaseInsensitiveMapWrapper<>();
-    private Map<String, TypedValue<Serializable>> outboundMap = new CaseInsensitiveMapWrapper<>();
+    private PersistentCaseInsensitiveMap<TypedValue<Serializable>> inboundMap;
+    private PersistentCaseInsensitiveMap<TypedValue<Serializable>> outboundMap;
 
     private MessageImplementation(TypedValue typedValue, TypedValue typedAttributes,
-                                  Map<String, TypedValue<Serializable>> inboundProperties,
-                                  Map<String, TypedValue<Serializable>> outboundProperties,
+                                  PersistentCaseInsensitiveMap<TypedValue<Serializable>> inboundProperties,
+                                  PersistentCaseInsensitiveMap<TypedValue<Serializable>> outboundProperties,
                                   Map<String, DataHandler> inboundAttachments, Map<String, DataHandler> outboundAttachments,
                                   ExceptionPayload exceptionPayload) {
       this.typedValue = typedValue;
       this.typedAttributes = typedAttributes;
-      this.inboundMap.putAll(inboundProperties);
-      this.outboundMap.putAll(outboundProperties);
+      this.inboundMap = inboundProperties;
+      this.outboundMap = outboundProperties;
       this.inboundAttachments = inboundAttachments;
       this.outboundAttachments = outboundAttachments;
       this.exceptionPayload = exceptionPayload;
@@ -622,12 +635,12 @@ public class DefaultMessageBuilder
 
     @Override
     public Set<String> getInboundPropertyNames() {
-      return unmodifiableSet(inboundMap.keySet());
+      return inboundMap.keySet();
     }
 
     @Override
     public Set<String> getOutboundPropertyNames() {
-      return unmodifiableSet(outboundMap.keySet());
+      return outboundMap.keySet();
     }
 
     @Override
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.metadata;
+
+import org.mule.runtime.api.metadata.DataType;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+
+/**
+ * Keeps the {@link DataType} that {@link DataType#fromObject(Object)} resolves for the values of each class, so that resolving it
+ * for the values of variables and properties doesn't go through a builder each time.
+ *
+ * @since 4.0
+ */
+public final class DataTypeCache {
+
+  private static final ClassValue<DataType> DATA_TYPES = new ClassValue<DataType>() {
+
+    @Override
+    protected DataType computeValue(Class<?> type) {
+      return DataType.fromType(type);
+    }
+  };
+
+  private DataTypeCache() {}
+
+  /**
+   * @param value the value to get the {@link DataType} for
+   * @return the same as {@link DataType#fromObject(Object)}
+   */
+  public static DataType dataTypeOf(Object value) {
+    if (value == null || value instanceof DataHandler || value instanceof DataSource) {
+      // the media type of these depends on the instance
+      return DataType.fromObject(value);
+    }
+    return DATA_TYPES.get(value.getClass());
+  }
+}
@@ -23,6 +23,9 @@ public interface ByteBufferManager {
   /**
    * Returns a {@link ByteBuffer} of the given {@code capacity}.
    * <p>
+   * Implementations are allowed to return a buffer with a bigger capacity than requested, but in that
+   * case its limit <b>MUST</b> be set to the requested {@code capacity}.
+   * <p>
    * Invokers <b>MUST</b> call the {@link #deallocate(ByteBuffer)} method with the returned
    * buffer once it's no longer needed.
    *
@@ -6,10 +6,12 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import org.mule.runtime.core.internal.streaming.bytes.factory.FileStoreCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.InMemoryCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.NullCursorStreamProviderFactory;
 import org.mule.runtime.core.streaming.bytes.ByteStreamingManager;
 import org.mule.runtime.core.streaming.bytes.CursorStreamProviderFactory;
+import org.mule.runtime.core.streaming.bytes.FileStoreCursorStreamConfig;
 import org.mule.runtime.core.streaming.bytes.InMemoryCursorStreamConfig;
 
 /**
@@ -33,6 +35,14 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, config);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config) {
+    return new FileStoreCursorStreamProviderFactory(bufferManager, config);
+  }
+
   /**
    * {@inheritDoc}
    */
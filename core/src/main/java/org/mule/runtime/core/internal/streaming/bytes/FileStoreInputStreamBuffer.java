@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.streaming.bytes.FileStoreCursorStreamConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which keeps a bounded window of the
+ * stream in memory and spills the rest into a temporal file.
+ * <p>
+ * The in memory window always holds the most recently consumed data. Each time that window gets full,
+ * its contents are appended to the buffer file and the window is recycled. This means that the file
+ * holds the stream's contents in the range {@code [0, windowStart)} while memory holds the range
+ * {@code [windowStart, bufferTip)}.
+ * <p>
+ * Because data is never modified once it reached the file, data behind the window is read through positional
+ * {@link FileChannel} reads, which allows many cursors to concurrently access it without blocking each other.
+ * <p>
+ * The buffer file is deleted when this buffer is closed.
+ *
+ * @since 4.0
+ */
+public class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  private final File bufferFile;
+  private final RandomAccessFile randomAccessFile;
+  private final FileChannel fileChannel;
+  private final int windowSize;
+
+  private long windowStart = 0;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    windowSize = config.getMaxInMemorySize().toBytes();
+    bufferFile = createBufferFile("file-store-stream");
+    try {
+      randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+    } catch (IOException e) {
+      deallocate(buffer);
+      throw new MuleRuntimeException(createStaticMessage("Could not create buffer file " + bufferFile.getAbsolutePath()), e);
+    }
+    fileChannel = randomAccessFile.getChannel();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected int doGet(ByteBuffer destination, long position, int length) {
+    return doGet(destination, position, length, true);
+  }
+
+  private int doGet(ByteBuffer dest, long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(() -> {
+
+      Optional<Integer> presentRead = getFromCurrentData(dest, position, length);
+      if (presentRead.isPresent()) {
+        return presentRead.get();
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaseReadLock();
+        return withWriteLock(() -> {
+
+          Optional<Integer> refetch;
+          refetch = getFromCurrentData(dest, position, length);
+          if (refetch.isPresent()) {
+            return refetch.get();
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
+            try {
+              final int read = consumeForwardData();
+              if (read > 0) {
+                refetch = getFromCurrentData(dest, position, min(length, read));
+                if (refetch.isPresent()) {
+                  return refetch.get();
+                }
+              } else {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(dest, position, length, false);
+        });
+      } else {
+        return getFromCurrentData(dest, position, length).orElse(-1);
+      }
+    });
+  }
+
+  private Optional<Integer> getFromCurrentData(ByteBuffer dest, long position, int length) {
+    if (isStreamFullyConsumed() && position >= bufferTip) {
+      return of(-1);
+    }
+
+    if (position < windowStart) {
+      length = toIntExact(min(length, windowStart - position));
+      return of(readFromFile(dest, position, length));
+    }
+
+    if (position < bufferTip) {
+      length = toIntExact(min(length, bufferTip - position));
+      return of(copy(dest, position - windowStart, length));
+    }
+
+    return empty();
+  }
+
+  private int readFromFile(ByteBuffer dest, long position, int length) {
+    final int originalLimit = dest.limit();
+    dest.limit(dest.position() + min(length, dest.remaining()));
+    try {
+      int read = 0;
+      while (dest.hasRemaining()) {
+        int chunk = fileChannel.read(dest, position + read);
+        if (chunk <= 0) {
+          break;
+        }
+        read += chunk;
+      }
+
+      return read > 0 ? read : -1;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from buffer file " + bufferFile.getAbsolutePath()), e);
+    } finally {
+      dest.limit(originalLimit);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * If the in memory window doesn't have any remaining capacity, then its contents are
+   * written into the buffer file and the window is recycled before consuming new information.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (!buffer.hasRemaining()) {
+      spillWindow();
+    }
+
+    int read = consumeStream(buffer);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private void spillWindow() throws IOException {
+    ByteBuffer window = buffer.duplicate();
+    window.flip();
+
+    long filePosition = windowStart;
+    while (window.hasRemaining()) {
+      filePosition += fileChannel.write(window, filePosition);
+    }
+
+    windowStart = filePosition;
+    buffer.clear();
+    buffer.limit(windowSize);
+  }
+
+  /**
+   * Closes the buffer file and deletes it
+   */
+  @Override
+  public void doClose() {
+    closeSafely(fileChannel::close);
+    closeSafely(randomAccessFile::close);
+    closeSafely(bufferFile::delete);
+  }
+}
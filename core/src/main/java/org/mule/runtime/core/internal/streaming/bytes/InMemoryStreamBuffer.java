@@ -19,12 +19,19 @@ import org.mule.runtime.core.streaming.bytes.InMemoryCursorStreamConfig;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * An implementation of {@link AbstractInputStreamBuffer} which holds the buffered
  * information in memory.
  * <p>
+ * The buffered information is kept in a list of chunks. The first one has the configured initial buffer size
+ * and each subsequent one has the size of the configured buffer size increment. This means that
+ * expanding the buffer never requires existing data to be copied: a new chunk is just allocated and
+ * appended, and the chunk holding any given position can be directly computed.
+ * <p>
  * If the buffer does not have enough capacity to hold all the data, then it will
  * expanded up to a certain threshold configured in the constructor. Once that threshold
  * is reached, a {@link StreamingBufferSizeExceededException} will be thrown. If no threshold
@@ -36,8 +43,11 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private static final int STREAM_FINISHED_PROBE = 10;
 
+  private final int initialBufferSize;
   private final int bufferSizeIncrement;
   private final int maxBufferSize;
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  private long capacity;
   private long bufferTip = 0;
 
   /**
@@ -49,11 +59,15 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
   public InMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
     super(stream, bufferManager, config.getInitialBufferSize().toBytes());
 
+    this.initialBufferSize = config.getInitialBufferSize().toBytes();
     this.bufferSizeIncrement = config.getBufferSizeIncrement() != null
         ? config.getBufferSizeIncrement().toBytes()
         : 0;
 
     this.maxBufferSize = config.getMaxBufferSize().toBytes();
+
+    chunks.add(buffer);
+    capacity = initialBufferSize;
   }
 
   @Override
@@ -90,7 +104,6 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
                 }
               } else {
                 streamFullyConsumed();
-                buffer.limit(buffer.position());
               }
             } catch (IOException e) {
               throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
@@ -111,71 +124,119 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
     }
 
     if (position < bufferTip) {
-      length = min(length, toIntExact(bufferTip - position));
-      return of(copy(dest, position, length));
+      length = toIntExact(min(length, bufferTip - position));
+      return of(copyFromChunks(dest, position, length));
     }
 
     return empty();
   }
 
   /**
-   * {@inheritDoc}
+   * Copies up to {@code length} bytes starting at the given {@code position} into {@code dest},
+   * crossing chunk boundaries if necessary.
+   */
+  private int copyFromChunks(ByteBuffer dest, long position, int length) {
+    int remaining = min(length, dest.remaining());
+    int copied = 0;
+
+    while (remaining > 0 && position < bufferTip) {
+      final int chunkIndex = chunkIndexOf(position);
+      final int offset = toIntExact(position - chunkStart(chunkIndex));
+      final int count = min(remaining, toIntExact(min(chunkSize(chunkIndex) - offset, bufferTip - position)));
+
+      ByteBuffer src = chunks.get(chunkIndex).duplicate();
+      src.clear();
+      src.position(offset);
+      src.limit(offset + count);
+      dest.put(src);
+
+      copied += count;
+      position += count;
+      remaining -= count;
+    }
+
+    return copied > 0 ? copied : -1;
+  }
+
+  private int chunkIndexOf(long position) {
+    if (position < initialBufferSize) {
+      return 0;
+    }
+
+    return toIntExact(1 + (position - initialBufferSize) / bufferSizeIncrement);
+  }
+
+  private long chunkStart(int chunkIndex) {
+    return chunkIndex == 0 ? 0 : initialBufferSize + (long) (chunkIndex - 1) * bufferSizeIncrement;
+  }
+
+  private int chunkSize(int chunkIndex) {
+    return chunkIndex == 0 ? initialBufferSize : bufferSizeIncrement;
+  }
+
+  /**
+   * Deallocates all the chunks but the current one, which is released by the parent class
    */
   @Override
   public void doClose() {
-    // no - op
+    chunks.stream().filter(chunk -> chunk != buffer).forEach(this::deallocate);
+    chunks.clear();
   }
 
   /**
    * {@inheritDoc}
-   * If {@code buffer} doesn't have any remaining capacity, then {@link #expandBuffer()}
-   * is invoked before attempting to consume new information.
+   * If the current chunk doesn't have any remaining capacity, then a new chunk is appended
+   * before attempting to consume new information.
    *
    * @throws StreamingBufferSizeExceededException if the buffer is not big enough and cannot be expanded
    */
   @Override
   public int consumeForwardData() throws IOException {
-    ByteBuffer readBuffer = buffer.hasRemaining()
-        ? buffer
-        : allocate(bufferSizeIncrement > 0 ? bufferSizeIncrement : STREAM_FINISHED_PROBE);
-
-    int read = consumeStream(readBuffer);
+    if (buffer.position() < chunkSize(chunks.size() - 1)) {
+      return onDataConsumed(consumeStream(currentChunkWindow()));
+    }
 
-    if (read > 0) {
-      if (readBuffer != buffer) {
-        buffer = expandBuffer();
-        readBuffer.flip();
-        buffer.put(readBuffer);
+    if (!canBeExpandedTo(capacity + bufferSizeIncrement)) {
+      int read = consumeStream(allocate(STREAM_FINISHED_PROBE));
+      if (read > 0) {
+        throw new StreamingBufferSizeExceededException(maxBufferSize);
       }
 
-      bufferTip += read;
+      return read;
     }
 
-    return read;
+    ByteBuffer chunk = bufferManager.allocate(bufferSizeIncrement);
+    chunk.limit(bufferSizeIncrement);
+    int read = consumeStream(chunk);
+    if (read > 0) {
+      chunks.add(chunk);
+      buffer = chunk;
+      capacity += bufferSizeIncrement;
+    } else {
+      deallocate(chunk);
+    }
+
+    return onDataConsumed(read);
   }
 
   /**
-   * Expands the size of the buffer by {@link #bufferSizeIncrement}
-   *
-   * @return a new, expanded {@link ByteBuffer}
+   * @return the current chunk, limited to its logical size in case that the {@link ByteBufferManager}
+   * handed a buffer with a bigger capacity than requested
    */
-  private ByteBuffer expandBuffer() {
-    int newSize = buffer.capacity() + bufferSizeIncrement;
-    if (!canBeExpandedTo(newSize)) {
-      throw new StreamingBufferSizeExceededException(maxBufferSize);
-    }
+  private ByteBuffer currentChunkWindow() {
+    buffer.limit(chunkSize(chunks.size() - 1));
+    return buffer;
+  }
 
-    ByteBuffer newBuffer = bufferManager.allocate(newSize);
-    buffer.position(0);
-    newBuffer.put(buffer);
-    ByteBuffer oldBuffer = buffer;
-    buffer = newBuffer;
-    deallocate(oldBuffer);
+  private int onDataConsumed(int read) {
+    if (read > 0) {
+      bufferTip += read;
+    }
 
-    return buffer;
+    return read;
   }
 
-  private boolean canBeExpandedTo(int newSize) {
+  private boolean canBeExpandedTo(long newSize) {
     if (bufferSizeIncrement <= 0) {
       return false;
     } else if (maxBufferSize == 0) {
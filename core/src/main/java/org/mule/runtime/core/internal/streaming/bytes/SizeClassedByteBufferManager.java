@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedSet;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.lifecycle.Disposable;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link ByteBufferManager} implementation which pools buffers in power of two size classes without taking
+ * any locks.
+ * <p>
+ * Each requested capacity is rounded up to the next size class, so every allocated buffer has at least the requested
+ * capacity and its limit set to exactly the requested capacity. Capacities bigger than the biggest size class
+ * are allocated on demand and never pooled.
+ * <p>
+ * Released buffers are first cached in a small per thread magazine, so that the typical allocate/deallocate
+ * cycle performed by the same thread doesn't contend with other threads. Once the magazine is full, buffers
+ * go into a lock-free depot shared by all threads, which is bounded to a small fraction of the heap. Only the smaller
+ * size classes use magazines, so that the memory retained by each thread is kept low.
+ * <p>
+ * Buffers that stay unused in the depot for a whole minute are released, either by {@link #trim()} or, as long as
+ * there's traffic, when the depot of their size class is accessed.
+ * <p>
+ * This manager can optionally allocate direct (off-heap) buffers. In that case, the total amount of direct memory
+ * held by this manager is capped. When the cap is reached, heap buffers are handed out instead. Notice that
+ * direct memory is only returned to the OS once the discarded buffers are garbage collected.
+ *
+ * @since 4.0
+ */
+public class SizeClassedByteBufferManager implements ByteBufferManager, Disposable {
+
+  /**
+   * System property to indicate that direct buffers should be used
+   */
+  public static final String DIRECT_BUFFERS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.buffers.direct";
+
+  /**
+   * System property to specify the maximum amount of direct memory, in bytes, to be used when
+   * {@link #DIRECT_BUFFERS_PROPERTY} is enabled
+   */
+  public static final String MAX_DIRECT_MEMORY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.buffers.maxDirectMemory";
+
+  private static final Logger LOGGER = getLogger(SizeClassedByteBufferManager.class);
+
+  private static final int MIN_SIZE_CLASS_SHIFT = 10;
+  private static final int MAX_SIZE_CLASS_SHIFT = 24;
+  private static final int MAX_MAGAZINE_BUFFER_SIZE = KB.toBytes(64);
+  private static final int MAGAZINE_CAPACITY = 8;
+  private static final int MAX_DEPOT_BYTES_PER_SIZE_CLASS = MB.toBytes(32);
+  private static final long MAX_DEPOT_HEAP_FRACTION = 64;
+  private static final long TRIM_INTERVAL = MINUTES.toMillis(1);
+  private static final long DEFAULT_MAX_DIRECT_MEMORY = MB.toBytes(512);
+
+  private final boolean direct;
+  private final long maxDirectMemory;
+  private final SizeClass[] sizeClasses;
+  private final ThreadLocal<MagazineRack> magazines;
+  private final Set<MagazineRack> racks = synchronizedSet(newSetFromMap(new WeakHashMap<>()));
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder inUse = new LongAdder();
+  private final AtomicLong directMemory = new AtomicLong(0);
+  private volatile boolean disposed = false;
+
+  /**
+   * @return a new instance configured through the {@link #DIRECT_BUFFERS_PROPERTY} and {@link #MAX_DIRECT_MEMORY_PROPERTY}
+   * system properties
+   */
+  public static SizeClassedByteBufferManager fromSystemProperties() {
+    return new SizeClassedByteBufferManager(Boolean.getBoolean(DIRECT_BUFFERS_PROPERTY),
+                                            Long.getLong(MAX_DIRECT_MEMORY_PROPERTY, DEFAULT_MAX_DIRECT_MEMORY));
+  }
+
+  /**
+   * Creates a new instance which allocates heap buffers
+   */
+  public SizeClassedByteBufferManager() {
+    this(false, 0);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param direct          whether to allocate direct buffers
+   * @param maxDirectMemory the maximum amount of direct memory in bytes. Ignored if {@code direct} is {@code false}
+   */
+  public SizeClassedByteBufferManager(boolean direct, long maxDirectMemory) {
+    checkArgument(!direct || maxDirectMemory > 0, "maxDirectMemory must be greater than zero bytes");
+    this.direct = direct;
+    this.maxDirectMemory = maxDirectMemory;
+
+    sizeClasses = new SizeClass[MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1];
+    final long maxDepotBytes = min(MAX_DEPOT_BYTES_PER_SIZE_CLASS,
+                                   Runtime.getRuntime().maxMemory() / MAX_DEPOT_HEAP_FRACTION / sizeClasses.length);
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(1 << (MIN_SIZE_CLASS_SHIFT + i), maxDepotBytes);
+    }
+
+    magazines = ThreadLocal.withInitial(() -> {
+      MagazineRack rack = new MagazineRack(new Magazine[sizeClasses.length]);
+      racks.add(rack);
+      return rack;
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer might have a bigger capacity than requested, but its limit is always set
+   * to the requested {@code capacity}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    final int index = sizeClassIndex(capacity);
+    ByteBuffer buffer;
+
+    if (index < sizeClasses.length && !disposed) {
+      buffer = poll(index);
+      if (buffer != null) {
+        hits.increment();
+        buffer.clear();
+      } else {
+        misses.increment();
+        buffer = newBuffer(sizeClasses[index].size);
+      }
+    } else {
+      misses.increment();
+      buffer = newBuffer(capacity);
+    }
+
+    inUse.increment();
+    buffer.limit(capacity);
+    return buffer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    inUse.decrement();
+
+    final int capacity = byteBuffer.capacity();
+    final int index = sizeClassIndex(capacity);
+    if (disposed || index >= sizeClasses.length || sizeClasses[index].size != capacity || byteBuffer.isDirect() != direct) {
+      discard(byteBuffer);
+      return;
+    }
+
+    Magazine magazine = magazineFor(index);
+    if (magazine != null && magazine.push(byteBuffer)) {
+      return;
+    }
+
+    sizeClasses[index].trimIfDue(System.currentTimeMillis(), this::discard);
+    if (!sizeClasses[index].offer(byteBuffer)) {
+      discard(byteBuffer);
+    }
+  }
+
+  /**
+   * Discards the buffers which were kept in the shared depot without being used since the previous trim. Invoked
+   * implicitly every minute while the depot of each size class is accessed.
+   */
+  public void trim() {
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.trim(this::discard);
+    }
+  }
+
+  /**
+   * Discards all pooled buffers. The magazines of every thread are detached from this manager, so the buffers they
+   * cache are garbage collected even if the threads outlive it.
+   */
+  @Override
+  public void dispose() {
+    disposed = true;
+    for (SizeClass sizeClass : sizeClasses) {
+      ByteBuffer buffer;
+      while ((buffer = sizeClass.poll()) != null) {
+        discard(buffer);
+      }
+    }
+
+    synchronized (racks) {
+      for (MagazineRack rack : racks) {
+        rack.magazines = null;
+      }
+      racks.clear();
+    }
+    magazines.remove();
+  }
+
+  /**
+   * @return how many allocations were served with a pooled buffer
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return how many allocations required a new buffer to be created
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return how many buffers are currently allocated and not yet deallocated
+   */
+  public long getInUseCount() {
+    return inUse.sum();
+  }
+
+  /**
+   * @return how many bytes of direct memory are currently held by this manager
+   */
+  public long getDirectMemoryUsed() {
+    return directMemory.get();
+  }
+
+  private ByteBuffer poll(int index) {
+    Magazine magazine = magazineFor(index);
+    if (magazine != null) {
+      ByteBuffer buffer = magazine.pop();
+      if (buffer != null) {
+        return buffer;
+      }
+    }
+
+    sizeClasses[index].trimIfDue(System.currentTimeMillis(), this::discard);
+    return sizeClasses[index].poll();
+  }
+
+  private Magazine magazineFor(int index) {
+    if (sizeClasses[index].size > MAX_MAGAZINE_BUFFER_SIZE || disposed) {
+      return null;
+    }
+
+    Magazine[] threadMagazines = magazines.get().magazines;
+    if (threadMagazines == null) {
+      // detached by dispose
+      return null;
+    }
+
+    Magazine magazine = threadMagazines[index];
+    if (magazine == null) {
+      magazine = new Magazine();
+      threadMagazines[index] = magazine;
+    }
+
+    return magazine;
+  }
+
+  private ByteBuffer newBuffer(int capacity) {
+    if (direct) {
+      if (reserveDirectMemory(capacity)) {
+        return ByteBuffer.allocateDirect(capacity);
+      }
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Direct memory cap of {} bytes reached. Allocating heap buffer of {} bytes instead", maxDirectMemory,
+                     capacity);
+      }
+    }
+
+    return ByteBuffer.allocate(capacity);
+  }
+
+  private boolean reserveDirectMemory(int capacity) {
+    long current;
+    do {
+      current = directMemory.get();
+      if (current + capacity > maxDirectMemory) {
+        return false;
+      }
+    } while (!directMemory.compareAndSet(current, current + capacity));
+
+    return true;
+  }
+
+  private void discard(ByteBuffer buffer) {
+    buffer.clear();
+    if (direct && buffer.isDirect()) {
+      directMemory.addAndGet(-buffer.capacity());
+    }
+  }
+
+  private static int sizeClassIndex(int capacity) {
+    if (capacity <= 1 << MIN_SIZE_CLASS_SHIFT) {
+      return 0;
+    }
+
+    return (32 - numberOfLeadingZeros(capacity - 1)) - MIN_SIZE_CLASS_SHIFT;
+  }
+
+  /**
+   * A shared, lock-free and bounded depot of buffers of the same size.
+   * <p>
+   * The depot tracks the lowest amount of buffers it held since it was last trimmed. That many buffers were not needed
+   * during the whole period, so they are the ones discarded by the next trim.
+   */
+  private static final class SizeClass {
+
+    private final int size;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> depot = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger(0);
+    private final AtomicInteger lowWatermark = new AtomicInteger(0);
+    private final AtomicLong nextTrim = new AtomicLong(System.currentTimeMillis() + TRIM_INTERVAL);
+
+    private SizeClass(int size, long maxDepotBytes) {
+      this.size = size;
+      maxPooled = (int) max(1, maxDepotBytes / size);
+    }
+
+    private ByteBuffer poll() {
+      ByteBuffer buffer = depot.poll();
+      if (buffer != null) {
+        int remaining = pooled.decrementAndGet();
+        if (remaining < lowWatermark.get()) {
+          lowWatermark.accumulateAndGet(remaining, Math::min);
+        }
+      }
+      return buffer;
+    }
+
+    private void trimIfDue(long now, Consumer<ByteBuffer> discarder) {
+      final long due = nextTrim.get();
+      if (now >= due && nextTrim.compareAndSet(due, now + TRIM_INTERVAL)) {
+        trim(discarder);
+      }
+    }
+
+    private void trim(Consumer<ByteBuffer> discarder) {
+      int idle = lowWatermark.get();
+      for (; idle > 0; idle--) {
+        ByteBuffer buffer = depot.poll();
+        if (buffer == null) {
+          break;
+        }
+        pooled.decrementAndGet();
+        discarder.accept(buffer);
+      }
+      lowWatermark.set(pooled.get());
+    }
+
+    private boolean offer(ByteBuffer buffer) {
+      if (pooled.incrementAndGet() > maxPooled) {
+        pooled.decrementAndGet();
+        return false;
+      }
+
+      depot.offer(buffer);
+      return true;
+    }
+  }
+
+  /**
+   * Holds the magazines of a thread, so that they can be detached when this manager is disposed
+   */
+  private static final class MagazineRack {
+
+    private volatile Magazine[] magazines;
+
+    private MagazineRack(Magazine[] magazines) {
+      this.magazines = magazines;
+    }
+  }
+
+  /**
+   * A small stack of buffers which is only accessed by its owning thread
+   */
+  private static final class Magazine {
+
+    private final ByteBuffer[] buffers = new ByteBuffer[MAGAZINE_CAPACITY];
+    private int size = 0;
+
+    private ByteBuffer pop() {
+      if (size == 0) {
+        return null;
+      }
+
+      ByteBuffer buffer = buffers[--size];
+      buffers[size] = null;
+      return buffer;
+    }
+
+    private boolean push(ByteBuffer buffer) {
+      if (size == buffers.length) {
+        return false;
+      }
+
+      buffers[size++] = buffer;
+      return true;
+    }
+  }
+}
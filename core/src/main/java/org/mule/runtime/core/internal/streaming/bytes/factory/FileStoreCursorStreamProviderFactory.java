@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes.factory;
+
+import org.mule.runtime.core.api.Event;
+import org.mule.runtime.core.internal.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.FileStoreCursorStreamProvider;
+import org.mule.runtime.core.streaming.bytes.FileStoreCursorStreamConfig;
+
+import java.io.InputStream;
+
+/**
+ * An implementation of {@link AbstractCursorStreamProviderFactory} which always
+ * generates instances of {@link FileStoreCursorStreamProvider}
+ *
+ * @see FileStoreCursorStreamProvider
+ * @since 4.0
+ */
+public class FileStoreCursorStreamProviderFactory extends AbstractCursorStreamProviderFactory {
+
+  private final FileStoreCursorStreamConfig config;
+
+  /**
+   * Creates a new instance
+   *
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   * @param config        the config for the generated providers
+   */
+  public FileStoreCursorStreamProviderFactory(ByteBufferManager bufferManager, FileStoreCursorStreamConfig config) {
+    super(bufferManager);
+    this.config = config;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return a new {@link FileStoreCursorStreamProvider}
+   */
+  @Override
+  protected Object resolve(InputStream inputStream, Event event) {
+    return new FileStoreCursorStreamProvider(inputStream, config, getBufferManager());
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object.iterator;
+
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.util.ClassUtils.withContextClassLoader;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Producer} of pages which fetches up to a given amount of pages ahead of its consumer.
+ * <p>
+ * Pages are fetched from the delegate on the given {@link Executor}, one at a time and in order, so the delegate is never
+ * accessed concurrently and needs not be thread safe. Fetching stops while {@code maxPages} pages are buffered and resumes as
+ * soon as the consumer takes one, so memory stays bounded no matter how fast the delegate is. An empty page marks the end of the
+ * stream, after which nothing else is fetched.
+ * <p>
+ * The delegate is invoked with the context {@link ClassLoader} which was current when this producer was created. Errors thrown
+ * while fetching a page are rethrown to the consumer when it reaches that page.
+ * <p>
+ * When the {@link Executor} rejects a fetch, or doesn't start it in a timely manner (i.e.: it was stopped with the fetch still
+ * queued), the consumer fetches the page it is waiting for on its own thread.
+ *
+ * @param <T> the type of the elements in each page
+ * @since 4.0
+ */
+public final class PrefetchingProducer<T> implements Producer<List<T>> {
+
+  private static final long DEFAULT_QUEUED_FETCH_TIMEOUT_SECONDS = 5;
+
+  private final Producer<List<T>> delegate;
+  private final Executor executor;
+  private final int maxPages;
+  private final long queuedFetchTimeoutNanos;
+  private final ClassLoader classLoader;
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final Deque<List<T>> pages = new ArrayDeque<>();
+  private Throwable failure;
+  private long fetchSequence = 0;
+  private boolean fetching = false;
+  private boolean started = false;
+  private boolean exhausted = false;
+  private boolean closed = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param delegate the {@link Producer} which actually fetches the pages
+   * @param executor the {@link Executor} on which pages are fetched
+   * @param maxPages the maximum amount of pages to fetch ahead of the consumer
+   */
+  public PrefetchingProducer(Producer<List<T>> delegate, Executor executor, int maxPages) {
+    this(delegate, executor, maxPages, DEFAULT_QUEUED_FETCH_TIMEOUT_SECONDS, SECONDS);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param delegate the {@link Producer} which actually fetches the pages
+   * @param executor the {@link Executor} on which pages are fetched
+   * @param maxPages the maximum amount of pages to fetch ahead of the consumer
+   * @param queuedFetchTimeout how long to wait for the {@code executor} to start a fetch before giving up on it
+   * @param timeUnit the {@link TimeUnit} of {@code queuedFetchTimeout}
+   */
+  public PrefetchingProducer(Producer<List<T>> delegate, Executor executor, int maxPages, long queuedFetchTimeout,
+                             TimeUnit timeUnit) {
+    checkArgument(maxPages > 0, "maxPages must be greater than zero");
+    this.delegate = delegate;
+    this.executor = executor;
+    this.maxPages = maxPages;
+    queuedFetchTimeoutNanos = timeUnit.toNanos(queuedFetchTimeout);
+    classLoader = currentThread().getContextClassLoader();
+
+    lock.lock();
+    try {
+      scheduleFetch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the next page, waiting for it to be fetched if needed
+   *
+   * @return the next page, or an empty list once the delegate ran out of pages
+   */
+  @Override
+  public List<T> produce() {
+    lock.lock();
+    try {
+      while (pages.isEmpty() && failure == null && !exhausted && !closed) {
+        if (fetching) {
+          if (!awaitFetch()) {
+            fetchNow();
+          }
+        } else if (!scheduleFetch()) {
+          fetchNow();
+        }
+      }
+
+      List<T> page = pages.pollFirst();
+      if (page == null) {
+        if (failure != null) {
+          rethrowFailure();
+        }
+        return emptyList();
+      }
+
+      scheduleFetch();
+      return page;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Invoked while holding the {@link #lock}
+   *
+   * @return {@code false} if the {@link #executor} rejected the fetch, {@code true} otherwise
+   */
+  private boolean scheduleFetch() {
+    if (fetching || exhausted || closed || failure != null || pages.size() >= maxPages) {
+      return true;
+    }
+
+    long fetchId = ++fetchSequence;
+    fetching = true;
+    try {
+      executor.execute(() -> fetch(fetchId));
+      return true;
+    } catch (RejectedExecutionException e) {
+      fetching = false;
+      return false;
+    }
+  }
+
+  /**
+   * Fetches a page on the consumer's thread. Invoked while holding the {@link #lock}
+   */
+  private void fetchNow() {
+    try {
+      addPage(withContextClassLoader(classLoader, () -> delegate.produce()));
+    } catch (Throwable t) {
+      failure = t;
+    }
+  }
+
+  private void fetch(long fetchId) {
+    lock.lock();
+    try {
+      if (!fetching || fetchId != fetchSequence) {
+        // abandoned by the consumer, which is not waiting for it anymore
+        return;
+      }
+      started = true;
+    } finally {
+      lock.unlock();
+    }
+
+    List<T> page = null;
+    Throwable error = null;
+    try {
+      page = withContextClassLoader(classLoader, () -> delegate.produce());
+    } catch (Throwable t) {
+      error = t;
+    } finally {
+      lock.lock();
+      try {
+        fetching = false;
+        started = false;
+        if (error != null) {
+          failure = error;
+        } else if (!closed) {
+          addPage(page);
+          // if rejected, the consumer fetches the page once it needs it
+          scheduleFetch();
+        }
+      } finally {
+        changed.signalAll();
+        lock.unlock();
+      }
+    }
+  }
+
+  private void addPage(List<T> page) {
+    if (page == null || page.isEmpty()) {
+      exhausted = true;
+    } else {
+      pages.addLast(page);
+    }
+  }
+
+  private void rethrowFailure() {
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else {
+      throw new MuleRuntimeException(failure);
+    }
+  }
+
+  /**
+   * Returns the total amount of results informed by the delegate. Waits for any page being fetched, so the delegate is not
+   * accessed concurrently.
+   */
+  @Override
+  public int getSize() {
+    lock.lock();
+    try {
+      awaitFetch();
+      return delegate.getSize();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Discards the pages fetched ahead and closes the delegate once the page being fetched, if any, is complete
+   */
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      closed = true;
+      pages.clear();
+      awaitFetch();
+    } finally {
+      lock.unlock();
+    }
+    delegate.close();
+  }
+
+  /**
+   * Waits for the fetch in progress, if any. A fetch which the {@link #executor} didn't start within the queued fetch timeout is
+   * abandoned, so a stopped executor doesn't leave the consumer waiting forever. Invoked while holding the {@link #lock}
+   *
+   * @return {@code false} if the fetch was abandoned, {@code true} otherwise
+   */
+  private boolean awaitFetch() {
+    long deadline = nanoTime() + queuedFetchTimeoutNanos;
+    boolean interrupted = false;
+    try {
+      while (fetching) {
+        if (started) {
+          changed.awaitUninterruptibly();
+          continue;
+        }
+
+        long remaining = deadline - nanoTime();
+        if (remaining <= 0) {
+          fetching = false;
+          return false;
+        }
+        try {
+          changed.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      return true;
+    } finally {
+      if (interrupted) {
+        currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -7,8 +7,10 @@
 package org.mule.runtime.core.message;
 
 
+import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static org.mule.runtime.core.internal.metadata.DataTypeCache.dataTypeOf;
 import static org.mule.runtime.core.util.SystemUtils.getDefaultEncoding;
 
 import org.mule.runtime.api.exception.MuleException;
@@ -34,7 +36,7 @@ import org.mule.runtime.core.context.notification.DefaultFlowCallStack;
 import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalMessage;
 import org.mule.runtime.core.session.DefaultMuleSession;
-import org.mule.runtime.core.util.CopyOnWriteCaseInsensitiveMap;
+import org.mule.runtime.core.util.collection.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
 
 import java.io.IOException;
@@ -56,9 +58,10 @@ public class DefaultEventBuilder implements Event.Builder {
 
   private EventContext context;
   private Message message;
-  private Map<String, TypedValue<Object>> flowVariables = new HashMap<>();
-  private Map<String, TypedValue<Object>> moduleProperties = new HashMap<>();
-  private Map<String, TypedValue<Object>> moduleParameters = new HashMap<>();
+  private PersistentCaseInsensitiveMap<TypedValue<Object>> flowVariables = PersistentCaseInsensitiveMap.empty();
+  // Never modified once assigned, so that they can be shared with the built events
+  private Map<String, TypedValue<Object>> moduleProperties = emptyMap();
+  private Map<String, TypedValue<Object>> moduleParameters = emptyMap();
   private Error error;
   private FlowConstruct flow;
   private GroupCorrelation groupCorrelation = new GroupCorrelation(null, null);
@@ -89,7 +92,13 @@ public class DefaultEventBuilder implements Event.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    event.getVariableNames().forEach(key -> this.flowVariables.put(key, event.getVariable(key)));
+    if (event instanceof EventImplementation) {
+      this.flowVariables = ((EventImplementation) event).variables;
+    } else {
+      for (String key : event.getVariableNames()) {
+        this.flowVariables = this.flowVariables.with(key, event.getVariable(key));
+      }
+    }
     this.moduleProperties = event.getProperties();
     this.moduleParameters = event.getParameters();
   }
@@ -110,13 +119,18 @@ public class DefaultEventBuilder implements Event.Builder {
 
   @Override
   public Event.Builder variables(Map<String, Object> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    PersistentCaseInsensitiveMap<TypedValue<Object>> variables = PersistentCaseInsensitiveMap.empty();
+    for (Map.Entry<String, Object> entry : flowVariables.entrySet()) {
+      variables = variables.with(entry.getKey(), typedValue(this.flowVariables.get(entry.getKey()), entry.getValue()));
+    }
+    this.flowVariables = variables;
+    this.modified = true;
     return this;
   }
 
   @Override
   public Event.Builder addVariable(String key, Object value) {
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.with(key, typedValue(flowVariables.get(key), value));
     this.modified = true;
     return this;
 
@@ -124,27 +138,30 @@ public class DefaultEventBuilder implements Event.Builder {
 
   @Override
   public Event.Builder addVariable(String key, Object value, DataType dataType) {
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    TypedValue<Object> current = flowVariables.get(key);
+    if (current == null || current.getValue() != value || !dataType.equals(current.getDataType())) {
+      flowVariables = flowVariables.with(key, new TypedValue<>(value, dataType));
+    }
     this.modified = true;
     return this;
   }
 
   @Override
   public Event.Builder removeVariable(String key) {
-    flowVariables.remove(key);
+    flowVariables = flowVariables.without(key);
     this.modified = true;
     return this;
   }
 
   @Override
   public Builder properties(Map<String, Object> properties) {
-    copyFromTo(properties, this.moduleProperties);
+    this.moduleProperties = toTypedValues(properties);
     return this;
   }
 
   @Override
   public Builder parameters(Map<String, Object> parameters) {
-    copyFromTo(parameters, this.moduleParameters);
+    this.moduleParameters = toTypedValues(parameters);
     return this;
   }
 
@@ -218,10 +235,22 @@ public class DefaultEventBuilder implements Event.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, Object> source, Map<String, TypedValue<Object>> target) {
-    target.clear();
-    source.forEach((s, o) -> target.put(s, new TypedValue<>(o, DataType.fromObject(o))));
+  private Map<String, TypedValue<Object>> toTypedValues(Map<String, Object> source) {
+    Map<String, TypedValue<Object>> target = new HashMap<>();
+    source.forEach((s, o) -> target.put(s, new TypedValue<>(o, dataTypeOf(o))));
     this.modified = true;
+    return target;
+  }
+
+  /**
+   * Reuses {@code current} if it already holds {@code value}, so that setting a variable to the same value it already has
+   * doesn't modify the variables.
+   */
+  private static TypedValue<Object> typedValue(TypedValue<Object> current, Object value) {
+    if (current != null && current.getValue() == value && current.getDataType() == dataTypeOf(value)) {
+      return current;
+    }
+    return new TypedValue<>(value, dataTypeOf(value));
   }
 
   /**
@@ -252,7 +281,7 @@ public class DefaultEventBuilder implements Event.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CopyOnWriteCaseInsensitiveMap<String, TypedValue> variables = new CopyOnWriteCaseInsensitiveMap<>();
+    private final PersistentCaseInsensitiveMap<TypedValue<Object>> variables;
     private final Map<String, TypedValue<Object>> properties;
     private final Map<String, TypedValue<Object>> parameters;
 
@@ -264,7 +293,8 @@ public class DefaultEventBuilder implements Event.Builder {
     private String flowName;
 
     // Use this constructor from the builder
-    private EventImplementation(EventContext context, Message message, Map<String, TypedValue<Object>> variables,
+    private EventImplementation(EventContext context, Message message,
+                                PersistentCaseInsensitiveMap<TypedValue<Object>> variables,
                                 Map<String, TypedValue<Object>> properties, Map<String, TypedValue<Object>> parameters,
                                 FlowConstruct flowConstruct, MuleSession session,
                                 Object replyToDestination, ReplyToHandler replyToHandler,
@@ -277,7 +307,8 @@ public class DefaultEventBuilder implements Event.Builder {
       }
       this.session = session;
       this.message = message;
-      variables.forEach((s, value) -> this.variables.put(s, new TypedValue<>(value.getValue(), value.getDataType())));
+      // immutable, so it can be shared with the builders and events derived from this one
+      this.variables = variables;
       this.properties = properties;
       this.parameters = parameters;
 
@@ -465,7 +496,7 @@ public class DefaultEventBuilder implements Event.Builder {
       if (flowName != null && flowConstruct instanceof Pipeline) {
         ((Pipeline) flowConstruct).getSerializationEventContextCache().put(context.getId(), context);
       }
-      for (Map.Entry<String, TypedValue> entry : variables.entrySet()) {
+      for (Map.Entry<String, TypedValue<Object>> entry : variables.entrySet()) {
         Object value = entry.getValue();
         if (value != null && !(value instanceof Serializable)) {
           String message = String.format(
@@ -487,7 +518,7 @@ public class DefaultEventBuilder implements Event.Builder {
 
     @Override
     public <T> TypedValue<T> getVariable(String key) {
-      TypedValue<T> typedValue = variables.get(key);
+      TypedValue<T> typedValue = (TypedValue) variables.get(key);
 
       if (typedValue == null) {
         throw new NoSuchElementException("The flow variable '" + key + "' does not exist.");
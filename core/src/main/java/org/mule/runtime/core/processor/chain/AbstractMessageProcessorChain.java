@@ -138,41 +138,21 @@ public abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObj
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors =
         new ArrayList<>();
 
-    // #1 Update MessagingException with failing processor if required, create Error and set error context.
+    // #1 Fused per processor stage, so that each event walks a single set of operators per processor instead of one set of
+    // operators per concern:
+    // - Update ThreadLocal event before and after processor execution.
+    // - Fire MessageProcessor notifications before and after processor execution.
+    // - Update MessagingException with failing processor if required, create Error and set error context.
+    // - If the processor returns a CursorProvider, then have the StreamingManager manage it
+    // What each of them does for a given processor is resolved when the stage is assembled, so events going through processors
+    // which can't fire notifications skip them altogether.
     interceptors.add((processor, next) -> stream -> from(stream)
+        .doOnNext(preProcess(processor))
         .transform(next)
-        .onErrorMap(MessagingException.class, updateMessagingException(processor)));
+        .map(postProcess(processor))
+        .onErrorMap(MessagingException.class, processError(processor)));
 
-    // #2 Fire MessageProcessor notifications before and after processor execution.
-    interceptors.add((processor, next) -> stream -> from(stream)
-        .doOnNext(preNotification(processor))
-        .transform(next)
-        .doOnNext(postNotification(processor))
-        .doOnError(MessagingException.class, errorNotification(processor)));
-
-    // #3 Update ThreadLocal event before and after processor execution.
-    interceptors.add((processor, next) -> stream -> from(stream)
-        .doOnNext(event -> setCurrentEvent(event))
-        .transform(next)
-        .doOnNext(result -> setCurrentEvent(result)));
-
-    // #4 If the processor returns a CursorProvider, then have the StreamingManager manage it
-    interceptors.add((processor, next) -> stream -> from(stream)
-        .transform(next)
-        .map(result -> {
-          Object payload = result.getMessage().getPayload().getValue();
-          if (payload instanceof CursorProvider) {
-            Message message = Message.builder(result.getMessage()).payload(
-                                                                           streamingManager.manage((CursorProvider) payload,
-                                                                                                   result))
-                .build();
-            result = Event.builder(result).message(message).build();
-          }
-
-          return result;
-        }));
-
-    // #4 Apply processor interceptors.
+    // #2 Apply processor interceptors.
     muleContext.getProcessorInterceptorManager().getInterceptorFactories().stream()
         .forEach(interceptorFactory -> {
           ReactiveInterceptorAdapter reactiveInterceptorAdapter = new ReactiveInterceptorAdapter(interceptorFactory);
@@ -180,7 +160,7 @@ public abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObj
           interceptors.add(0, reactiveInterceptorAdapter);
         });
 
-    // #6 Apply processing strategy (notifications will be fired, interceptors executed on processing thread as defined by the
+    // #3 Apply processing strategy (notifications will be fired, interceptors executed on processing thread as defined by the
     // processing strategy. Use anonymous ReactiveProcessor to apply processing strategy to processor + previous interceptors
     // while using the processing type of the processor itself.
     if (flowConstruct instanceof Pipeline) {
@@ -199,7 +179,7 @@ public abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObj
           }));
     }
 
-    // #6 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
+    // #4 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
     // scheduling such as RejectedExecutionException's can be handled cleanly
     interceptors.add((processor, next) -> stream -> from(stream).concatMap(event -> just(event)
         .transform(next)
@@ -244,6 +224,70 @@ public abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObj
     }
   }
 
+  private Consumer<Event> preProcess(Processor processor) {
+    if (!isNotifiable(processor)) {
+      return event -> setCurrentEvent(event);
+    }
+
+    final Consumer<Event> preNotification = preNotification(processor);
+    return event -> {
+      setCurrentEvent(event);
+      preNotification.accept(event);
+    };
+  }
+
+  private Function<Event, Event> postProcess(Processor processor) {
+    if (!isNotifiable(processor)) {
+      return result -> {
+        setCurrentEvent(result);
+        return manageCursorProvider(result);
+      };
+    }
+
+    final Consumer<Event> postNotification = postNotification(processor);
+    return result -> {
+      postNotification.accept(result);
+      setCurrentEvent(result);
+      return manageCursorProvider(result);
+    };
+  }
+
+  /**
+   * The payload is only known once the processor returns, so this is the one check of the stage which is done per event.
+   */
+  private Event manageCursorProvider(Event result) {
+    Object payload = result.getMessage().getPayload().getValue();
+    if (payload instanceof CursorProvider) {
+      Message message = Message.builder(result.getMessage())
+          .payload(streamingManager.manage((CursorProvider) payload, result))
+          .build();
+      return Event.builder(result).message(message).build();
+    }
+    return result;
+  }
+
+  private Function<MessagingException, MessagingException> processError(Processor processor) {
+    final Function<MessagingException, MessagingException> updateMessagingException = updateMessagingException(processor);
+    if (!isNotifiable(processor)) {
+      return updateMessagingException;
+    }
+
+    final Consumer<MessagingException> errorNotification = errorNotification(processor);
+    return exception -> {
+      MessagingException updated = updateMessagingException.apply(exception);
+      errorNotification.accept(updated);
+      return updated;
+    };
+  }
+
+  /**
+   * {@link MessageProcessorNotification}s are only fired for processors with a location, which doesn't change once the chain
+   * is assembled.
+   */
+  private boolean isNotifiable(Processor processor) {
+    return processor instanceof AnnotatedObject && ((AnnotatedObject) processor).getLocation() != null;
+  }
+
   private Consumer<Event> preNotification(Processor processor) {
     return event -> {
       if (event.isNotificationsEnabled()) {
@@ -277,12 +321,8 @@ public abstract class AbstractMessageProcessorChain extends AbstractAnnotatedObj
                                 int action) {
     if (serverNotificationManager != null
         && serverNotificationManager.isNotificationEnabled(MessageProcessorNotification.class)) {
-
-      if (processor instanceof AnnotatedObject
-          && ((AnnotatedObject) processor).getLocation() != null) {
-        serverNotificationManager
-            .fireNotification(MessageProcessorNotification.createFrom(event, flowConstruct, processor, exceptionThrown, action));
-      }
+      serverNotificationManager
+          .fireNotification(MessageProcessorNotification.createFrom(event, flowConstruct, processor, exceptionThrown, action));
     }
   }
 
@@ -7,11 +7,16 @@
 
 package org.mule.runtime.core.routing;
 
+import static java.util.stream.Collectors.toMap;
+
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
 import org.mule.runtime.core.api.routing.AggregationContext;
 import org.mule.runtime.core.api.routing.RouterResultsHandler;
 
+import java.util.Map;
+
 /**
  * If no routes generated exeption then it returns a new {@link Event} under the rules of {@link DefaultRouterResultsHandler} (you
  * can change this behaviour by overriding {@link #aggregateWithoutFailedRoutes(AggregationContext)}. Otherwise, a
@@ -37,7 +42,10 @@ public class CollectAllAggregationStrategy implements AggregationStrategy {
   }
 
   protected Event aggregateWithFailedRoutes(AggregationContext context) throws MuleException {
-    throw new CompositeRoutingException(context.collectRouteExceptions());
+    Map<Integer, Message> results = context.collectRouteResults().entrySet().stream()
+        .filter(entry -> entry.getValue().getMessage() != null)
+        .collect(toMap(Map.Entry::getKey, entry -> entry.getValue().getMessage()));
+    throw new CompositeRoutingException(context.collectRouteExceptions(), results);
   }
 
 }
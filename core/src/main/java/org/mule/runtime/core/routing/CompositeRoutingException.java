@@ -7,8 +7,10 @@
 
 package org.mule.runtime.core.routing;
 
+import static java.util.Collections.emptyMap;
 import static org.apache.commons.lang.SystemUtils.LINE_SEPARATOR;
 import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.message.Message;
 import org.mule.runtime.core.api.processor.MessageRouter;
 import org.mule.runtime.api.i18n.I18nMessage;
 import org.mule.runtime.api.i18n.I18nMessageFactory;
@@ -33,6 +35,8 @@ public class CompositeRoutingException extends MuleException {
 
   private final Map<Integer, Throwable> exceptions;
 
+  private final Map<Integer, Message> results;
+
   /**
    * Constructs a new {@link CompositeRoutingException}
    * 
@@ -41,14 +45,32 @@ public class CompositeRoutingException extends MuleException {
    *        error and the value is the {@link Throwable} itself
    */
   public CompositeRoutingException(I18nMessage message, Map<Integer, Throwable> exceptions) {
+    this(message, exceptions, emptyMap());
+  }
+
+  /**
+   * Constructs a new {@link CompositeRoutingException}
+   * 
+   * @param message message describing the failure
+   * @param exceptions a {@link Map} in which the key is an {@link Integer} describing the index of the route that generated the
+   *        error and the value is the {@link Throwable} itself
+   * @param results a {@link Map} in which the key is an {@link Integer} describing the index of a route that completed
+   *        successfully and the value is the {@link Message} it responded with
+   */
+  public CompositeRoutingException(I18nMessage message, Map<Integer, Throwable> exceptions, Map<Integer, Message> results) {
     super(message);
     this.exceptions = Collections.unmodifiableMap(exceptions);
+    this.results = Collections.unmodifiableMap(results);
   }
 
   public CompositeRoutingException(Map<Integer, Throwable> exceptions) {
     this(buildExceptionMessage(exceptions), exceptions);
   }
 
+  public CompositeRoutingException(Map<Integer, Throwable> exceptions, Map<Integer, Message> results) {
+    this(buildExceptionMessage(exceptions), exceptions, results);
+  }
+
   /**
    * Returns the {@link Exception} for the given route index
    * 
@@ -67,6 +89,14 @@ public class CompositeRoutingException extends MuleException {
     return this.exceptions;
   }
 
+  /**
+   * @return a {@link Map} in which the key is an {@link Integer} describing the number of a route that completed successfully and
+   *         the value is the {@link Message} it responded with
+   */
+  public Map<Integer, Message> getResults() {
+    return this.results;
+  }
+
   @Override
   public String getDetailedMessage() {
     StringBuilder builder = new StringBuilder();
@@ -11,6 +11,7 @@ import static org.mule.runtime.core.message.GroupCorrelation.NOT_SET;
 import static org.mule.runtime.core.util.StringUtils.DASH;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleSession;
@@ -22,17 +23,23 @@ import org.mule.runtime.core.util.ClassUtils;
 import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.apache.commons.collections.IteratorUtils;
 
 /**
  * <code>EventGroup</code> is a holder over events grouped by a common group Id. This can be used by components such as routers to
  * managed related events.
+ * <p>
+ * Events are kept in the {@link PartitionableObjectStore} provided through {@link #initEventsStore(PartitionableObjectStore)},
+ * which is responsible for making concurrent access safe, so no locks are taken by this class. Callers that need to perform
+ * several operations on a group atomically must provide their own synchronization.
  */
 // @ThreadSafe
 public class EventGroup implements Comparable<EventGroup>, Serializable, DeserializationPostInitialisable {
@@ -42,6 +49,9 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   private static final long serialVersionUID = 953739659615692697L;
 
+  private static final AtomicIntegerFieldUpdater<EventGroup> ARRIVAL_ORDER_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(EventGroup.class, "arrivalOrderCounter");
+
   public static final Event[] EMPTY_EVENTS_ARRAY = new Event[0];
 
   public static final String MULE_ARRIVAL_ORDER_PROPERTY = MuleProperties.PROPERTY_PREFIX + "ARRIVAL_ORDER";
@@ -53,7 +63,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   private final long created;
   private final Integer expectedSize;
   transient private MuleContext muleContext;
-  private int arrivalOrderCounter = 0;
+  private volatile int arrivalOrderCounter = 0;
 
   public static final String DEFAULT_STORE_PREFIX = "DEFAULT_STORE";
 
@@ -138,9 +148,7 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
   /**
    * Returns an iterator over a snapshot copy of this group's collected events sorted by their arrival time. If you need to
-   * iterate over the group and e.g. remove select events, do so via {@link #removeEvent(Event)}. If you need to do so atomically
-   * in order to prevent e.g. concurrent reception/aggregation of the group during iteration, wrap the iteration in a synchronized
-   * block on the group instance.
+   * iterate over the group and e.g. remove select events, do so via {@link #removeEvent(Event)}.
    *
    * @return an iterator over collected {@link Event}s.
    * @throws ObjectStoreException
@@ -151,21 +159,18 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
   /**
    * Returns an iterator over a snapshot copy of this group's collected events., optionally sorted by arrival order. If you need
-   * to iterate over the group and e.g. remove select events, do so via {@link #removeEvent(Event)}. If you need to do so
-   * atomically in order to prevent e.g. concurrent reception/aggregation of the group during iteration, wrap the iteration in a
-   * synchronized block on the group instance.
+   * to iterate over the group and e.g. remove select events, do so via {@link #removeEvent(Event)}.
    *
    * @return an iterator over collected {@link Event}s.
    * @throws ObjectStoreException
    */
   @SuppressWarnings("unchecked")
   public Iterator<Event> iterator(boolean sortByArrival) throws ObjectStoreException {
-    synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
-        return IteratorUtils.emptyIterator();
-      } else {
-        return IteratorUtils.arrayIterator(this.toArray(sortByArrival));
-      }
+    Event[] events = this.toArray(sortByArrival);
+    if (events.length == 0) {
+      return IteratorUtils.emptyIterator();
+    } else {
+      return IteratorUtils.arrayIterator(events);
     }
   }
 
@@ -187,20 +192,23 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    * @throws ObjectStoreException
    */
   public Event[] toArray(boolean sortByArrival) throws ObjectStoreException {
-    synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
-        return EMPTY_EVENTS_ARRAY;
-      }
-      List<Serializable> keys = eventsObjectStore.allKeys(eventsPartitionKey);
-      Event[] eventArray = new Event[keys.size()];
-      for (int i = 0; i < keys.size(); i++) {
-        eventArray[i] = eventsObjectStore.retrieve(keys.get(i), eventsPartitionKey);
-      }
-      if (sortByArrival) {
-        Arrays.sort(eventArray, new ArrivalOrderEventComparator());
+    List<Serializable> keys = eventsObjectStore.allKeys(eventsPartitionKey);
+    if (keys.isEmpty()) {
+      return EMPTY_EVENTS_ARRAY;
+    }
+    List<Event> events = new ArrayList<>(keys.size());
+    for (Serializable key : keys) {
+      try {
+        events.add(eventsObjectStore.retrieve(key, eventsPartitionKey));
+      } catch (ObjectDoesNotExistException e) {
+        // removed after the keys were listed
       }
-      return eventArray;
     }
+    Event[] eventArray = events.toArray(EMPTY_EVENTS_ARRAY);
+    if (sortByArrival) {
+      Arrays.sort(eventArray, new ArrivalOrderEventComparator());
+    }
+    return eventArray;
   }
 
   /**
@@ -210,13 +218,11 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    * @throws ObjectStoreException
    */
   public void addEvent(Event event) throws ObjectStoreException {
-    synchronized (this) {
-      event = Event.builder(event).addVariable(MULE_ARRIVAL_ORDER_PROPERTY, ++arrivalOrderCounter).build();
-      // Using both event ID and CorrelationSequence since in certain instances
-      // when an event is split up, the same event IDs are used.
-      Serializable key = getEventKey(event);
-      eventsObjectStore.store(key, event, eventsPartitionKey);
-    }
+    event = Event.builder(event).addVariable(MULE_ARRIVAL_ORDER_PROPERTY, ARRIVAL_ORDER_UPDATER.incrementAndGet(this)).build();
+    // Using both event ID and CorrelationSequence since in certain instances
+    // when an event is split up, the same event IDs are used.
+    Serializable key = getEventKey(event);
+    eventsObjectStore.store(key, event, eventsPartitionKey);
   }
 
   private String getEventKey(Event event) {
@@ -243,13 +249,11 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    * @return number of events in this group or 0 if the group is empty.
    */
   public int size() {
-    synchronized (this) {
-      try {
-        return eventsObjectStore.allKeys(eventsPartitionKey).size();
-      } catch (ObjectStoreException e) {
-        // TODO Check if this is ok.
-        return -1;
-      }
+    try {
+      return eventsObjectStore.allKeys(eventsPartitionKey).size();
+    } catch (ObjectStoreException e) {
+      // TODO Check if this is ok.
+      return -1;
     }
   }
 
@@ -268,10 +272,8 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    * @throws ObjectStoreException
    */
   public void clear() throws ObjectStoreException {
-    synchronized (this) {
-      eventsObjectStore.clear(eventsPartitionKey);
-      eventsObjectStore.close(eventsPartitionKey);
-    }
+    eventsObjectStore.clear(eventsPartitionKey);
+    eventsObjectStore.close(eventsPartitionKey);
   }
 
   @Override
@@ -283,25 +285,19 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
     buf.append(", expected size=").append(expectedSize().map(v -> v.toString()).orElse(NOT_SET));
 
     try {
-      synchronized (this) {
-        int currentSize;
-
-        currentSize = eventsObjectStore.allKeys(eventsPartitionKey).size();
-
-        buf.append(", current events=").append(currentSize);
-
-        if (currentSize > 0) {
-          buf.append(" [");
-          Iterator<Serializable> i = eventsObjectStore.allKeys(eventsPartitionKey).iterator();
-          while (i.hasNext()) {
-            Serializable id = i.next();
-            buf.append(eventsObjectStore.retrieve(id, eventsPartitionKey).getCorrelationId());
-            if (i.hasNext()) {
-              buf.append(", ");
-            }
+      Event[] events = toArray(false);
+
+      buf.append(", current events=").append(events.length);
+
+      if (events.length > 0) {
+        buf.append(" [");
+        for (int i = 0; i < events.length; i++) {
+          if (i > 0) {
+            buf.append(", ");
           }
-          buf.append(']');
+          buf.append(events[i].getCorrelationId());
         }
+        buf.append(']');
       }
     } catch (ObjectStoreException e) {
       buf.append("ObjectStoreException " + e + " caught:" + e.getMessage());
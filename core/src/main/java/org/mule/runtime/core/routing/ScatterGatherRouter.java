@@ -7,21 +7,27 @@
 
 package org.mule.runtime.core.routing;
 
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.processor.MessageProcessors.newChain;
 import static org.mule.runtime.core.api.processor.MessageProcessors.newExplicitChain;
 import static org.mule.runtime.core.api.processor.MessageProcessors.processToApply;
+import static org.mule.runtime.core.api.processor.MessageProcessors.processWithChildContext;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedConsumer;
 import static org.mule.runtime.core.api.rx.Exceptions.checkedFunction;
 import static org.mule.runtime.core.config.i18n.CoreMessages.noEndpointsForRouter;
 import static org.mule.runtime.core.routing.AbstractRoutingStrategy.validateMessageIsNotConsumable;
 import static reactor.core.publisher.Flux.from;
-import static reactor.core.publisher.Flux.fromIterable;
-import static reactor.core.publisher.Flux.just;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.util.Preconditions;
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.core.api.message.ExceptionPayload;
@@ -30,17 +36,27 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.routing.AggregationContext;
 import org.mule.runtime.core.api.routing.CouldNotRouteOutboundMessageException;
 import org.mule.runtime.core.api.routing.RoutePathNotFoundException;
+import org.mule.runtime.core.api.routing.RoutingException;
+import org.mule.runtime.core.exception.MessagingException;
+import org.mule.runtime.core.message.ErrorBuilder;
 import org.mule.runtime.core.processor.AbstractMessageProcessorOwner;
 import org.mule.runtime.core.routing.outbound.MulticastingRouter;
+import org.mule.runtime.core.transaction.TransactionCoordination;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 
 /**
  * <p>
@@ -65,6 +81,15 @@ import org.slf4j.LoggerFactory;
  * For advanced use cases, a custom {@link AggregationStrategy} can be applied to customize the logic used to aggregate the route
  * responses back into one single element or to throw exception
  * <p>
+ * When running in parallel, every route is dispatched at once to an IO scheduler, from where each route chain continues on the
+ * schedulers of the flow's processing strategy, so the time to aggregate is that of the slowest route. Once all the routes
+ * complete, processing continues on the flow's processing strategy. Routes not completed within {@link #setTimeout(long)} since
+ * they started, or still running when {@link #setOverallTimeout(long)} elapses, are aggregated as failed with a
+ * {@link RoutingException}, along with the results of the routes that did complete. When running sequentially, a route is only
+ * started once the previous one actually finished, even if it timed out. When a transaction is active, the routes run
+ * sequentially on the current thread, to which the transaction is bound, and no timeouts are applied.
+ * </p>
+ * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/BroadcastAggregate.html"<a/>
  * </p>
  * 
@@ -74,6 +99,11 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
 
   private static final Logger logger = LoggerFactory.getLogger(ScatterGatherRouter.class);
 
+  /**
+   * Placeholder for routes that completed without a response, since {@code null} means the route is still running
+   */
+  private static final Object NO_RESULT = new Object();
+
   /**
    * Whether the configured routes will run in parallel (default is true).
    */
@@ -84,6 +114,11 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
    */
   private long timeout = 0;
 
+  /**
+   * Timeout in milliseconds for all the routes to complete. Values lower or equal to zero means no timeout
+   */
+  private long overallTimeout = 0;
+
   /**
    * The routes that the message will be sent to
    */
@@ -104,6 +139,11 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
    */
   private AggregationStrategy aggregationStrategy;
 
+  /**
+   * Scheduler used to dispatch the routes and to enforce the timeouts
+   */
+  private Scheduler scheduler;
+
   @Override
   public Event process(Event event) throws MuleException {
     return processToApply(event, this);
@@ -120,10 +160,38 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
     return from(publisher).doOnNext(checkedConsumer(event -> {
       assertMorethanOneRoute();
       validateMessageIsNotConsumable(event, event.getMessage());
-    })).concatMap(event -> from(fromIterable(routeChains).concatMap(processor -> just(event).transform(processor))).collectList()
+    })).concatMap(event -> Mono.<List<Event>>create(sink -> new RoutesExecution(event, sink).start())
         .map(checkedFunction(list -> aggregationStrategy.aggregate(new AggregationContext(event, list)))));
   }
 
+  /**
+   * When running in parallel the routes complete on other threads, so the processing strategy has to get processing back to its
+   * own threads.
+   */
+  @Override
+  public ProcessingType getProcessingType() {
+    return parallel ? CPU_LITE_ASYNC : CPU_LITE;
+  }
+
+  @Override
+  public void start() throws MuleException {
+    scheduler = muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withShutdownTimeout(0, MILLISECONDS));
+    super.start();
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    try {
+      super.stop();
+    } finally {
+      if (scheduler != null) {
+        scheduler.stop();
+        scheduler = null;
+      }
+    }
+  }
+
   @Override
   public void initialise() throws InitialisationException {
     try {
@@ -136,6 +204,9 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
       if (timeout <= 0) {
         timeout = Long.MAX_VALUE;
       }
+      if (overallTimeout <= 0) {
+        overallTimeout = Long.MAX_VALUE;
+      }
     } catch (Exception e) {
       throw new InitialisationException(e, this);
     }
@@ -194,8 +265,159 @@ public class ScatterGatherRouter extends AbstractMessageProcessorOwner implement
     this.timeout = timeout;
   }
 
+  public void setOverallTimeout(long overallTimeout) {
+    this.overallTimeout = overallTimeout;
+  }
+
   public void setRoutes(List<Processor> routes) {
     this.routes = routes;
   }
 
+  /**
+   * The execution of all the routes for a single {@link Event}. Each route result is recorded only once, be it its response,
+   * its error or its timeout, and the results are handed to the sink once all of them are in.
+   */
+  private final class RoutesExecution {
+
+    private final Event event;
+    private final MonoSink<List<Event>> sink;
+    private final AtomicReferenceArray<Object> results;
+    private final AtomicReferenceArray<Future<?>> routeTimeouts;
+    private final AtomicInteger pending;
+    private final Scheduler scheduler;
+    private final boolean parallelExecution;
+    private final boolean timeoutsEnabled;
+    private volatile Future<?> overallTimeoutTask;
+    private volatile boolean overallTimeoutElapsed = false;
+
+    private RoutesExecution(Event event, MonoSink<List<Event>> sink) {
+      this.event = event;
+      this.sink = sink;
+      this.results = new AtomicReferenceArray<>(routeChains.size());
+      this.routeTimeouts = new AtomicReferenceArray<>(routeChains.size());
+      this.pending = new AtomicInteger(routeChains.size());
+      this.scheduler = ScatterGatherRouter.this.scheduler;
+      // the transaction is bound to the current thread, so neither the routes nor their timeouts can run on other threads
+      final boolean transactional = TransactionCoordination.getInstance().getTransaction() != null;
+      this.parallelExecution = parallel && scheduler != null && !transactional;
+      this.timeoutsEnabled = scheduler != null && !transactional;
+    }
+
+    private void start() {
+      if (timeoutsEnabled && overallTimeout != Long.MAX_VALUE) {
+        overallTimeoutTask = scheduler.schedule(() -> {
+          overallTimeoutElapsed = true;
+          for (int i = 0; i < routeChains.size(); ++i) {
+            timeout(i, overallTimeout);
+          }
+        }, overallTimeout, MILLISECONDS);
+      }
+
+      if (parallelExecution) {
+        for (int i = 0; i < routeChains.size(); ++i) {
+          final int route = i;
+          try {
+            scheduler.submit(() -> execute(route));
+          } catch (RejectedExecutionException e) {
+            complete(route, errorEvent(route, e));
+          }
+        }
+      } else {
+        execute(0);
+      }
+    }
+
+    private void execute(int route) {
+      if (results.get(route) != null || overallTimeoutElapsed) {
+        // already timed out
+        next(route);
+        return;
+      }
+
+      if (timeoutsEnabled && timeout != Long.MAX_VALUE) {
+        routeTimeouts.set(route, scheduler.schedule(() -> timeout(route, timeout), timeout, MILLISECONDS));
+        if (results.get(route) != null) {
+          // completed while the timeout was being scheduled
+          cancelTimeout(route);
+        }
+      }
+
+      try {
+        from(processWithChildContext(event, routeChains.get(route)))
+            .subscribe(result -> finish(route, result),
+                       throwable -> finish(route, errorEvent(route, throwable)),
+                       () -> finish(route, NO_RESULT));
+      } catch (Throwable t) {
+        finish(route, errorEvent(route, t));
+      }
+    }
+
+    /**
+     * Handles the signal of the route itself, as opposed to its timeout. When running sequentially, only this moves on to the
+     * next route, so that routes never overlap nor run on the thread of a timeout.
+     */
+    private void finish(int route, Object result) {
+      complete(route, result);
+      next(route);
+    }
+
+    private void timeout(int route, long millis) {
+      RoutingException exception = new RoutingException(createStaticMessage(format("Route %d did not complete within %d ms",
+                                                                                   route, millis)),
+                                                        routeChains.get(route));
+      complete(route, errorEvent(route, exception));
+    }
+
+    private void complete(int route, Object result) {
+      if (!results.compareAndSet(route, null, result)) {
+        return;
+      }
+      cancelTimeout(route);
+
+      if (pending.decrementAndGet() == 0) {
+        Future<?> overallTimeoutTask = this.overallTimeoutTask;
+        if (overallTimeoutTask != null) {
+          overallTimeoutTask.cancel(false);
+        }
+
+        Event[] collected = new Event[results.length()];
+        for (int i = 0; i < collected.length; ++i) {
+          Object result = results.get(i);
+          collected[i] = result == NO_RESULT ? null : (Event) result;
+        }
+        sink.success(asList(collected));
+      }
+    }
+
+    private void next(int route) {
+      if (!parallelExecution && route + 1 < routeChains.size()) {
+        execute(route + 1);
+      }
+    }
+
+    private void cancelTimeout(int route) {
+      Future<?> routeTimeout = routeTimeouts.getAndSet(route, null);
+      if (routeTimeout != null) {
+        routeTimeout.cancel(false);
+      }
+    }
+
+    private Event errorEvent(int route, Throwable throwable) {
+      if (throwable instanceof MessagingException) {
+        Event failed = ((MessagingException) throwable).getEvent();
+        if (failed != null && failed.getError().isPresent()) {
+          return failed;
+        }
+        throwable = throwable.getCause() != null ? throwable.getCause() : throwable;
+      }
+
+      if (logger.isDebugEnabled()) {
+        logger.debug(format("Route %d of scatter-gather failed", route), throwable);
+      }
+      return Event.builder(event)
+          .error(ErrorBuilder.builder(throwable).errorType(muleContext.getErrorTypeLocator().lookupErrorType(throwable)).build())
+          .build();
+    }
+  }
+
 }
@@ -6,11 +6,14 @@
  */
 package org.mule.runtime.core.routing.correlation;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.runtime.core.context.notification.RoutingNotification.CORRELATION_TIMEOUT;
 import static org.mule.runtime.core.context.notification.RoutingNotification.MISSED_AGGREGATION_GROUP_EVENT;
 import static org.mule.runtime.core.execution.ErrorHandlingExecutionTemplate.createErrorHandlingExecutionTemplate;
@@ -41,16 +44,31 @@ import org.mule.runtime.core.routing.EventGroup;
 import org.mule.runtime.core.util.StringMessageUtils;
 import org.mule.runtime.core.util.monitor.Expirable;
 import org.mule.runtime.core.util.monitor.ExpiryMonitor;
+import org.mule.runtime.core.util.monitor.HierarchicalTimingWheel;
+import org.mule.runtime.core.util.monitor.HierarchicalTimingWheel.Timeout;
 import org.mule.runtime.core.util.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Correlates events into {@link EventGroup}s, handing them to an {@link EventCorrelatorCallback} once complete and expiring the
+ * ones not completed within the configured timeout.
+ * <p>
+ * Groups are guarded by a fixed set of lock stripes chosen by the hash of their id, so that events for different groups are
+ * correlated concurrently. Expiry is tracked with a {@link HierarchicalTimingWheel}, so each run of the monitoring task only
+ * looks at the groups that are actually due. Since groups may also be added to the store by other cluster nodes or survive a
+ * restart, groups are put in the wheel whenever they are looked up, and the whole store is reconciled against the wheel on
+ * start and then about once per timeout, but no more often than every {@link #MIN_RECONCILIATION_INTERVAL} nor less often
+ * than every {@link #MAX_RECONCILIATION_INTERVAL} milliseconds.
+ */
 public class EventCorrelator implements Startable, Stoppable, Disposable {
 
   /**
@@ -61,10 +79,15 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
   public static final String NO_CORRELATION_ID = "no-id";
 
   private static final long DELAY_TIME = 10;
+  private static final long MIN_RECONCILIATION_INTERVAL = SECONDS.toMillis(1);
+  private static final long MAX_RECONCILIATION_INTERVAL = MINUTES.toMillis(1);
+  private static final int LOCK_STRIPES = 64;
+  private static final int EXPIRY_WHEEL_SIZE = 64;
+  private static final int EXPIRY_WHEEL_COUNT = 4;
 
-  protected final Object groupsLock = new Object();
+  private final Object[] groupLocks = new Object[LOCK_STRIPES];
 
-  // @GuardedBy groupsLock
+  // @GuardedBy the lock of each group
   protected ObjectStore<Long> processedGroups = null;
 
   private long timeout = -1; // undefined
@@ -86,6 +109,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
 
   private Scheduler scheduler;
   private ExpiringGroupMonitoringRunnable expiringGroupRunnable;
+  private volatile HierarchicalTimingWheel<Serializable> expiryWheel;
+  private final Map<Serializable, Timeout<Serializable>> expiryTimeouts = new ConcurrentHashMap<>();
   private final String name;
 
   private final FlowConstruct flowConstruct;
@@ -108,6 +133,10 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
     this.correlatorStore = correlatorStore;
     this.storePrefix = storePrefix;
     this.processedGroups = processedGroups;
+
+    for (int i = 0; i < groupLocks.length; ++i) {
+      groupLocks[i] = new Object();
+    }
   }
 
   public void forceGroupExpiry(String groupId) throws MuleException {
@@ -176,7 +205,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
       }
 
       // ensure that only one thread at a time evaluates this EventGroup
-      synchronized (groupsLock) {
+      synchronized (getGroupLock(groupId)) {
         if (logger.isDebugEnabled()) {
           logger.debug("Adding event to aggregator group: " + groupId);
         }
@@ -231,6 +260,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
         }
       }
       eventGroup.initEventsStore(correlatorStore);
+      // the group may have been stored by another node or before a restart, without going through addEventGroup
+      scheduleExpiry(eventGroup);
       return eventGroup;
     } catch (ObjectDoesNotExistException e) {
       return null;
@@ -240,6 +271,7 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
   protected EventGroup addEventGroup(EventGroup group) throws ObjectStoreException {
     try {
       correlatorStore.store((Serializable) group.getGroupId(), group, getEventGroupsPartitionKey());
+      scheduleExpiry(group);
       return group;
     } catch (ObjectAlreadyExistsException e) {
       return getEventGroup((String) group.getGroupId());
@@ -248,26 +280,53 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
 
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
     final Object groupId = group.getGroupId();
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(groupId)) {
       if (!isGroupAlreadyProcessed(groupId)) {
         correlatorStore.remove((Serializable) groupId, getEventGroupsPartitionKey());
         addProcessedGroup(groupId);
       }
     }
+    cancelExpiry(groupId);
   }
 
   protected void addProcessedGroup(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       processedGroups.store((Serializable) id, currentTimeMillis());
     }
   }
 
   protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       return processedGroups.contains((Serializable) id);
     }
   }
 
+  /**
+   * @param groupId the id of an {@link EventGroup}
+   * @return the lock which guards the group with the given id
+   */
+  protected Object getGroupLock(Object groupId) {
+    int hash = groupId == null ? 0 : groupId.hashCode();
+    return groupLocks[(hash ^ (hash >>> 16)) & (groupLocks.length - 1)];
+  }
+
+  private void scheduleExpiry(EventGroup group) {
+    HierarchicalTimingWheel<Serializable> wheel = expiryWheel;
+    if (wheel != null) {
+      expiryTimeouts.computeIfAbsent((Serializable) group.getGroupId(),
+                                     id -> wheel.schedule(id, group.getCreated() + getTimeout()));
+    }
+  }
+
+  private void cancelExpiry(Object groupId) {
+    if (expiryWheel != null) {
+      Timeout<Serializable> timeout = expiryTimeouts.remove(groupId);
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+  }
+
   public boolean isFailOnTimeout() {
     return failOnTimeout;
   }
@@ -344,6 +403,8 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
     if (timeout != 0) {
       scheduler = muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig().withName(name)
           .withMaxConcurrentTasks(1).withShutdownTimeout(0, MILLISECONDS));
+      expiryTimeouts.clear();
+      expiryWheel = new HierarchicalTimingWheel<>(currentTimeMillis(), DELAY_TIME, EXPIRY_WHEEL_SIZE, EXPIRY_WHEEL_COUNT);
       expiringGroupRunnable = new ExpiringGroupMonitoringRunnable();
       scheduler.scheduleWithFixedDelay(expiringGroupRunnable, 0, DELAY_TIME, MILLISECONDS);
     }
@@ -360,6 +421,9 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
   private final class ExpiringGroupMonitoringRunnable implements Runnable, Expirable, Disposable {
 
     private ExpiryMonitor expiryMonitor;
+    private final long reconciliationInterval =
+        min(MAX_RECONCILIATION_INTERVAL, max(MIN_RECONCILIATION_INTERVAL, getTimeout()));
+    private long nextReconciliation = 0;
 
     public ExpiringGroupMonitoringRunnable() {
       this.expiryMonitor = new ExpiryMonitor(name, MINUTES.toMillis(1), muleContext, true);
@@ -394,13 +458,27 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
         return;
       }
 
+      final long now = currentTimeMillis();
       List<EventGroup> expired = new ArrayList<>(1);
       try {
-        for (Serializable o : (List<Serializable>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
-          EventGroup group = getEventGroup(o);
-          // group may have been removed by another thread right after eventGroups.allKeys()
-          if (group != null && group.getCreated() + getTimeout() < currentTimeMillis()) {
-            expired.add(group);
+        if (now >= nextReconciliation) {
+          reconcile();
+          nextReconciliation = now + reconciliationInterval;
+        }
+
+        List<Serializable> dueGroupIds = new ArrayList<>();
+        expiryWheel.advance(now, dueGroupIds::add);
+        for (Serializable groupId : dueGroupIds) {
+          // looked up before forgetting its timeout, so that the lookup does not schedule it again
+          EventGroup group = getEventGroup(groupId);
+          expiryTimeouts.remove(groupId);
+          // group may have been removed by another thread right before its timeout was cancelled
+          if (group != null) {
+            if (group.getCreated() + getTimeout() < now) {
+              expired.add(group);
+            } else {
+              scheduleExpiry(group);
+            }
           }
         }
       } catch (ObjectStoreException e) {
@@ -422,6 +500,21 @@ public class EventCorrelator implements Startable, Stoppable, Disposable {
       }
     }
 
+    /**
+     * Schedules the expiry of the groups present in the store which are not being tracked yet.
+     */
+    private void reconcile() throws ObjectStoreException {
+      for (Serializable o : (List<Serializable>) correlatorStore.allKeys(getEventGroupsPartitionKey())) {
+        if (!expiryTimeouts.containsKey(o)) {
+          EventGroup group = getEventGroup(o);
+          // group may have been removed by another thread right after eventGroups.allKeys()
+          if (group != null) {
+            scheduleExpiry(group);
+          }
+        }
+      }
+    }
+
     @Override
     public void dispose() {
       if (expiryMonitor != null) {
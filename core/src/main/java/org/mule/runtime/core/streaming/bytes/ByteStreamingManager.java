@@ -24,6 +24,15 @@ public interface ByteStreamingManager {
    */
   CursorStreamProviderFactory getInMemoryCursorProviderFactory(InMemoryCursorStreamConfig config);
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which keeps a bounded amount of data in memory and
+   * buffers the rest of the stream into a local file
+   *
+   * @param config the configuration for the produced {@link CursorStreamProvider} instances
+   * @return a new {@link CursorStreamProviderFactory}
+   */
+  CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config);
+
   /**
    * Creates a null object implementation of {@link CursorStreamProviderFactory}
    *
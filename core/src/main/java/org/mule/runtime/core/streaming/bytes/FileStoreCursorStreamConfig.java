@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.streaming.bytes;
 
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import org.mule.runtime.api.util.DataSize;
 import org.mule.runtime.core.internal.streaming.bytes.InputStreamBuffer;
 
@@ -20,9 +21,10 @@ public final class FileStoreCursorStreamConfig {
 
   /**
    * Creates a new instance
-   * @param maxInMemorySize the maximum amount of data to be held in memory
+   * @param maxInMemorySize the maximum amount of data to be held in memory. Must be greater than zero bytes.
    */
   public FileStoreCursorStreamConfig(DataSize maxInMemorySize) {
+    checkArgument(maxInMemorySize.toBytes() > 0, "maxInMemorySize must be greater than zero bytes");
     this.maxInMemorySize = maxInMemorySize;
   }
 
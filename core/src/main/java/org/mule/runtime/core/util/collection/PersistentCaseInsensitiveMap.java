@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.collection;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} with {@link String} keys that are compared ignoring their case, as
+ * {@link String#equalsIgnoreCase(String)} does. The original case of the keys is preserved.
+ * <p>
+ * Modified copies are obtained through {@link #with(String, Object)} and {@link #without(String)}, which share all of the
+ * structure of this map except for the path to the modified entry. Entries are kept in a hash array mapped trie, so a
+ * modification copies at most a handful of small arrays regardless of the size of the map, making it cheap to derive a new
+ * map on each change instead of copying it.
+ * <p>
+ * The mutator methods of {@link Map} throw {@link UnsupportedOperationException}.
+ *
+ * @param <V> the type of the values
+ * @since 4.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = -2145325391287532816L;
+
+  private static final int BITS = 5;
+  private static final int FRAGMENT_MASK = (1 << BITS) - 1;
+
+  private static final PersistentCaseInsensitiveMap<?> EMPTY = new PersistentCaseInsensitiveMap<>(null, 0);
+
+  /**
+   * @return an empty map
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> empty() {
+    return (PersistentCaseInsensitiveMap<V>) EMPTY;
+  }
+
+  /**
+   * @param map the entries of the new map
+   * @return a map with the entries of the given one. If it already is a {@link PersistentCaseInsensitiveMap}, it is returned as
+   *         is.
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+    PersistentCaseInsensitiveMap<V> copy = empty();
+    for (Map.Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.with(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  // Either null, a Leaf or a BitmapNode
+  private transient Object root;
+  private transient int size;
+  private transient Set<String> keySet;
+  private transient Set<Map.Entry<String, V>> entrySet;
+
+  private PersistentCaseInsensitiveMap(Object root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map with the entries of this one plus the given one. If an entry for a key equal ignoring case is present, it is
+   * replaced.
+   *
+   * @param key the key of the entry
+   * @param value the value of the entry
+   * @return a new map, or this one if the given key is already mapped to the same value instance with the same case
+   */
+  public PersistentCaseInsensitiveMap<V> with(String key, V value) {
+    requireNonNull(key);
+    Leaf leaf = new Leaf(key, hash(key), value);
+    if (root == null) {
+      return new PersistentCaseInsensitiveMap<>(leaf, 1);
+    }
+
+    boolean[] added = new boolean[1];
+    Object newRoot = put(root, 0, leaf, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentCaseInsensitiveMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map with the entries of this one except the one for the given key.
+   *
+   * @param key the key of the entry to leave out, compared ignoring case
+   * @return a new map, or this one if there is no entry for the given key
+   */
+  public PersistentCaseInsensitiveMap<V> without(String key) {
+    if (root == null || key == null) {
+      return this;
+    }
+    Object newRoot = remove(root, 0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentCaseInsensitiveMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findLeaf(key) != null;
+  }
+
+  @Override
+  public V get(Object key) {
+    Leaf leaf = findLeaf(key);
+    return leaf != null ? (V) leaf.value : null;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    if (root != null) {
+      forEach(root, action);
+    }
+  }
+
+  @Override
+  public Set<String> keySet() {
+    if (keySet == null) {
+      keySet = new KeySet();
+    }
+    return keySet;
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private Leaf findLeaf(Object key) {
+    if (!(key instanceof String) || root == null) {
+      return null;
+    }
+    String stringKey = (String) key;
+    int hash = hash(stringKey);
+
+    Object node = root;
+    int shift = 0;
+    while (node instanceof BitmapNode) {
+      BitmapNode bitmapNode = (BitmapNode) node;
+      int bit = bit(hash, shift);
+      if ((bitmapNode.bitmap & bit) == 0) {
+        return null;
+      }
+      node = bitmapNode.children[bitmapNode.index(bit)];
+      shift += BITS;
+    }
+
+    for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.collision) {
+      if (leaf.matches(hash, stringKey)) {
+        return leaf;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Same as {@link String#hashCode()} but over the characters normalized the way {@link String#equalsIgnoreCase(String)}
+   * compares them, so that it doesn't need to allocate a lower case copy of the key.
+   */
+  private static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); ++i) {
+      hash = 31 * hash + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return hash;
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & FRAGMENT_MASK);
+  }
+
+  private static Object put(Object node, int shift, Leaf leaf, boolean[] added) {
+    if (node instanceof Leaf) {
+      Leaf existing = (Leaf) node;
+      if (existing.hash != leaf.hash) {
+        added[0] = true;
+        return split(existing, leaf, shift);
+      }
+      return putInCollision(existing, leaf, added);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(leaf.hash, shift);
+    int index = bitmapNode.index(bit);
+    if ((bitmapNode.bitmap & bit) == 0) {
+      added[0] = true;
+      return bitmapNode.insert(bit, index, leaf);
+    }
+
+    Object child = bitmapNode.children[index];
+    Object newChild = put(child, shift + BITS, leaf, added);
+    return newChild == child ? bitmapNode : bitmapNode.replace(index, newChild);
+  }
+
+  /**
+   * Builds the nodes needed to tell apart two leaves with different hashes that share the fragments before {@code shift}.
+   */
+  private static Object split(Leaf first, Leaf second, int shift) {
+    int firstBit = bit(first.hash, shift);
+    int secondBit = bit(second.hash, shift);
+    if (firstBit == secondBit) {
+      return new BitmapNode(firstBit, new Object[] {split(first, second, shift + BITS)});
+    } else if (Integer.compareUnsigned(firstBit, secondBit) < 0) {
+      return new BitmapNode(firstBit | secondBit, new Object[] {first, second});
+    } else {
+      return new BitmapNode(firstBit | secondBit, new Object[] {second, first});
+    }
+  }
+
+  /**
+   * Leaves with the same full hash are chained through {@link Leaf#collision}, which is copied up to the replaced entry.
+   */
+  private static Leaf putInCollision(Leaf chain, Leaf leaf, boolean[] added) {
+    if (chain == null) {
+      added[0] = true;
+      return leaf;
+    }
+    if (chain.matches(leaf.hash, leaf.key)) {
+      if (chain.value == leaf.value && chain.key.equals(leaf.key)) {
+        return chain;
+      }
+      return leaf.withCollision(chain.collision);
+    }
+    Leaf newNext = putInCollision(chain.collision, leaf, added);
+    return newNext == chain.collision ? chain : chain.withCollision(newNext);
+  }
+
+  private static Object remove(Object node, int shift, int hash, String key) {
+    if (node instanceof Leaf) {
+      return removeFromCollision((Leaf) node, hash, key);
+    }
+
+    BitmapNode bitmapNode = (BitmapNode) node;
+    int bit = bit(hash, shift);
+    if ((bitmapNode.bitmap & bit) == 0) {
+      return bitmapNode;
+    }
+
+    int index = bitmapNode.index(bit);
+    Object child = bitmapNode.children[index];
+    Object newChild = remove(child, shift + BITS, hash, key);
+    if (newChild == child) {
+      return bitmapNode;
+    } else if (newChild != null) {
+      // a node left with a single leaf is not needed anymore
+      if (newChild instanceof BitmapNode && ((BitmapNode) newChild).children.length == 1
+          && ((BitmapNode) newChild).children[0] instanceof Leaf) {
+        newChild = ((BitmapNode) newChild).children[0];
+      }
+      return bitmapNode.replace(index, newChild);
+    } else if (bitmapNode.children.length == 1) {
+      return null;
+    } else {
+      return bitmapNode.delete(bit, index);
+    }
+  }
+
+  private static Leaf removeFromCollision(Leaf chain, int hash, String key) {
+    if (chain == null) {
+      return null;
+    }
+    if (chain.matches(hash, key)) {
+      return chain.collision;
+    }
+    Leaf newNext = removeFromCollision(chain.collision, hash, key);
+    return newNext == chain.collision ? chain : chain.withCollision(newNext);
+  }
+
+  private static <V> void forEach(Object node, BiConsumer<? super String, ? super V> action) {
+    if (node instanceof Leaf) {
+      for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.collision) {
+        action.accept(leaf.key, (V) leaf.value);
+      }
+    } else {
+      for (Object child : ((BitmapNode) node).children) {
+        forEach(child, action);
+      }
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeInt(size);
+    for (Map.Entry<String, V> entry : entrySet()) {
+      out.writeObject(entry.getKey());
+      out.writeObject(entry.getValue());
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    int entries = in.readInt();
+    PersistentCaseInsensitiveMap<V> read = empty();
+    for (int i = 0; i < entries; ++i) {
+      read = read.with((String) in.readObject(), (V) in.readObject());
+    }
+    this.root = read.root;
+    this.size = read.size;
+  }
+
+  /**
+   * Inner node of the trie. Each bit set in {@link #bitmap} corresponds, in order, to an element of {@link #children}.
+   */
+  private static final class BitmapNode {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private BitmapNode(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode insert(int bit, int index, Object child) {
+      Object[] newChildren = new Object[children.length + 1];
+      arraycopy(children, 0, newChildren, 0, index);
+      newChildren[index] = child;
+      arraycopy(children, index, newChildren, index + 1, children.length - index);
+      return new BitmapNode(bitmap | bit, newChildren);
+    }
+
+    private BitmapNode replace(int index, Object child) {
+      Object[] newChildren = children.clone();
+      newChildren[index] = child;
+      return new BitmapNode(bitmap, newChildren);
+    }
+
+    private BitmapNode delete(int bit, int index) {
+      Object[] newChildren = new Object[children.length - 1];
+      arraycopy(children, 0, newChildren, 0, index);
+      arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+      return new BitmapNode(bitmap & ~bit, newChildren);
+    }
+  }
+
+  private static final class Leaf implements Map.Entry<String, Object> {
+
+    private final String key;
+    private final int hash;
+    private final Object value;
+    private final Leaf collision;
+
+    private Leaf(String key, int hash, Object value) {
+      this(key, hash, value, null);
+    }
+
+    private Leaf(String key, int hash, Object value, Leaf collision) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+      this.collision = collision;
+    }
+
+    private boolean matches(int hash, String key) {
+      return this.hash == hash && this.key.equalsIgnoreCase(key);
+    }
+
+    private Leaf withCollision(Leaf collision) {
+      return new Leaf(key, hash, value, collision);
+    }
+
+    @Override
+    public String getKey() {
+      return key;
+    }
+
+    @Override
+    public Object getValue() {
+      return value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+      return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * Walks the trie depth first, keeping the path from the root in a stack of arrays.
+   */
+  private final class LeafIterator implements Iterator<Leaf> {
+
+    private final Object[][] nodes = new Object[(Integer.SIZE / BITS) + 2][];
+    private final int[] indexes = new int[nodes.length];
+    private int depth = -1;
+    private Leaf next;
+
+    private LeafIterator() {
+      if (root instanceof Leaf) {
+        next = (Leaf) root;
+      } else if (root != null) {
+        push(((BitmapNode) root).children);
+        advance();
+      }
+    }
+
+    private void push(Object[] children) {
+      nodes[++depth] = children;
+      indexes[depth] = 0;
+    }
+
+    private void advance() {
+      while (depth >= 0) {
+        if (indexes[depth] == nodes[depth].length) {
+          --depth;
+          continue;
+        }
+        Object child = nodes[depth][indexes[depth]++];
+        if (child instanceof Leaf) {
+          next = (Leaf) child;
+          return;
+        }
+        push(((BitmapNode) child).children);
+      }
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Leaf next() {
+      Leaf current = next;
+      if (current == null) {
+        throw new NoSuchElementException();
+      }
+      if (current.collision != null) {
+        next = current.collision;
+      } else {
+        advance();
+      }
+      return current;
+    }
+  }
+
+  private final class KeySet extends AbstractSet<String> {
+
+    @Override
+    public Iterator<String> iterator() {
+      LeafIterator leaves = new LeafIterator();
+      return new Iterator<String>() {
+
+        @Override
+        public boolean hasNext() {
+          return leaves.hasNext();
+        }
+
+        @Override
+        public String next() {
+          return leaves.next().key;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return containsKey(o);
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+
+    @Override
+    public Iterator<Map.Entry<String, V>> iterator() {
+      return (Iterator) new LeafIterator();
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
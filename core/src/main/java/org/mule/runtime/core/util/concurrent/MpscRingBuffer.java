@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free, multiple producer single consumer ring buffer.
+ * <p>
+ * Any number of threads may concurrently {@link #offer(Object)} elements, but only one thread at a time is allowed to
+ * {@link #drain(Consumer, int)} it. The capacity is rounded up to the next power of two.
+ * <p>
+ * Producers claim a slot by advancing a shared sequence and then publish the element into it, so the consumer may momentarily
+ * find a claimed slot that is still empty. In that case draining stops and the element will be picked up on the next
+ * invocation.
+ *
+ * @param <E> the type of the buffered elements
+ * @since 4.0
+ */
+public final class MpscRingBuffer<E> {
+
+  private final AtomicReferenceArray<E> slots;
+  private final int capacity;
+  private final int mask;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private volatile long consumerIndex = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param capacity the minimum amount of elements the buffer can hold. Must be greater than zero.
+   */
+  public MpscRingBuffer(int capacity) {
+    checkArgument(capacity > 0, "capacity must be greater than zero");
+    checkArgument(capacity <= 1 << 30, "capacity is too big");
+
+    this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    mask = this.capacity - 1;
+    slots = new AtomicReferenceArray<>(this.capacity);
+  }
+
+  /**
+   * Adds the given {@code element} to the buffer, unless it is full.
+   *
+   * @param element the element to add. Cannot be {@code null}
+   * @return {@code true} if the element was added, {@code false} if the buffer was full
+   */
+  public boolean offer(E element) {
+    requireNonNull(element, "cannot buffer null elements");
+
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex >= capacity) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+
+    slots.lazySet((int) index & mask, element);
+    return true;
+  }
+
+  /**
+   * Removes up to {@code limit} elements from the buffer, in the order in which they were added, and passes each of them to the
+   * given {@code consumer}.
+   * <p>
+   * This method must never be invoked concurrently.
+   *
+   * @param consumer the {@link Consumer} to hand the removed elements to
+   * @param limit the maximum amount of elements to remove
+   * @return how many elements were removed
+   */
+  public int drain(Consumer<? super E> consumer, int limit) {
+    long index = consumerIndex;
+    int drained = 0;
+    while (drained < limit) {
+      final int slot = (int) index & mask;
+      final E element = slots.get(slot);
+      if (element == null) {
+        break;
+      }
+
+      slots.lazySet(slot, null);
+      consumerIndex = ++index;
+      drained++;
+      consumer.accept(element);
+    }
+
+    return drained;
+  }
+
+  /**
+   * @return an approximation of how many elements are currently in the buffer
+   */
+  public int size() {
+    long size = producerIndex.get() - consumerIndex;
+    return (int) Math.max(0, Math.min(size, capacity));
+  }
+
+  /**
+   * @return whether the buffer currently looks empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return how many elements this buffer can hold
+   */
+  public int capacity() {
+    return capacity;
+  }
+}
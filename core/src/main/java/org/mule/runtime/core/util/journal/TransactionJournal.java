@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.util.journal;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -14,6 +17,7 @@ import com.google.common.collect.Multimap;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,11 +29,15 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * When {@link #GROUP_COMMIT_PROPERTY} is set, entries logged concurrently are written and synced to the files in batches. Callers
+ * still return only after their entry is durable, but they don't hold the journal lock while waiting for it.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
+  public static final String GROUP_COMMIT_PROPERTY = SYSTEM_PROPERTY_PREFIX + "journal.groupCommit";
 
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
@@ -62,6 +70,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         getBoolean(GROUP_COMMIT_PROPERTY));
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param groupCommit whether entries logged concurrently are to be written and synced in batches
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            boolean groupCommit) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,10 +91,10 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, groupCommit);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, groupCommit);
     this.transactionCompletePredicate = transactionCompletePredicate;
 
   }
@@ -92,9 +111,14 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    CompletableFuture<Void> flushed;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      flushed = logFile.logOperation(journalEntry);
+    }
+    logFile.awaitFlush(flushed);
   }
 
   /**
@@ -104,12 +128,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile;
+    CompletableFuture<Void> flushed;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      flushed = logFile.logOperation(journalEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    logFile.awaitFlush(flushed);
   }
 
   /**
@@ -12,6 +12,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -23,6 +24,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -30,6 +34,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * In group commit mode, entries are not written to the file as they are logged. Instead, they are accumulated in a shared batch
+ * and each caller of {@link #logOperation(JournalEntry)} has to wait, through {@link #awaitFlush(CompletableFuture)}, for the
+ * batch to be written and synced. The first waiter to get hold of the file writes the whole batch on behalf of the rest, so
+ * concurrent transactions share a single write and {@code fsync}.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -50,6 +59,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
+  private static final CompletableFuture<Void> FLUSHED = CompletableFuture.completedFuture(null);
+
+  private final boolean groupCommit;
+  /**
+   * Held while writing a batch to the file, or while replacing the file. Must not be acquired while holding {@link #batchLock}.
+   */
+  private final ReentrantLock flushLock = new ReentrantLock();
+  /**
+   * Guards {@link #currentBatch}.
+   */
+  private final Object batchLock = new Object();
+  private Batch currentBatch = new Batch();
+
+  private FileOutputStream fileOutputStream;
   private DataOutputStream logFileOutputStream;
   private int journalOperations = 0;
 
@@ -61,6 +84,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit whether entries are to be written and synced in batches
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit) {
+    this.groupCommit = groupCommit;
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
@@ -72,13 +109,81 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   /**
    * Adds a journal entry for an operation done over a transactional resource
-   * 
+   * <p>
+   * In group commit mode the entry is only added to the current batch, and the returned future has to be passed to
+   * {@link #awaitFlush(CompletableFuture)} to make sure it reaches the file.
+   *
    * @param journalEntry operation details
+   * @return a future completed once the entry is written to the file
    */
-  public synchronized void logOperation(K journalEntry) {
+  public synchronized CompletableFuture<Void> logOperation(K journalEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    if (!groupCommit) {
+      journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+      return FLUSHED;
+    }
+
+    synchronized (batchLock) {
+      journalEntrySerializer.serialize(journalEntry, currentBatch.output);
+      return currentBatch.flushed;
+    }
+  }
+
+  /**
+   * Waits until the batch the given future belongs to is written and synced. If no other thread is writing a batch, the current
+   * one is written by the calling thread.
+   * <p>
+   * Must not be called while holding the lock of this journal file, so that other entries can keep being added to the next
+   * batch meanwhile.
+   *
+   * @param flushed a future returned by {@link #logOperation(JournalEntry)}
+   */
+  public void awaitFlush(CompletableFuture<Void> flushed) {
+    if (!flushed.isDone()) {
+      flushLock.lock();
+      try {
+        if (!flushed.isDone()) {
+          // Since sealed batches are written right away while holding the flush lock, the batch for a future not yet completed
+          // can only be the current one.
+          flush(sealCurrentBatch());
+        }
+      } finally {
+        flushLock.unlock();
+      }
+    }
+
+    try {
+      flushed.join();
+    } catch (CompletionException e) {
+      throw new MuleRuntimeException(e.getCause());
+    }
+  }
+
+  private Batch sealCurrentBatch() {
+    synchronized (batchLock) {
+      Batch batch = currentBatch;
+      currentBatch = new Batch();
+      return batch;
+    }
+  }
+
+  /**
+   * Writes the given batch to the file and syncs it. Must be called holding the flush lock.
+   */
+  private void flush(Batch batch) {
+    if (batch.bytes.size() == 0) {
+      batch.flushed.complete(null);
+      return;
+    }
+
+    try {
+      batch.bytes.writeTo(fileOutputStream);
+      fileOutputStream.getChannel().force(false);
+      batch.flushed.complete(null);
+    } catch (IOException e) {
+      batch.flushed.completeExceptionally(e);
+    }
   }
 
   /**
@@ -120,6 +225,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
+    if (groupCommit) {
+      flushLock.lock();
+      try {
+        flush(sealCurrentBatch());
+        doClose();
+      } finally {
+        flushLock.unlock();
+      }
+    } else {
+      doClose();
+    }
+  }
+
+  private void doClose() {
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -156,10 +275,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
-    entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
+    flushLock.lock();
+    try {
+      // pending entries are discarded along with the file, so whoever is waiting for them has nothing else to wait for
+      sealCurrentBatch().flushed.complete(null);
+      doClose();
+      entries.clear();
+      FileUtils.deleteQuietly(journalFile);
+      createLogOutputStream();
+    } finally {
+      flushLock.unlock();
+    }
   }
 
   private void createLogOutputStream() {
@@ -171,7 +297,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.fileOutputStream = new FileOutputStream(journalFile, true);
+      this.logFileOutputStream = new DataOutputStream(fileOutputStream);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -251,5 +378,14 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   public long fileLength() {
     return journalFile.length();
   }
-}
 
+  /**
+   * Journal entries waiting to be written to the file together
+   */
+  private static final class Batch {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream output = new DataOutputStream(bytes);
+    private final CompletableFuture<Void> flushed = new CompletableFuture<>();
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.monitor;
+
+import static java.lang.Integer.numberOfTrailingZeros;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Keeps track of items that have to be expired at a given point in time, so that finding out which ones are due doesn't require
+ * checking all of them.
+ * <p>
+ * Items are kept in a hierarchy of wheels, each one made of {@code wheelSize} buckets. A bucket of the first wheel spans one
+ * tick, while a bucket of any other wheel spans a full turn of the previous one. Each time a wheel completes a turn, the
+ * items in the current bucket of the next wheel are redistributed into the lower ones, so that each item is visited a handful
+ * of times at most before its deadline. Items due beyond the span of the last wheel are kept in it and redistributed on each
+ * of its turns until they get closer.
+ * <p>
+ * {@link #schedule(Object, long)} and {@link Timeout#cancel()} are lock-free and may be invoked from any thread. They only
+ * enqueue the request, which is applied by the next {@link #advance(long, Consumer)}.
+ *
+ * @param <T> the type of the tracked items
+ * @since 4.0
+ */
+public final class HierarchicalTimingWheel<T> {
+
+  private static final int PENDING = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+
+  private final long startMillis;
+  private final long tickMillis;
+  private final int bitsPerWheel;
+  private final int mask;
+  private final Bucket<T>[][] wheels;
+  private final long maxDelayTicks;
+
+  private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+
+  // @GuardedBy this
+  private long currentTick;
+
+  /**
+   * Creates a new instance
+   *
+   * @param startMillis the point in time from which ticks are counted
+   * @param tickMillis the duration of a tick, which is the resolution of the deadlines. Must be greater than zero.
+   * @param wheelSize the amount of buckets of each wheel. Must be a power of two.
+   * @param wheelCount the amount of wheels in the hierarchy. Must be greater than zero.
+   */
+  public HierarchicalTimingWheel(long startMillis, long tickMillis, int wheelSize, int wheelCount) {
+    checkArgument(tickMillis > 0, "tickMillis must be greater than zero");
+    checkArgument(wheelSize > 1 && Integer.bitCount(wheelSize) == 1, "wheelSize must be a power of two");
+    checkArgument(wheelCount > 0, "wheelCount must be greater than zero");
+    checkArgument(numberOfTrailingZeros(wheelSize) * wheelCount < 62, "wheelSize and wheelCount span too many ticks");
+
+    this.startMillis = startMillis;
+    this.tickMillis = tickMillis;
+    this.bitsPerWheel = numberOfTrailingZeros(wheelSize);
+    this.mask = wheelSize - 1;
+    this.maxDelayTicks = (1L << (bitsPerWheel * wheelCount)) - 1;
+
+    wheels = new Bucket[wheelCount][wheelSize];
+    for (Bucket<T>[] wheel : wheels) {
+      for (int i = 0; i < wheelSize; ++i) {
+        wheel[i] = new Bucket<>();
+      }
+    }
+  }
+
+  /**
+   * Starts tracking the given {@code item}.
+   *
+   * @param item the item to track
+   * @param deadlineMillis the point in time at which the item expires. If already in the past, the item will expire on the next
+   *        {@link #advance(long, Consumer)}.
+   * @return a {@link Timeout} which allows to stop tracking the item
+   */
+  public Timeout<T> schedule(T item, long deadlineMillis) {
+    long deadlineTick = Math.max(0, deadlineMillis - startMillis);
+    // rounded up, so that items never expire before their deadline
+    deadlineTick = deadlineTick / tickMillis + (deadlineTick % tickMillis == 0 ? 0 : 1);
+
+    Timeout<T> timeout = new Timeout<>(this, item, deadlineTick);
+    size.incrementAndGet();
+    scheduled.add(timeout);
+    return timeout;
+  }
+
+  /**
+   * Moves the wheels up to the given point in time, passing each item whose deadline has been reached to {@code expiryHandler}.
+   *
+   * @param nowMillis the current time
+   * @param expiryHandler the callback for the expired items
+   */
+  public synchronized void advance(long nowMillis, Consumer<T> expiryHandler) {
+    drainCancelled();
+    drainScheduled();
+
+    long targetTick = (nowMillis - startMillis) / tickMillis;
+    while (currentTick < targetTick) {
+      ++currentTick;
+      cascade();
+
+      Bucket<T> bucket = wheels[0][(int) (currentTick & mask)];
+      Timeout<T> timeout;
+      while ((timeout = bucket.poll()) != null) {
+        if (timeout.expire()) {
+          expiryHandler.accept(timeout.item);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the amount of tracked items, including those whose scheduling or cancellation has not been applied yet
+   */
+  public int size() {
+    return size.get();
+  }
+
+  private void cascade() {
+    for (int level = 1; level < wheels.length; ++level) {
+      long levelTick = currentTick >> (bitsPerWheel * level);
+      if (levelTick << (bitsPerWheel * level) != currentTick) {
+        return;
+      }
+
+      Bucket<T> bucket = wheels[level][(int) (levelTick & mask)];
+      Timeout<T> timeout;
+      while ((timeout = bucket.poll()) != null) {
+        // those due on this very tick go to the bucket that is about to be expired
+        place(timeout, currentTick);
+      }
+    }
+  }
+
+  private void drainScheduled() {
+    Timeout<T> timeout;
+    while ((timeout = scheduled.poll()) != null) {
+      if (timeout.state.get() == PENDING) {
+        place(timeout, currentTick + 1);
+      }
+    }
+  }
+
+  private void drainCancelled() {
+    Timeout<T> timeout;
+    while ((timeout = cancelled.poll()) != null) {
+      if (timeout.bucket != null) {
+        timeout.bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void place(Timeout<T> timeout, long earliestTick) {
+    long deadlineTick = Math.max(timeout.deadlineTick, earliestTick);
+    long delay = Math.min(deadlineTick - currentTick, maxDelayTicks);
+    if (delay != deadlineTick - currentTick) {
+      // beyond the span of the last wheel, park it where it will be looked at again on its next turn
+      deadlineTick = currentTick + delay;
+    }
+
+    int level = 0;
+    while (level < wheels.length - 1 && delay >= 1L << (bitsPerWheel * (level + 1))) {
+      ++level;
+    }
+
+    wheels[level][(int) ((deadlineTick >> (bitsPerWheel * level)) & mask)].add(timeout);
+  }
+
+  /**
+   * A handle over an item tracked by a {@link HierarchicalTimingWheel}.
+   *
+   * @param <T> the type of the tracked item
+   */
+  public static final class Timeout<T> {
+
+    private final HierarchicalTimingWheel<T> wheel;
+    private final T item;
+    private final long deadlineTick;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+    // @GuardedBy wheel
+    private Bucket<T> bucket;
+    private Timeout<T> previous;
+    private Timeout<T> next;
+
+    private Timeout(HierarchicalTimingWheel<T> wheel, T item, long deadlineTick) {
+      this.wheel = wheel;
+      this.item = item;
+      this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Stops tracking the item, unless it has already expired.
+     *
+     * @return {@code true} if the item was still being tracked
+     */
+    public boolean cancel() {
+      if (state.compareAndSet(PENDING, CANCELLED)) {
+        wheel.size.decrementAndGet();
+        wheel.cancelled.add(this);
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * @return the tracked item
+     */
+    public T getItem() {
+      return item;
+    }
+
+    private boolean expire() {
+      if (state.compareAndSet(PENDING, EXPIRED)) {
+        wheel.size.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Doubly linked list of {@link Timeout}s, so that cancelled ones can be unlinked in constant time.
+   */
+  private static final class Bucket<T> {
+
+    private Timeout<T> head;
+    private Timeout<T> tail;
+
+    private void add(Timeout<T> timeout) {
+      timeout.bucket = this;
+      timeout.previous = tail;
+      timeout.next = null;
+      if (tail == null) {
+        head = timeout;
+      } else {
+        tail.next = timeout;
+      }
+      tail = timeout;
+    }
+
+    private Timeout<T> poll() {
+      Timeout<T> timeout = head;
+      if (timeout != null) {
+        remove(timeout);
+      }
+      return timeout;
+    }
+
+    private void remove(Timeout<T> timeout) {
+      if (timeout.bucket != this) {
+        return;
+      }
+      if (timeout.previous == null) {
+        head = timeout.next;
+      } else {
+        timeout.previous.next = timeout.next;
+      }
+      if (timeout.next == null) {
+        tail = timeout.previous;
+      } else {
+        timeout.next.previous = timeout.previous;
+      }
+      timeout.bucket = null;
+      timeout.previous = null;
+      timeout.next = null;
+    }
+  }
+}
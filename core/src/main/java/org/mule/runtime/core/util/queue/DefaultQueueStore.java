@@ -40,7 +40,10 @@ public class DefaultQueueStore implements RecoverableQueueStore {
     if (this.config == null) {
       this.config = new DefaultQueueConfiguration();
     }
-    if (this.config.isPersistent()) {
+    if (this.config.isPersistent() && Boolean.getBoolean(MappedSegmentQueueStoreDelegate.ENABLED_PROPERTY_KEY)) {
+      delegate = new MappedSegmentQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                     muleContext, this.config.getCapacity());
+    } else if (this.config.isPersistent()) {
       delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
                                                             muleContext, this.config.getCapacity());
     } else {
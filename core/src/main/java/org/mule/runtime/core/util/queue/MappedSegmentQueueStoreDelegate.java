@@ -0,0 +1,731 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.queue;
+
+import static java.lang.Math.max;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkState;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.util.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in memory-mapped segment files.
+ * <p/>
+ * Producers append records at the tail segment while consumers read from the head one, each side guarded by its own lock, so
+ * enqueuing and dequeuing don't contend with each other. Instead of marking each consumed entry in the data files, the consumer
+ * position is kept in a small mapped control file. Segments that were fully consumed are recycled for new data rather than
+ * deleted.
+ * <p/>
+ * Each segment starts with its id, and each record holds a checksum seeded with it. This way, records left over in a recycled
+ * segment are told apart from the current ones when the queue is recovered, without having to wipe the segment.
+ * <p/>
+ * Mapped data is forced to the storage device at most once every {@link #SYNC_INTERVAL_PROPERTY_KEY} milliseconds by whichever
+ * operation finds that interval elapsed, so that many operations share the same sync.
+ * <p/>
+ * Entries {@link #untake(Serializable) returned} to the front of the queue are rare and are kept in a separate small file.
+ * <p/>
+ * {@link DefaultQueueStore} uses this implementation for persistent queues when {@link #ENABLED_PROPERTY_KEY} is set. Data stored
+ * by {@link DualRandomAccessFileQueueStoreDelegate} is not migrated, so the queues should be drained before switching.
+ */
+public class MappedSegmentQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  public static final String ENABLED_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "queue.mapped";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = ENABLED_PROPERTY_KEY + ".segmentSize";
+  public static final String SYNC_INTERVAL_PROPERTY_KEY = ENABLED_PROPERTY_KEY + ".syncInterval";
+
+  private static final Logger logger = getLogger(MappedSegmentQueueStoreDelegate.class);
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String CONTROL_SUFFIX = "-mcrl";
+  private static final String SEGMENT_INFIX = "-seg-";
+  private static final String FRONT_SUFFIX = "-front";
+  private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final long DEFAULT_SYNC_INTERVAL = 10;
+  private static final int MAX_RECYCLED_SEGMENTS = 2;
+
+  private static final int SEGMENT_HEADER_SIZE = 8;
+  // length, checksum, removed flag
+  private static final int RECORD_HEADER_SIZE = 4 + 4 + 1;
+  private static final int END_OF_SEGMENT = -1;
+  private static final byte REMOVED = 1;
+
+  private final int capacity;
+  private final int segmentSize;
+  private final long syncInterval;
+  private final SerializationProtocol serializer;
+  private final File queuesDirectory;
+  private final String filesPrefix;
+  private final QueueFileProvider controlFileProvider;
+  private final MappedByteBuffer control;
+  private final File frontFile;
+
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final Queue<Segment> recycledSegments = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger count = new AtomicInteger();
+  private final AtomicInteger nextFileIndex = new AtomicInteger();
+
+  private final ReentrantLock putLock = new ReentrantLock();
+  private final Condition notFull = putLock.newCondition();
+  private final ReentrantLock takeLock = new ReentrantLock();
+  private final Condition notEmpty = takeLock.newCondition();
+
+  // guarded by putLock
+  private Segment writeSegment;
+  private int writeOffset;
+  private long lastWriteSync = currentTimeMillis();
+
+  // guarded by takeLock
+  private final Deque<byte[]> front = new ArrayDeque<>();
+  private Segment readSegment;
+  private int readOffset;
+  private long lastReadSync = currentTimeMillis();
+
+  public MappedSegmentQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.capacity = capacity;
+    serializer = muleContext.getObjectSerializer().getInternalProtocol();
+    segmentSize = Integer.getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE);
+    syncInterval = Long.getLong(SYNC_INTERVAL_PROPERTY_KEY, DEFAULT_SYNC_INTERVAL);
+
+    queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    if (!queuesDirectory.exists()) {
+      checkState(queuesDirectory.mkdirs(), "Could not create queue store directory " + queuesDirectory.getAbsolutePath());
+    }
+
+    // the provider takes care of sanitizing the queue name, the rest of the files are named after the control one
+    controlFileProvider = new QueueFileProvider(queuesDirectory, queueName + CONTROL_SUFFIX);
+    String controlFileName = controlFileProvider.getFile().getName();
+    filesPrefix = controlFileName.substring(0, controlFileName.length() - CONTROL_SUFFIX.length());
+    frontFile = new File(queuesDirectory, filesPrefix + FRONT_SUFFIX);
+
+    try {
+      control = controlFileProvider.getRandomAccessFile().getChannel().map(READ_WRITE, 0, 16);
+      recover(controlFileProvider.isNewFile());
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not open queue store for queue " + queueName), e);
+    }
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(String.format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    byte[] data = serializer.serialize(o);
+    int c;
+    putLock.lock();
+    try {
+      c = append(data);
+    } finally {
+      putLock.unlock();
+    }
+    if (c == 0) {
+      signalNotEmpty();
+    }
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    if (capacity > 0 && capacity <= room) {
+      throw new IllegalStateException("Can not add more objects than the capacity in one time");
+    }
+
+    byte[] data = o != null ? serializer.serialize(o) : null;
+    int c = -1;
+    putLock.lockInterruptibly();
+    try {
+      if (capacity > 0) {
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (count.get() >= capacity - room) {
+          if (timeout < 0) {
+            notFull.await();
+          } else {
+            if (nanos <= 0) {
+              return false;
+            }
+            nanos = notFull.awaitNanos(nanos);
+          }
+        }
+      }
+      if (data != null) {
+        c = append(data);
+      }
+      if (capacity > 0 && count.get() < capacity) {
+        notFull.signal();
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    byte[] data;
+    int c;
+    takeLock.lockInterruptibly();
+    try {
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (count.get() == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      data = take(true);
+      c = count.getAndDecrement();
+      if (c > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      takeLock.unlock();
+    }
+    if (capacity > 0 && c == capacity) {
+      signalNotFull();
+    }
+    return serializer.deserialize(data);
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    takeLock.lock();
+    try {
+      if (count.get() == 0) {
+        return null;
+      }
+      return serializer.deserialize(take(false));
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = serializer.serialize(item);
+    takeLock.lock();
+    try {
+      front.addFirst(data);
+      writeFront();
+      count.incrementAndGet();
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return count.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    fullyLock();
+    try {
+      front.clear();
+      writeFront();
+      for (Segment segment : new ArrayList<>(segments.headMap(writeSegment.id).values())) {
+        recycle(segment);
+      }
+      readSegment = writeSegment;
+      readOffset = writeOffset;
+      writeControl(true);
+      count.set(0);
+      notFull.signalAll();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    List<byte[]> data = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      data.add(serializer.serialize(item));
+    }
+
+    int c = -1;
+    putLock.lock();
+    try {
+      for (byte[] bytes : data) {
+        int previous = append(bytes);
+        if (c < 0) {
+          c = previous;
+        }
+      }
+    } finally {
+      putLock.unlock();
+    }
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    return true;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    fullyLock();
+    try {
+      for (byte[] data : front) {
+        if (value.equals(serializer.deserialize(data))) {
+          front.remove(data);
+          writeFront();
+          count.decrementAndGet();
+          notFull.signal();
+          return;
+        }
+      }
+
+      forEachRecord((segment, offset, data) -> {
+        if (value.equals(serializer.deserialize(data))) {
+          segment.buffer.put(offset + 8, REMOVED);
+          count.decrementAndGet();
+          notFull.signal();
+          return false;
+        }
+        return true;
+      });
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    fullyLock();
+    try {
+      for (byte[] data : front) {
+        if (value.equals(serializer.deserialize(data))) {
+          return true;
+        }
+      }
+
+      boolean[] found = new boolean[1];
+      forEachRecord((segment, offset, data) -> {
+        found[0] = value.equals(serializer.deserialize(data));
+        return !found[0];
+      });
+      return found[0];
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    fullyLock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.buffer.force();
+        segment.close();
+      }
+      for (Segment segment : recycledSegments) {
+        segment.close();
+      }
+      control.force();
+      controlFileProvider.close();
+    } catch (IOException e) {
+      logger.warn("Could not close queue store files", e);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    fullyLock();
+    try {
+      close();
+      for (Segment segment : segments.values()) {
+        FileUtils.deleteQuietly(segment.file);
+      }
+      for (Segment segment : recycledSegments) {
+        FileUtils.deleteQuietly(segment.file);
+      }
+      FileUtils.deleteQuietly(frontFile);
+      controlFileProvider.delete();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * Appends a record at the tail of the queue. Must be called holding the put lock.
+   *
+   * @return the size of the queue before adding the record
+   */
+  private int append(byte[] data) {
+    final int recordSize = RECORD_HEADER_SIZE + data.length;
+    if (writeOffset + recordSize > writeSegment.size) {
+      if (writeOffset + 4 <= writeSegment.size) {
+        writeSegment.buffer.putInt(writeOffset, END_OF_SEGMENT);
+      }
+      writeSegment.buffer.force();
+      writeSegment = newSegment(writeSegment.id + 1, SEGMENT_HEADER_SIZE + recordSize);
+      writeOffset = SEGMENT_HEADER_SIZE;
+    }
+
+    final MappedByteBuffer buffer = writeSegment.buffer;
+    buffer.putInt(writeOffset, data.length);
+    buffer.putInt(writeOffset + 4, checksum(writeSegment.id, data));
+    buffer.put(writeOffset + 8, (byte) 0);
+    // the buffer is shared with the consumers, so copy through a duplicate rather than moving its position
+    final ByteBuffer view = buffer.duplicate();
+    view.position(writeOffset + RECORD_HEADER_SIZE);
+    view.put(data);
+    writeOffset += recordSize;
+
+    final long now = currentTimeMillis();
+    if (syncInterval >= 0 && now - lastWriteSync >= syncInterval) {
+      buffer.force();
+      lastWriteSync = now;
+    }
+
+    return count.getAndIncrement();
+  }
+
+  /**
+   * Reads the record at the head of the queue. Must be called holding the take lock and with the queue not being empty.
+   *
+   * @param remove whether to move the head of the queue past the read record
+   */
+  private byte[] take(boolean remove) {
+    if (!front.isEmpty()) {
+      if (!remove) {
+        return front.peekFirst();
+      }
+      byte[] data = front.removeFirst();
+      writeFront();
+      return data;
+    }
+
+    while (true) {
+      if (readOffset + RECORD_HEADER_SIZE > readSegment.size || readSegment.buffer.getInt(readOffset) == END_OF_SEGMENT) {
+        Segment consumed = readSegment;
+        readSegment = segments.higherEntry(consumed.id).getValue();
+        readOffset = SEGMENT_HEADER_SIZE;
+        writeControl(true);
+        recycle(consumed);
+        continue;
+      }
+
+      final MappedByteBuffer buffer = readSegment.buffer;
+      final int length = buffer.getInt(readOffset);
+      final boolean removed = buffer.get(readOffset + 8) == REMOVED;
+      final int recordOffset = readOffset;
+      if (removed) {
+        readOffset += RECORD_HEADER_SIZE + length;
+        writeControl(false);
+        continue;
+      }
+
+      byte[] data = readData(readSegment, recordOffset, length);
+      if (remove) {
+        readOffset += RECORD_HEADER_SIZE + length;
+        writeControl(false);
+      }
+      return data;
+    }
+  }
+
+  /**
+   * Iterates over the records from the head to the tail of the queue. Must be called holding both locks.
+   */
+  private void forEachRecord(RecordVisitor visitor) {
+    for (Segment segment : segments.tailMap(readSegment.id, true).values()) {
+      int offset = segment == readSegment ? readOffset : SEGMENT_HEADER_SIZE;
+      int end = segment == writeSegment ? writeOffset : segment.size;
+      while (offset + RECORD_HEADER_SIZE <= end) {
+        int length = segment.buffer.getInt(offset);
+        if (length == END_OF_SEGMENT) {
+          break;
+        }
+        if (segment.buffer.get(offset + 8) != REMOVED && !visitor.visit(segment, offset, readData(segment, offset, length))) {
+          return;
+        }
+        offset += RECORD_HEADER_SIZE + length;
+      }
+    }
+  }
+
+  private void recover(boolean newQueue) throws IOException {
+    File[] files = queuesDirectory.listFiles((dir, name) -> name.startsWith(filesPrefix + SEGMENT_INFIX));
+    if (files != null) {
+      for (File file : files) {
+        try {
+          nextFileIndex.set(max(nextFileIndex.get(),
+                                Integer.parseInt(file.getName().substring(filesPrefix.length() + SEGMENT_INFIX.length())) + 1));
+        } catch (NumberFormatException e) {
+          // not one of ours
+          continue;
+        }
+        if (file.length() < SEGMENT_HEADER_SIZE) {
+          // created right before a crash, never used
+          FileUtils.deleteQuietly(file);
+          continue;
+        }
+        Segment segment = new Segment(file, (int) file.length());
+        segments.put(segment.buffer.getLong(0), segment);
+      }
+    }
+
+    long readSegmentId = newQueue ? -1 : control.getLong(0);
+    int readSegmentOffset = newQueue ? SEGMENT_HEADER_SIZE : max(control.getInt(8), SEGMENT_HEADER_SIZE);
+
+    // segments consumed before the last shutdown can be reused right away
+    for (Segment segment : new ArrayList<>(segments.headMap(readSegmentId).values())) {
+      recycle(segment);
+    }
+
+    if (segments.isEmpty()) {
+      writeSegment = newSegment(max(readSegmentId, 0), SEGMENT_HEADER_SIZE);
+      readSegmentOffset = SEGMENT_HEADER_SIZE;
+    }
+
+    readSegment = segments.get(readSegmentId);
+    if (readSegment == null) {
+      readSegment = segments.firstEntry().getValue();
+      readSegmentOffset = SEGMENT_HEADER_SIZE;
+    }
+    readOffset = readSegmentOffset;
+    writeControl(true);
+
+    // count the pending records, finding where the last segment ends
+    int pending = 0;
+    for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+      Segment segment = entry.getValue();
+      int offset = segment == readSegment ? readOffset : SEGMENT_HEADER_SIZE;
+      while (offset + RECORD_HEADER_SIZE <= segment.size) {
+        int length = segment.buffer.getInt(offset);
+        if (length < 0 || offset + RECORD_HEADER_SIZE + length > segment.size
+            || segment.buffer.getInt(offset + 4) != checksum(segment.id, readData(segment, offset, length))) {
+          break;
+        }
+        if (segment.buffer.get(offset + 8) != REMOVED) {
+          pending++;
+        }
+        offset += RECORD_HEADER_SIZE + length;
+      }
+      writeSegment = segment;
+      writeOffset = offset;
+    }
+
+    if (frontFile.exists()) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(frontFile)))) {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+          byte[] data = new byte[in.readInt()];
+          in.readFully(data);
+          front.addLast(data);
+        }
+      } catch (IOException e) {
+        logger.warn("Could not read the entries returned to the front of the queue from " + frontFile.getAbsolutePath(), e);
+        front.clear();
+      }
+    }
+
+    count.set(pending + front.size());
+  }
+
+  private Segment newSegment(long id, int minimumSize) {
+    Segment segment = null;
+    if (minimumSize <= segmentSize) {
+      segment = recycledSegments.poll();
+    }
+
+    try {
+      if (segment == null) {
+        File file = new File(queuesDirectory, filesPrefix + SEGMENT_INFIX + nextFileIndex.getAndIncrement());
+        segment = new Segment(file, max(segmentSize, minimumSize));
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create queue segment file"), e);
+    }
+
+    segment.id = id;
+    segment.buffer.putLong(0, id);
+    segment.buffer.putInt(SEGMENT_HEADER_SIZE, END_OF_SEGMENT);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void recycle(Segment segment) {
+    segments.remove(segment.id);
+    if (segment.size == segmentSize && recycledSegments.size() < MAX_RECYCLED_SEGMENTS) {
+      recycledSegments.offer(segment);
+    } else {
+      segment.close();
+      FileUtils.deleteQuietly(segment.file);
+    }
+  }
+
+  private void writeControl(boolean force) {
+    control.putLong(0, readSegment.id);
+    control.putInt(8, readOffset);
+
+    final long now = currentTimeMillis();
+    if (force || (syncInterval >= 0 && now - lastReadSync >= syncInterval)) {
+      control.force();
+      lastReadSync = now;
+    }
+  }
+
+  private void writeFront() {
+    File tmpFile = new File(queuesDirectory, frontFile.getName() + ".tmp");
+    try {
+      try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        out.writeInt(front.size());
+        for (byte[] data : front) {
+          out.writeInt(data.length);
+          out.write(data);
+        }
+        out.flush();
+        fileOut.getFD().sync();
+      }
+      Files.move(tmpFile.toPath(), frontFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write queue file " + frontFile.getAbsolutePath()), e);
+    }
+  }
+
+  private byte[] readData(Segment segment, int offset, int length) {
+    final ByteBuffer view = segment.buffer.duplicate();
+    view.position(offset + RECORD_HEADER_SIZE);
+    byte[] data = new byte[length];
+    view.get(data);
+    return data;
+  }
+
+  private static int checksum(long segmentId, byte[] data) {
+    CRC32 crc = new CRC32();
+    crc.update(ByteBuffer.allocate(8).order(LITTLE_ENDIAN).putLong(0, segmentId).array());
+    crc.update(data);
+    return (int) crc.getValue();
+  }
+
+  private void signalNotEmpty() {
+    takeLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      takeLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    putLock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      putLock.unlock();
+    }
+  }
+
+  private void fullyLock() {
+    putLock.lock();
+    takeLock.lock();
+  }
+
+  private void fullyUnlock() {
+    takeLock.unlock();
+    putLock.unlock();
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  @FunctionalInterface
+  private interface RecordVisitor {
+
+    /**
+     * @return whether to keep visiting records
+     */
+    boolean visit(Segment segment, int offset, byte[] data);
+  }
+
+  private static final class Segment {
+
+    private final File file;
+    private final int size;
+    private final RandomAccessFile randomAccessFile;
+    private final MappedByteBuffer buffer;
+    private long id;
+
+    private Segment(File file, int size) throws IOException {
+      this.file = file;
+      this.size = size;
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      FileChannel channel = randomAccessFile.getChannel();
+      buffer = channel.map(READ_WRITE, 0, size);
+      id = buffer.getLong(0);
+    }
+
+    private void close() {
+      try {
+        randomAccessFile.close();
+      } catch (IOException e) {
+        logger.warn("Could not close queue segment file " + file.getAbsolutePath(), e);
+      }
+    }
+  }
+}
@@ -6,8 +6,16 @@
  */
 package org.mule.runtime.core.util.store;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Long.getLong;
+import static java.lang.System.getProperty;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -15,6 +23,7 @@ import org.mule.runtime.core.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.config.i18n.CoreMessages;
 import org.mule.runtime.core.util.FileUtils;
 import org.mule.runtime.core.util.UUID;
+import org.mule.runtime.core.util.store.SegmentLogObjectStorePartition.SyncMode;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -25,16 +34,40 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A {@link PartitionableExpirableObjectStore} which keeps each partition in its own directory under the working directory.
+ * <p>
+ * By default each entry is written to its own file through a {@link PersistentObjectStorePartition}. When
+ * {@link #SEGMENT_LOG_PROPERTY} is set (or {@link #setSegmentLogEnabled(boolean)} is called before opening the store), new
+ * partitions are created as {@link SegmentLogObjectStorePartition}s instead, which append entries to segment files and are
+ * periodically compacted and checkpointed in the background. Partitions previously stored with either format are restored with
+ * the one they were created with.
+ * <p>
+ * Segment log partitions use {@link SyncMode#NONE} unless {@link #SEGMENT_LOG_SYNC_MODE_PROPERTY} says otherwise. Like the per
+ * entry files, their records survive a crash of the process but may be lost if the operating system crashes before flushing
+ * them. {@link SyncMode#GROUP} makes each write wait until it is synced to the storage device.
+ */
 public class PartitionedPersistentObjectStore<T extends Serializable> extends AbstractPartitionedObjectStore<T>
-    implements MuleContextAware, PartitionableExpirableObjectStore<T> {
+    implements MuleContextAware, PartitionableExpirableObjectStore<T>, Disposable {
 
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  public static final String SEGMENT_LOG_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectstore.segmentLog";
+  public static final String SEGMENT_LOG_SEGMENT_SIZE_PROPERTY = SEGMENT_LOG_PROPERTY + ".segmentSize";
+  public static final String SEGMENT_LOG_SYNC_MODE_PROPERTY = SEGMENT_LOG_PROPERTY + ".syncMode";
+  public static final String SEGMENT_LOG_MAINTENANCE_INTERVAL_PROPERTY = SEGMENT_LOG_PROPERTY + ".maintenanceInterval";
+
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<String, PersistentObjectStorePartition>();
+  private Map<String, PersistentPartition> partitionsByName = new HashMap<String, PersistentPartition>();
   private boolean initialized = false;
 
+  private boolean segmentLogEnabled = getBoolean(SEGMENT_LOG_PROPERTY);
+  private long segmentSize = getLong(SEGMENT_LOG_SEGMENT_SIZE_PROPERTY, 64 * 1024 * 1024);
+  private SyncMode syncMode;
+  private long maintenanceInterval = getLong(SEGMENT_LOG_MAINTENANCE_INTERVAL_PROPERTY, 5000);
+  private Scheduler maintenanceScheduler;
+
   public PartitionedPersistentObjectStore() {
     super();
   }
@@ -47,13 +80,74 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   @Override
   public synchronized void open() throws ObjectStoreException {
     if (!initialized) {
+      if (syncMode == null) {
+        syncMode = resolveSyncMode();
+      }
       initObjectStoreDirectory();
       loadPreviousStoredPartitions();
       createDefaultPartition();
+      startSegmentLogMaintenance();
       initialized = true;
     }
   }
 
+  private SyncMode resolveSyncMode() {
+    String value = getProperty(SEGMENT_LOG_SYNC_MODE_PROPERTY);
+    if (value == null) {
+      return SyncMode.NONE;
+    }
+    try {
+      return SyncMode.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value '{}' for system property '{}', expected one of {}. Using {} instead.", value,
+                  SEGMENT_LOG_SYNC_MODE_PROPERTY, Arrays.asList(SyncMode.values()), SyncMode.NONE);
+      return SyncMode.NONE;
+    }
+  }
+
+  private void startSegmentLogMaintenance() {
+    if (!segmentLogEnabled
+        && partitionsByName.values().stream().noneMatch(partition -> partition instanceof SegmentLogObjectStorePartition)) {
+      return;
+    }
+
+    maintenanceScheduler = muleContext.getSchedulerService()
+        .customScheduler(muleContext.getSchedulerBaseConfig().withName("ObjectStore-SegmentLog-Maintenance")
+            .withMaxConcurrentTasks(1));
+    maintenanceScheduler.scheduleWithFixedDelay(this::maintainPartitions, maintenanceInterval, maintenanceInterval,
+                                                MILLISECONDS);
+  }
+
+  private void maintainPartitions() {
+    for (PersistentPartition partition : getPartitionsSnapshot()) {
+      if (partition instanceof SegmentLogObjectStorePartition) {
+        try {
+          ((SegmentLogObjectStorePartition) partition).maintain();
+        } catch (Exception e) {
+          logger.warn("Could not compact object store partition " + partition.getPartitionName(), e);
+        }
+      }
+    }
+  }
+
+  private synchronized List<PersistentPartition> getPartitionsSnapshot() {
+    return new ArrayList<>(partitionsByName.values());
+  }
+
+  @Override
+  public synchronized void dispose() {
+    if (maintenanceScheduler != null) {
+      maintenanceScheduler.stop();
+      maintenanceScheduler = null;
+    }
+
+    for (PersistentPartition partition : partitionsByName.values()) {
+      if (partition instanceof Disposable) {
+        ((Disposable) partition).dispose();
+      }
+    }
+  }
+
   private void createDefaultPartition() throws ObjectStoreException {
     if (!partitionsByName.containsKey(DEFAULT_PARTITION)) {
       createPartition(DEFAULT_PARTITION);
@@ -72,10 +166,11 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   public void close(String partitionName) throws ObjectStoreException {}
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    PersistentPartition partition = segmentLogEnabled
+        ? new SegmentLogObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(), segmentSize, syncMode)
+        : new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
+    partition.open();
+    partitionsByName.put(partitionName, partition);
   }
 
   private File getNewPartitionDirectory() {
@@ -117,7 +212,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     this.getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private PersistentPartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -172,10 +267,11 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        PersistentPartition partition = SegmentLogObjectStorePartition.isSegmentLogPartition(partitionDirectory)
+            ? new SegmentLogObjectStorePartition(muleContext, partitionDirectory, segmentSize, syncMode)
+            : new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        partition.open();
+        partitionsByName.put(partition.getPartitionName(), partition);
       } catch (Exception e) {
         logger.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -187,6 +283,26 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     muleContext = context;
   }
 
+  /**
+   * @param segmentLogEnabled whether new partitions are to be stored as {@link SegmentLogObjectStorePartition}s. Only taken into
+   *        account if set before opening the store.
+   */
+  public void setSegmentLogEnabled(boolean segmentLogEnabled) {
+    this.segmentLogEnabled = segmentLogEnabled;
+  }
+
+  public void setSegmentSize(long segmentSize) {
+    this.segmentSize = segmentSize;
+  }
+
+  public void setSyncMode(SyncMode syncMode) {
+    this.syncMode = syncMode;
+  }
+
+  public void setMaintenanceInterval(long maintenanceInterval) {
+    this.maintenanceInterval = maintenanceInterval;
+  }
+
   @Override
   public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
     expire(entryTTL, maxEntries, DEFAULT_PARTITION);
@@ -18,8 +18,6 @@ import org.mule.runtime.api.i18n.I18nMessage;
 import org.mule.runtime.api.i18n.I18nMessageFactory;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.serialization.ObjectSerializer;
-import org.mule.runtime.core.api.store.ExpirableObjectStore;
-import org.mule.runtime.core.api.store.ListableObjectStore;
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -46,7 +44,7 @@ import org.apache.commons.collections.bidimap.TreeBidiMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PersistentObjectStorePartition<T extends Serializable> implements ListableObjectStore<T>, ExpirableObjectStore<T> {
+public class PersistentObjectStorePartition<T extends Serializable> implements PersistentPartition<T> {
 
   private static final String OBJECT_FILE_EXTENSION = ".obj";
   private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
@@ -377,6 +375,7 @@ public class PersistentObjectStorePartition<T extends Serializable> implements L
     return expired;
   }
 
+  @Override
   public String getPartitionName() {
     return partitionName;
   }
@@ -0,0 +1,1040 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.util.store;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.store.ObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.serialization.SerializationProtocol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link PersistentPartition} which, instead of writing each entry to its own file, appends every change to a log made of
+ * fixed size segment files, keeping the location of each live entry in an in-memory hash index.
+ * <p>
+ * Each record in a segment is laid out as {@code [length][crc32][type][timestamp][key length][key][value]}. Removals are
+ * recorded by appending a tombstone. The index is periodically written to a checkpoint file, so that on startup only the
+ * records appended after the last checkpoint have to be replayed. A torn record at the tail of the log (e.g.: after a crash) is
+ * truncated during replay.
+ * <p>
+ * Sealed segments whose amount of live data falls below a threshold are compacted by {@link #maintain()}, which copies their
+ * live records to the active segment, writes a new checkpoint and then deletes them. Tombstones are carried over to the active
+ * segment as long as an older segment may still hold a previous value of their key, so that replaying the whole log is still
+ * correct if the checkpoint is lost.
+ * <p>
+ * Reads don't take any lock other than a shared one guarding the set of segments. Writes are appended under a single lock and
+ * then, depending on the {@link SyncMode}, made durable. With {@link SyncMode#GROUP} concurrent writers share the same
+ * {@code fsync}. With {@link SyncMode#NONE}, the default, records survive a crash of the process but not of the operating
+ * system, which is the same guarantee given by {@link PersistentObjectStorePartition}.
+ *
+ * @since 4.0
+ */
+public class SegmentLogObjectStorePartition<T extends Serializable> implements PersistentPartition<T>, Disposable {
+
+  private static final Logger LOGGER = getLogger(SegmentLogObjectStorePartition.class);
+
+  /**
+   * Determines when appended records are flushed to the storage device
+   */
+  public enum SyncMode {
+
+    /**
+     * Records are never explicitly synced, the operating system decides when to flush them. Records written before a crash of the
+     * process are kept, but the ones not flushed yet are lost if the operating system crashes or the machine loses power.
+     */
+    NONE,
+
+    /**
+     * Writers wait for their records to be synced, but a single {@code fsync} covers all the records appended until it starts
+     */
+    GROUP,
+
+    /**
+     * Each record is synced as part of its append
+     */
+    ALWAYS
+  }
+
+  /**
+   * Name of the file which identifies a partition directory as being managed by this class
+   */
+  static final String SEGMENT_LOG_MARKER_FILE = "segment-log";
+
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final String SEGMENT_FILE_EXTENSION = ".seg";
+  private static final String CHECKPOINT_FILE = "index.checkpoint";
+  private static final String CHECKPOINT_TMP_FILE = CHECKPOINT_FILE + ".tmp";
+
+  private static final int CHECKPOINT_MAGIC = 0x4d4f5331;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final int RECORD_BODY_HEADER_SIZE = 1 + 8 + 4;
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+
+  private static final double COMPACTION_THRESHOLD = 0.5;
+  private static final long CHECKPOINT_INTERVAL = 10000;
+
+  private final MuleContext muleContext;
+  private final SerializationProtocol serializer;
+  private final File partitionDirectory;
+  private final long maxSegmentSize;
+  private final SyncMode syncMode;
+  private String partitionName;
+
+  private final Map<Serializable, Location> index = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Location, Serializable> expirationOrder =
+      new ConcurrentSkipListMap<>(Comparator.<Location>comparingLong(location -> location.timestamp)
+          .thenComparingLong(location -> location.sequence));
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ReentrantReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+  private final AtomicLong mutationsSinceCheckpoint = new AtomicLong();
+  private final Object syncMonitor = new Object();
+
+  private volatile Segment active;
+  private volatile long writtenBytes = 0;
+  private long syncedBytes = 0;
+  private boolean syncing = false;
+  private long sequence = 0;
+  private volatile boolean opened = false;
+
+  SegmentLogObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory, long maxSegmentSize,
+                                 SyncMode syncMode) {
+    checkArgument(maxSegmentSize > 0, "maxSegmentSize must be greater than zero");
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer().getInternalProtocol();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.maxSegmentSize = maxSegmentSize;
+    this.syncMode = syncMode;
+  }
+
+  SegmentLogObjectStorePartition(MuleContext muleContext, File partitionDirectory, long maxSegmentSize, SyncMode syncMode)
+      throws ObjectStoreNotAvailableException {
+    this(muleContext, null, partitionDirectory, maxSegmentSize, syncMode);
+    partitionName = readPartitionName();
+  }
+
+  /**
+   * @param partitionDirectory a partition directory
+   * @return whether the given directory holds a partition managed by this class
+   */
+  static boolean isSegmentLogPartition(File partitionDirectory) {
+    return new File(partitionDirectory, SEGMENT_LOG_MARKER_FILE).exists();
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    if (opened) {
+      return;
+    }
+
+    try {
+      if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+        throw new IOException("Could not create object store directory " + partitionDirectory.getAbsolutePath());
+      }
+
+      File descriptor = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+      if (descriptor.exists()) {
+        partitionName = readPartitionName();
+      } else {
+        writeStringToFile(descriptor, partitionName);
+      }
+      new File(partitionDirectory, SEGMENT_LOG_MARKER_FILE).createNewFile();
+
+      openSegments();
+      long[] replayFrom = loadCheckpoint();
+      replay(replayFrom[0], replayFrom[1]);
+      active = segments.lastEntry().getValue();
+      opened = true;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    }
+  }
+
+  /**
+   * Writes a checkpoint of the index and syncs the log, so that the next startup doesn't need to replay it.
+   */
+  @Override
+  public void close() throws ObjectStoreException {
+    if (!opened) {
+      return;
+    }
+    checkpoint();
+  }
+
+  /**
+   * Closes the segment files. This partition cannot be used afterwards.
+   */
+  @Override
+  public synchronized void dispose() {
+    if (!opened) {
+      return;
+    }
+
+    try {
+      checkpoint();
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("Could not checkpoint object store partition " + partitionName, e);
+    }
+
+    segmentsLock.writeLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+      segments.clear();
+      opened = false;
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  @Override
+  public boolean contains(Serializable key) throws ObjectStoreException {
+    return index.containsKey(key);
+  }
+
+  @Override
+  public List<Serializable> allKeys() throws ObjectStoreException {
+    return new ArrayList<>(index.keySet());
+  }
+
+  @Override
+  public void store(Serializable key, T value) throws ObjectStoreException {
+    final long timestamp = System.currentTimeMillis();
+    final ByteBuffer record = createRecord(PUT, serialize(key), serialize(value), timestamp);
+
+    long mark;
+    appendLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+
+      Location location = append(record, timestamp, ++sequence);
+      putLocation(key, location);
+      location.segment.liveBytes.addAndGet(location.length);
+      mark = writtenBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    mutationsSinceCheckpoint.incrementAndGet();
+    awaitDurable(mark);
+  }
+
+  @Override
+  public T retrieve(Serializable key) throws ObjectStoreException {
+    while (true) {
+      Location location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+
+      ByteBuffer record = read(location);
+      if (record != null) {
+        return deserializeValue(record);
+      }
+
+      // the segment was compacted in the meantime, so the index already points to the new location unless the partition was
+      // disposed
+      if (!opened) {
+        throw new ObjectStoreException(createStaticMessage("Object store partition " + partitionName + " is disposed"));
+      }
+      if (index.get(key) == location) {
+        throw new ObjectStoreException(createStaticMessage("Could not read the value of key: " + key));
+      }
+    }
+  }
+
+  @Override
+  public T remove(Serializable key) throws ObjectStoreException {
+    final byte[] keyBytes = serialize(key);
+
+    ByteBuffer removed;
+    long mark;
+    appendLock.lock();
+    try {
+      Location location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+
+      removed = read(location);
+      if (removed == null) {
+        throw new ObjectStoreException(createStaticMessage("Could not read the value of key: " + key));
+      }
+      delete(key, keyBytes, location);
+      mark = writtenBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    mutationsSinceCheckpoint.incrementAndGet();
+    awaitDurable(mark);
+    return deserializeValue(removed);
+  }
+
+  @Override
+  public synchronized void clear() throws ObjectStoreException {
+    appendLock.lock();
+    segmentsLock.writeLock().lock();
+    try {
+      final long nextSegmentId = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+      for (Segment segment : segments.values()) {
+        segment.close();
+        segment.file.delete();
+      }
+      segments.clear();
+      new File(partitionDirectory, CHECKPOINT_FILE).delete();
+      index.clear();
+      expirationOrder.clear();
+
+      active = openSegment(nextSegmentId);
+      segments.put(active.id, active);
+      mutationsSinceCheckpoint.set(0);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      segmentsLock.writeLock().unlock();
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    if (maxEntries != UNBOUNDED) {
+      Iterator<Map.Entry<Location, Serializable>> oldest = expirationOrder.entrySet().iterator();
+      while (index.size() > maxEntries && oldest.hasNext()) {
+        Map.Entry<Location, Serializable> entry = oldest.next();
+        expire(entry.getValue(), entry.getKey());
+      }
+    }
+
+    if (entryTTL == UNBOUNDED) {
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    for (Map.Entry<Location, Serializable> entry : expirationOrder.entrySet()) {
+      if ((now - entry.getKey().timestamp) >= entryTTL) {
+        expire(entry.getValue(), entry.getKey());
+      } else {
+        break;
+      }
+    }
+  }
+
+  private void expire(Serializable key, Location location) throws ObjectStoreException {
+    final byte[] keyBytes = serialize(key);
+
+    long mark;
+    appendLock.lock();
+    try {
+      if (index.get(key) != location) {
+        // removed or replaced since it was listed
+        return;
+      }
+      delete(key, keyBytes, location);
+      mark = writtenBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    mutationsSinceCheckpoint.incrementAndGet();
+    awaitDurable(mark);
+  }
+
+  /**
+   * Compacts the sealed segments with too little live data and writes a checkpoint if enough changes happened since the last
+   * one. Meant to be invoked periodically from a background thread.
+   */
+  public synchronized void maintain() throws ObjectStoreException {
+    if (!opened) {
+      return;
+    }
+
+    if (!compact() && mutationsSinceCheckpoint.get() >= CHECKPOINT_INTERVAL) {
+      checkpoint();
+    }
+  }
+
+  /**
+   * Moves the live records of the sealed segments whose ratio of live data is below {@link #COMPACTION_THRESHOLD} to the active
+   * segment, and deletes them.
+   *
+   * @return whether any segment was compacted
+   */
+  synchronized boolean compact() throws ObjectStoreException {
+    Set<Segment> candidates = new HashSet<>();
+    for (Segment segment : segments.headMap(active.id).values()) {
+      if (segment.liveBytes.get() <= segment.size * COMPACTION_THRESHOLD) {
+        candidates.add(segment);
+      }
+    }
+
+    if (candidates.isEmpty()) {
+      return false;
+    }
+
+    long mark = carryOverTombstones(candidates);
+    for (Map.Entry<Serializable, Location> entry : index.entrySet()) {
+      Location location = entry.getValue();
+      if (!candidates.contains(location.segment)) {
+        continue;
+      }
+
+      ByteBuffer record = read(location);
+      if (record == null) {
+        continue;
+      }
+
+      appendLock.lock();
+      try {
+        if (index.get(entry.getKey()) != location) {
+          continue;
+        }
+        Location relocated = append(record, location.timestamp, location.sequence);
+        putLocation(entry.getKey(), relocated);
+        relocated.segment.liveBytes.addAndGet(relocated.length);
+        location.segment.liveBytes.addAndGet(-location.length);
+        mark = writtenBytes;
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      } finally {
+        appendLock.unlock();
+      }
+    }
+    awaitDurable(mark);
+
+    // the checkpoint must not reference the compacted segments before deleting them
+    checkpoint();
+
+    segmentsLock.writeLock().lock();
+    try {
+      for (Segment segment : candidates) {
+        segments.remove(segment.id);
+        segment.close();
+        if (!segment.file.delete()) {
+          LOGGER.warn("Could not delete compacted segment " + segment.file.getAbsolutePath());
+        }
+      }
+    } finally {
+      segmentsLock.writeLock().unlock();
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Compacted %d segments of object store partition %s", candidates.size(), partitionName));
+    }
+    return true;
+  }
+
+  /**
+   * Appends to the active segment the tombstones in the given segments whose key may still have a previous value in an older
+   * segment that is not being compacted, so that replaying the whole log doesn't resurrect it. Tombstones of keys stored again
+   * afterwards are not needed, since the newer value supersedes the older one on replay.
+   *
+   * @return the written bytes after appending the last tombstone
+   */
+  private long carryOverTombstones(Set<Segment> candidates) throws ObjectStoreException {
+    Long oldestRetained = null;
+    for (Segment segment : segments.headMap(active.id, true).values()) {
+      if (!candidates.contains(segment)) {
+        oldestRetained = segment.id;
+        break;
+      }
+    }
+
+    long mark = 0;
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    for (Segment segment : segments.headMap(active.id).values()) {
+      if (!candidates.contains(segment) || oldestRetained == null || segment.id < oldestRetained) {
+        continue;
+      }
+
+      try {
+        long position = 0;
+        ByteBuffer record;
+        while (position < segment.size && (record = readRecordForReplay(segment, position, header)) != null) {
+          position += record.limit();
+          if (record.get(RECORD_HEADER_SIZE) != DELETE) {
+            continue;
+          }
+
+          final Serializable key = deserializeKey(record);
+          appendLock.lock();
+          try {
+            if (!index.containsKey(key)) {
+              record.rewind();
+              append(record, record.getLong(RECORD_HEADER_SIZE + 1), ++sequence);
+              mark = writtenBytes;
+            }
+          } finally {
+            appendLock.unlock();
+          }
+        }
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+    return mark;
+  }
+
+  /**
+   * Writes the current index to the checkpoint file, so that on startup only the records appended afterwards need to be
+   * replayed.
+   */
+  synchronized void checkpoint() throws ObjectStoreException {
+    final List<Map.Entry<Serializable, Location>> entries;
+    final long segmentId;
+    final long offset;
+    final long lastSequence;
+    final long mutations;
+
+    appendLock.lock();
+    try {
+      segmentId = active.id;
+      offset = active.size;
+      lastSequence = sequence;
+      mutations = mutationsSinceCheckpoint.get();
+      entries = new ArrayList<>(index.entrySet());
+    } finally {
+      appendLock.unlock();
+    }
+
+    // everything the checkpoint covers has to be durable before the checkpoint is, regardless of the sync mode
+    segmentsLock.readLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+
+    File tmpFile = new File(partitionDirectory, CHECKPOINT_TMP_FILE);
+    try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+      CRC32 crc = new CRC32();
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOut, crc)));
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeLong(segmentId);
+      out.writeLong(offset);
+      out.writeLong(lastSequence);
+      out.writeInt(entries.size());
+      for (Map.Entry<Serializable, Location> entry : entries) {
+        Location location = entry.getValue();
+        byte[] keyBytes = serialize(entry.getKey());
+        out.writeInt(keyBytes.length);
+        out.write(keyBytes);
+        out.writeLong(location.segment.id);
+        out.writeLong(location.offset);
+        out.writeInt(location.length);
+        out.writeLong(location.timestamp);
+        out.writeLong(location.sequence);
+      }
+      out.flush();
+      new DataOutputStream(fileOut).writeLong(crc.getValue());
+      fileOut.getFD().sync();
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+
+    try {
+      Files.move(tmpFile.toPath(), new File(partitionDirectory, CHECKPOINT_FILE).toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    mutationsSinceCheckpoint.addAndGet(-mutations);
+  }
+
+  /**
+   * Appends a tombstone for the given key and removes it from the index. Must be called holding the append lock.
+   */
+  private void delete(Serializable key, byte[] keyBytes, Location location) throws IOException {
+    final long timestamp = System.currentTimeMillis();
+    append(createRecord(DELETE, keyBytes, new byte[0], timestamp), timestamp, ++sequence);
+    removeLocation(key);
+    location.segment.liveBytes.addAndGet(-location.length);
+  }
+
+  /**
+   * Maps the given key to the given location, keeping the expiration order in sync with the index.
+   *
+   * @return the previous location of the key, if any
+   */
+  private Location putLocation(Serializable key, Location location) {
+    Location previous = index.put(key, location);
+    if (previous != null) {
+      expirationOrder.remove(previous);
+    }
+    expirationOrder.put(location, key);
+    return previous;
+  }
+
+  /**
+   * Removes the given key from the index and the expiration order.
+   *
+   * @return the location the key had, if any
+   */
+  private Location removeLocation(Serializable key) {
+    Location previous = index.remove(key);
+    if (previous != null) {
+      expirationOrder.remove(previous);
+    }
+    return previous;
+  }
+
+  /**
+   * Appends the given record to the active segment, rolling over to a new one if needed. Must be called holding the append lock.
+   */
+  private Location append(ByteBuffer record, long timestamp, long sequence) throws IOException {
+    final int length = record.remaining();
+    if (active.size > 0 && active.size + length > maxSegmentSize) {
+      roll();
+    }
+
+    final Segment segment = active;
+    final long offset = segment.size;
+    long position = offset;
+    while (record.hasRemaining()) {
+      position += segment.channel.write(record, position);
+    }
+    segment.size += length;
+    writtenBytes += length;
+
+    if (syncMode == SyncMode.ALWAYS) {
+      segment.channel.force(false);
+    }
+
+    return new Location(segment, offset, length, timestamp, sequence);
+  }
+
+  private void roll() throws IOException {
+    if (syncMode != SyncMode.NONE) {
+      active.channel.force(false);
+    }
+    Segment segment = openSegment(active.id + 1);
+    segments.put(segment.id, segment);
+    active = segment;
+  }
+
+  /**
+   * Blocks until everything written up to {@code mark} is synced, when using {@link SyncMode#GROUP}. The first waiter that finds
+   * no sync in progress performs it on behalf of all the records appended so far.
+   */
+  private void awaitDurable(long mark) throws ObjectStoreException {
+    if (syncMode == SyncMode.GROUP) {
+      forceSync(mark);
+    }
+  }
+
+  private void forceSync(long mark) throws ObjectStoreException {
+    if (syncMode == SyncMode.NONE) {
+      return;
+    }
+
+    try {
+      while (true) {
+        synchronized (syncMonitor) {
+          while (syncing && syncedBytes < mark) {
+            syncMonitor.wait();
+          }
+          if (syncedBytes >= mark) {
+            return;
+          }
+          syncing = true;
+        }
+
+        // read the written bytes before the active segment. Segments sealed in between were already synced when rolling.
+        final long target = writtenBytes;
+        final Segment segment = active;
+        boolean synced = false;
+        try {
+          segment.channel.force(false);
+          synced = true;
+        } finally {
+          synchronized (syncMonitor) {
+            if (synced) {
+              syncedBytes = Math.max(syncedBytes, target);
+            }
+            syncing = false;
+            syncMonitor.notifyAll();
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ObjectStoreException(new InterruptedIOException("Interrupted while waiting for object store sync"));
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  /**
+   * @return the whole record at the given location, or {@code null} if its segment no longer exists
+   */
+  private ByteBuffer read(Location location) throws ObjectStoreException {
+    segmentsLock.readLock().lock();
+    try {
+      if (segments.get(location.segment.id) != location.segment) {
+        return null;
+      }
+
+      ByteBuffer record = ByteBuffer.allocate(location.length);
+      long position = location.offset;
+      while (record.hasRemaining()) {
+        int read = location.segment.channel.read(record, position);
+        if (read < 0) {
+          throw new ObjectStoreException(createStaticMessage(format("Unexpected end of segment %s",
+                                                                    location.segment.file.getAbsolutePath())));
+        }
+        position += read;
+      }
+      record.flip();
+      return record;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      segmentsLock.readLock().unlock();
+    }
+  }
+
+  private ByteBuffer createRecord(byte type, byte[] key, byte[] value, long timestamp) {
+    final int bodyLength = RECORD_BODY_HEADER_SIZE + key.length + value.length;
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+    record.putInt(bodyLength);
+    record.putInt(0);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(key.length);
+    record.put(key);
+    record.put(value);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+    record.putInt(4, (int) crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  private byte[] serialize(Object object) throws ObjectStoreException {
+    try {
+      return serializer.serialize(object);
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private Serializable deserializeKey(ByteBuffer record) {
+    final byte[] keyBytes = new byte[record.getInt(RECORD_HEADER_SIZE + 1 + 8)];
+    record.position(RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE);
+    record.get(keyBytes);
+    return serializer.deserialize(keyBytes);
+  }
+
+  private T deserializeValue(ByteBuffer record) throws ObjectStoreException {
+    final int keyLength = record.getInt(RECORD_HEADER_SIZE + 1 + 8);
+    final int valueOffset = RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + keyLength;
+    byte[] valueBytes = new byte[record.limit() - valueOffset];
+    record.position(valueOffset);
+    record.get(valueBytes);
+
+    try {
+      T value = serializer.deserialize(valueBytes);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private String readPartitionName() throws ObjectStoreNotAvailableException {
+    try {
+      return readFileToString(new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE));
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  private void openSegments() throws IOException {
+    File[] files = partitionDirectory.listFiles(file -> file.isFile() && file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        try {
+          long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+          segments.put(id, openSegment(id));
+        } catch (NumberFormatException e) {
+          LOGGER.warn("Ignoring unexpected file " + file.getAbsolutePath());
+        }
+      }
+    }
+
+    if (segments.isEmpty()) {
+      segments.put(0L, openSegment(0));
+    }
+  }
+
+  private Segment openSegment(long id) throws IOException {
+    return new Segment(id, new File(partitionDirectory, format("%020d%s", id, SEGMENT_FILE_EXTENSION)));
+  }
+
+  /**
+   * Loads the index from the checkpoint file, if there's a valid one.
+   *
+   * @return the segment id and offset from which the log has to be replayed
+   */
+  private long[] loadCheckpoint() {
+    File checkpointFile = new File(partitionDirectory, CHECKPOINT_FILE);
+    if (!checkpointFile.exists()) {
+      return new long[] {segments.firstKey(), 0};
+    }
+
+    CRC32 crc = new CRC32();
+    try (InputStream fileIn = new BufferedInputStream(new FileInputStream(checkpointFile), 64 * 1024)) {
+      DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, crc));
+      if (in.readInt() != CHECKPOINT_MAGIC) {
+        throw new IOException("Invalid checkpoint header");
+      }
+
+      final long segmentId = in.readLong();
+      final long offset = in.readLong();
+      final long lastSequence = in.readLong();
+      final int count = in.readInt();
+
+      Map<Serializable, Location> loaded = new ConcurrentHashMap<>(count);
+      for (int i = 0; i < count; i++) {
+        byte[] keyBytes = new byte[in.readInt()];
+        in.readFully(keyBytes);
+        Segment segment = segments.get(in.readLong());
+        long recordOffset = in.readLong();
+        int length = in.readInt();
+        long timestamp = in.readLong();
+        long recordSequence = in.readLong();
+        if (segment != null) {
+          loaded.put(serializer.deserialize(keyBytes), new Location(segment, recordOffset, length, timestamp, recordSequence));
+        }
+      }
+
+      // the trailing checksum is not part of the checksummed content
+      if (new DataInputStream(fileIn).readLong() != crc.getValue()) {
+        throw new IOException("Checkpoint checksum mismatch");
+      }
+
+      for (Map.Entry<Serializable, Location> entry : loaded.entrySet()) {
+        putLocation(entry.getKey(), entry.getValue());
+        entry.getValue().segment.liveBytes.addAndGet(entry.getValue().length);
+      }
+      sequence = lastSequence;
+      return new long[] {segmentId, offset};
+    } catch (Exception e) {
+      LOGGER.warn(format("Could not read checkpoint of object store partition at %s, the whole log will be replayed",
+                         partitionDirectory.getAbsolutePath()),
+                  e);
+      index.clear();
+      expirationOrder.clear();
+      for (Segment segment : segments.values()) {
+        segment.liveBytes.set(0);
+      }
+      return new long[] {segments.firstKey(), 0};
+    }
+  }
+
+  /**
+   * Applies the records appended from the given position onwards to the index.
+   */
+  private void replay(long fromSegmentId, long fromOffset) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    for (Segment segment : segments.tailMap(fromSegmentId, true).values()) {
+      long position = segment.id == fromSegmentId ? fromOffset : 0;
+
+      while (position < segment.size) {
+        ByteBuffer record = readRecordForReplay(segment, position, header);
+        if (record == null) {
+          if (segment == segments.lastEntry().getValue()) {
+            LOGGER.warn(format("Truncating incomplete record at position %d of segment %s", position,
+                               segment.file.getAbsolutePath()));
+            segment.channel.truncate(position);
+            segment.size = position;
+          } else {
+            LOGGER.warn(format("Corrupted record at position %d of segment %s, the rest of the segment is skipped", position,
+                               segment.file.getAbsolutePath()));
+          }
+          break;
+        }
+
+        final int length = record.limit();
+        final byte type = record.get(RECORD_HEADER_SIZE);
+        final long timestamp = record.getLong(RECORD_HEADER_SIZE + 1);
+        final Serializable key = deserializeKey(record);
+
+        Location previous;
+        if (type == PUT) {
+          Location location = new Location(segment, position, length, timestamp, ++sequence);
+          segment.liveBytes.addAndGet(length);
+          previous = putLocation(key, location);
+        } else {
+          ++sequence;
+          previous = removeLocation(key);
+        }
+        if (previous != null) {
+          previous.segment.liveBytes.addAndGet(-previous.length);
+        }
+
+        position += length;
+      }
+    }
+  }
+
+  /**
+   * @return the record at the given position, or {@code null} if it's incomplete or corrupted
+   */
+  private ByteBuffer readRecordForReplay(Segment segment, long position, ByteBuffer header) throws IOException {
+    if (segment.size - position < RECORD_HEADER_SIZE) {
+      return null;
+    }
+
+    header.clear();
+    segment.channel.read(header, position);
+    final int bodyLength = header.getInt(0);
+    final int crc = header.getInt(4);
+    if (bodyLength < RECORD_BODY_HEADER_SIZE || segment.size - position - RECORD_HEADER_SIZE < bodyLength) {
+      return null;
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+    long readPosition = position;
+    while (record.hasRemaining()) {
+      int read = segment.channel.read(record, readPosition);
+      if (read < 0) {
+        return null;
+      }
+      readPosition += read;
+    }
+
+    CRC32 checksum = new CRC32();
+    checksum.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+    if ((int) checksum.getValue() != crc) {
+      return null;
+    }
+
+    record.flip();
+    return record;
+  }
+
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile long size;
+
+    private Segment(long id, File file) throws IOException {
+      this.id = id;
+      this.file = file;
+      randomAccessFile = new RandomAccessFile(file, "rw");
+      channel = randomAccessFile.getChannel();
+      size = channel.size();
+    }
+
+    private void close() {
+      try {
+        channel.close();
+        randomAccessFile.close();
+      } catch (IOException e) {
+        LOGGER.warn("Could not close segment " + file.getAbsolutePath(), e);
+      }
+    }
+  }
+
+  private static final class Location {
+
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+    private final long timestamp;
+    private final long sequence;
+
+    private Location(Segment segment, long offset, int length, long timestamp, long sequence) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.timestamp = timestamp;
+      this.sequence = sequence;
+    }
+  }
+}
@@ -6,30 +6,45 @@
  */
 package org.mule.runtime.container.api;
 
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
 import static java.lang.reflect.Proxy.getInvocationHandler;
 import static java.lang.reflect.Proxy.isProxyClass;
 import static java.util.Arrays.asList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 
+import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.service.Service;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Extends {@link InvocationHandler} to provide and expose metadata about the inner {@link Service} implementation.
  * <p>
  * This allows for nested {@link Service} {@link Proxy}ies to work as expected.
- * 
+ * <p>
+ * The {@link Proxy} classes are generated and cached by the JVM per set of service interfaces, so the per invocation cost lies
+ * in the handler. To keep it low, each {@link Method} is bound to the proxied {@link Service} through a {@link MethodHandle} the
+ * first time it is invoked, and nested handlers and declared methods are resolved only once.
+ *
  * @since 4.0
  */
 public abstract class ServiceInvocationHandler implements InvocationHandler {
 
+  private static final Object[] NO_ARGS = new Object[0];
+
   private final Service service;
+  private final ServiceInvocationHandler innerHandler;
+  private final ConcurrentMap<Method, MethodHandle> dispatchers = new ConcurrentHashMap<>();
+  private volatile Method[] declaredMethods;
 
   /**
    * Creates a new proxy for the provided service instance.
@@ -39,24 +54,35 @@ public abstract class ServiceInvocationHandler implements InvocationHandler {
   protected ServiceInvocationHandler(Service service) {
     checkArgument(service != null, "service cannot be null");
     this.service = service;
+    if (isProxyClass(service.getClass()) && getInvocationHandler(service) instanceof ServiceInvocationHandler) {
+      innerHandler = (ServiceInvocationHandler) getInvocationHandler(service);
+    } else {
+      innerHandler = null;
+    }
   }
 
   /**
    * @return the methods declared in the implementation of the proxied service.
    */
   protected Method[] getServiceImplementationDeclaredMethods() {
-    if (isProxyClass(getService().getClass()) && getInvocationHandler(getService()) instanceof ServiceInvocationHandler) {
-      return ((ServiceInvocationHandler) getInvocationHandler(getService())).getServiceImplementationDeclaredMethods();
-    } else {
-      List<Method> methods = new LinkedList<>();
+    if (innerHandler != null) {
+      return innerHandler.getServiceImplementationDeclaredMethods();
+    }
+
+    Method[] methods = declaredMethods;
+    if (methods == null) {
+      List<Method> methodList = new LinkedList<>();
       Class<?> clazz = getService().getClass();
       while (clazz != Object.class) {
-        methods.addAll(asList(clazz.getDeclaredMethods()));
+        methodList.addAll(asList(clazz.getDeclaredMethods()));
         clazz = clazz.getSuperclass();
       }
 
-      return methods.toArray(new Method[methods.size()]);
+      methods = methodList.toArray(new Method[methodList.size()]);
+      declaredMethods = methods;
     }
+
+    return methods.clone();
   }
 
   /**
@@ -65,16 +91,24 @@ public abstract class ServiceInvocationHandler implements InvocationHandler {
    * See {@link InvocationHandler#invoke(Object, Method, Object[])}
    */
   protected Object doInvoke(Object proxy, Method method, Object[] args) throws Throwable {
-    if (isProxyClass(getService().getClass()) && getInvocationHandler(getService()) instanceof ServiceInvocationHandler) {
-      return ((ServiceInvocationHandler) getInvocationHandler(getService())).invoke(getService(), method, args);
+    if (innerHandler != null) {
+      return innerHandler.invoke(getService(), method, args);
     } else {
-      try {
-        return method.invoke(getService(), args);
-      } catch (InvocationTargetException ite) {
-        // Unwrap target exception to ensure InvocationTargetException (in case of unchecked exceptions) or
-        // UndeclaredThrowableException (in case of checked exceptions) is not thrown by Service instead of target exception.
-        throw ite.getTargetException();
-      }
+      // Exceptions thrown by the target are propagated as is by the MethodHandle, so no InvocationTargetException (in case of
+      // unchecked exceptions) or UndeclaredThrowableException (in case of checked exceptions) is thrown by the Service.
+      return dispatchers.computeIfAbsent(method, this::createDispatcher).invokeExact(args == null ? NO_ARGS : args);
+    }
+  }
+
+  private MethodHandle createDispatcher(Method method) {
+    try {
+      return lookup().unreflect(method)
+          .bindTo(getService())
+          .asSpreader(Object[].class, method.getParameterCount())
+          .asType(methodType(Object.class, Object[].class));
+    } catch (IllegalAccessException e) {
+      throw new MuleRuntimeException(createStaticMessage("Cannot access method '" + method.getName() + "' of service '"
+          + getService().getName() + "'"), e);
     }
   }
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.config;
+
+/**
+ * Snapshot of the usage of the cache in which a {@link DynamicConfigurationProvider} keeps the configuration instances it
+ * creates.
+ *
+ * @since 4.0
+ */
+public final class ConfigurationCacheStatistics {
+
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+  private final int size;
+
+  ConfigurationCacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.size = size;
+  }
+
+  /**
+   * @return the amount of lookups that were served by an already existing configuration instance
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the amount of lookups that had to create a new configuration instance
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the amount of configuration instances discarded to keep the cache within its maximum size
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the amount of configuration instances in the cache when this snapshot was taken
+   */
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigurationCacheStatistics{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+        + ", size=" + size + "}";
+  }
+}
@@ -18,8 +18,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 final class DefaultMutableConfigurationStats implements MutableConfigurationStats {
 
   private final AtomicInteger inflightOperations = new AtomicInteger(0);
+  private final AtomicInteger reservations = new AtomicInteger(0);
   private final TimeSupplier timeSupplier;
-  private long lastUsedMillis;
+  private volatile long lastUsedMillis;
+  private volatile long reservedUntilMillis;
 
   /**
    * Creates a new instance using the given {@code timeSupplier} to obtain the current time and update the
@@ -62,7 +64,27 @@ final class DefaultMutableConfigurationStats implements MutableConfigurationStat
   @Override
   public int addInflightOperation() {
     updateLastUsed();
-    return inflightOperations.incrementAndGet();
+    int inflight = inflightOperations.incrementAndGet();
+    // released after counting the operation, so that the configuration never looks idle in between
+    reservations.updateAndGet(count -> count > 0 ? count - 1 : 0);
+    return inflight;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void reserve(long timeoutMillis) {
+    reservedUntilMillis = updateLastUsed() + timeoutMillis;
+    reservations.incrementAndGet();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isReserved() {
+    return reservations.get() > 0 && timeSupplier.get() < reservedUntilMillis;
   }
 
   /**
@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Integer.getInteger;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
@@ -30,7 +32,6 @@ import org.mule.runtime.core.api.util.Pair;
 import org.mule.runtime.core.util.collection.ImmutableListCollector;
 import org.mule.runtime.extension.api.runtime.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.ConfigurationProvider;
-import org.mule.runtime.extension.api.runtime.ConfigurationStats;
 import org.mule.runtime.extension.api.runtime.ExpirableConfigurationProvider;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ConnectionProviderValueResolver;
@@ -40,10 +41,14 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 
@@ -55,6 +60,12 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * Lookups on that cache don't lock. When several threads miss on the same key at once, only one of them creates the instance
+ * and the others wait for it. The cache holds at most {@link #MAX_INSTANCES_PROPERTY} instances. When a new instance goes over
+ * that bound, the least recently used idle instances are stopped and disposed. An instance is idle when it has no inflight
+ * operations and it was not just handed out for an operation yet to start. Expired instances are still handed out through
+ * {@link #getExpired()}.
  *
  * @since 4.0.0
  */
@@ -63,15 +74,27 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
 
+  /**
+   * System property to set the maximum amount of configuration instances each provider keeps.
+   */
+  public static final String MAX_INSTANCES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extensions.dynamicConfig.maxInstances";
+  private static final int DEFAULT_MAX_INSTANCES = 1000;
+
+  /**
+   * How long an instance handed out by {@link #get(Object)} is kept from being evicted until its operation is added as inflight
+   */
+  private static final long RESERVATION_TIMEOUT_MILLIS = 30000;
+
   private final ConfigurationInstanceFactory configurationInstanceFactory;
   private final ResolverSet resolverSet;
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
+  private final int maxInstances;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConcurrentMap<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
 
   /**
    * Creates a new instance
@@ -90,12 +113,36 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
                                       ConnectionProviderValueResolver connectionProviderResolver,
                                       ExpirationPolicy expirationPolicy,
                                       MuleContext muleContext) {
+    this(name, extensionModel, configurationModel, resolverSet, connectionProviderResolver, expirationPolicy,
+         getInteger(MAX_INSTANCES_PROPERTY, DEFAULT_MAX_INSTANCES), muleContext);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param name this provider's name
+   * @param extensionModel the model that owns the {@code configurationModel}
+   * @param configurationModel the model for the returned configurations
+   * @param resolverSet the {@link ResolverSet} that provides the configuration's parameter values
+   * @param connectionProviderResolver a {@link ValueResolver} used to obtain a {@link ConnectionProvider}
+   * @param expirationPolicy the {@link ExpirationPolicy} for the unused instances
+   * @param maxInstances the maximum amount of configuration instances to keep
+   */
+  public DynamicConfigurationProvider(String name,
+                                      ExtensionModel extensionModel,
+                                      ConfigurationModel configurationModel,
+                                      ResolverSet resolverSet,
+                                      ConnectionProviderValueResolver connectionProviderResolver,
+                                      ExpirationPolicy expirationPolicy,
+                                      int maxInstances,
+                                      MuleContext muleContext) {
     super(name, extensionModel, configurationModel, muleContext);
     configurationInstanceFactory =
         new ConfigurationInstanceFactory<>(extensionModel, configurationModel, resolverSet, muleContext);
     this.resolverSet = resolverSet;
     this.connectionProviderResolver = connectionProviderResolver;
     this.expirationPolicy = expirationPolicy;
+    this.maxInstances = maxInstances;
   }
 
   /**
@@ -119,39 +166,116 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, Event event)
       throws Exception {
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
+    while (true) {
+      CacheEntry entry = cache.get(resolverSetResult);
+      boolean hit = entry != null;
+
+      if (entry == null) {
+        CacheEntry newEntry = new CacheEntry(() -> createConfiguration(resolverSetResult.getFirst(), event));
+        entry = cache.putIfAbsent(resolverSetResult, newEntry);
+        if (entry == null) {
+          missCount.increment();
+          entry = newEntry;
+          create(resolverSetResult, entry);
+        } else {
+          hit = true;
+        }
+      }
+
+      ConfigurationInstance configuration = entry.await();
+      if (entry.acquire()) {
+        if (hit) {
+          hitCount.increment();
+        }
         return configuration;
       }
-    } finally {
-      cacheReadLock.unlock();
+      // the entry was evicted right after we found it, look again
     }
+  }
 
-    cacheWriteLock.lock();
+  private void create(Pair<ResolverSetResult, ResolverSetResult> key, CacheEntry entry) throws Exception {
     try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult.getFirst(), event);
-        cache.put(resolverSetResult, configuration);
+      entry.create();
+    } catch (Exception e) {
+      cache.remove(key, entry);
+      throw e;
+    }
+
+    if (cache.size() > maxInstances) {
+      evictLeastRecentlyUsed();
+    }
+  }
+
+  private void evictLeastRecentlyUsed() {
+    while (cache.size() > maxInstances) {
+      Map.Entry<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> candidate = null;
+      long candidateLastUsed = Long.MAX_VALUE;
+      long candidateAccesses = 0;
+      for (Map.Entry<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> entry : cache.entrySet()) {
+        // read before the statistics, so that any lookup after them makes the eviction fail
+        long accesses = entry.getValue().accesses.get();
+        ConfigurationInstance configuration = entry.getValue().instance;
+        if (configuration == null || !isIdle(configuration)) {
+          continue;
+        }
+
+        long lastUsed = configuration.getStatistics().getLastUsedMillis();
+        if (lastUsed < candidateLastUsed) {
+          candidate = entry;
+          candidateLastUsed = lastUsed;
+          candidateAccesses = accesses;
+        }
+      }
+
+      if (candidate == null) {
+        // every instance is busy, let the cache go over its bound until some of them are released
+        return;
+      }
+
+      if (!remove(candidate.getKey(), candidate.getValue(), candidateAccesses, DynamicConfigurationProvider::isIdle)) {
+        // the candidate was used or removed meanwhile, the next miss will try again
+        return;
       }
+      evictionCount.increment();
+      disposeEvicted(candidate.getValue().instance);
+    }
+  }
 
-      // accounting here for the same reasons as above
-      updateUsageStatistic(configuration);
-      return configuration;
-    } finally {
-      cacheWriteLock.unlock();
+  private boolean remove(Pair<ResolverSetResult, ResolverSetResult> key, CacheEntry entry, long expectedAccesses,
+                         Predicate<ConfigurationInstance> condition) {
+    if (entry.tryEvict(expectedAccesses, condition) && cache.remove(key, entry)) {
+      unregisterConfiguration(entry.instance);
+      return true;
+    }
+    return false;
+  }
+
+  private void disposeEvicted(ConfigurationInstance configuration) {
+    try {
+      withContextClassLoader(getExtensionClassLoader(), () -> {
+        stopIfNeeded(configuration);
+        disposeIfNeeded(configuration, LOGGER);
+        return null;
+      });
+    } catch (Exception e) {
+      LOGGER.error("Could not dispose evicted dynamic config of key " + getName(), e);
     }
   }
 
-  private void updateUsageStatistic(ConfigurationInstance configuration) {
+  /**
+   * @return whether the {@code configuration} has neither inflight operations nor instances handed out for operations which are
+   *         yet to start
+   */
+  private static boolean isIdle(ConfigurationInstance configuration) {
     MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
-    stats.updateLastUsed();
+    return stats.getInflightOperations() == 0 && !stats.isReserved();
+  }
+
+  /**
+   * @return a snapshot of the usage of the cache in which this provider keeps its configuration instances
+   */
+  public ConfigurationCacheStatistics getCacheStatistics() {
+    return new ConfigurationCacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), cache.size());
   }
 
   private ConfigurationInstance createConfiguration(ResolverSetResult result, Event event) throws MuleException {
@@ -202,20 +326,15 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(new ImmutableListCollector<>());
-    } finally {
-      cacheWriteLock.unlock();
-    }
+    return cache.entrySet().stream()
+        .filter(entry -> remove(entry.getKey(), entry.getValue(), entry.getValue().accesses.get(), this::isExpired))
+        .map(entry -> entry.getValue().instance)
+        .collect(new ImmutableListCollector<>());
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
-    ConfigurationStats stats = configuration.getStatistics();
-    return stats.getInflightOperations() == 0 && expirationPolicy.isExpired(stats.getLastUsedMillis(), MILLISECONDS);
+    return isIdle(configuration)
+        && expirationPolicy.isExpired(configuration.getStatistics().getLastUsedMillis(), MILLISECONDS);
   }
 
   @Override
@@ -233,4 +352,70 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     super.start();
     startIfNeeded(connectionProviderResolver);
   }
+
+  /**
+   * A slot of the cache. The instance is created by the thread which put the entry in the cache while the threads which find it
+   * meanwhile wait for it.
+   * <p>
+   * Removing an entry must not race with a lookup which just found it. Lookups increment {@link #accesses} and then check
+   * {@link #evicted}, while evictions set {@link #evicted} and then check that {@link #accesses} did not change. Either the
+   * lookup sees the eviction and looks again, or the eviction sees the lookup and is abandoned. The expected amount of accesses
+   * is read when the entry is chosen for eviction, so that lookups which happen between choosing it and evicting it are detected
+   * too.
+   * <p>
+   * A lookup which completed before the entry was chosen is not detected that way, yet its operation may not be inflight yet.
+   * Lookups therefore reserve the instance before counting the access, and instances with reservations are not idle.
+   */
+  private static final class CacheEntry {
+
+    private final FutureTask<ConfigurationInstance> creation;
+    private final AtomicLong accesses = new AtomicLong();
+    private volatile ConfigurationInstance instance;
+    private volatile boolean evicted = false;
+
+    private CacheEntry(Callable<ConfigurationInstance> factory) {
+      creation = new FutureTask<>(() -> instance = factory.call());
+    }
+
+    private void create() throws Exception {
+      creation.run();
+      await();
+    }
+
+    private ConfigurationInstance await() throws Exception {
+      try {
+        return creation.get();
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw (Error) cause;
+      }
+    }
+
+    private boolean acquire() {
+      ((MutableConfigurationStats) instance.getStatistics()).reserve(RESERVATION_TIMEOUT_MILLIS);
+      accesses.incrementAndGet();
+      return !evicted;
+    }
+
+    private boolean tryEvict(long expectedAccesses, Predicate<ConfigurationInstance> condition) {
+      ConfigurationInstance configuration = instance;
+      if (configuration == null || accesses.get() != expectedAccesses) {
+        return false;
+      }
+
+      if (!condition.test(configuration)) {
+        return false;
+      }
+
+      evicted = true;
+      if (accesses.get() != expectedAccesses) {
+        evicted = false;
+        return false;
+      }
+      return true;
+    }
+  }
 }
@@ -31,8 +31,8 @@ import org.mule.runtime.core.lifecycle.SimpleLifecycleManager;
 import org.mule.runtime.extension.api.runtime.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.ConfigurationProvider;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.slf4j.Logger;
 
@@ -53,7 +53,7 @@ public abstract class LifecycleAwareConfigurationProvider extends AbstractAnnota
   private final String name;
   private final ExtensionModel extensionModel;
   private final ConfigurationModel configurationModel;
-  private final List<ConfigurationInstance> configurationInstances = new LinkedList<>();
+  private final Queue<ConfigurationInstance> configurationInstances = new ConcurrentLinkedQueue<>();
   private final ClassLoader extensionClassLoader;
   protected final SimpleLifecycleManager lifecycleManager;
   protected final MuleContext muleContext;
@@ -161,6 +161,16 @@ public abstract class LifecycleAwareConfigurationProvider extends AbstractAnnota
     configurationInstances.add(configuration);
   }
 
+  /**
+   * Implementations are to invoke this method when a {@link ConfigurationInstance} previously passed to
+   * {@link #registerConfiguration(ConfigurationInstance)} is discarded, so that lifecycle is no longer propagated into it
+   *
+   * @param configuration a discarded {@link ConfigurationInstance}
+   */
+  protected void unregisterConfiguration(ConfigurationInstance configuration) {
+    configurationInstances.remove(configuration);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -23,12 +23,27 @@ public interface MutableConfigurationStats extends ConfigurationStats {
   long updateLastUsed();
 
   /**
-   * Increments the return value of {@link #getInflightOperations()} by one
+   * Increments the return value of {@link #getInflightOperations()} by one, releasing one reservation made through
+   * {@link #reserve(long)}, if any
    *
    * @return the new value
    */
   int addInflightOperation();
 
+  /**
+   * Reserves the configuration for an operation which is about to start, so that it is not considered idle until that operation
+   * is added through {@link #addInflightOperation()} or {@code timeoutMillis} go by. Also updates the value of
+   * {@link #getLastUsedMillis()}
+   *
+   * @param timeoutMillis how long the reservation lasts if the operation is never added
+   */
+  void reserve(long timeoutMillis);
+
+  /**
+   * @return whether there are reservations made through {@link #reserve(long)} which were neither released nor timed out
+   */
+  boolean isReserved();
+
   /**
    * Decrements the return value of {@link #getInflightOperations()} by one
    *
@@ -75,6 +75,7 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
   private final Method method;
   private final JavaTypeLoader typeLoader = new JavaTypeLoader(this.getClass().getClassLoader());
   private ArgumentResolver<? extends Object>[] argumentResolvers;
+  private Object[] defaultValues;
   private Map<java.lang.reflect.Parameter, ParameterGroupArgumentResolver<? extends Object>> parameterGroupResolvers;
 
   /**
@@ -93,10 +94,12 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
 
     if (isEmpty(parameterTypes)) {
       argumentResolvers = new ArgumentResolver[] {};
+      defaultValues = new Object[] {};
       return;
     }
 
     argumentResolvers = new ArgumentResolver[parameterTypes.length];
+    defaultValues = new Object[parameterTypes.length];
     Annotation[][] parameterAnnotations = method.getParameterAnnotations();
     Parameter[] parameters = method.getParameters();
     parameterGroupResolvers = getParameterGroupResolvers(parameterGroupModels);
@@ -138,6 +141,7 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
       }
 
       argumentResolvers[i] = argumentResolver;
+      defaultValues[i] = resolvePrimitiveTypeDefaultValue(parameterType);
     }
   }
 
@@ -145,25 +149,12 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
   public Object[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes) {
 
     Object[] parameterValues = new Object[argumentResolvers.length];
-    int i = 0;
-    for (ArgumentResolver<?> argumentResolver : argumentResolvers) {
-      parameterValues[i++] = argumentResolver.resolve(executionContext);
+    for (int i = 0; i < argumentResolvers.length; i++) {
+      Object parameterValue = argumentResolvers[i].resolve(executionContext);
+      parameterValues[i] = parameterValue != null ? parameterValue : defaultValues[i];
     }
 
-    return resolvePrimitiveTypes(parameterTypes, parameterValues);
-  }
-
-  private Object[] resolvePrimitiveTypes(Class<?>[] parametersType, Object[] parameterValues) {
-    Object[] resolvedParameters = new Object[parameterValues.length];
-    for (int i = 0; i < parameterValues.length; i++) {
-      Object parameterValue = parameterValues[i];
-      if (parameterValue == null) {
-        resolvedParameters[i] = resolvePrimitiveTypeDefaultValue(parametersType[i]);
-      } else {
-        resolvedParameters[i] = parameterValue;
-      }
-    }
-    return resolvedParameters;
+    return parameterValues;
   }
 
   private Object resolvePrimitiveTypeDefaultValue(Class<?> type) {
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isStatic;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Invokes a {@link Method} on a fixed target instance through a {@link MethodHandle} which is created only once.
+ * <p>
+ * The handle is bound to the target and adapted to take the arguments as an {@code Object[]} and return an {@link Object}, so
+ * that each invocation is a plain {@link MethodHandle#invokeExact(Object...)} call which the JIT can inline, instead of going
+ * through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Exceptions are surfaced the same way {@link org.springframework.util.ReflectionUtils#invokeMethod(Method, Object, Object...)}
+ * does: unchecked exceptions and errors are rethrown as they are while checked ones are wrapped into an
+ * {@link UndeclaredThrowableException}. If the method cannot be accessed through a public lookup, invocations fall back to
+ * reflection.
+ *
+ * @since 4.0
+ */
+public final class MethodHandleInvoker {
+
+  private final Method method;
+  private final Object target;
+  private final MethodHandle handle;
+
+  public MethodHandleInvoker(Method method, Object target) {
+    this.method = method;
+    this.target = target;
+    handle = createHandle(method, target);
+  }
+
+  private static MethodHandle createHandle(Method method, Object target) {
+    MethodHandle handle;
+    try {
+      handle = publicLookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+
+    if (!isStatic(method.getModifiers())) {
+      handle = handle.bindTo(target);
+    }
+
+    return handle.asSpreader(Object[].class, method.getParameterCount())
+        .asType(methodType(Object.class, Object[].class));
+  }
+
+  /**
+   * Invokes the method with the given {@code args}
+   *
+   * @param args the method arguments, already converted to the method's parameter types
+   * @return the method's return value, or {@code null} if the method is {@code void}
+   */
+  public Object invoke(Object[] args) {
+    if (handle == null) {
+      return invokeMethod(method, target, args);
+    }
+
+    try {
+      return (Object) handle.invokeExact(args);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
+import static java.util.Arrays.stream;
 import static org.apache.commons.lang.ArrayUtils.isEmpty;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
@@ -13,7 +14,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.util.ClassUtils.withContextClassLoader;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -27,6 +27,7 @@ import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.module.extension.internal.runtime.operation.ReflectiveMethodOperationExecutor;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,7 +36,10 @@ import java.util.function.Function;
 import org.slf4j.Logger;
 
 /**
- * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}
+ * Executes a task associated to a {@link ExecutionContext} by invoking a given {@link Method}.
+ * <p>
+ * The method is invoked through a {@link MethodHandleInvoker} created once per instance, and its arguments are resolved by an
+ * {@link ArgumentResolverDelegate} which was also set up upfront.
  *
  * @param <M> the generic type of the associated {@link ComponentModel}
  * @since 4.0
@@ -56,7 +60,9 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static final Logger LOGGER = getLogger(ReflectiveMethodOperationExecutor.class);
   private static final ArgumentResolverDelegate NO_ARGS_DELEGATE = new NoArgumentsResolverDelegate();
 
-  private final Method method;
+  private final Class<?>[] parameterTypes;
+  private final String[] parameterNames;
+  private final MethodHandleInvoker invoker;
   private final Object componentInstance;
   private final ArgumentResolverDelegate argumentResolverDelegate;
   private final ClassLoader extensionClassLoader;
@@ -65,9 +71,11 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> parameterGroupModels, Method method,
                                            Object componentInstance) {
-    this.method = method;
     this.componentInstance = componentInstance;
-    argumentResolverDelegate = isEmpty(method.getParameterTypes())
+    parameterTypes = method.getParameterTypes();
+    parameterNames = stream(method.getParameters()).map(Parameter::getName).toArray(String[]::new);
+    invoker = new MethodHandleInvoker(method, componentInstance);
+    argumentResolverDelegate = isEmpty(parameterTypes)
         ? NO_ARGS_DELEGATE
         : new MethodArgumentResolverDelegate(parameterGroupModels, method);
     extensionClassLoader = method.getDeclaringClass().getClassLoader();
@@ -75,11 +83,10 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   public Object execute(ExecutionContext<M> executionContext) throws Exception {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     getParameterValues(executionContext, method.getParameterTypes())));
+                                  () -> invoker.invoke(getParameterValues(executionContext)));
   }
 
-  private Object[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
+  private Object[] getParameterValues(ExecutionContext<M> executionContext) {
     return argumentResolverDelegate.resolve(executionContext, parameterTypes);
   }
 
@@ -115,11 +122,11 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   public Function<ExecutionContext<OperationModel>, Map<String, Object>> createArgumentResolver(OperationModel operationModel) {
     return ec -> {
       // TODO MULE-11527 avoid doing unnecesary evaluations
-      final Object[] resolved = argumentResolverDelegate.resolve(ec, method.getParameterTypes());
+      final Object[] resolved = argumentResolverDelegate.resolve(ec, parameterTypes);
 
       final Map<String, Object> resolvedParams = new HashMap<String, Object>();
-      for (int i = 0; i < method.getParameterCount(); ++i) {
-        resolvedParams.put(method.getParameters()[i].getName(), resolved[i]);
+      for (int i = 0; i < parameterNames.length; ++i) {
+        resolvedParams.put(parameterNames[i], resolved[i]);
       }
       return resolvedParams;
     };
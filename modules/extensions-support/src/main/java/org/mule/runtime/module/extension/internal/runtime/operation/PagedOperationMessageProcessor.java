@@ -6,20 +6,26 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.operation;
 
+import static java.lang.Integer.getInteger;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.rx.Exceptions.wrapFatal;
 import static reactor.core.publisher.Mono.error;
 import static reactor.core.publisher.Mono.just;
+import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.operation.OperationModel;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.core.api.extension.ExtensionManager;
 import org.mule.runtime.core.internal.streaming.object.iterator.Consumer;
 import org.mule.runtime.core.internal.streaming.object.iterator.ConsumerStreamingIterator;
 import org.mule.runtime.core.internal.streaming.object.iterator.ListConsumer;
+import org.mule.runtime.core.internal.streaming.object.iterator.PrefetchingProducer;
 import org.mule.runtime.core.internal.streaming.object.iterator.Producer;
 import org.mule.runtime.core.policy.PolicyManager;
 import org.mule.runtime.core.streaming.CursorProviderFactory;
+import org.mule.runtime.core.transaction.TransactionCoordination;
 import org.mule.runtime.extension.api.runtime.ConfigurationProvider;
 import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
 import org.mule.runtime.module.extension.internal.runtime.ExecutionContextAdapter;
@@ -32,12 +38,23 @@ import reactor.core.publisher.Mono;
 /**
  * A specialization of {@link OperationMessageProcessor} which supports auto paging by the means of a
  * {@link ConsumerStreamingIterator}
+ * <p>
+ * When {@link #PREFETCH_PAGES_PROPERTY} is set to a positive number, pages are fetched on an IO {@link Scheduler} up to that
+ * many pages ahead of the consumer, through a {@link PrefetchingProducer}. Prefetching is skipped while a transaction is active,
+ * since the transactional connection is bound to the thread which owns the transaction.
  *
  * @since 4.0
  */
 public class PagedOperationMessageProcessor extends OperationMessageProcessor {
 
+  /**
+   * System property to set how many pages to fetch ahead of the consumer. Pages are fetched on demand unless set.
+   */
+  public static final String PREFETCH_PAGES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extensions.paging.prefetchPages";
+
   private final ExtensionConnectionSupplier connectionSupplier;
+  private final int prefetchPages = getInteger(PREFETCH_PAGES_PROPERTY, 0);
+  private Scheduler prefetchScheduler;
 
   public PagedOperationMessageProcessor(ExtensionModel extensionModel,
                                         OperationModel operationModel,
@@ -67,8 +84,8 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
       }
 
       Producer<?> producer =
-          new PagingProviderProducer(pagingProvider, operationContext.getConfiguration().get(),
-                                     operationContext, connectionSupplier);
+          withPrefetching(new PagingProviderProducer(pagingProvider, operationContext.getConfiguration().get(),
+                                                     operationContext, connectionSupplier));
       Consumer<?> consumer = new ListConsumer(producer);
 
       return just(returnDelegate.asReturnValue(new ConsumerStreamingIterator<>(consumer), operationContext));
@@ -79,6 +96,36 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
     }
   }
 
+  /**
+   * Wraps the given {@code producer} into a {@link PrefetchingProducer}, unless pages are not to be fetched ahead of the consumer
+   */
+  Producer<?> withPrefetching(Producer<?> producer) {
+    if (prefetchScheduler == null || TransactionCoordination.getInstance().getTransaction() != null) {
+      return producer;
+    }
+    return new PrefetchingProducer(producer, prefetchScheduler, prefetchPages);
+  }
+
+  @Override
+  public void doStart() throws MuleException {
+    super.doStart();
+    if (prefetchPages > 0 && prefetchScheduler == null) {
+      prefetchScheduler = muleContext.getSchedulerService().ioScheduler();
+    }
+  }
+
+  @Override
+  public void doStop() throws MuleException {
+    try {
+      if (prefetchScheduler != null) {
+        prefetchScheduler.stop();
+      }
+    } finally {
+      prefetchScheduler = null;
+      super.doStop();
+    }
+  }
+
   private PagingProvider getPagingProvider(Message message) {
     return (PagingProvider) message.getPayload().getValue();
   }
@@ -22,7 +22,7 @@ public class HashedResolverSet extends ResolverSet {
   }
 
   @Override
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return HashedResolverSetResult.newBuilder();
+  ResolverSetResult createResult(String[] keys, Object[] values) {
+    return HashedResolverSetResult.of(keys, values);
   }
 }
@@ -6,10 +6,6 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
-import static java.util.Collections.unmodifiableMap;
-
-import java.util.Map;
-
 /**
  * {@link ResolverSetResult} extension which adds the capability of being able to know the hash value of the
  * resolved values. This is required for Configuration and Connection Provider cases to be able to cache the
@@ -53,7 +49,7 @@ public class HashedResolverSetResult extends ResolverSetResult {
      */
     @Override
     public ResolverSetResult build() {
-      return new HashedResolverSetResult(unmodifiableMap(values), hashCode);
+      return new HashedResolverSetResult(keys(), values(), hashCode);
     }
   }
 
@@ -61,8 +57,23 @@ public class HashedResolverSetResult extends ResolverSetResult {
     return new Builder();
   }
 
-  private HashedResolverSetResult(Map<String, Object> evaluationResult, int hashCode) {
-    super(evaluationResult);
+  /**
+   * Creates a new instance out of the given parallel {@code keys} and {@code values} arrays, computing its hash code eagerly
+   *
+   * @param keys   the result keys
+   * @param values the value associated to each key
+   * @return a new {@link HashedResolverSetResult}
+   */
+  static HashedResolverSetResult of(String[] keys, Object[] values) {
+    int hashCode = 1;
+    for (Object value : values) {
+      hashCode = calculateValueHash(hashCode, value);
+    }
+    return new HashedResolverSetResult(keys, values, hashCode);
+  }
+
+  private HashedResolverSetResult(String[] keys, Object[] values, int hashCode) {
+    super(keys, values);
     this.hashCode = hashCode;
   }
 
@@ -20,7 +20,10 @@ import org.mule.runtime.module.extension.internal.runtime.objectbuilder.ObjectBu
 
 import com.google.common.collect.ImmutableMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -34,6 +37,9 @@ import java.util.function.Function;
  * {@link ValueResolver}s but evaluated many times. With this goal in mind is that the return value of this resolver will always
  * be a {@link ResolverSetResult} which then can be used by a {@link ObjectBuilder} to generate an actual object.
  * <p>
+ * Resolvers which always yield the same value ({@link StaticValueResolver} and {@link StaticLiteralValueResolver}) are resolved
+ * only once, when the set is initialised, so that each evaluation only needs to go through the remaining ones.
+ * <p>
  * Instances of this class are to be considered thread safe and reusable
  *
  * @since 3.7.0
@@ -44,6 +50,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   private boolean dynamic = false;
   private final MuleContext muleContext;
   private Function<Event, Optional<ConfigurationInstance>> configProvider;
+  private volatile ResolutionPlan plan;
 
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
@@ -65,6 +72,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (resolvers.put(key, resolver) != null) {
       throw new IllegalStateException("A value was already given for key " + key);
     }
+    plan = null;
 
     if (resolver.isDynamic()) {
       dynamic = true;
@@ -91,13 +99,23 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
    */
   @Override
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
-    ResolverSetResult.Builder builder = getResolverSetBuilder();
+    ResolutionPlan plan = getPlan();
+    Object[] values = plan.staticValues.clone();
 
-    for (Map.Entry<String, ValueResolver> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveValue(entry.getValue(), context));
+    for (int i = 0; i < plan.dynamicIndexes.length; i++) {
+      values[plan.dynamicIndexes[i]] = resolveValue(plan.dynamicResolvers[i], context);
     }
 
-    return builder.build();
+    return createResult(plan.keys, values);
+  }
+
+  private ResolutionPlan getPlan() throws MuleException {
+    ResolutionPlan plan = this.plan;
+    if (plan == null) {
+      plan = new ResolutionPlan(resolvers);
+      this.plan = plan;
+    }
+    return plan;
   }
 
   private Object resolveValue(ValueResolver<?> resolver, ValueResolvingContext context)
@@ -126,13 +144,54 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
         muleContext.getInjector().inject(valueResolver);
         LifecycleUtils.initialiseIfNeeded(valueResolver);
       }
+      getPlan();
     } catch (MuleException e) {
       throw new MuleRuntimeException(e);
     }
   }
 
-  ResolverSetResult.Builder getResolverSetBuilder() {
-    return ResolverSetResult.newBuilder();
+  ResolverSetResult createResult(String[] keys, Object[] values) {
+    return new ResolverSetResult(keys, values);
+  }
+
+  private static boolean isStatic(ValueResolver<?> resolver) {
+    return resolver instanceof StaticValueResolver || resolver instanceof StaticLiteralValueResolver;
   }
 
+  /**
+   * The frozen layout of a {@link ResolverSet}: the keys in insertion order, the values of the static resolvers already placed in
+   * their slots, and the position of each resolver which needs to be evaluated per event.
+   */
+  private static final class ResolutionPlan {
+
+    private final String[] keys;
+    private final Object[] staticValues;
+    private final ValueResolver[] dynamicResolvers;
+    private final int[] dynamicIndexes;
+
+    private ResolutionPlan(Map<String, ValueResolver> resolvers) throws MuleException {
+      keys = new String[resolvers.size()];
+      staticValues = new Object[resolvers.size()];
+      List<ValueResolver> dynamic = new ArrayList<>(resolvers.size());
+      int[] indexes = new int[resolvers.size()];
+
+      int i = 0;
+      for (Map.Entry<String, ValueResolver> entry : resolvers.entrySet()) {
+        keys[i] = entry.getKey();
+        ValueResolver resolver = entry.getValue();
+        Object value = isStatic(resolver) ? resolver.resolve(null) : null;
+
+        if (!isStatic(resolver) || value instanceof ValueResolver || value instanceof CursorProvider) {
+          indexes[dynamic.size()] = i;
+          dynamic.add(resolver);
+        } else {
+          staticValues[i] = value;
+        }
+        i++;
+      }
+
+      dynamicResolvers = dynamic.toArray(new ValueResolver[dynamic.size()]);
+      dynamicIndexes = Arrays.copyOf(indexes, dynamicResolvers.length);
+    }
+  }
 }
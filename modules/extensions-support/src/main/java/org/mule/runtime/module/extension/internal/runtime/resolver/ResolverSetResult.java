@@ -6,21 +6,26 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.resolver;
 
-import static java.util.Collections.unmodifiableMap;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import org.mule.runtime.api.meta.model.parameter.ParameterModel;
 
 import com.google.common.base.Objects;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * This class represents the outcome of the evaluation of a {@link ResolverSet}. This class maps a set of {@link ParameterModel}
  * to a set of result {@link Object}s.
  * <p>
- * Instances of this class can only be created through a {@link Builder} obtained via {@link #newBuilder()}
+ * Instances of this class can only be created through a {@link Builder} obtained via {@link #newBuilder()} or by a
+ * {@link ResolverSet}. Keys and values are kept in two parallel arrays, the keys one being shared by all the results produced
+ * by the same {@link ResolverSet}, so that each evaluation only allocates the values array.
  *
  * @since 3.7.0
  */
@@ -58,7 +63,15 @@ public class ResolverSetResult {
      * @return the build instance
      */
     public ResolverSetResult build() {
-      return new ResolverSetResult(unmodifiableMap(values));
+      return new ResolverSetResult(keys(), values());
+    }
+
+    String[] keys() {
+      return values.keySet().toArray(new String[values.size()]);
+    }
+
+    Object[] values() {
+      return values.values().toArray();
     }
   }
 
@@ -71,10 +84,13 @@ public class ResolverSetResult {
     return new Builder();
   }
 
-  private final Map<String, Object> evaluationResult;
+  private final String[] keys;
+  private final Object[] values;
+  private Map<String, Object> mapView;
 
-  ResolverSetResult(Map<String, Object> evaluationResult) {
-    this.evaluationResult = new HashMap<>(evaluationResult);
+  ResolverSetResult(String[] keys, Object[] values) {
+    this.keys = keys;
+    this.values = values;
   }
 
   /**
@@ -84,7 +100,17 @@ public class ResolverSetResult {
    * @return the value associated to that {@code parameterName} or {@code null} if no such association exists
    */
   public Object get(String parameterName) {
-    return evaluationResult.get(parameterName);
+    int index = indexOf(parameterName);
+    return index < 0 ? null : values[index];
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   /**
@@ -102,9 +128,12 @@ public class ResolverSetResult {
   public boolean equals(Object obj) {
     if (obj instanceof ResolverSetResult) {
       ResolverSetResult other = (ResolverSetResult) obj;
-      return evaluationResult.entrySet()
-          .stream()
-          .allMatch(entry -> Objects.equal(entry.getValue(), other.get(entry.getKey())));
+      for (int i = 0; i < keys.length; i++) {
+        if (!Objects.equal(values[i], other.get(keys[i]))) {
+          return false;
+        }
+      }
+      return true;
     }
 
     return false;
@@ -113,7 +142,7 @@ public class ResolverSetResult {
   @Override
   public int hashCode() {
     int hashcode = 1;
-    for (Object val : evaluationResult.values()) {
+    for (Object val : values) {
       hashcode = calculateValueHash(hashcode, val);
     }
     return hashcode;
@@ -123,7 +152,66 @@ public class ResolverSetResult {
     return 31 * hashcode + (val == null ? 0 : val.hashCode());
   }
 
+  /**
+   * @return an unmodifiable {@link Map} view of this result, backed by the same arrays
+   */
   public Map<String, Object> asMap() {
-    return evaluationResult;
+    if (mapView == null) {
+      mapView = new ArrayBackedMap();
+    }
+    return mapView;
+  }
+
+  private class ArrayBackedMap extends AbstractMap<String, Object> {
+
+    @Override
+    public Object get(Object key) {
+      int index = indexOf(key);
+      return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+      return new AbstractSet<Entry<String, Object>>() {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new Iterator<Entry<String, Object>>() {
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+              return index < keys.length;
+            }
+
+            @Override
+            public Entry<String, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+              index++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return keys.length;
+        }
+      };
+    }
   }
 }
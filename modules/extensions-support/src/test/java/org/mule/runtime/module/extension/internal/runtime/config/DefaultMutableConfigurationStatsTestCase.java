@@ -45,4 +45,19 @@ public class DefaultMutableConfigurationStatsTestCase extends AbstractMuleTestCa
     assertThat(stats.discountInflightOperation(), is(0));
     assertThat(stats.getInflightOperations(), is(0));
   }
+
+  @Test
+  public void reservationReleasedByInflightOperation() {
+    stats.reserve(1000);
+    assertThat(stats.isReserved(), is(true));
+    stats.addInflightOperation();
+    assertThat(stats.isReserved(), is(false));
+  }
+
+  @Test
+  public void reservationTimesOut() {
+    stats.reserve(1000);
+    timeSupplier.move(1, TimeUnit.SECONDS);
+    assertThat(stats.isReserved(), is(false));
+  }
 }
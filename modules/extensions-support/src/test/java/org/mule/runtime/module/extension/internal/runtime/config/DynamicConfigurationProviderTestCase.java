@@ -6,13 +6,18 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Thread.currentThread;
 import static java.util.Arrays.asList;
 import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.junit.rules.ExpectedException.none;
@@ -38,6 +43,8 @@ import org.mule.runtime.api.meta.model.operation.OperationModel;
 import org.mule.runtime.core.util.collection.ImmutableListCollector;
 import org.mule.runtime.extension.api.runtime.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationFactory;
+import org.mule.runtime.module.extension.internal.loader.java.property.ConfigurationFactoryModelProperty;
 import org.mule.runtime.module.extension.internal.runtime.ImmutableExpirationPolicy;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ConnectionProviderResolver;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
@@ -47,8 +54,14 @@ import org.mule.test.heisenberg.extension.HeisenbergExtension;
 
 import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -191,6 +204,135 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void evictLeastRecentlyUsedOverMaxInstances() throws Exception {
+    DynamicConfigurationProvider bounded = new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel,
+                                                                            resolverSet, connectionProviderResolver,
+                                                                            expirationPolicy, 1, muleContext);
+    muleContext.getInjector().inject(bounded);
+    bounded.initialise();
+    bounded.start();
+
+    try {
+      HeisenbergExtension instance1 = (HeisenbergExtension) bounded.get(event).getValue();
+      timeSupplier.move(1, MINUTES);
+
+      mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+      when(resolverSet.resolve(from(event))).thenReturn(mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS));
+      HeisenbergExtension instance2 = (HeisenbergExtension) bounded.get(event).getValue();
+
+      assertThat(instance2, is(not(sameInstance(instance1))));
+      assertThat(instance1.getStop(), is(1));
+      assertThat(instance1.getDispose(), is(1));
+      assertThat(bounded.get(event).getValue(), is(sameInstance(instance2)));
+
+      ConfigurationCacheStatistics statistics = bounded.getCacheStatistics();
+      assertThat(statistics.getHitCount(), is(1L));
+      assertThat(statistics.getMissCount(), is(2L));
+      assertThat(statistics.getEvictionCount(), is(1L));
+      assertThat(statistics.getSize(), is(1));
+    } finally {
+      bounded.stop();
+      bounded.dispose();
+    }
+  }
+
+  @Test
+  public void acquiredInstanceIsNotEvictedBeforeItsOperationStarts() throws Exception {
+    mockNewInstancePerConfiguration();
+    DynamicConfigurationProvider bounded = createBoundedProvider(1);
+
+    try {
+      ConfigurationInstance acquired = bounded.get(event);
+
+      when(resolverSet.resolve(from(event))).thenReturn(mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS));
+      ConfigurationInstance other = bounded.get(event);
+      assertThat(other, is(not(sameInstance(acquired))));
+
+      // the first instance was handed out for an operation which is not inflight yet
+      ((MutableConfigurationStats) acquired.getStatistics()).addInflightOperation();
+      assertThat(((HeisenbergExtension) acquired.getValue()).getDispose(), is(0));
+      assertThat(bounded.getCacheStatistics().getEvictionCount(), is(0L));
+      assertThat(bounded.getCacheStatistics().getSize(), is(2));
+    } finally {
+      bounded.stop();
+      bounded.dispose();
+    }
+  }
+
+  @Test
+  public void concurrentTenantsDoNotEvictAcquiredInstances() throws Exception {
+    final int iterations = 200;
+    mockNewInstancePerConfiguration();
+    DynamicConfigurationProvider bounded = createBoundedProvider(1);
+
+    ResolverSetResult tenant1 = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
+    ResolverSetResult tenant2 = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
+    when(resolverSet.resolve(any())).thenAnswer(invocation -> currentThread().getName().endsWith("-1") ? tenant1 : tenant2);
+
+    AtomicInteger threads = new AtomicInteger();
+    ExecutorService executor =
+        newFixedThreadPool(2, runnable -> new Thread(runnable, name.getMethodName() + "-" + threads.incrementAndGet()));
+    CountDownLatch start = new CountDownLatch(1);
+    Callable<Void> operations = () -> {
+      start.await();
+      for (int i = 0; i < iterations; i++) {
+        ConfigurationInstance configuration = bounded.get(event);
+        MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
+        stats.addInflightOperation();
+        try {
+          assertThat(((HeisenbergExtension) configuration.getValue()).getDispose(), is(0));
+        } finally {
+          stats.discountInflightOperation();
+        }
+      }
+      return null;
+    };
+
+    try {
+      List<Future<Void>> tenants = new ArrayList<>();
+      tenants.add(executor.submit(operations));
+      tenants.add(executor.submit(operations));
+      start.countDown();
+      for (Future<Void> tenant : tenants) {
+        tenant.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+      bounded.stop();
+      bounded.dispose();
+    }
+  }
+
+  private DynamicConfigurationProvider createBoundedProvider(int maxInstances) throws MuleException {
+    DynamicConfigurationProvider bounded = new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel,
+                                                                            resolverSet, connectionProviderResolver,
+                                                                            expirationPolicy, maxInstances, muleContext);
+    muleContext.getInjector().inject(bounded);
+    bounded.initialise();
+    bounded.start();
+    return bounded;
+  }
+
+  private void mockNewInstancePerConfiguration() {
+    ConfigurationFactory configurationFactory = mock(ConfigurationFactory.class);
+    when(configurationFactory.newInstance()).thenAnswer(invocation -> MODULE_CLASS.newInstance());
+    when(configurationFactory.getObjectType()).thenReturn(MODULE_CLASS);
+    when(configurationModel.getModelProperty(ConfigurationFactoryModelProperty.class))
+        .thenReturn(of(new ConfigurationFactoryModelProperty(configurationFactory)));
+  }
+
+  @Test
+  public void expiredInstancesAreNotCached() throws Exception {
+    HeisenbergExtension instance = (HeisenbergExtension) provider.get(event).getValue();
+    timeSupplier.move(10, MINUTES);
+
+    assertThat(((DynamicConfigurationProvider) provider).getExpired(), hasSize(1));
+
+    mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+    assertThat(provider.get(event).getValue(), is(not(sameInstance(instance))));
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
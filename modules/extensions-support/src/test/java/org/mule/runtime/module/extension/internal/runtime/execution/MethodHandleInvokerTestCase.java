@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Test;
+
+@SmallTest
+public class MethodHandleInvokerTestCase extends AbstractMuleTestCase {
+
+  private static final IOException CHECKED = new IOException();
+  private static final IllegalStateException UNCHECKED = new IllegalStateException();
+
+  private final Target target = new Target();
+
+  @Test
+  public void invokeWithPrimitiveArguments() throws Exception {
+    assertThat(invoker("concat", String.class, int.class).invoke(new Object[] {"value", 3}), is("value3"));
+  }
+
+  @Test
+  public void invokeVoid() throws Exception {
+    assertThat(invoker("touch").invoke(new Object[] {}), is(nullValue()));
+    assertThat(target.touched, is(true));
+  }
+
+  @Test
+  public void invokeStatic() throws Exception {
+    assertThat(invoker("twice", int.class).invoke(new Object[] {2}), is(4));
+  }
+
+  @Test
+  public void uncheckedExceptionIsRethrown() throws Exception {
+    try {
+      invoker("throwUnchecked").invoke(new Object[] {});
+      fail("was expecting an exception");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(UNCHECKED)));
+    }
+  }
+
+  @Test
+  public void checkedExceptionIsWrapped() throws Exception {
+    try {
+      invoker("throwChecked").invoke(new Object[] {});
+      fail("was expecting an exception");
+    } catch (UndeclaredThrowableException e) {
+      assertThat(e.getCause(), is(instanceOf(IOException.class)));
+      assertThat(e.getCause(), is(sameInstance(CHECKED)));
+    }
+  }
+
+  private MethodHandleInvoker invoker(String name, Class<?>... parameterTypes) throws Exception {
+    return new MethodHandleInvoker(Target.class.getMethod(name, parameterTypes), target);
+  }
+
+  public static class Target {
+
+    private boolean touched = false;
+
+    public String concat(String value, int times) {
+      return value + times;
+    }
+
+    public void touch() {
+      touched = true;
+    }
+
+    public static int twice(int value) {
+      return value * 2;
+    }
+
+    public void throwUnchecked() {
+      throw UNCHECKED;
+    }
+
+    public void throwChecked() throws IOException {
+      throw CHECKED;
+    }
+  }
+}
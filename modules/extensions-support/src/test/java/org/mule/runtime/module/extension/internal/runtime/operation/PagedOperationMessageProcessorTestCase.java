@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.operation;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.module.extension.internal.runtime.operation.PagedOperationMessageProcessor.PREFETCH_PAGES_PROPERTY;
+import org.mule.runtime.core.api.transaction.Transaction;
+import org.mule.runtime.core.internal.streaming.object.iterator.PrefetchingProducer;
+import org.mule.runtime.core.internal.streaming.object.iterator.Producer;
+import org.mule.runtime.core.transaction.TransactionCoordination;
+import org.mule.runtime.module.extension.internal.runtime.connectivity.ExtensionConnectionSupplier;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class PagedOperationMessageProcessorTestCase extends AbstractOperationMessageProcessorTestCase {
+
+  @Rule
+  public SystemProperty prefetchPages = new SystemProperty(PREFETCH_PAGES_PROPERTY, "2");
+
+  private final Producer<?> producer = mock(Producer.class);
+
+  @Override
+  protected OperationMessageProcessor createOperationMessageProcessor() {
+    return new PagedOperationMessageProcessor(extensionModel, operationModel, configurationProvider, target, resolverSet,
+                                              cursorStreamProviderFactory, extensionManager, mockPolicyManager,
+                                              mock(ExtensionConnectionSupplier.class));
+  }
+
+  @Test
+  public void prefetchWhenPropertyIsSet() throws Exception {
+    messageProcessor.start();
+    try {
+      assertThat(getPagedProcessor().withPrefetching(producer), instanceOf(PrefetchingProducer.class));
+    } finally {
+      messageProcessor.stop();
+    }
+  }
+
+  @Test
+  public void noPrefetchWithinTransaction() throws Exception {
+    messageProcessor.start();
+
+    Transaction transaction = new TestTransaction(muleContext);
+    TransactionCoordination.getInstance().bindTransaction(transaction);
+    try {
+      assertThat(getPagedProcessor().withPrefetching(producer), sameInstance(producer));
+    } finally {
+      TransactionCoordination.getInstance().unbindTransaction(transaction);
+      messageProcessor.stop();
+    }
+  }
+
+  @Test
+  public void noPrefetchWhenStopped() throws Exception {
+    messageProcessor.start();
+    messageProcessor.stop();
+    assertThat(getPagedProcessor().withPrefetching(producer), sameInstance(producer));
+  }
+
+  private PagedOperationMessageProcessor getPagedProcessor() {
+    return (PagedOperationMessageProcessor) messageProcessor;
+  }
+}
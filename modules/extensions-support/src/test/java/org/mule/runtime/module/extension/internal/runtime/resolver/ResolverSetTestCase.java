@@ -8,7 +8,12 @@ package org.mule.runtime.module.extension.internal.runtime.resolver;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.getParameter;
 import org.mule.runtime.api.lifecycle.Lifecycle;
@@ -100,6 +105,39 @@ public class ResolverSetTestCase extends AbstractMuleTestCase {
     assertThat(set.isDynamic(), is(true));
   }
 
+  @Test
+  public void staticResolversAreResolvedOnce() throws Exception {
+    ValueResolver<String> staticResolver = spy(new StaticValueResolver<>(NAME));
+    set.add("static", staticResolver);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(set.resolve(resolvingContext).get("static"), is(NAME));
+    }
+
+    verify(staticResolver, times(1)).resolve(any());
+  }
+
+  @Test
+  public void dynamicResolversAreResolvedEachTime() throws Exception {
+    ValueResolver resolver = mapping.values().iterator().next();
+
+    set.resolve(resolvingContext);
+    set.resolve(resolvingContext);
+
+    verify(resolver, times(2)).resolve(resolvingContext);
+  }
+
+  @Test
+  public void resultMapKeepsInsertionOrder() throws Exception {
+    set.add("static", new StaticValueResolver<>(NAME));
+    Map<String, Object> result = set.resolve(resolvingContext).asMap();
+
+    assertThat(result.keySet(), contains("myName", "age", "static"));
+    assertThat(result.containsKey("static"), is(true));
+    assertThat(result.containsKey("missing"), is(false));
+    assertThat(result.get("age"), is(AGE));
+  }
+
   private void assertResult(ResolverSetResult result, Map<ParameterModel, ValueResolver> mapping) throws Exception {
     assertThat(result, is(notNullValue()));
     for (Map.Entry<ParameterModel, ValueResolver> entry : mapping.entrySet()) {
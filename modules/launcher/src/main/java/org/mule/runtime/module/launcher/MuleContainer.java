@@ -29,6 +29,7 @@ import org.mule.runtime.module.launcher.coreextension.ClasspathMuleCoreExtension
 import org.mule.runtime.module.launcher.coreextension.DefaultMuleCoreExtensionManagerServer;
 import org.mule.runtime.module.launcher.coreextension.MuleCoreExtensionManagerServer;
 import org.mule.runtime.module.launcher.coreextension.ReflectionMuleCoreExtensionDependencyResolver;
+import org.mule.runtime.module.launcher.log4j2.GarbageFreeLoggingConfigurer;
 import org.mule.runtime.module.launcher.log4j2.MuleLog4jContextFactory;
 import org.mule.runtime.module.repository.api.RepositoryService;
 import org.mule.runtime.module.repository.internal.RepositoryServiceFactory;
@@ -77,6 +78,8 @@ public class MuleContainer {
 
   static {
     if (System.getProperty(MuleProperties.MULE_SIMPLE_LOG) == null) {
+      // Must happen before any log4j class is initialised
+      GarbageFreeLoggingConfigurer.configure();
       LogManager.setFactory(new MuleLog4jContextFactory());
     }
 
@@ -6,11 +6,13 @@
  */
 package org.mule.runtime.module.launcher.log4j2;
 
+import static java.util.Arrays.copyOf;
 import static org.mule.runtime.module.launcher.log4j2.ArtifactAwareContextSelector.resolveLoggerContextClassLoader;
 import static org.reflections.ReflectionUtils.getAllMethods;
 import static org.reflections.ReflectionUtils.withName;
 import static org.reflections.ReflectionUtils.withParameters;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Iterator;
@@ -41,6 +43,11 @@ import org.apache.logging.log4j.spi.ExtendedLogger;
  * Because this class is a fix for issues in static loggers, it must not hold any reference to any {@link java.lang.ClassLoader}
  * since otherwise that class loader would be GC unreachable. For that reason, it uses {@link #ownerClassLoaderHash} instead of
  * the real reference
+ * <p/>
+ * The loggers resolved for other contexts are memoized by the hash of their context class loader, so the context selector is
+ * only queried the first time an artifact logs through this instance. The memoized loggers are weakly referenced, so they don't
+ * keep the contexts of undeployed artifacts alive, and are discarded once their context is stopped. Lookups iterate a small
+ * array, so dispatching a log event doesn't allocate.
  *
  * @since 3.6.0
  */
@@ -50,6 +57,7 @@ abstract class DispatchingLogger extends Logger {
   private Method updateConfigurationMethod = null;
   private final ContextSelector contextSelector;
   private final int ownerClassLoaderHash;
+  private volatile DispatchedLogger[] dispatchedLoggers = new DispatchedLogger[0];
 
   DispatchingLogger(Logger originalLogger, int ownerClassLoaderHash, LoggerContext loggerContext, ContextSelector contextSelector,
                     MessageFactory messageFactory) {
@@ -66,10 +74,46 @@ abstract class DispatchingLogger extends Logger {
       return originalLogger;
     }
 
+    final int currentClassLoaderHash = currentClassLoader.hashCode();
+    for (DispatchedLogger dispatchedLogger : dispatchedLoggers) {
+      if (dispatchedLogger.classLoaderHash == currentClassLoaderHash) {
+        final Logger logger = dispatchedLogger.logger.get();
+        if (logger != null && isActive(logger)) {
+          return logger;
+        }
+        break;
+      }
+    }
+
+    return resolveLogger(currentClassLoader, currentClassLoaderHash);
+  }
+
+  private Logger resolveLogger(ClassLoader currentClassLoader, int currentClassLoaderHash) {
     // trick - this is probably a logger declared in a static field
     // the classloader used to create it and the TCCL can be different
     // ask contextSelector for the correct context
-    return contextSelector.getContext(getName(), currentClassLoader, true).getLogger(getName(), getMessageFactory());
+    final Logger logger =
+        contextSelector.getContext(getName(), currentClassLoader, true).getLogger(getName(), getMessageFactory());
+
+    synchronized (this) {
+      final DispatchedLogger[] current = dispatchedLoggers;
+      final DispatchedLogger[] updated = new DispatchedLogger[current.length + 1];
+      int i = 0;
+      for (DispatchedLogger dispatchedLogger : current) {
+        if (dispatchedLogger.classLoaderHash != currentClassLoaderHash && dispatchedLogger.logger.get() != null) {
+          updated[i++] = dispatchedLogger;
+        }
+      }
+      updated[i++] = new DispatchedLogger(currentClassLoaderHash, logger);
+      dispatchedLoggers = i == updated.length ? updated : copyOf(updated, i);
+    }
+
+    return logger;
+  }
+
+  private boolean isActive(Logger logger) {
+    final LoggerContext context = logger.getContext();
+    return !context.isStopping() && !context.isStopped();
   }
 
   /**
@@ -158,6 +202,66 @@ abstract class DispatchingLogger extends Logger {
     return getLogger().isEnabled(level, marker, message, t);
   }
 
+  @Override
+  public boolean isEnabled(Level level, Marker marker, CharSequence message, Throwable t) {
+    return getLogger().isEnabled(level, marker, message, t);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0) {
+    return getLogger().isEnabled(level, marker, message, p0);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1) {
+    return getLogger().isEnabled(level, marker, message, p0, p1);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4,
+                           Object p5) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4, p5);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4,
+                           Object p5, Object p6) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4, p5, p6);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4,
+                           Object p5, Object p6, Object p7) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4,
+                           Object p5, Object p6, Object p7, Object p8) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+  }
+
+  @Override
+  public boolean isEnabled(Level level, Marker marker, String message, Object p0, Object p1, Object p2, Object p3, Object p4,
+                           Object p5, Object p6, Object p7, Object p8, Object p9) {
+    return getLogger().isEnabled(level, marker, message, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+  }
+
   @Override
   public boolean isEnabled(Level level, Marker marker, Message message, Throwable t) {
     return getLogger().isEnabled(level, marker, message, t);
@@ -856,4 +960,18 @@ abstract class DispatchingLogger extends Logger {
   public void warn(String message, Throwable t) {
     getLogger().warn(message, t);
   }
+
+  /**
+   * A logger resolved for the context of another artifact, which is only weakly referenced.
+   */
+  private static final class DispatchedLogger {
+
+    private final int classLoaderHash;
+    private final WeakReference<Logger> logger;
+
+    private DispatchedLogger(int classLoaderHash, Logger logger) {
+      this.classLoaderHash = classLoaderHash;
+      this.logger = new WeakReference<>(logger);
+    }
+  }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_GARBAGE_FREE;
+
+/**
+ * Enables log4j2's garbage free mode (thread local reusable messages and direct encoders) when the
+ * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_LOG_GARBAGE_FREE} system property is set, unless those were
+ * explicitly configured. Along with async loggers, this allows log events to reach the appenders without allocating temporary
+ * objects. It is disabled by default since log4j2 keeps the reusable messages, and the last parameters logged, in the logging
+ * threads.
+ * <p/>
+ * log4j2 reads these settings only once, when its classes are initialised, so {@link #configure()} has to be invoked before
+ * anything else touches log4j2. For the same reason, this class must not reference any log4j2 class.
+ *
+ * @since 4.0
+ */
+public final class GarbageFreeLoggingConfigurer {
+
+  private static final String ENABLE_THREADLOCALS_PROPERTY = "log4j2.enable.threadlocals";
+  private static final String ENABLE_DIRECT_ENCODERS_PROPERTY = "log4j2.enable.direct.encoders";
+  private static final String IS_WEBAPP_PROPERTY = "log4j2.is.webapp";
+
+  private GarbageFreeLoggingConfigurer() {}
+
+  /**
+   * Sets the system properties which enable log4j2's garbage free mode, if
+   * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_LOG_GARBAGE_FREE} is set
+   */
+  public static void configure() {
+    if (getBoolean(MULE_LOG_GARBAGE_FREE)) {
+      setPropertyIfBlank(IS_WEBAPP_PROPERTY, "false");
+      setPropertyIfBlank(ENABLE_THREADLOCALS_PROPERTY, "true");
+      setPropertyIfBlank(ENABLE_DIRECT_ENCODERS_PROPERTY, "true");
+    }
+  }
+
+  private static void setPropertyIfBlank(String name, String value) {
+    String current = System.getProperty(name);
+    if (current == null || current.trim().isEmpty()) {
+      System.setProperty(name, value);
+    }
+  }
+}
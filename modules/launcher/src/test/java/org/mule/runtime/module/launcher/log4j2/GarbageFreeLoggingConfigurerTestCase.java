@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.launcher.log4j2;
+
+import static java.lang.System.getProperty;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_GARBAGE_FREE;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.impl.Log4jContextFactory;
+import org.apache.logging.log4j.util.PropertiesUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class GarbageFreeLoggingConfigurerTestCase extends AbstractMuleTestCase {
+
+  private static final String ENABLE_THREADLOCALS_PROPERTY = "log4j2.enable.threadlocals";
+  private static final String ENABLE_DIRECT_ENCODERS_PROPERTY = "log4j2.enable.direct.encoders";
+  private static final String IS_WEBAPP_PROPERTY = "log4j2.is.webapp";
+
+  @Rule
+  public SystemProperty garbageFree = new SystemProperty(MULE_LOG_GARBAGE_FREE, "true");
+
+  private Map<String, String> originalSystemProperties;
+
+  @Before
+  public void before() {
+    originalSystemProperties = new HashMap<>();
+    for (String property : new String[] {ENABLE_THREADLOCALS_PROPERTY, ENABLE_DIRECT_ENCODERS_PROPERTY, IS_WEBAPP_PROPERTY}) {
+      originalSystemProperties.put(property, getProperty(property));
+      System.clearProperty(property);
+    }
+  }
+
+  @After
+  public void after() {
+    for (Map.Entry<String, String> entry : originalSystemProperties.entrySet()) {
+      if (entry.getValue() != null) {
+        System.setProperty(entry.getKey(), entry.getValue());
+      } else {
+        System.clearProperty(entry.getKey());
+      }
+    }
+  }
+
+  @Test
+  public void effectiveWhenConfiguredBeforeLog4jIsInitialised() throws Exception {
+    // Makes log4j2 disable thread locals by default
+    System.setProperty(IS_WEBAPP_PROPERTY, "true");
+    try (URLClassLoader initialisedBefore = newLog4jClassLoader()) {
+      assertThat(isThreadLocalsEnabled(initialisedBefore), is(false));
+      System.clearProperty(IS_WEBAPP_PROPERTY);
+
+      GarbageFreeLoggingConfigurer.configure();
+
+      // log4j2 already read its settings
+      assertThat(isThreadLocalsEnabled(initialisedBefore), is(false));
+
+      try (URLClassLoader initialisedAfter = newLog4jClassLoader()) {
+        assertThat(isThreadLocalsEnabled(initialisedAfter), is(true));
+        assertThat(initialisedAfter.loadClass("org.apache.logging.log4j.core.util.Constants")
+            .getField("ENABLE_DIRECT_ENCODERS").getBoolean(null), is(true));
+      }
+    }
+  }
+
+  @Test
+  public void explicitSettingsAreKept() {
+    System.setProperty(ENABLE_THREADLOCALS_PROPERTY, "false");
+    GarbageFreeLoggingConfigurer.configure();
+
+    assertThat(getProperty(ENABLE_THREADLOCALS_PROPERTY), is("false"));
+    assertThat(getProperty(ENABLE_DIRECT_ENCODERS_PROPERTY), is("true"));
+    assertThat(getProperty(IS_WEBAPP_PROPERTY), is("false"));
+  }
+
+  private boolean isThreadLocalsEnabled(ClassLoader classLoader) throws Exception {
+    return classLoader.loadClass("org.apache.logging.log4j.util.Constants").getField("ENABLE_THREADLOCALS").getBoolean(null);
+  }
+
+  /**
+   * @return a {@link ClassLoader} with its own copy of the log4j2 classes, none of them initialised yet
+   */
+  private URLClassLoader newLog4jClassLoader() {
+    return new URLClassLoader(new URL[] {getLocation(PropertiesUtil.class), getLocation(Log4jContextFactory.class)}, null);
+  }
+
+  private URL getLocation(Class<?> clazz) {
+    return clazz.getProtectionDomain().getCodeSource().getLocation();
+  }
+}
@@ -8,8 +8,10 @@
 package org.mule.runtime.module.service;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.service.LifecycleFilterServiceProxy.createLifecycleFilterServiceProxy;
 
 import org.mule.runtime.api.exception.MuleException;
@@ -76,6 +78,17 @@ public class LifecycleFilterServiceProxyTestCase extends AbstractMuleTestCase {
   }
 
 
+  @Test
+  public void returnsServiceResult() throws Exception {
+    EchoService service = mock(EchoService.class);
+    when(service.echo("hello", 2)).thenReturn("hellohello");
+
+    final EchoService serviceProxy = (EchoService) createLifecycleFilterServiceProxy(service);
+
+    assertThat(serviceProxy.echo("hello", 2), is("hellohello"));
+    assertThat(serviceProxy.echo("hello", 2), is("hellohello"));
+  }
+
   public interface StartableService extends Service, Startable {
 
   }
@@ -94,5 +107,10 @@ public class LifecycleFilterServiceProxyTestCase extends AbstractMuleTestCase {
     void execute();
   }
 
+  public interface EchoService extends Service {
+
+    String echo(String value, int times);
+  }
+
 
 }
@@ -8,9 +8,9 @@
 package org.mule.runtime.config.spring;
 
 import static java.lang.String.format;
+import static java.lang.System.arraycopy;
 import static java.lang.reflect.Modifier.isPublic;
 import static java.lang.reflect.Proxy.newProxyInstance;
-import static java.util.Arrays.asList;
 import static java.util.Arrays.deepEquals;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.util.ClassUtils.findImplementedInterfaces;
@@ -28,12 +28,19 @@ import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 /**
  * Proxies a {@link Service} instance to automatically {@link Inject} parameters for invocations of implementation methods.
+ * <p>
+ * The implementation methods which may be invoked in place of each proxied {@link Method}, and which of their parameters are to
+ * be injected, are resolved the first time that {@link Method} is invoked and reused afterwards. Whether a candidate is actually
+ * injectable depends on the contents of the registry, so that is still checked on each invocation, as are the injected values
+ * looked up.
  * 
  * @since 4.0
  */
@@ -45,6 +52,8 @@ public class InjectParamsFromContextServiceProxy extends ServiceInvocationHandle
       "No object found in the registry for parameter '%s' of method '%s' in service '%s'";
 
   private final MuleContext context;
+  private final PreferredObjectSelector preferredObjectSelector = new PreferredObjectSelector();
+  private final ConcurrentMap<Method, InjectionCandidate[]> injectionCandidates = new ConcurrentHashMap<>();
 
   /**
    * Creates a new proxy for the provided service instance.
@@ -60,56 +69,84 @@ public class InjectParamsFromContextServiceProxy extends ServiceInvocationHandle
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-    Method injectable = resolveInjectableMethod(method);
+    InjectionCandidate[] candidates = injectionCandidates.get(method);
+    if (candidates == null) {
+      candidates = resolveInjectionCandidates(method);
+      injectionCandidates.putIfAbsent(method, candidates);
+    }
 
+    final InjectionCandidate injectable = candidates.length == 0 ? null : selectInjectable(method, candidates);
     if (injectable == null) {
       return doInvoke(proxy, method, args);
     } else {
-      final List<Object> augmentedArgs = args == null ? new ArrayList<>() : new ArrayList<>(asList(args));
-
-      for (int i = method.getParameters().length; i < injectable.getParameters().length; ++i) {
-        final Parameter parameter = injectable.getParameters()[i];
-        Object arg;
-        if (parameter.isAnnotationPresent(Named.class)) {
-          arg = context.getRegistry().lookupObject(parameter.getAnnotation(Named.class).value());
-        } else {
-          final Collection<?> lookupObjects = context.getRegistry().lookupObjects(parameter.getType());
-          arg = new PreferredObjectSelector().select(lookupObjects.iterator());
-        }
-        if (arg == null) {
-          throw new IllegalDependencyInjectionException(format(NO_OBJECT_FOUND_FOR_PARAM,
-                                                               parameter.getName(), injectable.getName(),
-                                                               getService().getName()));
-        }
-        augmentedArgs.add(arg);
+      final int argsCount = args == null ? 0 : args.length;
+      final Object[] augmentedArgs = new Object[argsCount + injectable.injectedParameters.length];
+      if (argsCount > 0) {
+        arraycopy(args, 0, augmentedArgs, 0, argsCount);
       }
 
-      return doInvoke(proxy, injectable, augmentedArgs.toArray());
+      for (int i = 0; i < injectable.injectedParameters.length; ++i) {
+        augmentedArgs[argsCount + i] = resolveArgument(injectable.method, injectable.injectedParameters[i]);
+      }
+
+      return doInvoke(proxy, injectable.method, augmentedArgs);
     }
   }
 
-  private Method resolveInjectableMethod(Method method) throws RegistrationException {
-    Method candidate = null;
-
+  private InjectionCandidate[] resolveInjectionCandidates(Method method) {
+    final List<InjectionCandidate> candidates = new ArrayList<>();
     for (Method serviceImplMethod : getServiceImplementationDeclaredMethods()) {
       if (isPublic(serviceImplMethod.getModifiers())
           && serviceImplMethod.getName().equals(method.getName())
           && serviceImplMethod.getAnnotationsByType(Inject.class).length > 0
           && equivalentParams(method.getParameters(), serviceImplMethod.getParameters())) {
-        if (candidate != null
-            && !(candidate.getName().equals(serviceImplMethod.getName())
-                && deepEquals(candidate.getParameterTypes(), serviceImplMethod.getParameterTypes()))) {
+        final Parameter[] parameters = serviceImplMethod.getParameters();
+        final Parameter[] injectedParameters = new Parameter[parameters.length - method.getParameterCount()];
+        arraycopy(parameters, method.getParameterCount(), injectedParameters, 0, injectedParameters.length);
+        candidates.add(new InjectionCandidate(serviceImplMethod, injectedParameters));
+      }
+    }
+    return candidates.toArray(new InjectionCandidate[candidates.size()]);
+  }
+
+  private Object resolveArgument(Method injectable, Parameter parameter) throws RegistrationException {
+    Object arg;
+    if (parameter.isAnnotationPresent(Named.class)) {
+      arg = context.getRegistry().lookupObject(parameter.getAnnotation(Named.class).value());
+    } else {
+      final Collection<?> lookupObjects = context.getRegistry().lookupObjects(parameter.getType());
+      arg = preferredObjectSelector.select(lookupObjects.iterator());
+    }
+    if (arg == null) {
+      throw new IllegalDependencyInjectionException(format(NO_OBJECT_FOUND_FOR_PARAM,
+                                                           parameter.getName(), injectable.getName(),
+                                                           getService().getName()));
+    }
+    return arg;
+  }
+
+  private InjectionCandidate selectInjectable(Method method, InjectionCandidate[] candidates) throws RegistrationException {
+    InjectionCandidate injectable = null;
+
+    for (InjectionCandidate candidate : candidates) {
+      if (isInjectable(candidate.injectedParameters)) {
+        if (injectable != null
+            && !(injectable.method.getName().equals(candidate.method.getName())
+                && deepEquals(injectable.method.getParameterTypes(), candidate.method.getParameterTypes()))) {
           throw new IllegalDependencyInjectionException(format(MANY_CANDIDATES_ERROR_MSG_TEMPLATE, method.getName(),
                                                                getService().getName()));
         }
-        candidate = serviceImplMethod;
+        injectable = candidate;
       }
     }
-    return candidate;
+    return injectable;
   }
 
-  private boolean equivalentParams(Parameter[] invocationParams, Parameter[] serviceImplParams)
-      throws RegistrationException {
+  private boolean equivalentParams(Parameter[] invocationParams, Parameter[] serviceImplParams) {
+    if (serviceImplParams.length < invocationParams.length) {
+      return false;
+    }
+
     int i = 0;
     for (Parameter invocationParam : invocationParams) {
       if (!serviceImplParams[i].getType().equals(invocationParam.getType())) {
@@ -118,10 +155,13 @@ public class InjectParamsFromContextServiceProxy extends ServiceInvocationHandle
       ++i;
     }
 
-    // Check that the remaining parameters are injectable
-    for (int j = i; j < serviceImplParams.length; ++j) {
-      if (!serviceImplParams[j].isAnnotationPresent(Named.class)
-          && context.getRegistry().lookupObjects(serviceImplParams[j].getType()).isEmpty()) {
+    return true;
+  }
+
+  private boolean isInjectable(Parameter[] injectedParameters) throws RegistrationException {
+    for (Parameter parameter : injectedParameters) {
+      if (!parameter.isAnnotationPresent(Named.class)
+          && context.getRegistry().lookupObjects(parameter.getType()).isEmpty()) {
         return false;
       }
     }
@@ -129,6 +169,20 @@ public class InjectParamsFromContextServiceProxy extends ServiceInvocationHandle
     return true;
   }
 
+  /**
+   * An implementation method which may be invoked in place of a proxied {@link Method}, along with the parameters to inject.
+   */
+  private static final class InjectionCandidate {
+
+    private final Method method;
+    private final Parameter[] injectedParameters;
+
+    private InjectionCandidate(Method method, Parameter[] injectedParameters) {
+      this.method = method;
+      this.injectedParameters = injectedParameters;
+    }
+  }
+
   /**
    * Creates a proxy for the provided service instance.
    *
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.config.spring;
 
+import static java.lang.Boolean.getBoolean;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Optional.of;
@@ -23,6 +24,7 @@ import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONNECTIVIT
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_METADATA_SERVICE;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_MULE_CONFIGURATION;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_MULE_CONTEXT;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.springframework.beans.factory.support.BeanDefinitionBuilder.genericBeanDefinition;
 import static org.springframework.context.annotation.AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME;
 import static org.springframework.context.annotation.AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME;
@@ -67,8 +69,12 @@ import org.mule.runtime.core.util.IOUtils;
 import org.mule.runtime.dsl.api.component.ComponentBuildingDefinitionProvider;
 import org.mule.runtime.module.extension.internal.config.ExtensionBuildingDefinitionProvider;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -107,6 +113,13 @@ public class MuleArtifactContext extends AbstractXmlApplicationContext {
   private static final ThreadLocal<MuleContext> currentMuleContext = new ThreadLocal<>();
   public static final String INNER_BEAN_PREFIX = "(inner bean)";
 
+  /**
+   * System property to keep a snapshot of the loaded configuration documents in the working directory of the artifact, so
+   * following starts with the same configuration files and plugins skip parsing and validating them.
+   */
+  public static final String CONFIG_SNAPSHOT_PROPERTY = SYSTEM_PROPERTY_PREFIX + "config.snapshot";
+  private static final String CONFIG_SNAPSHOT_FILE_NAME = "config-snapshot.bin";
+
   protected final ComponentBuildingDefinitionRegistry componentBuildingDefinitionRegistry =
       new ComponentBuildingDefinitionRegistry();
   private final OptionalObjectsController optionalObjectsController;
@@ -116,6 +129,7 @@ public class MuleArtifactContext extends AbstractXmlApplicationContext {
   protected ApplicationModel applicationModel;
   protected MuleContext muleContext;
   private Resource[] artifactConfigResources;
+  private final List<ClassLoader> pluginsClassLoaders;
   protected BeanDefinitionFactory beanDefinitionFactory;
   private MuleXmlBeanDefinitionReader beanDefinitionReader;
   private final ServiceRegistry serviceRegistry = new SpiServiceRegistry();
@@ -157,6 +171,7 @@ public class MuleArtifactContext extends AbstractXmlApplicationContext {
     this.artifactProperties = artifactProperties;
     this.artifactType = artifactType;
     this.artifactDeclaration = artifactDeclaration;
+    this.pluginsClassLoaders = pluginsClassLoaders;
     this.xmlConfigurationDocumentLoader = newXmlConfigurationDocumentLoader();
 
     serviceRegistry.lookupProviders(ComponentBuildingDefinitionProvider.class, MuleArtifactContext.class.getClassLoader())
@@ -224,18 +239,14 @@ public class MuleArtifactContext extends AbstractXmlApplicationContext {
     try {
       ArtifactConfig.Builder applicationConfigBuilder = new ArtifactConfig.Builder();
       applicationConfigBuilder.setApplicationProperties(this.artifactProperties);
-      for (Resource springResource : artifactConfigResources) {
-        Document document =
-            xmlConfigurationDocumentLoader.loadDocument(muleContext.getExtensionManager() == null ? emptySet()
-                : muleContext.getExtensionManager().getExtensions(),
-                                                        springResource.getFilename(),
-                                                        springResource.getInputStream());
-        ConfigLine mainConfigLine = xmlApplicationParser.parse(document.getDocumentElement()).get();
-        applicationConfigBuilder.addConfigFile(new ConfigFile(getFilename(springResource), asList(mainConfigLine)));
-      }
-      applicationConfigBuilder.setApplicationName(muleContext.getConfiguration().getId());
       Set<ExtensionModel> extensions =
           muleContext.getExtensionManager() != null ? muleContext.getExtensionManager().getExtensions() : emptySet();
+      List<Document> documents = loadConfigDocuments(extensions);
+      for (int i = 0; i < artifactConfigResources.length; ++i) {
+        ConfigLine mainConfigLine = xmlApplicationParser.parse(documents.get(i).getDocumentElement()).get();
+        applicationConfigBuilder.addConfigFile(new ConfigFile(getFilename(artifactConfigResources[i]), asList(mainConfigLine)));
+      }
+      applicationConfigBuilder.setApplicationName(muleContext.getConfiguration().getId());
       applicationModel = new ApplicationModel(applicationConfigBuilder.build(), artifactDeclaration,
                                               extensions, of(componentBuildingDefinitionRegistry));
     } catch (Exception e) {
@@ -243,6 +254,43 @@ public class MuleArtifactContext extends AbstractXmlApplicationContext {
     }
   }
 
+  /**
+   * Loads the {@link Document} of each config resource. If {@link #CONFIG_SNAPSHOT_PROPERTY} is set, the documents are restored
+   * from the snapshot in the working directory when it is up to date with the resources, or a new snapshot is written otherwise.
+   */
+  private List<Document> loadConfigDocuments(Set<ExtensionModel> extensions) throws IOException {
+    if (!getBoolean(CONFIG_SNAPSHOT_PROPERTY)) {
+      List<Document> documents = new ArrayList<>(artifactConfigResources.length);
+      for (Resource resource : artifactConfigResources) {
+        documents.add(xmlConfigurationDocumentLoader.loadDocument(extensions, resource.getFilename(), resource.getInputStream()));
+      }
+      return documents;
+    }
+
+    Map<String, byte[]> contents = new LinkedHashMap<>();
+    for (int i = 0; i < artifactConfigResources.length; ++i) {
+      try (InputStream inputStream = artifactConfigResources[i].getInputStream()) {
+        contents.put(i + ":" + getFilename(artifactConfigResources[i]), IOUtils.toByteArray(inputStream));
+      }
+    }
+
+    File snapshotFile = new File(muleContext.getConfiguration().getWorkingDirectory(), CONFIG_SNAPSHOT_FILE_NAME);
+    String key = XmlConfigurationSnapshot.computeKey(getClass(), contents, extensions, pluginsClassLoaders);
+    Optional<List<Document>> snapshot = XmlConfigurationSnapshot.read(snapshotFile, key);
+    if (snapshot.isPresent() && snapshot.get().size() == artifactConfigResources.length) {
+      return snapshot.get();
+    }
+
+    List<Document> documents = new ArrayList<>(artifactConfigResources.length);
+    int i = 0;
+    for (byte[] content : contents.values()) {
+      documents.add(xmlConfigurationDocumentLoader.loadDocument(extensions, artifactConfigResources[i++].getFilename(),
+                                                                new ByteArrayInputStream(content)));
+    }
+    XmlConfigurationSnapshot.write(snapshotFile, key, documents);
+    return documents;
+  }
+
   private String getFilename(Resource resource) {
     if (resource instanceof ByteArrayResource) {
       return resource.getDescription();
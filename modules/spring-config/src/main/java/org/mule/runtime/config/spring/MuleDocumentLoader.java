@@ -6,15 +6,16 @@
  */
 package org.mule.runtime.config.spring;
 
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
 import static org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations.METADATA_ANNOTATIONS_KEY;
+import static org.springframework.util.xml.XmlValidationModeDetector.VALIDATION_NONE;
+import static org.springframework.util.xml.XmlValidationModeDetector.VALIDATION_XSD;
 import org.mule.runtime.config.spring.parsers.DefaultXmlMetadataAnnotations;
 import org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations;
 import org.mule.runtime.core.util.SystemUtils;
 import org.mule.runtime.core.util.xmlsecurity.XMLSecureFactories;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.Stack;
 
@@ -22,10 +23,12 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
-import org.apache.commons.io.IOUtils;
-import org.springframework.beans.factory.xml.DefaultDocumentLoader;
+import org.apache.xerces.dom.AttrImpl;
 import org.springframework.beans.factory.xml.DocumentLoader;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.UserDataHandler;
 import org.xml.sax.Attributes;
@@ -35,19 +38,30 @@ import org.xml.sax.InputSource;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.ext.Attributes2;
+import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.DefaultHandler;
 
 /**
- * Alternative to Spring's default document loader that uses <b>SAX</b> to add metadata to the <b>DOM</b> elements that are the
- * result of the default parser.
+ * Alternative to Spring's default document loader that adds metadata to the <b>DOM</b> elements it builds.
+ * <p>
+ * The {@link Document} is built from a single <b>SAX</b> pass, which validates the content (if required) while the nodes are
+ * created and annotated with their metadata. The compiled schema grammars are kept in an {@link XmlSchemaGrammarPool}, so each
+ * schema is compiled once for all the documents loaded by this instance, and the ones provided by the runtime once per process.
  * 
  * @since 3.8.0
  */
 final public class MuleDocumentLoader implements DocumentLoader {
 
-  private static final String DEFER_NODE_EXPANSION_FEATURE_KEY = "http://apache.org/xml/features/dom/defer-node-expansion";
+  private static final String NAMESPACES_FEATURE = "http://xml.org/sax/features/namespaces";
+  private static final String NAMESPACE_PREFIXES_FEATURE = "http://xml.org/sax/features/namespace-prefixes";
+  private static final String VALIDATION_FEATURE = "http://xml.org/sax/features/validation";
+  private static final String SCHEMA_VALIDATION_FEATURE = "http://apache.org/xml/features/validation/schema";
+  private static final String LEXICAL_HANDLER_PROPERTY = "http://xml.org/sax/properties/lexical-handler";
+  private static final String GRAMMAR_POOL_PROPERTY = "http://apache.org/xml/properties/internal/grammar-pool";
+  private static final String XERCES_PACKAGE = "org.apache.xerces.";
 
-  private static final UserDataHandler COPY_METADATA_ANNOTATIONS_DATA_HANDLER = new UserDataHandler() {
+  static final UserDataHandler COPY_METADATA_ANNOTATIONS_DATA_HANDLER = new UserDataHandler() {
 
     @Override
     public void handle(short operation, String key, Object data, Node src, Node dst) {
@@ -57,7 +71,7 @@ final public class MuleDocumentLoader implements DocumentLoader {
     }
   };
 
-  private final DocumentLoader defaultLoader = new DefaultDocumentLoader();
+  private final XmlSchemaGrammarPool grammarPool = new XmlSchemaGrammarPool();
   private final XmlMetadataAnnotationsFactory metadataFactory;
 
   public MuleDocumentLoader(XmlMetadataAnnotationsFactory metadataFactory) {
@@ -75,26 +89,50 @@ final public class MuleDocumentLoader implements DocumentLoader {
   public Document loadDocument(InputSource inputSource, EntityResolver entityResolver, ErrorHandler errorHandler,
                                int validationMode, boolean namespaceAware)
       throws Exception {
-    ByteArrayOutputStream output = new ByteArrayOutputStream();
-    try (InputStream inputStream = inputSource.getByteStream()) {
-      IOUtils.copy(inputStream, output);
+    Document doc = XMLSecureFactories.createDefault().getDocumentBuilderFactory().newDocumentBuilder().newDocument();
+    doc.setDocumentURI(inputSource.getSystemId());
+
+    // as in Spring's default loader, XSD validation requires namespace awareness
+    namespaceAware = namespaceAware || validationMode == VALIDATION_XSD;
+    XMLReader documentReader = createDocumentReader(validationMode, namespaceAware);
+    DocumentBuilderHandler handler = new DocumentBuilderHandler(doc, metadataFactory, namespaceAware);
+    documentReader.setContentHandler(handler);
+    documentReader.setProperty(LEXICAL_HANDLER_PROPERTY, handler);
+    if (entityResolver != null) {
+      documentReader.setEntityResolver(entityResolver);
+    }
+    if (errorHandler != null) {
+      documentReader.setErrorHandler(errorHandler);
     }
 
-    InputSource defaultInputSource = new InputSource(new ByteArrayInputStream(output.toByteArray()));
-    InputSource enrichInputSource = new InputSource(new ByteArrayInputStream(output.toByteArray()));
-
-    Document doc = defaultLoader.loadDocument(defaultInputSource, entityResolver, errorHandler, validationMode, namespaceAware);
-
-    createSaxAnnotator(doc).parse(enrichInputSource);
+    documentReader.parse(inputSource);
 
     return doc;
   }
 
-  protected XMLReader createSaxAnnotator(Document doc) throws ParserConfigurationException, SAXException {
+  XmlSchemaGrammarPool getGrammarPool() {
+    return grammarPool;
+  }
+
+  private XMLReader createDocumentReader(int validationMode, boolean namespaceAware)
+      throws ParserConfigurationException, SAXException {
     SAXParserFactory saxParserFactory = XMLSecureFactories.createDefault().getSAXParserFactory();
     SAXParser saxParser = saxParserFactory.newSAXParser();
     XMLReader documentReader = saxParser.getXMLReader();
-    documentReader.setContentHandler(new XmlMetadataAnnotator(doc, metadataFactory));
+    documentReader.setFeature(NAMESPACES_FEATURE, namespaceAware);
+    // have the namespace declarations reported as attributes, so they are added to the DOM and the metadata
+    documentReader.setFeature(NAMESPACE_PREFIXES_FEATURE, true);
+
+    if (validationMode != VALIDATION_NONE) {
+      documentReader.setFeature(VALIDATION_FEATURE, true);
+      if (validationMode == VALIDATION_XSD) {
+        documentReader.setFeature(SCHEMA_VALIDATION_FEATURE, true);
+        // the grammar pool is an extension of Apache Xerces, other parsers will compile the schemas for each document
+        if (documentReader.getClass().getName().startsWith(XERCES_PACKAGE)) {
+          documentReader.setProperty(GRAMMAR_POOL_PROPERTY, grammarPool);
+        }
+      }
+    }
     return documentReader;
   }
 
@@ -109,18 +147,24 @@ final public class MuleDocumentLoader implements DocumentLoader {
   }
 
   /**
-   * SAX filter that builds the metadata that will annotate the built nodes.
+   * SAX handler that builds the DOM nodes along with the metadata that annotates them.
    */
-  public final static class XmlMetadataAnnotator extends DefaultHandler {
+  private final static class DocumentBuilderHandler extends DefaultHandler implements LexicalHandler {
 
+    private final Document doc;
+    private final XmlMetadataAnnotationsFactory metadataFactory;
+    private final boolean namespaceAware;
+    private final Stack<XmlMetadataAnnotations> annotationsStack = new Stack<>();
     private Locator locator;
-    private DomWalkerElement walker;
-    private XmlMetadataAnnotationsFactory metadataFactory;
-    private Stack<XmlMetadataAnnotations> annotationsStack = new Stack<>();
+    private Node currentNode;
+    private boolean inCdata = false;
+    private boolean cdataStarted = false;
 
-    private XmlMetadataAnnotator(Document doc, XmlMetadataAnnotationsFactory metadataFactory) {
-      this.walker = new DomWalkerElement(doc.getDocumentElement());
+    private DocumentBuilderHandler(Document doc, XmlMetadataAnnotationsFactory metadataFactory, boolean namespaceAware) {
+      this.doc = doc;
       this.metadataFactory = metadataFactory;
+      this.namespaceAware = namespaceAware;
+      this.currentNode = doc;
     }
 
     @Override
@@ -131,20 +175,70 @@ final public class MuleDocumentLoader implements DocumentLoader {
 
     @Override
     public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
-      walker = walker.walkIn();
+      Element element = namespaceAware ? doc.createElementNS(emptyToNull(uri), qName) : doc.createElement(qName);
 
       XmlMetadataAnnotations metadataBuilder = metadataFactory.create(locator);
       LinkedHashMap<String, String> attsMap = new LinkedHashMap<>();
       for (int i = 0; i < atts.getLength(); ++i) {
-        attsMap.put(atts.getQName(i), atts.getValue(i));
+        final String attQName = atts.getQName(i);
+        final String value = atts.getValue(i);
+        final Attr attr;
+        if (!namespaceAware) {
+          attr = doc.createAttribute(attQName);
+        } else if (attQName.equals(XMLNS_ATTRIBUTE) || attQName.startsWith(XMLNS_ATTRIBUTE + ":")) {
+          attr = doc.createAttributeNS(XMLNS_ATTRIBUTE_NS_URI, attQName);
+        } else {
+          attr = doc.createAttributeNS(emptyToNull(atts.getURI(i)), attQName);
+        }
+        attr.setValue(value);
+        // keep track of the values defaulted from the schema, as a DOM parser does
+        if (atts instanceof Attributes2 && !((Attributes2) atts).isSpecified(i) && attr instanceof AttrImpl) {
+          ((AttrImpl) attr).setSpecified(false);
+        }
+        if (namespaceAware) {
+          element.setAttributeNodeNS(attr);
+        } else {
+          element.setAttributeNode(attr);
+        }
+        attsMap.put(attQName, value);
       }
       metadataBuilder.appendElementStart(qName, attsMap);
       annotationsStack.push(metadataBuilder);
+
+      currentNode.appendChild(element);
+      currentNode = element;
     }
 
     @Override
     public void characters(char[] ch, int start, int length) throws SAXException {
-      annotationsStack.peek().appendElementBody(new String(ch, start, length).trim());
+      String text = new String(ch, start, length);
+      appendText(text);
+      if (!annotationsStack.isEmpty()) {
+        annotationsStack.peek().appendElementBody(text.trim());
+      }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+      appendText(new String(ch, start, length));
+    }
+
+    /**
+     * The parser may report the text of a node in several chunks, which are merged into a single node as a DOM parser does.
+     */
+    private void appendText(String text) {
+      final short nodeType = inCdata ? Node.CDATA_SECTION_NODE : Node.TEXT_NODE;
+      final Node lastChild = currentNode.getLastChild();
+      if (lastChild != null && lastChild.getNodeType() == nodeType && !(inCdata && cdataStarted)) {
+        ((CharacterData) lastChild).appendData(text);
+      } else {
+        currentNode.appendChild(inCdata ? doc.createCDATASection(text) : doc.createTextNode(text));
+      }
+      cdataStarted = false;
+    }
+
+    private String emptyToNull(String uri) {
+      return uri == null || uri.isEmpty() ? null : uri;
     }
 
     @Override
@@ -157,49 +251,41 @@ final public class MuleDocumentLoader implements DocumentLoader {
             .appendElementBody(SystemUtils.LINE_SEPARATOR + metadataAnnotations.getElementString() + SystemUtils.LINE_SEPARATOR);
       }
 
-      walker.getParentNode().setUserData(METADATA_ANNOTATIONS_KEY, metadataAnnotations, COPY_METADATA_ANNOTATIONS_DATA_HANDLER);
-      walker = walker.walkOut();
+      currentNode.setUserData(METADATA_ANNOTATIONS_KEY, metadataAnnotations, COPY_METADATA_ANNOTATIONS_DATA_HANDLER);
+      currentNode = currentNode.getParentNode();
     }
-  }
 
-  /**
-   * Allows for sequential navigation of a DOM tree.
-   */
-  private final static class DomWalkerElement {
-
-    private final DomWalkerElement parent;
-    private final Node node;
-
-    private int childIndex = 0;
-
-    public DomWalkerElement(Node node) {
-      this.parent = null;
-      this.node = node;
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+      currentNode.appendChild(doc.createProcessingInstruction(target, data));
     }
 
-    private DomWalkerElement(DomWalkerElement parent, Node node) {
-      this.parent = parent;
-      this.node = node;
+    @Override
+    public void comment(char[] ch, int start, int length) throws SAXException {
+      currentNode.appendChild(doc.createComment(new String(ch, start, length)));
     }
 
-    public DomWalkerElement walkIn() {
-      Node nextChild = node.getChildNodes().item(childIndex++);
-      while (nextChild != null && nextChild.getNodeType() != Node.ELEMENT_NODE) {
-        nextChild = node.getChildNodes().item(childIndex++);
-      }
-      return new DomWalkerElement(this, nextChild);
+    @Override
+    public void startCDATA() throws SAXException {
+      inCdata = true;
+      cdataStarted = true;
     }
 
-    public DomWalkerElement walkOut() {
-      Node nextSibling = parent.node.getNextSibling();
-      while (nextSibling != null && nextSibling.getNodeType() != Node.ELEMENT_NODE) {
-        nextSibling = nextSibling.getNextSibling();
-      }
-      return new DomWalkerElement(parent.parent, nextSibling);
+    @Override
+    public void endCDATA() throws SAXException {
+      inCdata = false;
     }
 
-    public Node getParentNode() {
-      return parent.node;
-    }
+    @Override
+    public void startDTD(String name, String publicId, String systemId) throws SAXException {}
+
+    @Override
+    public void endDTD() throws SAXException {}
+
+    @Override
+    public void startEntity(String name) throws SAXException {}
+
+    @Override
+    public void endEntity(String name) throws SAXException {}
   }
 }
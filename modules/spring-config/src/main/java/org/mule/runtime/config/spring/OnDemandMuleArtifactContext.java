@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.config.spring.dsl.model.ApplicationModel.MULE_IDENTIFIER;
+import static org.mule.runtime.config.spring.dsl.spring.ComponentModelHelper.isFlow;
+import static org.mule.runtime.config.spring.dsl.spring.ComponentModelHelper.isSubflow;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_CONNECTIVITY_TESTING_SERVICE;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.util.ClassUtils.withContextClassLoader;
+
+import org.mule.runtime.api.app.declaration.ArtifactDeclaration;
+import org.mule.runtime.api.component.location.Location;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.config.spring.dsl.model.ComponentModel;
+import org.mule.runtime.config.spring.dsl.model.MinimalApplicationModelGenerator;
+import org.mule.runtime.config.spring.dsl.model.NoSuchComponentModelException;
+import org.mule.runtime.config.spring.dsl.spring.ComponentModelHelper;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.connectivity.ConnectivityTestingService;
+import org.mule.runtime.core.config.ConfigResource;
+import org.mule.runtime.core.config.bootstrap.ArtifactType;
+import org.mule.runtime.extension.api.runtime.ConfigurationProvider;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.support.BeanDefinitionReader;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * Implementation of {@link MuleArtifactContext} meant for running applications, which defers the creation of the configuration
+ * components that are not needed to receive messages until they are first referenced.
+ * <p/>
+ * The flows with a message source, and every component they depend on, are created at startup as usual. The flows without a
+ * message source, the sub-flows and the extension configurations referenced through {@code config-ref} that none of those depend
+ * on are created, along with their own dependencies, the first time they are requested by name, either by a {@code flow-ref}
+ * resolved at runtime, a registry lookup or {@link #initializeComponent(Location)}. The lifecycle phases already applied to the
+ * artifact are applied to them upon creation.
+ * <p/>
+ * Components not created yet are not returned by lookups by type nor by location, so this mode is only enabled through
+ * {@link #ON_DEMAND_INITIALIZATION_PROPERTY}.
+ *
+ * @since 4.0
+ */
+public class OnDemandMuleArtifactContext extends MuleArtifactContext implements LazyComponentInitializer {
+
+  /**
+   * System property that, when set to {@code true}, makes applications create their configuration components on demand.
+   */
+  public static final String ON_DEMAND_INITIALIZATION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "config.onDemandInitialization";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OnDemandMuleArtifactContext.class);
+
+  private final Set<String> deferredComponents = ConcurrentHashMap.newKeySet();
+  private List<ComponentModel> globalComponentModels;
+  private ConnectivityTestingService lazyConnectivityTestingService;
+
+  /**
+   * Parses configuration files creating a spring ApplicationContext which is used as a parent registry using the SpringRegistry
+   * registry implementation to wraps the spring ApplicationContext
+   *
+   * @param muleContext the {@link MuleContext} that own this context
+   * @param artifactDeclaration the mule configuration defined programmatically
+   * @param optionalObjectsController the {@link OptionalObjectsController} to use. Cannot be {@code null} @see
+   *        org.mule.runtime.config.spring.SpringRegistry
+   * @since 4.0
+   */
+  public OnDemandMuleArtifactContext(MuleContext muleContext, ConfigResource[] artifactConfigResources,
+                                     ArtifactDeclaration artifactDeclaration, OptionalObjectsController optionalObjectsController,
+                                     Map<String, String> artifactProperties, ArtifactType artifactType,
+                                     List<ClassLoader> pluginsClassLoaders)
+      throws BeansException {
+    super(muleContext, artifactConfigResources, artifactDeclaration, optionalObjectsController, artifactProperties,
+          artifactType, pluginsClassLoaders);
+  }
+
+  /**
+   * Creates the components required to receive messages, deferring the rest. If the configuration has components that are not
+   * parsed with the new mechanism, everything is created at startup.
+   */
+  @Override
+  protected void createInitialApplicationComponents(DefaultListableBeanFactory beanFactory,
+                                                    BeanDefinitionReader beanDefinitionReader) {
+    if (!useNewParsingMechanism) {
+      LOGGER.warn("Creating all the configuration components at startup since there are components that are not parsed "
+          + "with the new mechanism: " + getOldParsingMechanismComponentIdentifiers());
+      super.createInitialApplicationComponents(beanFactory, beanDefinitionReader);
+      return;
+    }
+
+    globalComponentModels = new ArrayList<>();
+    applicationModel.executeOnEveryMuleComponentTree(componentModel -> {
+      if (componentModel.isRoot() && !componentModel.getIdentifier().equals(MULE_IDENTIFIER)) {
+        globalComponentModels.add(componentModel);
+      }
+    });
+
+    Set<String> referencedConfigs = new HashSet<>();
+    applicationModel.executeOnEveryMuleComponentTree(componentModel -> {
+      // TODO MULE-10516 - Remove once the config-ref attribute is defined as a reference
+      String configRef = componentModel.getParameters().get("config-ref");
+      if (configRef != null) {
+        referencedConfigs.add(configRef);
+      }
+    });
+
+    Set<String> deferrableComponents = new HashSet<>();
+    List<ComponentModel> requiredComponentModels = new ArrayList<>();
+    for (ComponentModel componentModel : globalComponentModels) {
+      if (isDeferrable(componentModel, referencedConfigs)) {
+        deferrableComponents.add(componentModel.getNameAttribute());
+      } else {
+        requiredComponentModels.add(componentModel);
+      }
+    }
+    deferrableComponents.removeAll(newModelGenerator().resolveRequiredGlobalComponents(requiredComponentModels));
+    deferredComponents.addAll(deferrableComponents);
+
+    createComponents(beanFactory, componentModel -> !deferrableComponents.contains(componentModel.getNameAttribute()));
+
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info(format("Deferred the creation of %d out of %d global components until they are referenced",
+                         deferrableComponents.size(), globalComponentModels.size()));
+    }
+  }
+
+  /**
+   * A global component may be created on demand if it is not needed to receive messages: flows without a message source,
+   * sub-flows and extension configurations that are explicitly referenced. Extension configurations not referenced through
+   * {@code config-ref} are created at startup since operations may use them implicitly.
+   */
+  private boolean isDeferrable(ComponentModel componentModel, Set<String> referencedConfigs) {
+    String name = componentModel.getNameAttribute();
+    if (name == null) {
+      return false;
+    }
+    if (isFlow(componentModel)) {
+      return componentModel.getInnerComponents().stream().noneMatch(ComponentModelHelper::isMessageSource);
+    }
+    if (isSubflow(componentModel)) {
+      return true;
+    }
+    return componentModel.getType() != null && ConfigurationProvider.class.isAssignableFrom(componentModel.getType())
+        && referencedConfigs.contains(name);
+  }
+
+  @Override
+  public Object getBean(String name) throws BeansException {
+    createDeferredComponent(name);
+    return super.getBean(name);
+  }
+
+  @Override
+  public <T> T getBean(String name, Class<T> requiredType) throws BeansException {
+    createDeferredComponent(name);
+    return super.getBean(name, requiredType);
+  }
+
+  @Override
+  public void initializeComponent(Location location) {
+    String name = location.getGlobalElementName();
+    if (!applicationModel.findNamedComponent(name).isPresent()) {
+      throw new MuleRuntimeException(new NoSuchComponentModelException(createStaticMessage("No named component with name "
+          + name)));
+    }
+    createDeferredComponent(name);
+  }
+
+  private void createDeferredComponent(String name) {
+    if (name == null || !deferredComponents.contains(name)) {
+      return;
+    }
+
+    synchronized (deferredComponents) {
+      DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) getBeanFactory();
+      // The definition is already registered if it is being created by this thread
+      if (!deferredComponents.contains(name) || beanFactory.containsBeanDefinition(name)) {
+        return;
+      }
+
+      withContextClassLoader(muleContext.getExecutionClassLoader(), () -> {
+        Set<String> componentsToCreate = newModelGenerator()
+            .resolveRequiredGlobalComponents(singletonList(applicationModel.findNamedComponent(name).get()));
+        componentsToCreate.add(name);
+        componentsToCreate.retainAll(deferredComponents);
+
+        try {
+          applyLifecycle(createComponents(beanFactory,
+                                          componentModel -> componentsToCreate.contains(componentModel.getNameAttribute())));
+        } catch (RuntimeException | Error e) {
+          removeComponents(beanFactory, componentsToCreate);
+          throw e;
+        }
+        deferredComponents.removeAll(componentsToCreate);
+      });
+    }
+  }
+
+  /**
+   * Removes the components which were registered while creating a deferred component that failed, so they are still deferred
+   * and the next reference to them tries to create them again.
+   */
+  private void removeComponents(DefaultListableBeanFactory beanFactory, Set<String> componentNames) {
+    for (String componentName : componentNames) {
+      if (!beanFactory.containsBeanDefinition(componentName)) {
+        continue;
+      }
+
+      Object component = beanFactory.getSingleton(componentName);
+      if (component != null) {
+        try {
+          stopIfNeeded(component);
+        } catch (Exception e) {
+          LOGGER.warn("Could not stop component " + componentName + " after failing to create it", e);
+        }
+        disposeIfNeeded(component, LOGGER);
+      }
+      beanFactory.removeBeanDefinition(componentName);
+    }
+  }
+
+  private List<String> createComponents(DefaultListableBeanFactory beanFactory, Predicate<ComponentModel> filter) {
+    try {
+      globalComponentModels.forEach(componentModel -> componentModel.setEnabled(filter.test(componentModel)));
+      return createApplicationComponents(beanFactory, applicationModel, true);
+    } finally {
+      globalComponentModels.forEach(componentModel -> componentModel.setEnabled(true));
+    }
+  }
+
+  /**
+   * Applies to the created components the lifecycle phases the artifact already went through, as well as the one in progress,
+   * if any. A component created while a phase is being applied is not part of the objects the registry took for that phase.
+   */
+  private void applyLifecycle(List<String> createdComponentModels) {
+    if (muleContext.isInitialised() || muleContext.isInitialising()) {
+      for (String createdComponentModelName : createdComponentModels) {
+        Object object = muleContext.getRegistry().get(createdComponentModelName);
+        try {
+          initialiseIfNeeded(object, true, muleContext);
+        } catch (InitialisationException e) {
+          throw new MuleRuntimeException(e);
+        }
+      }
+    }
+    if (muleContext.isStarted() || muleContext.isStarting()) {
+      for (String createdComponentModelName : createdComponentModels) {
+        Object object = muleContext.getRegistry().get(createdComponentModelName);
+        try {
+          startIfNeeded(object);
+        } catch (MuleException e) {
+          throw new MuleRuntimeException(e);
+        }
+      }
+    }
+  }
+
+  private MinimalApplicationModelGenerator newModelGenerator() {
+    return new MinimalApplicationModelGenerator(applicationModel, componentBuildingDefinitionRegistry);
+  }
+
+  @Override
+  public ConnectivityTestingService getConnectivityTestingService() {
+    if (lazyConnectivityTestingService == null) {
+      lazyConnectivityTestingService =
+          new LazyConnectivityTestingService(this, muleContext.getRegistry().get(OBJECT_CONNECTIVITY_TESTING_SERVICE));
+    }
+    return lazyConnectivityTestingService;
+  }
+
+}
@@ -6,8 +6,10 @@
  */
 package org.mule.runtime.config.spring;
 
+import static java.lang.Boolean.getBoolean;
 import static java.util.Collections.emptyMap;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.config.spring.OnDemandMuleArtifactContext.ON_DEMAND_INITIALIZATION_PROPERTY;
 import static org.mule.runtime.core.config.bootstrap.ArtifactType.APP;
 import static org.mule.runtime.deployment.model.internal.application.MuleApplicationClassLoader.resolveContextArtifactPluginClassLoaders;
 
@@ -148,6 +150,11 @@ public class SpringXmlConfigurationBuilder extends AbstractResourceConfiguration
                                          getArtifactProperties(), artifactType, resolveContextArtifactPluginClassLoaders());
     }
 
+    if (artifactType == APP && getBoolean(ON_DEMAND_INITIALIZATION_PROPERTY)) {
+      return new OnDemandMuleArtifactContext(muleContext, artifactConfigResources, artifactDeclaration, optionalObjectsController,
+                                             getArtifactProperties(), artifactType, resolveContextArtifactPluginClassLoaders());
+    }
+
     return new MuleArtifactContext(muleContext, artifactConfigResources, artifactDeclaration, optionalObjectsController,
                                    getArtifactProperties(), artifactType, resolveContextArtifactPluginClassLoaders());
   }
@@ -28,6 +28,9 @@ import java.util.Set;
  * <p/>
  * If when loading the configuration one, or more, {@link ErrorHandler#error(SAXParseException)} are call, at the end of
  * {@link #loadDocument(Set, String, InputStream)} will throw an exception containing all the errors.
+ * <p/>
+ * All the documents are parsed with the same {@link MuleDocumentLoader}, so the schemas they rely on are compiled once per
+ * instance of this class rather than once per document.
  *
  * @see {@link #loadDocument(Set, String, InputStream)}
  * @since 4.0
@@ -46,6 +49,7 @@ public class XmlConfigurationDocumentLoader {
 
   private final XmlGathererErrorHandlerFactory xmlGathererErrorHandlerFactory;
   private final int validationMode;
+  private final MuleDocumentLoader documentLoader = new MuleDocumentLoader();
 
   /**
    * Creates an {@link XmlConfigurationDocumentLoader} using the default {@link DefaultXmlGathererErrorHandlerFactory}
@@ -123,10 +127,8 @@ public class XmlConfigurationDocumentLoader {
     final XmlGathererErrorHandler errorHandler = createXmlGathererErrorHandler();
     Document document;
     try {
-      document = new MuleDocumentLoader()
-          .loadDocument(new InputSource(inputStream),
-                        new ModuleDelegatingEntityResolver(extensions), errorHandler,
-                        validationMode, true);
+      document = documentLoader.loadDocument(new InputSource(inputStream), new ModuleDelegatingEntityResolver(extensions),
+                                             errorHandler, validationMode, true);
     } catch (Exception e) {
       throw new MuleRuntimeException(e);
     }
@@ -136,6 +138,10 @@ public class XmlConfigurationDocumentLoader {
     return document;
   }
 
+  MuleDocumentLoader getDocumentLoader() {
+    return documentLoader;
+  }
+
   private void throwExceptionIfErrorsWereFound(XmlGathererErrorHandler errorHandler, String filename) {
     final List<SAXParseException> errors = errorHandler.getErrors();
     if (!errors.isEmpty()) {
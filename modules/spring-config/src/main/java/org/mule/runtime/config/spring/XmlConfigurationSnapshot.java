@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.sort;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparing;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.config.spring.MuleDocumentLoader.COPY_METADATA_ANNOTATIONS_DATA_HANDLER;
+import static org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations.METADATA_ANNOTATIONS_KEY;
+import static org.mule.runtime.core.util.StringUtils.toHexString;
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.config.spring.parsers.DefaultXmlMetadataAnnotations;
+import org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations;
+import org.mule.runtime.core.config.MuleManifest;
+import org.mule.runtime.core.util.xmlsecurity.XMLSecureFactories;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.xerces.dom.AttrImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+
+/**
+ * Binary snapshot of the configuration {@link Document}s of an artifact, as loaded by a {@link MuleDocumentLoader}: validated,
+ * with the schema default values applied and annotated with their {@link XmlMetadataAnnotations}.
+ * <p>
+ * Restoring the documents from a snapshot skips parsing the XML, generating the extension schemas and compiling and validating
+ * against them. Each snapshot is bound to a key, which is a hash of the contents of the configuration files, the version of the
+ * runtime, the {@link ExtensionModel}s available to the artifact and the jars of its plugins. A snapshot whose key does not match
+ * the current inputs is ignored, so it is invalidated as soon as any of them changes.
+ *
+ * @since 4.0
+ */
+final class XmlConfigurationSnapshot {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(XmlConfigurationSnapshot.class);
+
+  private static final int MAGIC = 0x4d434653;
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte ELEMENT = 1;
+  private static final byte TEXT = 2;
+  private static final byte CDATA = 3;
+  private static final byte COMMENT = 4;
+  private static final byte PROCESSING_INSTRUCTION = 5;
+  private static final byte END = 0;
+
+  private static final int NULL_STRING = -1;
+  private static final int NEW_STRING = -2;
+
+  private XmlConfigurationSnapshot() {}
+
+  /**
+   * Computes the key which identifies the inputs from which configuration documents are loaded.
+   *
+   * @param loaderType the type of the component which loads the documents, as different loaders may validate differently
+   * @param configFiles the name and content of each configuration file
+   * @param extensionModels the {@link ExtensionModel}s available to the artifact
+   * @param pluginsClassLoaders the class loaders of the plugins of the artifact
+   * @return the key as an hexadecimal string
+   */
+  static String computeKey(Class<?> loaderType, Map<String, byte[]> configFiles, Collection<ExtensionModel> extensionModels,
+                           List<ClassLoader> pluginsClassLoaders) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+
+    update(digest, loaderType.getName());
+    update(digest, String.valueOf(MuleManifest.getProductVersion()));
+    for (Map.Entry<String, byte[]> configFile : configFiles.entrySet()) {
+      update(digest, configFile.getKey());
+      digest.update(configFile.getValue());
+    }
+
+    List<ExtensionModel> sortedExtensions = new ArrayList<>(extensionModels);
+    sortedExtensions.sort(comparing(ExtensionModel::getName));
+    for (ExtensionModel extensionModel : sortedExtensions) {
+      update(digest, extensionModel.getName());
+      update(digest, extensionModel.getVersion());
+      update(digest, extensionModel.getVendor());
+    }
+
+    for (ClassLoader pluginClassLoader : pluginsClassLoaders) {
+      if (pluginClassLoader instanceof URLClassLoader) {
+        for (URL url : ((URLClassLoader) pluginClassLoader).getURLs()) {
+          update(digest, url.toString());
+          if ("file".equals(url.getProtocol())) {
+            updateWithFile(digest, toFile(url), "");
+          }
+        }
+      } else {
+        update(digest, pluginClassLoader.toString());
+      }
+    }
+
+    return toHexString(digest.digest());
+  }
+
+  private static File toFile(URL url) {
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return new File(url.getPath());
+    }
+  }
+
+  /**
+   * Updates the digest with the size and modification time of the given file or, for a directory such as an exploded
+   * {@code classes} folder, of all the files it contains, as its own attributes don't change when those files do.
+   */
+  private static void updateWithFile(MessageDigest digest, File file, String path) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children == null) {
+        return;
+      }
+      sort(children, comparing(File::getName));
+      for (File child : children) {
+        updateWithFile(digest, child, path + "/" + child.getName());
+      }
+    } else {
+      update(digest, path + ":" + file.length() + ":" + file.lastModified());
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update((value == null ? "" : value).getBytes(UTF_8));
+    digest.update((byte) 0);
+  }
+
+  /**
+   * Restores the documents stored in the given snapshot file.
+   *
+   * @param snapshotFile the file to read
+   * @param key the key of the current inputs, as returned by {@link #computeKey}
+   * @return the restored documents, in the order they were written, or an empty value if the file does not exist, was written
+   *         for a different key or cannot be read
+   */
+  static Optional<List<Document>> read(File snapshotFile, String key) {
+    if (!snapshotFile.isFile()) {
+      return empty();
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(snapshotFile))))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+        LOGGER.debug("Configuration snapshot at '{}' is outdated, ignoring it", snapshotFile);
+        return empty();
+      }
+
+      DocumentReader reader = new DocumentReader(in);
+      int documentCount = in.readInt();
+      List<Document> documents = new ArrayList<>(documentCount);
+      for (int i = 0; i < documentCount; ++i) {
+        documents.add(reader.readDocument());
+      }
+      return of(unmodifiableList(documents));
+    } catch (IOException | ParserConfigurationException | RuntimeException e) {
+      LOGGER.warn("Could not read configuration snapshot at '" + snapshotFile + "', ignoring it", e);
+      return empty();
+    }
+  }
+
+  /**
+   * Stores the given documents in a snapshot file, replacing any previous one.
+   *
+   * @param snapshotFile the file to write
+   * @param key the key of the inputs from which the documents were loaded, as returned by {@link #computeKey}
+   * @param documents the documents to store
+   */
+  static void write(File snapshotFile, String key, List<Document> documents) {
+    File tempFile = new File(snapshotFile.getPath() + ".tmp");
+    try {
+      if (snapshotFile.getParentFile() != null) {
+        snapshotFile.getParentFile().mkdirs();
+      }
+
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile))))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key);
+
+        DocumentWriter writer = new DocumentWriter(out);
+        out.writeInt(documents.size());
+        for (Document document : documents) {
+          writer.writeDocument(document);
+        }
+      }
+
+      // replace the previous snapshot only once the new one is complete
+      snapshotFile.delete();
+      if (!tempFile.renameTo(snapshotFile)) {
+        throw new IOException("Could not rename '" + tempFile + "' to '" + snapshotFile + "'");
+      }
+    } catch (IOException | RuntimeException e) {
+      tempFile.delete();
+      LOGGER.warn("Could not write configuration snapshot at '" + snapshotFile + "'", e);
+    }
+  }
+
+  private static final class DocumentWriter {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private DocumentWriter(DataOutputStream out) {
+      this.out = out;
+    }
+
+    private void writeDocument(Document document) throws IOException {
+      writeChildren(document);
+    }
+
+    private void writeChildren(Node node) throws IOException {
+      NodeList children = node.getChildNodes();
+      for (int i = 0; i < children.getLength(); ++i) {
+        writeNode(children.item(i));
+      }
+      out.writeByte(END);
+    }
+
+    private void writeNode(Node node) throws IOException {
+      switch (node.getNodeType()) {
+        case Node.ELEMENT_NODE:
+          writeElement((Element) node);
+          break;
+        case Node.TEXT_NODE:
+          out.writeByte(TEXT);
+          writeString(node.getNodeValue());
+          break;
+        case Node.CDATA_SECTION_NODE:
+          out.writeByte(CDATA);
+          writeString(node.getNodeValue());
+          break;
+        case Node.COMMENT_NODE:
+          out.writeByte(COMMENT);
+          writeString(node.getNodeValue());
+          break;
+        case Node.PROCESSING_INSTRUCTION_NODE:
+          out.writeByte(PROCESSING_INSTRUCTION);
+          writeString(((ProcessingInstruction) node).getTarget());
+          writeString(((ProcessingInstruction) node).getData());
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported node type " + node.getNodeType());
+      }
+    }
+
+    private void writeElement(Element element) throws IOException {
+      out.writeByte(ELEMENT);
+      writeString(element.getNamespaceURI());
+      writeString(element.getNodeName());
+
+      XmlMetadataAnnotations metadata = (XmlMetadataAnnotations) element.getUserData(METADATA_ANNOTATIONS_KEY);
+      out.writeInt(metadata != null ? metadata.getLineNumber() : 0);
+      writeString(metadata != null ? metadata.getElementString() : null);
+
+      NamedNodeMap attributes = element.getAttributes();
+      out.writeInt(attributes.getLength());
+      for (int i = 0; i < attributes.getLength(); ++i) {
+        Attr attribute = (Attr) attributes.item(i);
+        writeString(attribute.getNamespaceURI());
+        writeString(attribute.getNodeName());
+        writeString(attribute.getValue());
+        out.writeBoolean(attribute.getSpecified());
+      }
+
+      writeChildren(element);
+    }
+
+    private void writeString(String value) throws IOException {
+      if (value == null) {
+        out.writeInt(NULL_STRING);
+        return;
+      }
+
+      Integer index = strings.get(value);
+      if (index != null) {
+        out.writeInt(index);
+      } else {
+        strings.put(value, strings.size());
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(NEW_STRING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    }
+  }
+
+  private static final class DocumentReader {
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    private DocumentReader(DataInputStream in) {
+      this.in = in;
+    }
+
+    private Document readDocument() throws IOException, ParserConfigurationException {
+      Document document = XMLSecureFactories.createDefault().getDocumentBuilderFactory().newDocumentBuilder().newDocument();
+      readChildren(document, document);
+      return document;
+    }
+
+    private void readChildren(Document document, Node parent) throws IOException {
+      for (byte type = in.readByte(); type != END; type = in.readByte()) {
+        switch (type) {
+          case ELEMENT:
+            parent.appendChild(readElement(document));
+            break;
+          case TEXT:
+            parent.appendChild(document.createTextNode(readString()));
+            break;
+          case CDATA:
+            parent.appendChild(document.createCDATASection(readString()));
+            break;
+          case COMMENT:
+            parent.appendChild(document.createComment(readString()));
+            break;
+          case PROCESSING_INSTRUCTION:
+            parent.appendChild(document.createProcessingInstruction(readString(), readString()));
+            break;
+          default:
+            throw new IOException("Unexpected node type " + type);
+        }
+      }
+    }
+
+    private Element readElement(Document document) throws IOException {
+      String namespaceUri = readString();
+      Element element = document.createElementNS(namespaceUri, readString());
+
+      int lineNumber = in.readInt();
+      String elementString = readString();
+      if (elementString != null) {
+        DefaultXmlMetadataAnnotations metadata = new DefaultXmlMetadataAnnotations();
+        metadata.setLineNumber(lineNumber);
+        metadata.appendElementBody(elementString);
+        element.setUserData(METADATA_ANNOTATIONS_KEY, metadata, COPY_METADATA_ANNOTATIONS_DATA_HANDLER);
+      }
+
+      int attributeCount = in.readInt();
+      for (int i = 0; i < attributeCount; ++i) {
+        Attr attribute = document.createAttributeNS(readString(), readString());
+        attribute.setValue(readString());
+        if (!in.readBoolean() && attribute instanceof AttrImpl) {
+          ((AttrImpl) attribute).setSpecified(false);
+        }
+        element.setAttributeNodeNS(attribute);
+      }
+
+      readChildren(document, element);
+      return element;
+    }
+
+    private String readString() throws IOException {
+      int index = in.readInt();
+      if (index == NULL_STRING) {
+        return null;
+      } else if (index == NEW_STRING) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        String value = new String(bytes, UTF_8);
+        strings.add(value);
+        return value;
+      } else {
+        return strings.get(index);
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring;
+
+import static org.mule.runtime.config.spring.util.SpringXMLUtils.MULE_DEFAULT_NAMESPACE;
+
+import org.apache.xerces.util.XMLGrammarPoolImpl;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+
+/**
+ * {@link XMLGrammarPool} which keeps the compiled XSD grammars used while validating configuration files, so each schema is
+ * compiled only once.
+ * <p>
+ * Grammars for the namespaces provided by the runtime itself (the Mule core namespace, Spring's and W3C's) never change, so they
+ * are kept in a pool shared by all the instances in the process, and hence across deployments. Grammars for any other namespace
+ * are kept only for the lifetime of this instance, since extensions generate their schemas per deployment and different
+ * applications may ship different versions of the same namespace.
+ *
+ * @since 4.0
+ */
+final class XmlSchemaGrammarPool implements XMLGrammarPool {
+
+  private static final String[] SHARED_NAMESPACE_PREFIXES = {"http://www.springframework.org/schema/", "http://www.w3.org/"};
+
+  private static final XMLGrammarPool SHARED_POOL = new XMLGrammarPoolImpl();
+
+  private final XMLGrammarPool localPool = new XMLGrammarPoolImpl();
+
+  @Override
+  public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+    // grammars are looked up lazily through retrieveGrammar
+    return new Grammar[0];
+  }
+
+  @Override
+  public void cacheGrammars(String grammarType, Grammar[] grammars) {
+    for (Grammar grammar : grammars) {
+      poolFor(grammar.getGrammarDescription()).cacheGrammars(grammarType, new Grammar[] {grammar});
+    }
+  }
+
+  @Override
+  public Grammar retrieveGrammar(XMLGrammarDescription description) {
+    return poolFor(description).retrieveGrammar(description);
+  }
+
+  @Override
+  public void lockPool() {
+    localPool.lockPool();
+  }
+
+  @Override
+  public void unlockPool() {
+    localPool.unlockPool();
+  }
+
+  @Override
+  public void clear() {
+    localPool.clear();
+  }
+
+  private XMLGrammarPool poolFor(XMLGrammarDescription description) {
+    return isShared(description.getNamespace()) ? SHARED_POOL : localPool;
+  }
+
+  private boolean isShared(String namespace) {
+    if (namespace == null) {
+      return false;
+    }
+    if (MULE_DEFAULT_NAMESPACE.equals(namespace)) {
+      return true;
+    }
+
+    for (String prefix : SHARED_NAMESPACE_PREFIXES) {
+      if (namespace.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
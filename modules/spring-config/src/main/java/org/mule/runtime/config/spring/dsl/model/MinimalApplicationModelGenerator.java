@@ -16,7 +16,10 @@ import org.mule.runtime.api.component.location.Location;
 import org.mule.runtime.api.util.Reference;
 import org.mule.runtime.config.spring.dsl.processor.AbstractAttributeDefinitionVisitor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -89,6 +92,30 @@ public class MinimalApplicationModelGenerator {
     return applicationModel;
   }
 
+  /**
+   * Resolves the names of the global components that must be created for the given {@link ComponentModel}s to work properly,
+   * following the references of each dependency recursively.
+   * <p/>
+   * Unlike {@link #getMinimalModel(Location)}, this method does not modify the enabled state of the {@link ApplicationModel}, and
+   * references to components that are not defined in the {@link ApplicationModel} (i.e.: the ones from a domain) are returned but
+   * not followed.
+   *
+   * @param componentModels the component models to resolve the dependencies for.
+   * @return the names of the required global components, not including the given ones unless there is a cyclic reference.
+   */
+  public Set<String> resolveRequiredGlobalComponents(Collection<ComponentModel> componentModels) {
+    Set<String> requiredGlobalComponents = new HashSet<>();
+    Deque<ComponentModel> pendingComponentModels = new ArrayDeque<>(componentModels);
+    while (!pendingComponentModels.isEmpty()) {
+      for (String dependency : resolveComponentDependencies(pendingComponentModels.pop())) {
+        if (requiredGlobalComponents.add(dependency)) {
+          applicationModel.findNamedComponent(dependency).ifPresent(pendingComponentModels::push);
+        }
+      }
+    }
+    return requiredGlobalComponents;
+  }
+
   /**
    * @return a {@link List} of the component models by dependency references. For instance (A refs B), (B refs C) and D. The
    *         resulting list would have the following order: D, A, B, C.
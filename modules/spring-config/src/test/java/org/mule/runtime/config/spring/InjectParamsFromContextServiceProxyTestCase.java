@@ -101,6 +101,41 @@ public class InjectParamsFromContextServiceProxyTestCase extends AbstractMuleCon
     assertThat(augmentedParam, sameInstance(preferredBean));
   }
 
+  @Test
+  public void augmentedRepeatedInvocationLooksUpParams() throws Exception {
+    final MyBean bean = new MyBean();
+    muleContext.getRegistry().registerObject("myBean", bean);
+
+    BaseService service = new AugmentedWithPreferredMethodService();
+
+    final BaseService serviceProxy = (BaseService) createInjectProviderParamsServiceProxy(service, muleContext);
+
+    serviceProxy.augmented();
+    assertThat(augmentedParam, sameInstance(bean));
+
+    final MyPreferredBean preferredBean = new MyPreferredBean();
+    muleContext.getRegistry().registerObject("myPreferredBean", preferredBean);
+
+    serviceProxy.augmented();
+    assertThat(augmentedParam, sameInstance(preferredBean));
+  }
+
+  @Test
+  public void augmentedOnceParamIsRegistered() throws Exception {
+    BaseService service = new AugmentedWithPreferredMethodService();
+
+    final BaseService serviceProxy = (BaseService) createInjectProviderParamsServiceProxy(service, muleContext);
+
+    serviceProxy.augmented();
+    assertThat(augmentedParam, nullValue());
+
+    final MyBean bean = new MyBean();
+    muleContext.getRegistry().registerObject("myBean", bean);
+
+    serviceProxy.augmented();
+    assertThat(augmentedParam, sameInstance(bean));
+  }
+
   @Test
   public void namedAugmentedInvocation() throws Exception {
     BaseService service = new NamedAugmentedMethodService();
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring;
+
+import static java.util.Collections.emptyMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.component.location.Location.builder;
+import static org.mule.runtime.config.spring.OnDemandMuleArtifactContext.ON_DEMAND_INITIALIZATION_PROPERTY;
+import static org.mule.runtime.config.spring.SpringRegistry.SPRING_APPLICATION_CONTEXT;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
+import static org.mule.runtime.core.config.bootstrap.ArtifactType.APP;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Initialisable;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.Event;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.context.DefaultMuleContextFactory;
+import org.mule.tck.config.TestServicesConfigurationBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+public class OnDemandMuleArtifactContextTestCase extends AbstractMuleTestCase {
+
+  private static final Logger LOGGER = getLogger(OnDemandMuleArtifactContextTestCase.class);
+
+  @Rule
+  public SystemProperty onDemandInitialization = new SystemProperty(ON_DEMAND_INITIALIZATION_PROPERTY, "true");
+
+  @Rule
+  public TestServicesConfigurationBuilder testServicesConfigurationBuilder = new TestServicesConfigurationBuilder();
+
+  private MuleContext muleContext;
+  private OnDemandMuleArtifactContext artifactContext;
+
+  @Before
+  public void before() throws Exception {
+    muleContext = new DefaultMuleContextFactory()
+        .createMuleContext(testServicesConfigurationBuilder,
+                           new SpringXmlConfigurationBuilder(new String[] {"on-demand/on-demand-config.xml"}, emptyMap(), APP));
+    muleContext.start();
+
+    Object applicationContext = muleContext.getRegistry().lookupObject(SPRING_APPLICATION_CONTEXT);
+    assertThat(applicationContext, instanceOf(OnDemandMuleArtifactContext.class));
+    artifactContext = (OnDemandMuleArtifactContext) applicationContext;
+  }
+
+  @After
+  public void after() throws Exception {
+    FailingProcessor.failing = true;
+    if (muleContext != null) {
+      disposeIfNeeded(muleContext, LOGGER);
+    }
+  }
+
+  @Test
+  public void requiredComponentsAreCreatedAtStartup() {
+    assertThat(isCreated("flowWithSource"), is(true));
+    assertThat(isCreated("requiredSubFlow"), is(true));
+    assertThat(isCreated("deferredFlow"), is(false));
+    assertThat(isCreated("deferredSubFlow"), is(false));
+    assertThat(isCreated("otherDeferredSubFlow"), is(false));
+    assertThat(isCreated("failingDeferredFlow"), is(false));
+  }
+
+  @Test
+  public void deferredFlowIsCreatedOnLookup() {
+    Flow flow = muleContext.getRegistry().lookupObject("deferredFlow");
+
+    assertThat(flow, is(notNullValue()));
+    assertThat(flow.getLifecycleState().isInitialised(), is(true));
+    assertThat(flow.getLifecycleState().isStarted(), is(true));
+    assertThat(isCreated("deferredSubFlow"), is(true));
+    assertThat(isCreated("otherDeferredSubFlow"), is(false));
+
+    assertThat(muleContext.getRegistry().lookupObject("deferredFlow"), is(sameInstance(flow)));
+  }
+
+  @Test
+  public void deferredSubFlowIsCreatedOnInitializeComponent() {
+    artifactContext.initializeComponent(builder().globalName("otherDeferredSubFlow").build());
+
+    assertThat(isCreated("otherDeferredSubFlow"), is(true));
+    assertThat(isCreated("deferredFlow"), is(false));
+
+    assertThat(muleContext.getRegistry().lookupObject("otherDeferredSubFlow"), is(notNullValue()));
+  }
+
+  @Test
+  public void failedDeferredFlowIsCreatedAgainOnNextReference() {
+    try {
+      artifactContext.initializeComponent(builder().globalName("failingDeferredFlow").build());
+      fail("Expected the deferred flow to fail to initialise");
+    } catch (MuleRuntimeException e) {
+      // expected
+    }
+    assertThat(isCreated("failingDeferredFlow"), is(false));
+
+    FailingProcessor.failing = false;
+    Flow flow = muleContext.getRegistry().lookupObject("failingDeferredFlow");
+
+    assertThat(flow, is(notNullValue()));
+    assertThat(flow.getLifecycleState().isStarted(), is(true));
+  }
+
+  private boolean isCreated(String name) {
+    ConfigurableListableBeanFactory beanFactory = artifactContext.getBeanFactory();
+    return beanFactory.containsBeanDefinition(name);
+  }
+
+  public static class FailingProcessor implements Processor, Initialisable {
+
+    private static volatile boolean failing = true;
+
+    @Override
+    public void initialise() throws InitialisationException {
+      if (failing) {
+        throw new InitialisationException(createStaticMessage("Expected failure"), this);
+      }
+    }
+
+    @Override
+    public Event process(Event event) throws MuleException {
+      return event;
+    }
+  }
+}
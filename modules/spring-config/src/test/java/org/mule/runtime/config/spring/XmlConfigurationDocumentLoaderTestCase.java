@@ -11,10 +11,16 @@ import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.isNull;
 import static org.mule.runtime.config.spring.XmlConfigurationDocumentLoader.schemaValidatingDocumentLoader;
+import static org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations.METADATA_ANNOTATIONS_KEY;
+import static org.mule.runtime.config.spring.util.SpringXMLUtils.MULE_DEFAULT_NAMESPACE;
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 
 import java.io.InputStream;
@@ -24,9 +30,13 @@ import java.util.List;
 
 import javax.xml.xpath.XPathExpressionException;
 
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
 import org.hamcrest.core.StringContains;
 import org.junit.Test;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
@@ -41,6 +51,8 @@ public class XmlConfigurationDocumentLoaderTestCase extends AbstractMuleTestCase
   private static final int LINE_NUMBER_ERROR = 6;
   private static final int COLUMN_NUMBER_ERROR = 12;
 
+  private static final String DOMAIN_NAMESPACE = "http://www.mulesoft.org/schema/mule/domain";
+
   @Test
   public void testWellformedXml() {
     final Document document = getDocument("mule-config.xml");
@@ -53,6 +65,28 @@ public class XmlConfigurationDocumentLoaderTestCase extends AbstractMuleTestCase
                is("service"));
   }
 
+  @Test
+  public void testMetadataAnnotations() {
+    final Document document = getDocument("mule-config.xml");
+    final Node flow = document.getDocumentElement().getChildNodes().item(1);
+
+    final XmlMetadataAnnotations metadata = (XmlMetadataAnnotations) flow.getUserData(METADATA_ANNOTATIONS_KEY);
+    assertThat(metadata.getLineNumber(), is(6));
+    assertThat(metadata.getElementString(), StringContains.containsString("<flow name=\"service\">"));
+    assertThat(metadata.getElementString(), StringContains.containsString("<spring-object bean=\"orange\"></spring-object>"));
+    assertThat(flow.getNamespaceURI(), is("http://www.mulesoft.org/schema/mule/core"));
+  }
+
+  @Test
+  public void testSchemaDefaultedAttributesNotSpecified() {
+    final Document document = getDocument("mule-config.xml");
+    final Element flow = (Element) document.getDocumentElement().getChildNodes().item(1);
+
+    assertThat(flow.getAttributeNode("name").getSpecified(), is(true));
+    assertThat(flow.getAttribute("initialState"), is("started"));
+    assertThat(flow.getAttributeNode("initialState").getSpecified(), is(false));
+  }
+
   @Test
   public void testMalformedXmlDefaultConstructor() throws XPathExpressionException {
     try {
@@ -88,6 +122,35 @@ public class XmlConfigurationDocumentLoaderTestCase extends AbstractMuleTestCase
     assertThat(xmlGathererErrorHandlerTest.errors.get(0).getLineNumber(), is(LINE_NUMBER_ERROR));
   }
 
+  @Test
+  public void grammarsAreCachedInTheirPool() {
+    final XmlConfigurationDocumentLoader xmlConfigurationDocumentLoader = schemaValidatingDocumentLoader();
+    getDocument("mule-config.xml", xmlConfigurationDocumentLoader);
+    getDocument("mule-domain-config.xml", xmlConfigurationDocumentLoader);
+
+    final XmlSchemaGrammarPool grammarPool = xmlConfigurationDocumentLoader.getDocumentLoader().getGrammarPool();
+    final Grammar coreGrammar = grammarPool.retrieveGrammar(schemaFor(MULE_DEFAULT_NAMESPACE));
+    final Grammar domainGrammar = grammarPool.retrieveGrammar(schemaFor(DOMAIN_NAMESPACE));
+    assertThat(coreGrammar, is(notNullValue()));
+    assertThat(domainGrammar, is(notNullValue()));
+
+    // Loading again through the same loader reuses the compiled grammars
+    getDocument("mule-domain-config.xml", xmlConfigurationDocumentLoader);
+    assertThat(grammarPool.retrieveGrammar(schemaFor(MULE_DEFAULT_NAMESPACE)), sameInstance(coreGrammar));
+    assertThat(grammarPool.retrieveGrammar(schemaFor(DOMAIN_NAMESPACE)), sameInstance(domainGrammar));
+
+    // The runtime's own namespaces are shared with other loaders, any other one is not
+    final XmlSchemaGrammarPool otherGrammarPool = schemaValidatingDocumentLoader().getDocumentLoader().getGrammarPool();
+    assertThat(otherGrammarPool.retrieveGrammar(schemaFor(MULE_DEFAULT_NAMESPACE)), sameInstance(coreGrammar));
+    assertThat(otherGrammarPool.retrieveGrammar(schemaFor(DOMAIN_NAMESPACE)), is(nullValue()));
+  }
+
+  private XMLGrammarDescription schemaFor(String namespace) {
+    final XSDDescription description = new XSDDescription();
+    description.setNamespace(namespace);
+    return description;
+  }
+
   private Document getDocument(String filename) {
     final XmlConfigurationDocumentLoader xmlConfigurationDocumentLoader = schemaValidatingDocumentLoader();
     return getDocument(filename, xmlConfigurationDocumentLoader);
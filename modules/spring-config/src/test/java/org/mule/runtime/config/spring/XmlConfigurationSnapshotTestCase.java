@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.write;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mule.runtime.config.spring.XmlConfigurationDocumentLoader.schemaValidatingDocumentLoader;
+import static org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations.METADATA_ANNOTATIONS_KEY;
+import org.mule.runtime.config.spring.parsers.XmlMetadataAnnotations;
+import org.mule.runtime.core.util.IOUtils;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+@SmallTest
+public class XmlConfigurationSnapshotTestCase extends AbstractMuleTestCase {
+
+  private static final String CONFIG_FILE = "mule-config.xml";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private byte[] content;
+  private String key;
+  private File snapshotFile;
+
+  @Before
+  public void before() throws Exception {
+    try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONFIG_FILE)) {
+      content = IOUtils.toByteArray(inputStream);
+    }
+    key = computeKey(content);
+    snapshotFile = new File(temporaryFolder.getRoot(), "snapshot.bin");
+  }
+
+  @Test
+  public void restoresDocuments() {
+    Document original = schemaValidatingDocumentLoader().loadDocument(CONFIG_FILE, new ByteArrayInputStream(content));
+    XmlConfigurationSnapshot.write(snapshotFile, key, singletonList(original));
+
+    Optional<List<Document>> restored = XmlConfigurationSnapshot.read(snapshotFile, key);
+    assertThat(restored.isPresent(), is(true));
+    assertThat(restored.get().size(), is(1));
+
+    Element originalFlow = (Element) original.getDocumentElement().getChildNodes().item(1);
+    Element restoredFlow = (Element) restored.get().get(0).getDocumentElement().getChildNodes().item(1);
+
+    assertThat(restoredFlow.isEqualNode(originalFlow), is(true));
+    assertThat(restoredFlow.getNamespaceURI(), is(originalFlow.getNamespaceURI()));
+    assertThat(restoredFlow.getAttributeNode("initialState").getSpecified(), is(false));
+    assertThat(restoredFlow.getAttributeNode("name").getSpecified(), is(true));
+
+    XmlMetadataAnnotations originalMetadata = (XmlMetadataAnnotations) originalFlow.getUserData(METADATA_ANNOTATIONS_KEY);
+    XmlMetadataAnnotations restoredMetadata = (XmlMetadataAnnotations) restoredFlow.getUserData(METADATA_ANNOTATIONS_KEY);
+    assertThat(restoredMetadata.getLineNumber(), is(originalMetadata.getLineNumber()));
+    assertThat(restoredMetadata.getElementString(), is(originalMetadata.getElementString()));
+  }
+
+  @Test
+  public void ignoresSnapshotForOtherKey() {
+    Document original = schemaValidatingDocumentLoader().loadDocument(CONFIG_FILE, new ByteArrayInputStream(content));
+    XmlConfigurationSnapshot.write(snapshotFile, key, singletonList(original));
+
+    String otherKey = computeKey((new String(content, UTF_8) + "<!-- changed -->").getBytes(UTF_8));
+    assertThat(otherKey, is(not(key)));
+    assertThat(XmlConfigurationSnapshot.read(snapshotFile, otherKey).isPresent(), is(false));
+  }
+
+  @Test
+  public void ignoresMissingSnapshot() {
+    assertThat(XmlConfigurationSnapshot.read(snapshotFile, key).isPresent(), is(false));
+  }
+
+  @Test
+  public void keyChangesWithPluginDirectoryContents() throws Exception {
+    File classesFolder = temporaryFolder.newFolder("plugin classes");
+    File resource = new File(new File(classesFolder, "META-INF"), "resource.txt");
+    resource.getParentFile().mkdirs();
+    write(resource.toPath(), "original".getBytes(UTF_8));
+
+    try (URLClassLoader pluginClassLoader = new URLClassLoader(new URL[] {classesFolder.toURI().toURL()}, null)) {
+      String originalKey = computeKey(pluginClassLoader);
+      assertThat(computeKey(pluginClassLoader), is(originalKey));
+
+      write(resource.toPath(), "modified content".getBytes(UTF_8));
+      assertThat(computeKey(pluginClassLoader), is(not(originalKey)));
+    }
+  }
+
+  private String computeKey(ClassLoader pluginClassLoader) {
+    return XmlConfigurationSnapshot.computeKey(MuleArtifactContext.class, singletonMap(CONFIG_FILE, content), emptySet(),
+                                               singletonList(pluginClassLoader));
+  }
+
+  private String computeKey(byte[] content) {
+    return XmlConfigurationSnapshot.computeKey(MuleArtifactContext.class, singletonMap(CONFIG_FILE, content), emptySet(),
+                                               emptyList());
+  }
+}
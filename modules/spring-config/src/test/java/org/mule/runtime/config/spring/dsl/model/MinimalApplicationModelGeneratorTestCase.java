@@ -9,6 +9,7 @@ package org.mule.runtime.config.spring.dsl.model;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
@@ -35,6 +36,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -48,6 +50,17 @@ public class MinimalApplicationModelGeneratorTestCase extends AbstractMuleTestCa
       new XmlApplicationParser(mockServiceRegistry,
                                singletonList(MinimalApplicationModelGeneratorTestCase.class.getClassLoader()));
   private final XmlConfigurationDocumentLoader documentLoader = schemaValidatingDocumentLoader();
+  private ComponentBuildingDefinitionRegistry componentBuildingDefinitionRegistry;
+
+  @Before
+  public void before() {
+    componentBuildingDefinitionRegistry = new ComponentBuildingDefinitionRegistry();
+    CoreComponentBuildingDefinitionProvider coreComponentBuildingDefinitionProvider =
+        new CoreComponentBuildingDefinitionProvider();
+    coreComponentBuildingDefinitionProvider.init();
+    coreComponentBuildingDefinitionProvider.getComponentBuildingDefinitions()
+        .stream().forEach(componentBuildingDefinitionRegistry::register);
+  }
 
   @Test
   public void noElements() throws Exception {
@@ -149,6 +162,20 @@ public class MinimalApplicationModelGeneratorTestCase extends AbstractMuleTestCa
                                                       hasProperty("nameAttribute", equalTo("flowA"))));
   }
 
+  @Test
+  public void resolveRequiredGlobalComponents() throws Exception {
+    ApplicationModel applicationModel = createApplicationModelForConfig("resolve-dependencies-config.xml");
+    MinimalApplicationModelGenerator generator =
+        new MinimalApplicationModelGenerator(applicationModel, componentBuildingDefinitionRegistry);
+
+    assertThat(generator.resolveRequiredGlobalComponents(singletonList(applicationModel.findNamedComponent("flowTwo").get())),
+               containsInAnyOrder("flowOne"));
+    assertThat(generator
+        .resolveRequiredGlobalComponents(singletonList(applicationModel.findNamedComponent("flowWithSource").get())),
+               is(empty()));
+    assertThat(applicationModel.findNamedComponent("flowOne").get().isEnabled(), is(true));
+  }
+
   @Test
   public void dependencyBetweenElementsReferencingMp() throws Exception {
     MinimalApplicationModelGenerator generator = createGeneratorForConfig("element-dependency-config.xml");
@@ -193,6 +220,11 @@ public class MinimalApplicationModelGeneratorTestCase extends AbstractMuleTestCa
   }
 
   private MinimalApplicationModelGenerator createGeneratorForConfig(String... configFileName) throws Exception {
+    return new MinimalApplicationModelGenerator(createApplicationModelForConfig(configFileName),
+                                                componentBuildingDefinitionRegistry);
+  }
+
+  private ApplicationModel createApplicationModelForConfig(String... configFileName) throws Exception {
     List<ConfigFile> configFiles = new ArrayList<>();
     for (String configFile : configFileName) {
       Optional<ConfigLine> configLine = xmlApplicationParser.parse(documentLoader
@@ -200,19 +232,12 @@ public class MinimalApplicationModelGeneratorTestCase extends AbstractMuleTestCa
           .getDocumentElement());
       configFiles.add(new ConfigFile(configFile, Arrays.asList(configLine.get())));
     }
-    ComponentBuildingDefinitionRegistry componentBuildingDefinitionRegistry = new ComponentBuildingDefinitionRegistry();
-    CoreComponentBuildingDefinitionProvider coreComponentBuildingDefinitionProvider =
-        new CoreComponentBuildingDefinitionProvider();
-    coreComponentBuildingDefinitionProvider.init();
-    coreComponentBuildingDefinitionProvider.getComponentBuildingDefinitions()
-        .stream().forEach(componentBuildingDefinitionRegistry::register);
 
     final ArtifactConfig.Builder builder = new ArtifactConfig.Builder();
     configFiles.stream().forEach(configFile -> builder.addConfigFile(configFile));
     final ArtifactConfig artifactConfig = builder.build();
-    return new MinimalApplicationModelGenerator(new ApplicationModel(artifactConfig, new ArtifactDeclaration(), emptySet(),
-                                                                     Optional.of(componentBuildingDefinitionRegistry)),
-                                                componentBuildingDefinitionRegistry);
+    return new ApplicationModel(artifactConfig, new ArtifactDeclaration(), emptySet(),
+                                Optional.of(componentBuildingDefinitionRegistry));
   }
 
 }
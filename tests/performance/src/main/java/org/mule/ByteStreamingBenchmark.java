@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.internal.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.InMemoryCursorStreamProvider;
+import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.streaming.bytes.InMemoryCursorStreamConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+public class ByteStreamingBenchmark extends AbstractBenchmark {
+
+  private static final int READ_CHUNK_SIZE = KB.toBytes(32);
+
+  @Param({"1048576", "16777216", "67108864"})
+  private int dataSize;
+
+  @Param({"262144"})
+  private int bufferSize;
+
+  private byte[] data;
+  private InMemoryCursorStreamConfig inMemoryConfig;
+  private ByteBufferManager bufferManager;
+
+  @Setup
+  public void setup() {
+    data = new byte[dataSize];
+    new Random().nextBytes(data);
+
+    inMemoryConfig = new InMemoryCursorStreamConfig(new DataSize(bufferSize, BYTE),
+                                                    new DataSize(bufferSize, BYTE),
+                                                    new DataSize(0, BYTE));
+    bufferManager = new PoolingByteBufferManager();
+  }
+
+  @TearDown
+  public void teardown() {
+    ((PoolingByteBufferManager) bufferManager).dispose();
+  }
+
+  @Benchmark
+  public long inMemoryReadFully() throws IOException {
+    CursorStreamProvider provider = new InMemoryCursorStreamProvider(new ByteArrayInputStream(data), inMemoryConfig,
+                                                                     bufferManager);
+    try {
+      return consume(provider);
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  /**
+   * Baseline for {@link #inMemoryReadFully()}: buffers the data the way the in memory buffer used to, in a single
+   * {@link ByteBuffer} which is replaced by a copy {@code bufferSize} bytes bigger each time it fills up.
+   */
+  @Benchmark
+  public long copyOnGrowReadFully() throws IOException {
+    ByteBuffer buffer = bufferManager.allocate(bufferSize);
+    try {
+      InputStream stream = new ByteArrayInputStream(data);
+      byte[] chunk = new byte[READ_CHUNK_SIZE];
+      int read;
+      while ((read = stream.read(chunk, 0, min(READ_CHUNK_SIZE, bufferSize))) != -1) {
+        if (buffer.remaining() < read) {
+          ByteBuffer expanded = bufferManager.allocate(buffer.limit() + bufferSize);
+          buffer.flip();
+          expanded.put(buffer);
+          bufferManager.deallocate(buffer);
+          buffer = expanded;
+        }
+        buffer.put(chunk, 0, read);
+      }
+
+      buffer.flip();
+      long total = 0;
+      while (buffer.hasRemaining()) {
+        int length = min(READ_CHUNK_SIZE, buffer.remaining());
+        buffer.get(chunk, 0, length);
+        total += length;
+      }
+      return total;
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+
+  @Benchmark
+  public long inMemoryReadTwice() throws IOException {
+    CursorStreamProvider provider = new InMemoryCursorStreamProvider(new ByteArrayInputStream(data), inMemoryConfig,
+                                                                     bufferManager);
+    try {
+      return consume(provider) + consume(provider);
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  private long consume(CursorStreamProvider provider) throws IOException {
+    byte[] chunk = new byte[READ_CHUNK_SIZE];
+    long total = 0;
+    try (CursorStream cursor = provider.openCursor()) {
+      int read;
+      while ((read = cursor.read(chunk, 0, READ_CHUNK_SIZE)) != -1) {
+        total += read;
+      }
+    }
+
+    return total;
+  }
+}
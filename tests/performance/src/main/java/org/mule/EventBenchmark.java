@@ -13,6 +13,7 @@ import org.mule.runtime.api.message.Message;
 import org.mule.runtime.core.DefaultEventContext;
 import org.mule.runtime.core.api.Event;
 import org.mule.runtime.core.api.Event.Builder;
+import org.mule.runtime.core.api.EventContext;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.construct.Flow;
 import org.mule.runtime.core.api.scheduler.SchedulerService;
@@ -61,6 +62,22 @@ public class EventBenchmark extends AbstractBenchmark {
     return Event.builder(DefaultEventContext.create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD)).build();
   }
 
+  @Benchmark
+  public Event createAndCompleteEvent() {
+    Event event = Event.builder(DefaultEventContext.create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD)).build();
+    event.getContext().success(event);
+    return event;
+  }
+
+  @Benchmark
+  public Event createAndCompleteEventWithChild() {
+    Event event = Event.builder(DefaultEventContext.create(flow, CONNECTOR_LOCATION)).message(of(PAYLOAD)).build();
+    EventContext child = DefaultEventContext.child(event.getContext());
+    child.success(event);
+    event.getContext().success(event);
+    return event;
+  }
+
   @Benchmark
   public Event copyEvent() {
     return Event.builder(event).build();
@@ -119,6 +136,15 @@ public class EventBenchmark extends AbstractBenchmark {
     return Event.builder(eventWith100VariablesProperties).addVariable(KEY, VALUE).build();
   }
 
+  @Benchmark
+  public Event addEventVariablePerProcessorEventWith50VariablesProperties() {
+    Event result = eventWith50VariablesProperties;
+    for (int i = 0; i < 10; i++) {
+      result = Event.builder(result).addVariable(KEY + i, VALUE).build();
+    }
+    return result;
+  }
+
 
   @Benchmark
   public Event copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.nio.file.Files.copy;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import org.mule.runtime.container.internal.MuleClassLoaderLookupPolicy;
+import org.mule.runtime.deployment.model.api.application.ApplicationDescriptor;
+import org.mule.runtime.module.artifact.classloader.RegionClassLoader;
+import org.mule.runtime.module.launcher.log4j2.MuleLog4jContextFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures logging through a logger obtained from the container context, as static loggers in shared libraries do, while the
+ * context class loader of each thread belongs to a different application. Events go through an async logger to a null appender,
+ * so the results reflect the dispatching and the event hand off rather than the appender.
+ */
+public class LoggingBenchmark extends AbstractBenchmark {
+
+  private static final String LOGGER_NAME = LoggingBenchmark.class.getName();
+  private static final String LOG_CONFIG = "log4j2-benchmark.xml";
+
+  @Param({"4"})
+  private int applications;
+
+  private File logConfigFile;
+  private MuleLog4jContextFactory contextFactory;
+  private RegionClassLoader[] applicationClassLoaders;
+  private Logger logger;
+  private final AtomicInteger nextApplication = new AtomicInteger();
+
+  @Setup
+  public void setup() throws IOException {
+    logConfigFile = createTempFile("log4j2", ".xml").toFile();
+    try (InputStream config = LoggingBenchmark.class.getClassLoader().getResourceAsStream(LOG_CONFIG)) {
+      copy(config, logConfigFile.toPath(), REPLACE_EXISTING);
+    }
+
+    contextFactory = new MuleLog4jContextFactory();
+    applicationClassLoaders = new RegionClassLoader[applications];
+    for (int i = 0; i < applications; ++i) {
+      ApplicationDescriptor descriptor = new ApplicationDescriptor("app" + i);
+      descriptor.setLogConfigFile(logConfigFile);
+      applicationClassLoaders[i] =
+          new RegionClassLoader(descriptor.getName(), descriptor, LoggingBenchmark.class.getClassLoader(),
+                                new MuleClassLoaderLookupPolicy(emptyMap(), emptySet()));
+    }
+
+    logger = contextFactory.getContext(LoggingBenchmark.class.getName(), LoggingBenchmark.class.getClassLoader(), null, false)
+        .getLogger(LOGGER_NAME);
+  }
+
+  @TearDown
+  public void teardown() {
+    contextFactory.dispose();
+    for (RegionClassLoader applicationClassLoader : applicationClassLoaders) {
+      applicationClassLoader.dispose();
+    }
+    logConfigFile.delete();
+  }
+
+  @State(Scope.Thread)
+  public static class ApplicationThread {
+
+    private ClassLoader originalClassLoader;
+
+    @Setup
+    public void setup(LoggingBenchmark benchmark) {
+      originalClassLoader = Thread.currentThread().getContextClassLoader();
+      int application = benchmark.nextApplication.getAndIncrement() % benchmark.applications;
+      Thread.currentThread().setContextClassLoader(benchmark.applicationClassLoaders[application]);
+    }
+
+    @TearDown
+    public void teardown() {
+      Thread.currentThread().setContextClassLoader(originalClassLoader);
+    }
+  }
+
+  @Benchmark
+  public void log(ApplicationThread applicationThread) {
+    logger.info("Processed event {} of {}", KEY, VALUE);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void logFromMultipleApplications(ApplicationThread applicationThread) {
+    logger.info("Processed event {} of {}", KEY, VALUE);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean disabledLevelFromMultipleApplications(ApplicationThread applicationThread) {
+    logger.debug("Processed event {} of {}", KEY, VALUE);
+    return logger.isDebugEnabled();
+  }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import org.mule.runtime.module.extension.internal.runtime.execution.MethodHandleInvoker;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Compares invoking an operation method through reflection, as done before {@link MethodHandleInvoker} existed, against the
+ * {@link MethodHandleInvoker} path.
+ */
+@OutputTimeUnit(NANOSECONDS)
+public class OperationInvocationBenchmark extends AbstractBenchmark {
+
+  private Operations operations;
+  private Method method;
+  private MethodHandleInvoker invoker;
+  private Object[] args;
+
+  @Setup
+  public void setup() throws Exception {
+    operations = new Operations();
+    method = Operations.class.getMethod("echo", String.class, int.class);
+    invoker = new MethodHandleInvoker(method, operations);
+    args = new Object[] {VALUE, 1};
+  }
+
+  @Benchmark
+  public Object reflective() {
+    return invokeMethod(method, operations, args);
+  }
+
+  @Benchmark
+  public Object methodHandle() {
+    return invoker.invoke(args);
+  }
+
+  public static class Operations {
+
+    public String echo(String value, int times) {
+      return times == 1 ? value : null;
+    }
+  }
+}
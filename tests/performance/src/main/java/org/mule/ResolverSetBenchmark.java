@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.Event;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.scheduler.SchedulerService;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ExpressionValueResolver;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
+import org.mule.runtime.module.extension.internal.runtime.resolver.StaticLiteralValueResolver;
+import org.mule.runtime.module.extension.internal.runtime.resolver.StaticValueResolver;
+import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+@OutputTimeUnit(NANOSECONDS)
+public class ResolverSetBenchmark extends AbstractBenchmark {
+
+  @Param({"0", "1", "4"})
+  private int expressionParameters;
+
+  @Param({"8"})
+  private int staticParameters;
+
+  private MuleContext muleContext;
+  private ResolverSet resolverSet;
+  private ValueResolvingContext resolvingContext;
+
+  @Setup
+  public void setup() throws MuleException {
+    muleContext = createMuleContextWithServices();
+    Event event = createEvent(createFlow(muleContext));
+
+    resolverSet = new ResolverSet(muleContext);
+    for (int i = 0; i < staticParameters; i++) {
+      resolverSet.add("static" + i, i % 2 == 0 ? new StaticValueResolver<>(VALUE) : new StaticLiteralValueResolver<>(VALUE,
+                                                                                                                 String.class));
+    }
+    for (int i = 0; i < expressionParameters; i++) {
+      resolverSet.add("expression" + i, new ExpressionValueResolver<>("#[mel:payload]"));
+    }
+    resolverSet.initialise();
+    resolvingContext = from(event);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    stopIfNeeded(muleContext.getRegistry().lookupObject(SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public ResolverSetResult resolve() throws MuleException {
+    return resolverSet.resolve(resolvingContext);
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule;
+
+import static org.mule.runtime.core.util.journal.queue.LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.util.FileUtils;
+import org.mule.runtime.core.util.journal.TransactionJournal;
+import org.mule.runtime.core.util.journal.queue.LocalQueueTxJournalEntry;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+@Threads(16)
+public class TransactionJournalBenchmark extends AbstractBenchmark {
+
+  private static final String QUEUE_NAME = "queue";
+  private static final byte ADD_OPERATION = 5;
+  private static final byte COMMIT_OPERATION = 1;
+
+  @Param({"false", "true"})
+  private boolean groupCommit;
+
+  private MuleContext muleContext;
+  private File journalDirectory;
+  private TransactionJournal<Integer, LocalQueueTxJournalEntry> journal;
+  private final AtomicInteger txIds = new AtomicInteger();
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContext();
+    journalDirectory = Files.createTempDirectory("journal").toFile();
+    journal = new TransactionJournal<>(journalDirectory.getAbsolutePath(),
+                                       entry -> ((LocalQueueTxJournalEntry) entry).isCommit(),
+                                       createLocalTxQueueJournalEntrySerializer(muleContext), null, groupCommit);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    journal.close();
+    FileUtils.deleteTree(journalDirectory);
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  public int logAndCommit() {
+    int txId = txIds.incrementAndGet();
+    journal.logUpdateOperation(new LocalQueueTxJournalEntry(txId, ADD_OPERATION, QUEUE_NAME, PAYLOAD));
+    journal.logCheckpointOperation(new LocalQueueTxJournalEntry(txId, COMMIT_OPERATION));
+    return txId;
+  }
+
+}
@@ -10,6 +10,7 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.core.util.UUID;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
 
 public class UUIDBenchmark extends AbstractBenchmark {
 
@@ -18,4 +19,21 @@ public class UUIDBenchmark extends AbstractBenchmark {
     return UUID.getUUID();
   }
 
+  @Benchmark
+  @Threads(8)
+  public String UUIDMultiThreaded() throws MuleException {
+    return UUID.getUUID();
+  }
+
+  @Benchmark
+  public String eaioUUID() {
+    return new com.eaio.uuid.UUID().toString();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String eaioUUIDMultiThreaded() {
+    return new com.eaio.uuid.UUID().toString();
+  }
+
 }